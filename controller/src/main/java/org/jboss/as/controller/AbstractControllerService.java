@@ -68,6 +68,7 @@ import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.extension.MutableRootResourceRegistrationProvider;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.notification.NotificationHandlerRegistry;
+import org.jboss.as.controller.notification.NotificationDispatchMetrics;
 import org.jboss.as.controller.notification.NotificationSupport;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
@@ -400,6 +401,11 @@ public abstract class AbstractControllerService implements Service<ModelControll
             final ServiceBuilder<?> notifyRegistrySB = target.addService(notifyRegistrySN);
             notifyRegistrySB.setInstance(new SimpleService(notifyRegistrySB.provides(notifyRegistrySN), controller.getNotificationRegistry()));
             notifyRegistrySB.install();
+            if (notificationSupport instanceof NotificationDispatchMetrics) {
+                final ServiceBuilder<?> notifyMetricsSB = target.addService(NotificationDispatchMetrics.SERVICE_NAME);
+                notifyMetricsSB.setInstance(new SimpleService(notifyMetricsSB.provides(NotificationDispatchMetrics.SERVICE_NAME), notificationSupport));
+                notifyMetricsSB.install();
+            }
         }
         capabilityRegistry.publish();  // These are visible immediately; no waiting for finishBoot
                                        // We publish even if we didn't register anything in case parent services did
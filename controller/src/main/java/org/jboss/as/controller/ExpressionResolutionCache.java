@@ -0,0 +1,255 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Process-wide cache of the individual {@code ${...}} expressions seen by {@link ExpressionResolverImpl}.
+ * <p>
+ * Each distinct expression string is parsed once into its property names and default value, so repeated
+ * resolution of the same expression (as happens for every attribute read on every boot, reload and
+ * {@code read-resource(resolve-expressions=true)}) only needs the property lookups. System property values
+ * themselves are never cached, as they can be changed outside the management layer.
+ * <p>
+ * The cache also remembers which expressions a {@link ExpressionResolverImpl#resolvePluggableExpression(org.jboss.dmr.ModelNode) pluggable resolver}
+ * declined to resolve, for resolvers that declare that decision stable. Those entries are tied to a generation
+ * counter that is advanced by {@link #invalidate()}, which management handlers that change system properties or
+ * the configured vault call so that a changed setup is never answered from stale data.
+ * <p>
+ * The maximum number of cached expressions is read from the {@code jboss.as.management.expression-cache.size}
+ * system property, default {@code 1024}; {@code 0} disables caching. A value that is not an integer is logged and
+ * the default is used instead.
+ */
+public final class ExpressionResolutionCache {
+
+    private static final String MAX_SIZE_PROPERTY = "jboss.as.management.expression-cache.size";
+    private static final int DEFAULT_MAX_SIZE = 1024;
+    private static final int MAX_SIZE = getMaxSize();
+
+    private static final ConcurrentMap<String, Expression> CACHE = new ConcurrentHashMap<>();
+    private static final AtomicLong GENERATION = new AtomicLong();
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    private ExpressionResolutionCache() {
+    }
+
+    private static int getMaxSize() {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(MAX_SIZE_PROPERTY, null);
+        if (value == null) {
+            return DEFAULT_MAX_SIZE;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            ControllerLogger.ROOT_LOGGER.invalidSystemPropertyValue(value, MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE);
+            return DEFAULT_MAX_SIZE;
+        }
+    }
+
+    /**
+     * Discards anything cached about how expressions resolve. Call after a change that may alter the
+     * outcome of resolving an expression, e.g. a system property or vault update.
+     */
+    public static void invalidate() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Gets the number of expression lookups that were answered from the cache.
+     *
+     * @return the hit count
+     */
+    public static long getHitCount() {
+        return HITS.sum();
+    }
+
+    /**
+     * Gets the number of expression lookups that required parsing the expression.
+     *
+     * @return the miss count
+     */
+    public static long getMissCount() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Gets the fraction of expression lookups answered from the cache.
+     *
+     * @return the hit rate, between {@code 0} and {@code 1}
+     */
+    public static double getHitRate() {
+        long hits = HITS.sum();
+        long total = hits + MISSES.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Gets the number of distinct expressions currently cached.
+     *
+     * @return the number of cached expressions
+     */
+    public static int size() {
+        return CACHE.size();
+    }
+
+    /** Drops all cached expressions and resets the statistics. */
+    static void clear() {
+        CACHE.clear();
+        HITS.reset();
+        MISSES.reset();
+        invalidate();
+    }
+
+    /**
+     * Gets the parsed form of the given expression.
+     *
+     * @param expression a single expression of the form {@code ${...}}, with any nested expressions already resolved
+     * @return the parsed expression, or {@code null} if caching is disabled
+     */
+    static Expression get(String expression) {
+        if (MAX_SIZE <= 0) {
+            return null;
+        }
+        Expression result = CACHE.get(expression);
+        if (result != null) {
+            HITS.increment();
+            return result;
+        }
+        MISSES.increment();
+        result = Expression.parse(expression);
+        if (CACHE.size() >= MAX_SIZE) {
+            // Expressions come from the configuration so the set is normally small and stable; if it is not,
+            // starting over is cheaper than tracking recency on every hit
+            CACHE.clear();
+        }
+        Expression existing = CACHE.putIfAbsent(expression, result);
+        return existing == null ? result : existing;
+    }
+
+    /** A single parsed {@code ${name1,name2:default}} expression. */
+    static final class Expression {
+
+        private static final String[] NONE = new String[0];
+
+        /**
+         * Names that can be read directly from the system properties, or an empty array if the expression uses
+         * syntax that must be left to {@link org.jboss.dmr.ModelNode#resolve()}.
+         */
+        private final String[] propertyNames;
+        private volatile long declinedGeneration = -1;
+
+        private Expression(String[] propertyNames) {
+            this.propertyNames = propertyNames;
+        }
+
+        private static Expression parse(String expression) {
+            int end = expression.length() - 1;
+            int nameEnd = expression.indexOf(':', 2);
+            if (nameEnd < 0 || nameEnd > end) {
+                nameEnd = end;
+            }
+            String names = expression.substring(2, nameEnd);
+            if (names.isEmpty()) {
+                return new Expression(NONE);
+            }
+            String[] split = names.split(",", -1);
+            for (String name : split) {
+                if (!isPlainPropertyName(name)) {
+                    return new Expression(NONE);
+                }
+            }
+            return new Expression(split);
+        }
+
+        /**
+         * Whether DMR would look {@code name} up in the system properties only. Anything else (blank names,
+         * surrounding whitespace, the {@code /} and {@code :} shortcuts, {@code env.} names, leftover
+         * expression syntax) takes the regular path.
+         */
+        private static boolean isPlainPropertyName(String name) {
+            if (name.isEmpty() || name.startsWith("env.")) {
+                return false;
+            }
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (!(Character.isLetterOrDigit(c) || c == '.' || c == '-' || c == '_')) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Looks the expression's names up in the system properties.
+         *
+         * @return the value of the first name that is set, or {@code null} if none is, the expression
+         *         cannot be resolved this way, or reading a property is not permitted. Callers fall back
+         *         to the regular resolution (and its default value and error handling) for {@code null}.
+         */
+        String resolveFromSystemProperties() {
+            try {
+                for (String name : propertyNames) {
+                    // Deliberately not privileged; the caller needs the same permission as for the regular path
+                    String value = System.getProperty(name);
+                    if (value != null) {
+                        return value;
+                    }
+                }
+            } catch (SecurityException e) {
+                // let the regular path report it
+            }
+            return null;
+        }
+
+        /**
+         * Whether a pluggable resolver declined this expression since the last {@link #invalidate()}.
+         *
+         * @return {@code true} if the pluggable resolver can be skipped
+         */
+        boolean isPluggableResolutionDeclined() {
+            return declinedGeneration == GENERATION.get();
+        }
+
+        /**
+         * Records that the pluggable resolver declined this expression. Must be called with the generation
+         * read before the resolver was invoked, so a concurrent {@link #invalidate()} is not lost.
+         *
+         * @param generation the value of {@link #currentGeneration()} before the resolver ran
+         */
+        void pluggableResolutionDeclined(long generation) {
+            declinedGeneration = generation;
+        }
+    }
+
+    static long currentGeneration() {
+        return GENERATION.get();
+    }
+}
@@ -335,26 +335,55 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         // Default result is no change from input
         String result = unresolvedString;
 
-        ModelNode resolveNode = new ModelNode(new ValueExpression(unresolvedString));
-
-        // Try plug-in resolution; i.e. vault
-        resolvePluggableExpression(resolveNode);
-
-        if (resolveNode.getType() == ModelType.EXPRESSION ) {
-            // resolvePluggableExpression did nothing. Try standard resolution
-            String resolvedString = resolveStandardExpression(resolveNode);
-            if (!unresolvedString.equals(resolvedString)) {
-                // resolveStandardExpression made progress
-                result = resolvedString;
-            } // else there is nothing more we can do with this string
-        } else {
-            // resolvePluggableExpression made progress
-            result = resolveNode.asString();
+        ExpressionResolutionCache.Expression cached = ExpressionResolutionCache.get(unresolvedString);
+        boolean declineCacheable = cached != null && isPluggableResolutionCacheable();
+        ModelNode resolveNode = null;
+        if (!declineCacheable || !cached.isPluggableResolutionDeclined()) {
+            long generation = ExpressionResolutionCache.currentGeneration();
+            resolveNode = new ModelNode(new ValueExpression(unresolvedString));
+
+            // Try plug-in resolution; i.e. vault
+            resolvePluggableExpression(resolveNode);
+
+            if (resolveNode.getType() != ModelType.EXPRESSION) {
+                // resolvePluggableExpression made progress
+                return resolveNode.asString();
+            } else if (declineCacheable) {
+                cached.pluggableResolutionDeclined(generation);
+            }
+        }
+
+        // resolvePluggableExpression did nothing. Try standard resolution
+        String resolvedString = cached == null ? null : cached.resolveFromSystemProperties();
+        if (resolvedString == null) {
+            if (resolveNode == null) {
+                resolveNode = new ModelNode(new ValueExpression(unresolvedString));
+            }
+            resolvedString = resolveStandardExpression(resolveNode);
         }
+        if (!unresolvedString.equals(resolvedString)) {
+            // standard resolution made progress
+            result = resolvedString;
+        } // else there is nothing more we can do with this string
 
         return result;
     }
 
+    /**
+     * Gets whether a decision by {@link #resolvePluggableExpression(ModelNode)} to leave a given expression
+     * unresolved remains valid until {@link ExpressionResolutionCache#invalidate()} is called, allowing it
+     * to be skipped for expressions it has already declined.
+     * <p>
+     * The default implementation returns {@code true} only if this is an instance of this class itself,
+     * which has no pluggable resolution.
+     * </p>
+     *
+     * @return {@code true} if declined expressions can be remembered
+     */
+    protected boolean isPluggableResolutionCacheable() {
+        return getClass() == ExpressionResolverImpl.class;
+    }
+
     /**
      * Perform a standard {@link org.jboss.dmr.ModelNode#resolve()} on the given {@code unresolved} node.
      * @param unresolved  the unresolved node, which should be of type {@link org.jboss.dmr.ModelType#EXPRESSION}
@@ -61,6 +61,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -69,6 +70,7 @@ import org.jboss.as.controller.access.Action;
 import org.jboss.as.controller.access.Action.ActionEffect;
 import org.jboss.as.controller.access.AuthorizationResult;
 import org.jboss.as.controller.access.AuthorizationResult.Decision;
+import org.jboss.as.controller.access.AuthorizationStatistics;
 import org.jboss.as.controller.access.Caller;
 import org.jboss.as.controller.access.Environment;
 import org.jboss.as.controller.access.ResourceAuthorization;
@@ -157,6 +159,9 @@ final class OperationContextImpl extends AbstractOperationContext {
     private Map<PathAddress, Object> restartedResources = Collections.emptyMap();
     private final ContextAttachments contextAttachments = new ContextAttachments();
     private final Map<OperationId, AuthorizationResponseImpl> authorizations = new ConcurrentHashMap<>();
+    /** Time spent in, and number of calls to, the authorizer on behalf of this operation */
+    private final LongAdder authorizationTime = new LongAdder();
+    private final LongAdder authorizationChecks = new LongAdder();
     private final Set<ContextServiceTarget> serviceTargets = Collections.synchronizedSet(new HashSet<>());
     private final Set<OperationContextServiceRegistry> serviceRegistries = Collections.synchronizedSet(new HashSet<>());
     private volatile BlockingTimeout blockingTimeout;
@@ -1353,7 +1358,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         Environment callEnvironment = getCallEnvironment();
         if (authResp.getResourceResult(ActionEffect.ADDRESS) == null) {
             Action action = authResp.standardAction.limitAction(ActionEffect.ADDRESS);
-            authResp.addResourceResult(ActionEffect.ADDRESS, modelController.getAuthorizer().authorize(getCaller(), callEnvironment, action, authResp.targetResource));
+            authResp.addResourceResult(ActionEffect.ADDRESS, timedAuthorize(getCaller(), callEnvironment, action, authResp.targetResource));
         }
 
         if (authResp.getResourceResult(ActionEffect.ADDRESS).getDecision() == Decision.PERMIT) {
@@ -1361,7 +1366,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                 AuthorizationResult effectResult = authResp.getResourceResult(requiredEffect);
                 if (effectResult == null) {
                     Action action = authResp.standardAction.limitAction(requiredEffect);
-                    effectResult = modelController.getAuthorizer().authorize(getCaller(), callEnvironment, action, authResp.targetResource);
+                    effectResult = timedAuthorize(getCaller(), callEnvironment, action, authResp.targetResource);
                     authResp.addResourceResult(requiredEffect, effectResult);
                 }
             }
@@ -1387,7 +1392,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                             if (targetAttribute == null) {
                                 targetAttribute = createTargetAttribute(authResp, attr, isDefaultResponse);
                             }
-                            authResult = modelController.getAuthorizer().authorize(getCaller(), callEnvironment, action, targetAttribute);
+                            authResult = timedAuthorize(getCaller(), callEnvironment, action, targetAttribute);
                             authResp.addAttributeResult(attr, actionEffect, authResult);
                         }
                     }
@@ -1434,10 +1439,40 @@ final class OperationContextImpl extends AbstractOperationContext {
                         done.done = true;
                     }
                 }
+                long checks = authorizationChecks.sum();
+                if (checks > 0 && ControllerLogger.ACCESS_LOGGER.isDebugEnabled()) {
+                    ControllerLogger.ACCESS_LOGGER.debugf("Operation %s at %s made %d authorization checks taking %d microseconds",
+                            operationName, operationAddress, checks, TimeUnit.NANOSECONDS.toMicros(authorizationTime.sum()));
+                }
             }
         }
     }
 
+    private AuthorizationResult timedAuthorize(Caller caller, Environment callEnvironment, Action action, TargetResource target) {
+        final long start = System.nanoTime();
+        try {
+            return modelController.getAuthorizer().authorize(caller, callEnvironment, action, target);
+        } finally {
+            authorizationChecked(start);
+        }
+    }
+
+    private AuthorizationResult timedAuthorize(Caller caller, Environment callEnvironment, Action action, TargetAttribute target) {
+        final long start = System.nanoTime();
+        try {
+            return modelController.getAuthorizer().authorize(caller, callEnvironment, action, target);
+        } finally {
+            authorizationChecked(start);
+        }
+    }
+
+    private void authorizationChecked(long start) {
+        final long time = System.nanoTime() - start;
+        authorizationTime.add(time);
+        authorizationChecks.increment();
+        AuthorizationStatistics.recordCheck(time);
+    }
+
     private TargetAttribute createTargetAttribute(AuthorizationResponseImpl authResp, String attributeName, boolean isDefaultResponse) {
         ModelNode model = authResp.targetResource.getResource().getModel();
         ModelNode currentValue;
@@ -1474,7 +1509,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                 operation.get(OPERATION_HEADERS).set(activeStep.operation.get(OPERATION_HEADERS));
                 Action targetAction = new Action(operation, operationEntry);
 
-                authResult = modelController.getAuthorizer().authorize(getCaller(), getCallEnvironment(), targetAction, authResp.targetResource);
+                authResult = timedAuthorize(getCaller(), getCallEnvironment(), targetAction, authResp.targetResource);
                 authResp.addOperationResult(operationName, authResult);
 
                 //When authorizing the 'add' operation, make sure that all the attributes are accessible
@@ -1784,7 +1819,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                 AuthorizationResult effectResult = authResp.getResourceResult(requiredEffect);
                 if (effectResult == null) {
                     Action action = authResp.standardAction.limitAction(requiredEffect);
-                    effectResult = modelController.getAuthorizer().authorize(getCaller(), getCallEnvironment(), action, authResp.targetResource);
+                    effectResult = timedAuthorize(getCaller(), getCallEnvironment(), action, authResp.targetResource);
                     authResp.addResourceResult(requiredEffect, effectResult);
                 }
                 if (effectResult.getDecision() == AuthorizationResult.Decision.DENY) {
@@ -1831,7 +1866,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                         AttributeAccess attributeAccess = authResp.targetResource.getResourceRegistration().getAttributeAccess(PathAddress.EMPTY_ADDRESS, attribute);
                         targetAttribute = new TargetAttribute(attribute, attributeAccess, currentValue, authResp.targetResource);
                     }
-                    authResult = modelController.getAuthorizer().authorize(getCaller(), getCallEnvironment(), action, targetAttribute);
+                    authResult = timedAuthorize(getCaller(), getCallEnvironment(), action, targetAttribute);
                     authResp.addAttributeResult(attribute, actionEffect, authResult);
                 }
                 if (authResult.getDecision() == AuthorizationResult.Decision.DENY) {
@@ -1875,7 +1910,7 @@ final class OperationContextImpl extends AbstractOperationContext {
 
 
         AuthorizationResponseImpl result = new AuthorizationResponseImpl(action, targetResource);
-        AuthorizationResult simple = modelController.getAuthorizer().authorize(caller, getCallEnvironment(), action, targetResource);
+        AuthorizationResult simple = timedAuthorize(caller, getCallEnvironment(), action, targetResource);
         if (simple.getDecision() == AuthorizationResult.Decision.PERMIT) {
             for (Action.ActionEffect actionEffect : action.getActionEffects()) {
                 result.addResourceResult(actionEffect, simple);
@@ -0,0 +1,343 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.wildfly.common.Assert;
+
+/**
+ * An {@link java.util.concurrent.ExecutorService} running each task on a new virtual thread, with at most
+ * {@code maxConcurrency} tasks running at the same time. Tasks submitted above that limit are handed off to the
+ * {@code handoffExecutor}, if any, or else queued and run by the threads of the completing tasks.
+ * <p>
+ * Virtual threads need a Java 21 or later runtime. On earlier runtimes, or if they cannot be created, the tasks run
+ * on threads created by the fallback {@code ThreadFactory} with the same concurrency limit; {@link #isVirtual()}
+ * reports which kind of thread is in use.
+ */
+public final class VirtualThreadExecutor extends AbstractExecutorService {
+
+    private final ThreadFactory threadFactory;
+    private final boolean virtual;
+    private final Executor handoffExecutor;
+    private volatile int maxConcurrency;
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final Set<Thread> runningThreads = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int largestConcurrency;
+    private volatile boolean shutdown;
+    private final Object terminationLock = new Object();
+    /** Run once the executor has terminated. Guarded by terminationLock; {@code null} once they ran */
+    private List<Runnable> terminationTasks = new ArrayList<>();
+
+    /**
+     * @param namePrefix the prefix of the names of the virtual threads
+     * @param fallbackThreadFactory the factory of the threads to use if virtual threads are not available
+     * @param maxConcurrency the maximum number of tasks running at the same time
+     * @param handoffExecutor the executor running the tasks submitted above the concurrency limit, or {@code null} to queue them
+     */
+    public VirtualThreadExecutor(String namePrefix, ThreadFactory fallbackThreadFactory, int maxConcurrency, Executor handoffExecutor) {
+        Assert.checkNotNullParam("fallbackThreadFactory", fallbackThreadFactory);
+        Assert.checkMinimumParameter("maxConcurrency", 1, maxConcurrency);
+        ThreadFactory virtualThreadFactory = createVirtualThreadFactory(namePrefix);
+        this.virtual = virtualThreadFactory != null;
+        this.threadFactory = virtual ? virtualThreadFactory : fallbackThreadFactory;
+        this.maxConcurrency = maxConcurrency;
+        this.handoffExecutor = handoffExecutor;
+    }
+
+    /**
+     * @return {@code true} if the runtime supports virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        return createVirtualThreadFactory("probe") != null;
+    }
+
+    private static ThreadFactory createVirtualThreadFactory(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Method name = builderType.getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, namePrefix == null ? "virtual-" : namePrefix + "-", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            ControllerLogger.ROOT_LOGGER.tracef("Virtual threads are not available: %s", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Assert.checkNotNullParam("task", task);
+        if (shutdown) {
+            rejected.increment();
+            throw new RejectedExecutionException();
+        }
+        submitted.increment();
+        if (tryAcquire()) {
+            start(task);
+        } else if (handoffExecutor != null) {
+            handoffExecutor.execute(task);
+        } else {
+            queue.add(task);
+            queueSize.incrementAndGet();
+            // a running task may have completed before the task was queued
+            Runnable next;
+            while (!queue.isEmpty() && tryAcquire()) {
+                if ((next = poll()) == null) {
+                    release();
+                } else {
+                    start(next);
+                }
+            }
+        }
+    }
+
+    private boolean tryAcquire() {
+        int current;
+        do {
+            current = running.get();
+            if (current >= maxConcurrency) {
+                return false;
+            }
+        } while (!running.compareAndSet(current, current + 1));
+        if (current + 1 > largestConcurrency) {
+            largestConcurrency = current + 1;
+        }
+        return true;
+    }
+
+    private void release() {
+        if (running.decrementAndGet() == 0 && shutdown) {
+            terminated();
+        }
+    }
+
+    private void terminated() {
+        final List<Runnable> tasks;
+        synchronized (terminationLock) {
+            terminationLock.notifyAll();
+            if (terminationTasks == null || !isTerminated()) {
+                return;
+            }
+            tasks = terminationTasks;
+            terminationTasks = null;
+        }
+        for (Runnable task : tasks) {
+            task.run();
+        }
+    }
+
+    /**
+     * Adds a task to run once the executor has been shut down and all its tasks have completed, without having
+     * to wait for it. The task runs right away if the executor has already terminated.
+     *
+     * @param task the task
+     */
+    public void addTerminationTask(Runnable task) {
+        Assert.checkNotNullParam("task", task);
+        synchronized (terminationLock) {
+            if (terminationTasks != null) {
+                terminationTasks.add(task);
+                task = null;
+            }
+        }
+        if (task != null) {
+            task.run();
+        } else if (isTerminated()) {
+            // terminated before the task was added
+            terminated();
+        }
+    }
+
+    private Runnable poll() {
+        Runnable task = queue.poll();
+        if (task != null) {
+            queueSize.decrementAndGet();
+        }
+        return task;
+    }
+
+    private void start(Runnable first) {
+        final Thread thread;
+        try {
+            thread = threadFactory.newThread(() -> runTasks(first));
+        } catch (RuntimeException | Error e) {
+            release();
+            throw e;
+        }
+        if (thread == null) {
+            release();
+            rejected.increment();
+            throw new RejectedExecutionException();
+        }
+        thread.start();
+    }
+
+    private void runTasks(Runnable first) {
+        final Thread thread = Thread.currentThread();
+        runningThreads.add(thread);
+        try {
+            Runnable task = first;
+            while (task != null) {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+                } finally {
+                    completed.increment();
+                }
+                // run the queued tasks while the concurrency limit allows this thread to continue
+                task = running.get() <= maxConcurrency ? poll() : null;
+                Thread.interrupted();
+            }
+        } finally {
+            runningThreads.remove(thread);
+            release();
+        }
+        // a task may have been queued after the last poll but before the permit was released
+        Runnable next;
+        while (!queue.isEmpty() && tryAcquire()) {
+            if ((next = poll()) == null) {
+                release();
+            } else {
+                start(next);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Changes the maximum number of tasks running at the same time. Running tasks are not affected.
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        Assert.checkMinimumParameter("maxConcurrency", 1, maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+        Runnable next;
+        while (!queue.isEmpty() && tryAcquire()) {
+            if ((next = poll()) == null) {
+                release();
+            } else {
+                start(next);
+            }
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public int getActiveCount() {
+        return running.get();
+    }
+
+    public int getLargestActiveCount() {
+        return largestConcurrency;
+    }
+
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    public long getSubmittedTaskCount() {
+        return submitted.sum();
+    }
+
+    public long getCompletedTaskCount() {
+        return completed.sum();
+    }
+
+    public long getRejectedTaskCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        if (running.get() == 0) {
+            terminated();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        List<Runnable> tasks = new ArrayList<>();
+        Runnable task;
+        while ((task = poll()) != null) {
+            tasks.add(task);
+        }
+        for (Thread thread : runningThreads) {
+            thread.interrupt();
+        }
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && running.get() == 0 && queue.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (terminationLock) {
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(terminationLock, remaining);
+            }
+        }
+        return true;
+    }
+}
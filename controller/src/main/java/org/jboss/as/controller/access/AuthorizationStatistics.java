@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.access;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide totals of the calls made to the {@link Authorizer} while executing management operations, and of the
+ * time spent in them, so the cost of access control can be monitored.
+ */
+public final class AuthorizationStatistics {
+
+    private static final LongAdder CHECKS = new LongAdder();
+    private static final LongAdder TIME = new LongAdder();
+
+    private AuthorizationStatistics() {
+    }
+
+    /**
+     * Records a call to the authorizer.
+     *
+     * @param nanos the time the call took, in nanoseconds
+     */
+    public static void recordCheck(final long nanos) {
+        CHECKS.increment();
+        TIME.add(nanos);
+    }
+
+    /**
+     * Gets the number of calls made to the authorizer.
+     *
+     * @return the number of calls
+     */
+    public static long getCheckCount() {
+        return CHECKS.sum();
+    }
+
+    /**
+     * Gets the time spent in the authorizer.
+     *
+     * @return the time in nanoseconds
+     */
+    public static long getTime() {
+        return TIME.sum();
+    }
+}
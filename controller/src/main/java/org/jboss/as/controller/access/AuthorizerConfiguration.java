@@ -87,6 +87,20 @@ public interface AuthorizerConfiguration {
      */
     boolean isNonFacadeMBeansSensitive();
 
+    /**
+     * Gets a value that changes whenever the configuration exposed by this object changes, allowing
+     * callers to cache results derived from it, e.g. the roles a {@link Caller} maps to.
+     * <p>
+     * The default implementation returns {@code -1}, meaning changes are not tracked and such results
+     * must not be cached.
+     * </p>
+     *
+     * @return the current configuration version, or {@code -1} if configuration changes are not tracked
+     */
+    default long getConfigurationVersion() {
+        return -1;
+    }
+
     /**
      * Register a listener for changes in the configured scoped roles.
      * @param listener the listener. Cannot be {@code null}
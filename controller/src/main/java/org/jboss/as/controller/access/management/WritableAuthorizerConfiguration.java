@@ -30,6 +30,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.access.Authorizer;
@@ -57,6 +58,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
     private volatile Authorizer.AuthorizerDescription authorizerDescription;
     private volatile RoleMaps roleMaps;
     private final Set<ScopedRoleListener> scopedRoleListeners = new LinkedHashSet<ScopedRoleListener>();
+    private final AtomicLong configurationVersion = new AtomicLong();
 
     public WritableAuthorizerConfiguration(Authorizer.AuthorizerDescription authorizerDescription) {
         this.authorizerDescription = authorizerDescription;
@@ -84,6 +86,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
                 }
             }
         }
+        configurationChanged();
     }
 
     public synchronized void registerScopedRoleListener(ScopedRoleListener listener) {
@@ -137,6 +140,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
 
     public void setUseIdentityRoles(boolean useIdentityRoles) {
         this.useIdentityRoles = useIdentityRoles;
+        configurationChanged();
     }
 
     public synchronized void addScopedRole(ScopedRole toAdd) {
@@ -146,6 +150,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
         Map<String, ScopedRole> newScopedRoles = new HashMap<String, ScopedRole>(roleMaps.scopedRoles);
         newScopedRoles.put(toAdd.getName(), toAdd);
         roleMaps = new RoleMaps(roleMaps.standardRoles, newScopedRoles);
+        configurationChanged();
     }
 
     public synchronized void removeScopedRole(String toRemove) {
@@ -157,6 +162,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
                 listener.scopedRoleRemoved(removed);
             }
         }
+        configurationChanged();
     }
 
     @Override
@@ -166,6 +172,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
 
     public void addRoleMappingImmediate(final String roleName) {
         roleMappings.put(roleName, new RoleMappingImpl(roleName));
+        configurationChanged();
     }
 
     /**
@@ -178,6 +185,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
         if (newRoles.containsKey(roleName) == false) {
             newRoles.put(roleName, new RoleMappingImpl(roleName));
             roleMappings = Collections.unmodifiableMap(newRoles);
+            configurationChanged();
         }
     }
 
@@ -197,6 +205,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
             Object removalKey = new Object();
             removedRoles.put(removalKey, removed);
             roleMappings = Collections.unmodifiableMap(newRoles);
+            configurationChanged();
 
             return removalKey;
         }
@@ -216,6 +225,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
         if (toRestore != null && newRoles.containsKey(toRestore.getName()) == false) {
             newRoles.put(toRestore.getName(), toRestore);
             roleMappings = Collections.unmodifiableMap(newRoles);
+            configurationChanged();
             return true;
         }
 
@@ -225,16 +235,21 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
     public void setRoleMappingIncludeAll(final String roleName, final boolean includeAll) {
         RoleMappingImpl role = roleMappings.get(roleName);
         role.setIncludeAll(includeAll);
+        configurationChanged();
     }
 
     public boolean addRoleMappingPrincipal(final String roleName, final PrincipalType principalType, final MatchType matchType,
                                            final String name, final String realm, final boolean immediate) {
         RoleMappingImpl role = roleMappings.get(roleName);
         if (role != null) {
-            if (immediate) {
-                return role.addPrincipalImmediate(createPrincipal(principalType, name, realm), matchType);
-            } else {
-                return role.addPrincipal(createPrincipal(principalType, name, realm), matchType);
+            try {
+                if (immediate) {
+                    return role.addPrincipalImmediate(createPrincipal(principalType, name, realm), matchType);
+                } else {
+                    return role.addPrincipal(createPrincipal(principalType, name, realm), matchType);
+                }
+            } finally {
+                configurationChanged();
             }
         }
         return false;
@@ -244,7 +259,11 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
                                               final String name, final String realm) {
         RoleMappingImpl role = roleMappings.get(roleName);
         if (role != null) {
-            return role.removePrincipal(createPrincipal(principalType, name, realm), matchType);
+            try {
+                return role.removePrincipal(createPrincipal(principalType, name, realm), matchType);
+            } finally {
+                configurationChanged();
+            }
         }
         return false;
     }
@@ -256,15 +275,28 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
     public void setPermissionCombinationPolicy(CombinationPolicy combinationPolicy) {
         assert combinationPolicy != null : "combinationPolicy is null";
         this.combinationPolicy = combinationPolicy;
+        configurationChanged();
     }
 
     void setNonFacadeMBeansSensitive(boolean nonFacadeMBeansSensitive) {
         this.nonFacadeMBeansSensitive = nonFacadeMBeansSensitive;
+        configurationChanged();
     }
 
     synchronized void setAuthorizerDescription(Authorizer.AuthorizerDescription authorizerDescription) {
         this.authorizerDescription = authorizerDescription;
         this.roleMaps = new RoleMaps(authorizerDescription.getStandardRoles(), roleMaps.scopedRoles);
+        configurationChanged();
+    }
+
+    @Override
+    public long getConfigurationVersion() {
+        return configurationVersion.get();
+    }
+
+    /** Must be called after, not before, a change is applied, so results computed from the old state are not cached as current */
+    private void configurationChanged() {
+        configurationVersion.incrementAndGet();
     }
 
     private static String getOfficialForm(String roleName) {
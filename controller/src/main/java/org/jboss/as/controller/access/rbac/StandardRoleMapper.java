@@ -31,6 +31,7 @@ import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.jboss.as.controller.access.JmxAction;
 import org.jboss.as.controller.access.JmxTarget;
@@ -53,6 +54,8 @@ public class StandardRoleMapper implements RoleMapper {
     private static final String IN_VM_ROLE = StandardRole.SUPERUSER.getOfficialForm();
     private static final RunAsRolePermission RUN_AS_IN_VM_ROLE = new RunAsRolePermission(IN_VM_ROLE);
     private final AuthorizerConfiguration authorizerConfiguration;
+    /** Roles are mapped for every resource and attribute an operation touches, but the Caller's contents do not change during a call */
+    private final Map<Caller, MappedRoles> mappedRoles = Collections.synchronizedMap(new WeakHashMap<Caller, MappedRoles>());
 
     public StandardRoleMapper(final AuthorizerConfiguration authorizerConfiguration) {
         this.authorizerConfiguration = authorizerConfiguration;
@@ -100,6 +103,22 @@ public class StandardRoleMapper implements RoleMapper {
     }
 
     private Set<String> mapRoles(final Caller caller) {
+        // Read the version before mapping so a concurrent configuration change leaves a stale entry unusable
+        long version = authorizerConfiguration.getConfigurationVersion();
+        if (version < 0 || SecurityActions.isInVmCall()) {
+            // The in-VM permission check has to be made for every call
+            return createMappedRoles(caller);
+        }
+        MappedRoles cached = this.mappedRoles.get(caller);
+        if (cached != null && cached.version == version) {
+            return cached.roles;
+        }
+        Set<String> result = createMappedRoles(caller);
+        this.mappedRoles.put(caller, new MappedRoles(version, result));
+        return result;
+    }
+
+    private Set<String> createMappedRoles(final Caller caller) {
         Set<String> mappedRoles = new HashSet<String>();
 
         boolean traceEnabled = ACCESS_LOGGER.isTraceEnabled();
@@ -194,8 +213,6 @@ public class StandardRoleMapper implements RoleMapper {
             ACCESS_LOGGER.trace(sb.toString());
         }
 
-        // TODO - We could consider something along the lines of a WeakHashMap to hold this result keyed on the Caller.
-        // The contents of the Caller are not expected to change during a call and we could clear the cache on a config change.
         return Collections.unmodifiableSet(mappedRoles);
     }
 
@@ -206,4 +223,15 @@ public class StandardRoleMapper implements RoleMapper {
         }
     }
 
+    /** Data holder class */
+    private static class MappedRoles {
+        private final long version;
+        private final Set<String> roles;
+
+        private MappedRoles(long version, Set<String> roles) {
+            this.version = version;
+            this.roles = roles;
+        }
+    }
+
 }
@@ -311,6 +311,8 @@ public class ModelDescriptionConstants {
     public static final String MASTER = "master";
     public static final String MAX = "max";
     public static final String MAX_BACKUP_INDEX = "max-backup-index";
+    public static final String MAX_CONCURRENT_SERVERS = "max-concurrent-servers";
+    public static final String MAX_CONCURRENT_SERVERS_PER_HOST = "max-concurrent-servers-per-host";
     public static final String MAX_FAILED_SERVERS = "max-failed-servers";
     public static final String MAX_FAILURE_COUNT = "max-failure-count";
     public static final String MAX_FAILURE_PERCENTAGE = "max-failure-percentage";
@@ -468,6 +470,7 @@ public class ModelDescriptionConstants {
     public static final String ROLLING_TO_SERVERS = "rolling-to-servers";
     public static final String ROLLOUT_PLAN = "rollout-plan";
     public static final String ROLLOUT_PLANS = "rollout-plans";
+    public static final String ROLLOUT_STATISTICS = "rollout-statistics";
     public static final String ROLES_FILTER = "roles-filter";
     public static final String ROTATE_AT_STARTUP = "rotate-at-startup";
     public static final String ROTATE_SIZE = "rotate-size";
@@ -3621,4 +3621,15 @@ public interface ControllerLogger extends BasicLogger {
     @Message(id = 474, value = "No marker file found indicating that the server has been restarted following execution of the additional commands from the CLI script")
     void noRestartMarkerFile();
 
+    @LogMessage(level = WARN)
+    @Message(id = 475, value = "The queue of notifications waiting to be delivered to handler %s reached its capacity of %d; applying the %s overflow policy")
+    void notificationHandlerQueueFull(Object handler, int capacity, Object overflowPolicy);
+
+    @Message(id = 476, value = "Attribute '%s' at address %s does not have a numeric value and cannot be aggregated")
+    String nonNumericMetric(String attributeName, PathAddress address);
+
+    @LogMessage(level = WARN)
+    @Message(id = 477, value = "Invalid value '%s' for system property '%s' -- using %s")
+    void invalidSystemPropertyValueUsingDefault(String value, String name, Object defaultValue);
+
 }
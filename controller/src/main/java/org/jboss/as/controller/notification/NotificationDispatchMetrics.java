@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.notification;
+
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Runtime statistics of an asynchronous {@link NotificationSupport} which delivers the notifications
+ * to each handler from its own bounded queue.
+ */
+public interface NotificationDispatchMetrics {
+
+    /**
+     * The name of the service providing the {@code NotificationDispatchMetrics} of the process' model controller.
+     */
+    ServiceName SERVICE_NAME = ServiceName.JBOSS.append("notification-dispatch-metrics");
+
+    /**
+     * @return the total number of notifications waiting to be delivered, over all the handlers
+     */
+    int getQueueDepth();
+
+    /**
+     * @return the number of notifications waiting to be delivered to the handler with the longest queue
+     */
+    int getMaxHandlerQueueDepth();
+
+    /**
+     * @return the number of notifications that were not delivered to a handler because its queue was full
+     */
+    long getDroppedCount();
+
+    /**
+     * @return the number of notifications that were merged into an identical notification already waiting in a handler's queue
+     */
+    long getCoalescedCount();
+}
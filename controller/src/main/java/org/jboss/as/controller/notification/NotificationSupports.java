@@ -22,15 +22,22 @@
 
 package org.jboss.as.controller.notification;
 
-import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.registry.NotificationHandlerRegistration;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Provides implementation of the {@code NotificationSupport}.
@@ -41,6 +48,7 @@ import org.jboss.as.controller.registry.NotificationHandlerRegistration;
  * The {@code NonBlockingNotificationSupport} will fire the notifications in a separate thread (provided by its {@code
  *  executorService}.
  * Its {@code emit()} method will return immediately and will not block the code execution.
+ * Each handler is delivered its notifications from its own bounded queue so that a slow handler does not delay the others.
  *
  * @author <a href="http://jmesnil.net/">Jeff Mesnil</a> (c) 2014 Red Hat inc.
  */
@@ -65,55 +73,290 @@ class NotificationSupports {
         }
     }
 
-    static class NonBlockingNotificationSupport implements  NotificationSupport {
+    /**
+     * What to do with a notification when the queue of the handler it must be delivered to is full.
+     */
+    enum OverflowPolicy {
+        /** Wait until the handler has caught up; slows down the delivery to the other handlers only once the queue is full. */
+        BLOCK,
+        /** Drop the oldest notification waiting in the handler's queue to make room for the new one. */
+        DISCARD_OLDEST,
+        /** Drop the new notification. */
+        DISCARD_NEWEST
+    }
+
+    static class NonBlockingNotificationSupport implements NotificationSupport, NotificationDispatchMetrics {
+
+        static final String QUEUE_CAPACITY_PROPERTY = "org.jboss.as.controller.notification.handler-queue-capacity";
+        static final String OVERFLOW_POLICY_PROPERTY = "org.jboss.as.controller.notification.overflow-policy";
+        /**
+         * Whether a notification that repeats the one waiting before it in a handler's queue is dropped. Off by default, as
+         * listeners may rely on seeing every notification, e.g. each write of the same value to an attribute.
+         */
+        static final String COALESCE_PROPERTY = "org.jboss.as.controller.notification.coalesce";
+        private static final int DEFAULT_QUEUE_CAPACITY = 10000;
 
         private final NotificationHandlerRegistration registry;
         private final ExecutorService executor;
+        private final int queueCapacity;
+        private final OverflowPolicy overflowPolicy;
+        private final boolean coalesce;
 
         /**
          * Use a concurrent queue to put the notifications in it when {@code emit()} is called.
-         * The queue will be drained in a separate thread and the notifications effectively delivered to the handlers.
+         * The queue is drained by a single routing task at a time which dispatches each notification
+         * to the queues of its matching handlers.
          *
-         * This ensures that the notifications will be delivered in the same order they were emitted.
+         * This ensures that each handler receives the notifications in the same order they were emitted.
          */
-        private final Queue<Notification> queue = new ConcurrentLinkedQueue<Notification>();
+        private final Queue<Notification[]> queue = new ConcurrentLinkedQueue<Notification[]>();
 
         /**
-         * use the lock's exclusive writeLock to ensure only one thread can drain the queue at a given time.
+         * Whether a routing task is scheduled or running.
          */
-        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final AtomicBoolean routing = new AtomicBoolean();
+
+        /**
+         * The queues of the handlers which have notifications waiting to be delivered.
+         * A queue is removed once it is drained so that unregistered handlers are not retained.
+         */
+        private final Map<NotificationHandler, HandlerQueue> handlerQueues = new ConcurrentHashMap<>();
+
+        private final AtomicInteger queueDepth = new AtomicInteger();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
 
         public NonBlockingNotificationSupport(NotificationHandlerRegistration registry, ExecutorService executor) {
+            this(registry, executor, getQueueCapacity(), getOverflowPolicy(),
+                    Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(COALESCE_PROPERTY, "false")));
+        }
+
+        NonBlockingNotificationSupport(NotificationHandlerRegistration registry, ExecutorService executor,
+                                       int queueCapacity, OverflowPolicy overflowPolicy, boolean coalesce) {
             this.registry = registry;
             this.executor = executor;
+            this.queueCapacity = queueCapacity;
+            this.overflowPolicy = overflowPolicy;
+            this.coalesce = coalesce;
         }
 
         @Override
-        public synchronized void emit(Notification... notifications) {
-            queue.addAll(Arrays.asList(notifications));
+        public void emit(Notification... notifications) {
+            queue.add(notifications.clone());
+            scheduleRouting();
+        }
 
-            executor.execute(new Runnable() {
-                @Override
-                public void run() {
-                    lock.writeLock().lock();
-                    try {
-                        while (true) {
-                            Notification notification = queue.poll();
-                            if (notification == null) {
+        @Override
+        public NotificationHandlerRegistration getNotificationRegistry() {
+            return registry;
+        }
+
+        @Override
+        public int getQueueDepth() {
+            return queueDepth.get();
+        }
+
+        @Override
+        public int getMaxHandlerQueueDepth() {
+            int max = 0;
+            for (HandlerQueue handlerQueue : handlerQueues.values()) {
+                max = Math.max(max, handlerQueue.size());
+            }
+            return max;
+        }
+
+        @Override
+        public long getDroppedCount() {
+            return dropped.sum();
+        }
+
+        @Override
+        public long getCoalescedCount() {
+            return coalesced.sum();
+        }
+
+        private void scheduleRouting() {
+            if (routing.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::route);
+                } catch (RuntimeException e) {
+                    routing.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        private void route() {
+            try {
+                Notification[] notifications;
+                while ((notifications = queue.poll()) != null) {
+                    for (Notification notification : notifications) {
+                        dispatch(notification);
+                    }
+                }
+            } finally {
+                routing.set(false);
+            }
+            // a notification may have been emitted after the last poll but before the flag was cleared
+            if (!queue.isEmpty()) {
+                scheduleRouting();
+            }
+        }
+
+        private void dispatch(Notification notification) {
+            try {
+                // each notification may have a different subset of handlers depending on their filters
+                for (NotificationHandler handler : registry.findMatchingNotificationHandlers(notification)) {
+                    // a queue which has just been drained is retired; the retry picks up a new one
+                    HandlerQueue handlerQueue;
+                    do {
+                        handlerQueue = handlerQueues.computeIfAbsent(handler, HandlerQueue::new);
+                    } while (!handlerQueue.offer(notification));
+                }
+            } catch (Throwable t) {
+                ControllerLogger.ROOT_LOGGER.failedToEmitNotification(notification, t);
+            }
+        }
+
+        /**
+         * Two notifications waiting next to each other in a handler's queue are redundant if they only differ by their timestamp.
+         */
+        private static boolean isRedundant(Notification previous, Notification notification) {
+            return previous == notification
+                    || (Objects.equals(previous.getType(), notification.getType())
+                        && Objects.equals(previous.getSource(), notification.getSource())
+                        && Objects.equals(previous.getMessage(), notification.getMessage())
+                        && Objects.equals(previous.getData(), notification.getData()));
+        }
+
+        /**
+         * The notifications waiting to be delivered to a single handler. At most one task per handler
+         * delivers them, in order, so that a slow handler only delays its own notifications.
+         */
+        private final class HandlerQueue implements Runnable {
+
+            private final NotificationHandler handler;
+            private final Deque<Notification> notifications = new ArrayDeque<>();
+            // guarded by this
+            private boolean scheduled;
+            private boolean retired;
+            private boolean overflowLogged;
+
+            HandlerQueue(NotificationHandler handler) {
+                this.handler = handler;
+            }
+
+            synchronized int size() {
+                return notifications.size();
+            }
+
+            /**
+             * @return {@code false} if this queue has been retired and the notification must be offered to a new one
+             */
+            boolean offer(Notification notification) {
+                synchronized (this) {
+                    if (retired) {
+                        return false;
+                    }
+                    Notification last = notifications.peekLast();
+                    if (coalesce && last != null && isRedundant(last, notification)) {
+                        coalesced.increment();
+                        return true;
+                    }
+                    if (notifications.size() >= queueCapacity) {
+                        if (!overflowLogged) {
+                            overflowLogged = true;
+                            ControllerLogger.ROOT_LOGGER.notificationHandlerQueueFull(handler, queueCapacity, overflowPolicy);
+                        }
+                        switch (overflowPolicy) {
+                            case DISCARD_NEWEST:
+                                dropped.increment();
+                                return true;
+                            case DISCARD_OLDEST:
+                                notifications.pollFirst();
+                                queueDepth.decrementAndGet();
+                                dropped.increment();
                                 break;
-                            }
-                            fireNotifications(registry, notification);
+                            default:
+                                boolean interrupted = false;
+                                while (notifications.size() >= queueCapacity) {
+                                    try {
+                                        wait();
+                                    } catch (InterruptedException e) {
+                                        interrupted = true;
+                                    }
+                                }
+                                if (interrupted) {
+                                    Thread.currentThread().interrupt();
+                                }
                         }
-                    } finally {
-                        lock.writeLock().unlock();
                     }
+                    notifications.addLast(notification);
+                    queueDepth.incrementAndGet();
+                    if (scheduled) {
+                        return true;
+                    }
+                    scheduled = true;
+                }
+                try {
+                    executor.execute(this);
+                } catch (RuntimeException e) {
+                    // deliver on the routing thread rather than losing the notifications
+                    run();
                 }
-            });
+                return true;
+            }
+
+            @Override
+            public void run() {
+                while (true) {
+                    final Notification notification;
+                    synchronized (this) {
+                        notification = notifications.pollFirst();
+                        if (notification == null) {
+                            scheduled = false;
+                            retired = true;
+                            handlerQueues.remove(handler, this);
+                            return;
+                        }
+                        queueDepth.decrementAndGet();
+                        notifyAll();
+                    }
+                    try {
+                        handler.handleNotification(notification);
+                    } catch (Throwable t) {
+                        ControllerLogger.ROOT_LOGGER.failedToEmitNotification(notification, t);
+                    }
+                }
+            }
         }
 
-        @Override
-        public NotificationHandlerRegistration getNotificationRegistry() {
-            return registry;
+        private static int getQueueCapacity() {
+            String value = WildFlySecurityManager.getPropertyPrivileged(QUEUE_CAPACITY_PROPERTY, null);
+            if (value != null) {
+                try {
+                    int capacity = Integer.parseInt(value.trim());
+                    if (capacity > 0) {
+                        return capacity;
+                    }
+                } catch (NumberFormatException ignored) {
+                    // reported below
+                }
+                ControllerLogger.ROOT_LOGGER.invalidSystemPropertyValueUsingDefault(value, QUEUE_CAPACITY_PROPERTY, DEFAULT_QUEUE_CAPACITY);
+            }
+            return DEFAULT_QUEUE_CAPACITY;
+        }
+
+        private static OverflowPolicy getOverflowPolicy() {
+            String value = WildFlySecurityManager.getPropertyPrivileged(OVERFLOW_POLICY_PROPERTY, null);
+            if (value != null) {
+                try {
+                    return OverflowPolicy.valueOf(value.trim().toUpperCase(Locale.ENGLISH).replace('-', '_'));
+                } catch (IllegalArgumentException ignored) {
+                    ControllerLogger.ROOT_LOGGER.invalidSystemPropertyValueUsingDefault(value, OVERFLOW_POLICY_PROPERTY, OverflowPolicy.BLOCK);
+                }
+            }
+            return OverflowPolicy.BLOCK;
         }
     }
 
@@ -0,0 +1,327 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.operations.global;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_CONTROL;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MIN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UNREADABLE_CHILDREN;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationDefinition;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PrimitiveListAttributeDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.descriptions.common.ControllerResolver;
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * {@link org.jboss.as.controller.OperationStepHandler} reducing the values of a numeric attribute read from all
+ * resources matching a possibly wildcarded address into a single count/sum/min/max/average result, with
+ * optional percentiles.
+ * <p>
+ * The reduction is pushed down to the processes owning the resources: the operation is forwarded to remote
+ * processes with the internal {@value #PARTIAL_HEADER} operation header set, so each host controller and server replies with
+ * one partial aggregate for everything it owns rather than one value per resource. Percentiles can't be
+ * combined from partial aggregates, so only when they are requested do the partial aggregates also carry the
+ * individual values.
+ * <p>
+ * The result also counts the targets that did not contribute a value: {@code failed} targets, and {@code skipped}
+ * ones which have no value or which the caller may not read, so an aggregate over partial data is recognizable.
+ */
+public final class AggregateMetricsHandler implements OperationStepHandler {
+
+    public static final String OPERATION_NAME = "aggregate-metrics";
+
+    static final String COUNT = "count";
+    static final String SKIPPED = "skipped";
+    static final String SUM = "sum";
+    static final String AVERAGE = "average";
+    static final String VALUES = "values";
+    static final String PERCENTILE = "percentile-";
+
+    private static final AttributeDefinition PERCENTILES = new PrimitiveListAttributeDefinition.Builder("percentiles", ModelType.INT)
+            .setRequired(false)
+            .setElementValidator(new IntRangeValidator(0, 100, false, false))
+            .build();
+
+    /**
+     * Operation header asking for a partial aggregate. A header rather than a parameter, as it is only meant for the
+     * processes that forward the operation to each other and so is not part of the operation's description.
+     */
+    static final String PARTIAL_HEADER = "aggregate-metrics-partial";
+
+    public static final OperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(OPERATION_NAME, ControllerResolver.getResolver("global"))
+            .setParameters(GlobalOperationAttributes.NAME, PERCENTILES)
+            .setReplyType(ModelType.OBJECT)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .build();
+
+    public static final OperationStepHandler INSTANCE = new AggregateMetricsHandler();
+
+    private AggregateMetricsHandler() {
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String attributeName = GlobalOperationAttributes.NAME.validateOperation(operation).asString();
+        final ModelNode percentiles = PERCENTILES.validateOperation(operation);
+        final boolean partial = operation.hasDefined(OPERATION_HEADERS) && operation.get(OPERATION_HEADERS).hasDefined(PARTIAL_HEADER)
+                && operation.get(OPERATION_HEADERS, PARTIAL_HEADER).asBoolean();
+        final PathAddress address = context.getCurrentAddress();
+
+        // Anything forwarded to another process only needs to come back as a partial aggregate
+        final ModelNode targetOp = operation.clone();
+        targetOp.get(OPERATION_HEADERS, PARTIAL_HEADER).set(true);
+        final ModelNode targets = new ModelNode();
+        context.addStep(targets, targetOp, TargetHandler.INSTANCE, OperationContext.Stage.MODEL, true);
+
+        context.completeStep(new OperationContext.ResultHandler() {
+            @Override
+            public void handleResult(OperationContext.ResultAction resultAction, OperationContext context, ModelNode operation) {
+                if (targets.hasDefined(FAILURE_DESCRIPTION)) {
+                    context.getFailureDescription().set(targets.get(FAILURE_DESCRIPTION));
+                    return;
+                }
+                if (resultAction == OperationContext.ResultAction.ROLLBACK) {
+                    return;
+                }
+                final Aggregate aggregate = new Aggregate(percentiles.isDefined());
+                final ModelNode result = targets.get(RESULT);
+                if (address.isMultiTarget()) {
+                    if (result.isDefined()) {
+                        final PathAddress nonNumeric = addTargetResults(aggregate, result.asList());
+                        if (nonNumeric != null) {
+                            context.getFailureDescription().set(ControllerLogger.ROOT_LOGGER.nonNumericMetric(attributeName, nonNumeric));
+                            return;
+                        }
+                    }
+                } else if (!result.isDefined()) {
+                    aggregate.skipped(1);
+                } else if (!aggregate.add(result)) {
+                    context.getFailureDescription().set(ControllerLogger.ROOT_LOGGER.nonNumericMetric(attributeName, address));
+                    return;
+                }
+
+                if (!partial) {
+                    // Resources hidden by access control are reported in the response headers, including those
+                    // of remote processes, so only count them once everything is merged
+                    final ModelNode accessControl = context.getResponseHeaders().get(ACCESS_CONTROL);
+                    if (accessControl.isDefined()) {
+                        for (ModelNode filtered : accessControl.asList()) {
+                            if (filtered.hasDefined(UNREADABLE_CHILDREN)) {
+                                aggregate.skipped(filtered.get(UNREADABLE_CHILDREN).asPropertyList().size());
+                            }
+                        }
+                    }
+                    context.getResult().set(aggregate.toResult(percentiles));
+                } else if (address.isMultiTarget()) {
+                    // Reply the way a multi-target operation is expected to, so the caller merges it like any other
+                    final ModelNode item = new ModelNode();
+                    item.get(OP_ADDR).set(address.toModelNode());
+                    item.get(OUTCOME).set(SUCCESS);
+                    item.get(RESULT).set(aggregate.toPartial());
+                    context.getResult().setEmptyList().add(item);
+                } else {
+                    context.getResult().set(aggregate.toPartial());
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds the items of a multi-target result to an aggregate. Items of targets that failed are counted as failed,
+     * and items without a value as skipped, so the aggregate shows it does not cover every target.
+     *
+     * @param aggregate the aggregate
+     * @param items the multi-target result items
+     * @return the address of an item whose value is not numeric, or {@code null} if all are
+     */
+    static PathAddress addTargetResults(Aggregate aggregate, List<ModelNode> items) {
+        for (ModelNode item : items) {
+            if (FAILED.equals(item.get(OUTCOME).asString()) || item.hasDefined(FAILURE_DESCRIPTION)) {
+                aggregate.failed(1);
+            } else if (!item.hasDefined(RESULT)) {
+                aggregate.skipped(1);
+            } else if (!aggregate.add(item.get(RESULT))) {
+                return PathAddress.pathAddress(item.get(OP_ADDR));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the target address, forwarding the operation to remote processes and reading the attribute
+     * from each matching local resource.
+     */
+    private static final class TargetHandler extends GlobalOperationHandlers.AbstractMultiTargetHandler {
+
+        private static final TargetHandler INSTANCE = new TargetHandler();
+
+        @Override
+        void doExecute(OperationContext context, ModelNode operation, FilteredData filteredData, boolean ignoreMissingResource) throws OperationFailedException {
+            final String attributeName = operation.require(GlobalOperationAttributes.NAME.getName()).asString();
+            final OperationStepHandler readHandler = context.getResourceRegistration().getOperationHandler(PathAddress.EMPTY_ADDRESS, READ_ATTRIBUTE_OPERATION);
+            final ModelNode readOp = Util.getReadAttributeOperation(context.getCurrentAddress(), attributeName);
+            context.addStep(readOp, readHandler, OperationContext.Stage.MODEL, true);
+        }
+    }
+
+    /**
+     * Running aggregate of attribute values and partial aggregates.
+     */
+    static final class Aggregate {
+
+        private final List<Double> values;
+        private long failed;
+        private long skipped;
+        private long count;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        Aggregate(boolean keepValues) {
+            this.values = keepValues ? new ArrayList<>() : null;
+        }
+
+        /**
+         * Adds either a single attribute value or a partial aggregate produced by {@link #toPartial()}.
+         *
+         * @param node the value. Cannot be {@code null}
+         * @return {@code false} if {@code node} is neither a number nor a partial aggregate
+         */
+        boolean add(ModelNode node) {
+            switch (node.getType()) {
+                case INT:
+                case LONG:
+                case DOUBLE:
+                case BIG_INTEGER:
+                case BIG_DECIMAL:
+                    add(node.asDouble());
+                    return true;
+                case OBJECT:
+                    if (!node.has(COUNT)) {
+                        return false;
+                    }
+                    failed += node.get(FAILED).asLong(0);
+                    skipped += node.get(SKIPPED).asLong(0);
+                    final long partialCount = node.get(COUNT).asLong();
+                    if (partialCount > 0) {
+                        count += partialCount;
+                        sum += node.get(SUM).asDouble();
+                        min = Math.min(min, node.get(MIN).asDouble());
+                        max = Math.max(max, node.get(MAX).asDouble());
+                        if (values != null && node.hasDefined(VALUES)) {
+                            for (ModelNode value : node.get(VALUES).asList()) {
+                                values.add(value.asDouble());
+                            }
+                        }
+                    }
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        void failed(long targets) {
+            failed += targets;
+        }
+
+        void skipped(long targets) {
+            skipped += targets;
+        }
+
+        private void add(double value) {
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            if (values != null) {
+                values.add(value);
+            }
+        }
+
+        ModelNode toPartial() {
+            final ModelNode node = new ModelNode();
+            node.get(COUNT).set(count);
+            node.get(FAILED).set(failed);
+            node.get(SKIPPED).set(skipped);
+            if (count > 0) {
+                node.get(SUM).set(sum);
+                node.get(MIN).set(min);
+                node.get(MAX).set(max);
+                if (values != null) {
+                    final ModelNode list = node.get(VALUES).setEmptyList();
+                    for (Double value : values) {
+                        list.add(value);
+                    }
+                }
+            }
+            return node;
+        }
+
+        ModelNode toResult(ModelNode percentiles) {
+            final ModelNode node = new ModelNode();
+            node.get(COUNT).set(count);
+            node.get(FAILED).set(failed);
+            node.get(SKIPPED).set(skipped);
+            if (count == 0) {
+                return node;
+            }
+            node.get(SUM).set(sum);
+            node.get(MIN).set(min);
+            node.get(MAX).set(max);
+            node.get(AVERAGE).set(sum / count);
+            if (percentiles.isDefined() && !values.isEmpty()) {
+                Collections.sort(values);
+                for (ModelNode percentile : percentiles.asList()) {
+                    final int p = percentile.asInt();
+                    // Nearest-rank percentile
+                    final int rank = (int) Math.ceil(p / 100.0 * values.size());
+                    node.get(PERCENTILE + p).set(values.get(Math.max(0, rank - 1)));
+                }
+            }
+            return node;
+        }
+    }
+}
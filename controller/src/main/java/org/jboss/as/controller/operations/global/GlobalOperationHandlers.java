@@ -114,6 +114,7 @@ public class GlobalOperationHandlers {
                     ReadChildrenResourcesHandler.DEFINITION.getName(),
                     ReadOperationNamesHandler.DEFINITION.getName(),
                     QueryOperationHandler.DEFINITION.getName(),
+                    AggregateMetricsHandler.DEFINITION.getName(),
                     MapOperations.MAP_GET_DEFINITION.getName(),
                     ListOperations.LIST_GET_DEFINITION.getName(),
                     ReadOperationDescriptionHandler.DEFINITION.getName())));
@@ -137,6 +138,7 @@ public class GlobalOperationHandlers {
         root.registerOperationHandler(ReadOperationNamesHandler.DEFINITION, ReadOperationNamesHandler.INSTANCE, true);
         root.registerOperationHandler(ReadOperationDescriptionHandler.DEFINITION, ReadOperationDescriptionHandler.INSTANCE, true);
         root.registerOperationHandler(QueryOperationHandler.DEFINITION, QueryOperationHandler.INSTANCE, true);
+        root.registerOperationHandler(AggregateMetricsHandler.DEFINITION, AggregateMetricsHandler.INSTANCE, true);
 
         //map operations
         root.registerOperationHandler(MapOperations.MAP_PUT_DEFINITION, MapOperations.MAP_PUT_HANDLER, true);
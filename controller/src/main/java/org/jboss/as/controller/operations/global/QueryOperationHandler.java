@@ -23,6 +23,7 @@
 package org.jboss.as.controller.operations.global;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES_ONLY;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
@@ -32,7 +33,9 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RES
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ExpressionResolver;
@@ -52,6 +55,7 @@ import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.transform.OperationResultTransformer;
 import org.jboss.as.controller.transform.OperationTransformer;
@@ -121,12 +125,141 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
         readResourceOp.get(OP).set(READ_RESOURCE_OPERATION);
         readResourceOp.get(INCLUDE_RUNTIME).set(true);
 
-        // filter/reduce phase
-        parentContext.addStep(operation, new FilterReduceHandler(where, operator, select), OperationContext.Stage.MODEL);
+        // When the standard read-resource handles the target, push the query down into it so
+        // only the attributes the query uses are read, and nothing else is read for resources
+        // that don't match
+        final boolean pushDown = mrr != null && !mrr.isRemote()
+                && (readResourceHandler == ReadResourceHandler.INSTANCE || readResourceHandler == ReadResourceHandler.RESOLVE_INSTANCE);
+        final Set<String> selectNames = getSelectNames(select);
+        final Set<String> selected = pushDown ? getReadableAttributes(mrr, selectNames, false) : null;
+        final Set<String> filtered = pushDown ? getReadableAttributes(mrr, getWhereNames(where), true) : null;
+
+        final ModelNode mapOp;
+        final OperationStepHandler mapHandler;
+        if (selected != null) {
+            mapOp = readResourceOp.clone();
+            mapOp.get(ATTRIBUTES_ONLY).set(true);
+            mapHandler = new ReadResourceHandler(selected);
+        } else {
+            mapOp = readResourceOp;
+            mapHandler = readResourceHandler;
+        }
+
+        if (filtered != null) {
+            // The filter only uses attributes stored in the model, so check it before reading anything else
+            final ModelNode filterOp = readResourceOp.clone();
+            filterOp.get(INCLUDE_RUNTIME).set(false);
+            filterOp.get(ATTRIBUTES_ONLY).set(true);
+            final ModelNode filterResponse = new ModelNode();
+
+            parentContext.addStep(filterResponse, filterOp, new ReadResourceHandler(filtered), OperationContext.Stage.MODEL);
+            parentContext.addStep(operation, new PushedDownFilterHandler(filterResponse, filtered, where, operator, select, selectNames, mapOp, mapHandler),
+                    OperationContext.Stage.MODEL);
+        } else {
+            // filter/reduce phase
+            parentContext.addStep(operation, new FilterReduceHandler(where, operator, select), OperationContext.Stage.MODEL);
+
+            // map phase
+            parentContext.addStep(mapOp, mapHandler, OperationContext.Stage.MODEL);
+        }
+
+    }
+
+    private static Set<String> getSelectNames(final ModelNode select) {
+        if (!select.isDefined()) {
+            return null;
+        }
+        final Set<String> names = new HashSet<>();
+        for (ModelNode element : select.asList()) {
+            names.add(element.asString());
+        }
+        return names;
+    }
+
+    private static Set<String> getWhereNames(final ModelNode where) {
+        if (!where.isDefined()) {
+            return null;
+        }
+        final Set<String> names = new HashSet<>();
+        for (Property property : where.asPropertyList()) {
+            names.add(property.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Checks whether the given names all are attributes that a {@link ReadResourceHandler} limited to those
+     * attributes can read.
+     *
+     * @param mrr the registration of the target resource
+     * @param names the names. May be {@code null}
+     * @param storedOnly {@code true} if the attributes must also be stored in the model, i.e. readable without
+     *                   including runtime attributes and with their values available in {@code Stage.MODEL}
+     * @return {@code names}, or {@code null} if {@code names} is {@code null} or not all of them qualify
+     */
+    private static Set<String> getReadableAttributes(ImmutableManagementResourceRegistration mrr, Set<String> names, boolean storedOnly) {
+        if (names == null) {
+            return null;
+        }
+        for (String name : names) {
+            AttributeAccess access = mrr.getAttributeAccess(PathAddress.EMPTY_ADDRESS, name);
+            if (access == null || access.getFlags().contains(AttributeAccess.Flag.ALIAS)) {
+                return null;
+            }
+            if (storedOnly && (access.getStorageType() != AttributeAccess.Storage.CONFIGURATION || access.getReadHandler() != null)) {
+                return null;
+            }
+        }
+        return names;
+    }
 
-        // map phase
-        parentContext.addStep(readResourceOp, readResourceHandler, OperationContext.Stage.MODEL);
+    /**
+     * Checks the {@code where} filter against the attributes read by the preceding step and only if it matches
+     * adds the steps to read and reduce the data to return.
+     */
+    private static class PushedDownFilterHandler implements OperationStepHandler {
 
+        private final ModelNode filterResponse;
+        private final Set<String> filtered;
+        private final ModelNode filter;
+        private final Operator operator;
+        private final ModelNode select;
+        private final Set<String> selectNames;
+        private final ModelNode mapOp;
+        private final OperationStepHandler mapHandler;
+
+        private PushedDownFilterHandler(final ModelNode filterResponse, final Set<String> filtered, final ModelNode filter,
+                                        final Operator operator, final ModelNode select, final Set<String> selectNames,
+                                        final ModelNode mapOp, final OperationStepHandler mapHandler) {
+            this.filterResponse = filterResponse;
+            this.filtered = filtered;
+            this.filter = filter;
+            this.operator = operator;
+            this.select = select;
+            this.selectNames = selectNames;
+            this.mapOp = mapOp;
+            this.mapHandler = mapHandler;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            if (filterResponse.hasDefined(FAILURE_DESCRIPTION)) {
+                throw new OperationFailedException(filterResponse.get(FAILURE_DESCRIPTION));
+            }
+            final ModelNode resource = filterResponse.get(RESULT);
+            if (!FilterReduceHandler.matchesFilter(resource, filter, operator)) {
+                context.getResult().set(new ModelNode());
+            } else if (selectNames != null && filtered.containsAll(selectNames)) {
+                // Everything selected was already read for the filter
+                context.getResult().set(FilterReduceHandler.reduce(resource, select));
+            } else {
+                // Added in reverse order of execution
+                context.addStep(mapOp, mapHandler, OperationContext.Stage.MODEL, true);
+                if (select.isDefined()) {
+                    context.addStep(operation, new FilterReduceHandler(new ModelNode(), operator, select), OperationContext.Stage.MODEL, true);
+                }
+            }
+        }
     }
 
     static class FilterReduceHandler implements OperationStepHandler {
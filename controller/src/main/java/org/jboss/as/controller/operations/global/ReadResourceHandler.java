@@ -135,24 +135,37 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
 
     private final OperationStepHandler overrideHandler;
     private final boolean resolvable;
+    /** The names of the attributes to read, or {@code null} if all attributes should be read */
+    private final Set<String> includedAttributes;
 
     public ReadResourceHandler() {
-        this(null, null, false, false);
+        this(null, null, false, false, null);
     }
 
     public ReadResourceHandler(boolean resolvable){
-        this(null,null,resolvable, false);
+        this(null,null,resolvable, false, null);
     }
 
     ReadResourceHandler(final FilteredData filteredData, OperationStepHandler overrideHandler, boolean resolvable) {
-        this(filteredData, overrideHandler, resolvable, true);
+        this(filteredData, overrideHandler, resolvable, true, null);
+    }
+
+    /**
+     * Creates a handler that only reads the given attributes of the target resource. Used by
+     * {@link QueryOperationHandler} so a query only reads the attributes it actually uses.
+     *
+     * @param includedAttributes the names of the attributes to read. Cannot be {@code null}
+     */
+    ReadResourceHandler(final Set<String> includedAttributes) {
+        this(null, null, false, false, includedAttributes);
     }
 
     private ReadResourceHandler(final FilteredData filteredData, OperationStepHandler overrideHandler,
-                                boolean resolvable, boolean ignoreMissingResource) {
+                                boolean resolvable, boolean ignoreMissingResource, Set<String> includedAttributes) {
         super(filteredData, ignoreMissingResource);
         this.overrideHandler = overrideHandler;
         this.resolvable = resolvable;
+        this.includedAttributes = includedAttributes;
     }
 
 
@@ -334,6 +347,10 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
         final Set<String> attributeNames = registry != null ? registry.getAttributeNames(PathAddress.EMPTY_ADDRESS) : Collections.<String>emptySet();
         for (final String attributeName : attributeNames) {
 
+            if (includedAttributes != null && !includedAttributes.contains(attributeName)) {
+                continue;
+            }
+
             final AttributeAccess access = registry.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attributeName);
             if ((aliases || !access.getFlags().contains(AttributeAccess.Flag.ALIAS))
                     && (queryRuntime || access.getStorageType() == AttributeAccess.Storage.CONFIGURATION)) {
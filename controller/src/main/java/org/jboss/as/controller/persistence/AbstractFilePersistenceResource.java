@@ -37,6 +37,7 @@ import org.xnio.IoUtils;
  */
 public abstract class AbstractFilePersistenceResource implements ConfigurationPersister.PersistenceResource {
     private volatile ExposedByteArrayOutputStream marshalled;
+    private volatile Exception failure;
 
     protected AbstractFilePersistenceResource(final ModelNode model, final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
         marshalled = new ExposedByteArrayOutputStream(1024 * 8);
@@ -63,9 +64,28 @@ public abstract class AbstractFilePersistenceResource implements ConfigurationPe
             doCommit(in);
         } catch (IOException ioex) {
             MGMT_OP_LOGGER.errorf(ioex, ioex.getMessage());
+            failed(ioex);
         }
     }
 
+    /**
+     * Records that {@link #commit()} failed, after the failure was logged.
+     *
+     * @param e the failure
+     */
+    protected void failed(final Exception e) {
+        failure = e;
+    }
+
+    /**
+     * Gets the failure of {@link #commit()}, if any.
+     *
+     * @return the failure, or {@code null} if the commit succeeded or did not happen yet
+     */
+    Exception getFailure() {
+        return failure;
+    }
+
     @Override
     public void rollback() {
         marshalled = null;
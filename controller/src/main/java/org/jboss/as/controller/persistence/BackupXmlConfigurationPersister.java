@@ -117,11 +117,17 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
                 }
             };
         }
+        return super.store(model, affectedAddresses);
+    }
+
+    @Override
+    protected PersistenceResource createPersistenceResource(final ModelNode model) throws ConfigurationPersistenceException {
         return new ConfigurationFilePersistenceResource(model, configurationFile, this);
     }
 
     @Override
     public String snapshot(String name, String comment) throws ConfigurationPersistenceException {
+        getWriter().flush();
         return configurationFile.snapshot(name, comment);
     }
 
@@ -0,0 +1,297 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Performs the writes of a configuration file for an {@link XmlConfigurationPersister}, and tracks how long they take.
+ * <p>
+ * With a window of zero the model is marshalled when stored and written when the {@link ConfigurationPersister.PersistenceResource}
+ * is committed, in the committing thread. With a positive window, committed models are instead handed to the
+ * process's scheduled executor, which waits for the window to elapse and then marshals and writes only the most
+ * recent model, so a burst of operations costs a single write. Writes are never reordered: a file never goes back to
+ * an older model than one already written, and {@link #flush()} writes anything pending before returning.
+ * <p>
+ * A coalesced write happens after its operations completed, so it cannot fail them. If it fails the model stays
+ * pending, {@link #isPersistenceRequired()} reports that the file is behind the running configuration, and the
+ * next commit or {@link #flush()} tries again.
+ */
+public final class CoalescingConfigurationWriter {
+
+    interface ResourceFactory {
+        ConfigurationPersister.PersistenceResource create(ModelNode model) throws ConfigurationPersistenceException;
+    }
+
+    private final String name;
+    private final ResourceFactory factory;
+    private volatile long window;
+
+    // Guarded by this
+    private ScheduledExecutorService executor;
+    private ModelNode pending;
+    private long pendingSince;
+    private boolean scheduled;
+    private boolean writing;
+
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private volatile long lastPersistLag = -1;
+    private volatile long lastWriteDuration = -1;
+    private volatile Exception lastFailure;
+
+    CoalescingConfigurationWriter(final String name, final ResourceFactory factory) {
+        this.name = name;
+        this.factory = factory;
+    }
+
+    /**
+     * Sets the window and the executor performing coalesced writes. Without an executor every commit is written
+     * synchronously.
+     */
+    synchronized void setWindow(final long window, final ScheduledExecutorService executor) {
+        this.executor = executor;
+        this.window = executor == null ? 0 : window;
+    }
+
+    ConfigurationPersister.PersistenceResource store(final ModelNode model) throws ConfigurationPersistenceException {
+        if (window <= 0) {
+            final ConfigurationPersister.PersistenceResource delegate = factory.create(model);
+            return new ConfigurationPersister.PersistenceResource() {
+                @Override
+                public void commit() {
+                    // Anything still queued from when coalescing was enabled must not overwrite this
+                    flush();
+                    commits.incrementAndGet();
+                    final long start = System.nanoTime();
+                    Exception failure = null;
+                    try {
+                        delegate.commit();
+                        failure = getFailure(delegate);
+                    } catch (RuntimeException e) {
+                        failure = e;
+                        throw e;
+                    } finally {
+                        // Every synchronous write covers the whole model, so the next commit is the retry
+                        written(start, start, failure);
+                    }
+                }
+
+                @Override
+                public void rollback() {
+                    delegate.rollback();
+                }
+            };
+        }
+        return new ConfigurationPersister.PersistenceResource() {
+            @Override
+            public void commit() {
+                submit(model);
+            }
+
+            @Override
+            public void rollback() {
+            }
+        };
+    }
+
+    private synchronized void submit(final ModelNode model) {
+        commits.incrementAndGet();
+        if (pending == null) {
+            pendingSince = System.nanoTime();
+        }
+        pending = model;
+        if (!scheduled) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        assert Thread.holdsLock(this);
+        if (executor == null) {
+            // Closed or reconfigured meanwhile; the next flush writes the model
+            return;
+        }
+        scheduled = true;
+        executor.schedule(() -> write(true), window, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes any committed model that has not been written yet, waiting for a write in progress to complete.
+     */
+    public void flush() {
+        write(false);
+    }
+
+    /**
+     * Flushes and stops scheduling coalesced writes. Later commits are written synchronously.
+     */
+    public void close() {
+        setWindow(0, null);
+        flush();
+    }
+
+    private void write(final boolean scheduledRun) {
+        final ModelNode model;
+        final long since;
+        boolean interrupted = false;
+        synchronized (this) {
+            while (writing) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (scheduledRun) {
+                scheduled = false;
+            }
+            model = pending;
+            since = pendingSince;
+            pending = null;
+            if (model != null) {
+                writing = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (model == null) {
+            return;
+        }
+        final long start = System.nanoTime();
+        Exception failure = null;
+        try {
+            try {
+                final ConfigurationPersister.PersistenceResource resource = factory.create(model);
+                resource.commit();
+                failure = getFailure(resource);
+            } catch (ConfigurationPersistenceException | RuntimeException e) {
+                MGMT_OP_LOGGER.failedToStoreConfiguration(e, name);
+                failure = e;
+            }
+            written(since, start, failure);
+        } finally {
+            synchronized (this) {
+                writing = false;
+                if (failure != null && pending == null) {
+                    // Nothing newer was committed meanwhile, so retry this model with the next commit or flush
+                    pending = model;
+                    pendingSince = since;
+                } else if (pending != null && !scheduled) {
+                    schedule();
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    /** Gets the failure of a resource that logs rather than throws write failures */
+    private static Exception getFailure(final ConfigurationPersister.PersistenceResource resource) {
+        return resource instanceof AbstractFilePersistenceResource ? ((AbstractFilePersistenceResource) resource).getFailure() : null;
+    }
+
+    private void written(final long since, final long start, final Exception failure) {
+        final long end = System.nanoTime();
+        lastWriteDuration = TimeUnit.NANOSECONDS.toMillis(end - start);
+        lastFailure = failure;
+        if (failure != null) {
+            failedWrites.incrementAndGet();
+        } else {
+            writes.incrementAndGet();
+            lastPersistLag = TimeUnit.NANOSECONDS.toMillis(end - since);
+        }
+    }
+
+    /**
+     * Gets the number of models committed for writing.
+     *
+     * @return the number of commits
+     */
+    public long getCommitCount() {
+        return commits.get();
+    }
+
+    /**
+     * Gets the number of times the file was written. Lower than the {@link #getCommitCount() number of commits} when
+     * commits were coalesced.
+     *
+     * @return the number of writes
+     */
+    public long getWriteCount() {
+        return writes.get();
+    }
+
+    /**
+     * Gets the number of writes that failed.
+     *
+     * @return the number of failed writes
+     */
+    public long getFailedWriteCount() {
+        return failedWrites.get();
+    }
+
+    /**
+     * Gets the failure of the last write.
+     *
+     * @return the failure, or {@code null} if the last write succeeded or nothing was written yet
+     */
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Gets whether the last write failed, so the file does not hold the running configuration until a later write
+     * succeeds.
+     *
+     * @return {@code true} if the configuration still needs to be persisted
+     */
+    public boolean isPersistenceRequired() {
+        return lastFailure != null;
+    }
+
+    /**
+     * Gets the time between the earliest commit covered by the last successful write and the completion of that write.
+     *
+     * @return the lag in milliseconds, or {@code -1} if nothing was written yet
+     */
+    public long getLastPersistLag() {
+        return lastPersistLag;
+    }
+
+    /**
+     * Gets how long the last write took, including marshalling the model if it was done by the write.
+     *
+     * @return the duration in milliseconds, or {@code -1} if nothing was written yet
+     */
+    public long getLastWriteDuration() {
+        return lastWriteDuration;
+    }
+}
@@ -63,6 +63,7 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
                 FilePersistenceUtils.writeToTempFile(in, tempFileName, fileName);
             } catch (Exception e) {
                 MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
+                failed(e);
                 return;
             }
             try {
@@ -73,6 +74,7 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
             configurationFile.fileWritten();
         } catch (ConfigurationPersistenceException e) {
            MGMT_OP_LOGGER.errorf(e, e.toString());
+           failed(e);
         } finally {
             if (tempFileName.exists() && !tempFileName.delete()) {
                 MGMT_OP_LOGGER.cannotDeleteTempFile(tempFileName.getName());
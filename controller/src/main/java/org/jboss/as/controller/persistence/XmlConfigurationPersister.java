@@ -33,6 +33,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLInputFactory;
@@ -60,6 +61,7 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
     private final XMLElementReader<List<ModelNode>> rootParser;
     private final Map<QName, XMLElementReader<List<ModelNode>>> additionalParsers;
     private final boolean suppressLoad;
+    private final CoalescingConfigurationWriter writer;
 
     /**
      * Construct a new instance.
@@ -89,6 +91,7 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         this.rootParser = rootParser;
         this.additionalParsers = new HashMap<QName, XMLElementReader<List<ModelNode>>>();
         this.suppressLoad = suppressLoad;
+        this.writer = new CoalescingConfigurationWriter(fileName.getName(), this::createPersistenceResource);
     }
 
     public void registerAdditionalRootElement(final QName anotherRoot, final XMLElementReader<List<ModelNode>> parser){
@@ -97,9 +100,40 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         }
     }
 
+    /**
+     * Sets the time window within which committed models are coalesced into a single write of the file. With the
+     * default of zero every commit writes the file before returning.
+     *
+     * @param window the window in milliseconds
+     * @param executor the executor performing the coalesced writes. Every commit writes the file if {@code null}
+     */
+    public void setCoalescingWindow(final long window, final ScheduledExecutorService executor) {
+        writer.setWindow(window, executor);
+    }
+
+    /**
+     * Gets the writer of the configuration file, which also provides statistics about the writes.
+     *
+     * @return the writer. Will not be {@code null}
+     */
+    public CoalescingConfigurationWriter getWriter() {
+        return writer;
+    }
+
     /** {@inheritDoc} */
     @Override
     public PersistenceResource store(final ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
+        return writer.store(model);
+    }
+
+    /**
+     * Creates the resource that marshals the given model and writes it to the file when committed.
+     *
+     * @param model the model to persist
+     * @return the resource. Will not be {@code null}
+     * @throws ConfigurationPersistenceException if the model cannot be marshalled
+     */
+    protected PersistenceResource createPersistenceResource(final ModelNode model) throws ConfigurationPersistenceException {
         return new FilePersistenceResource(model, fileName, this);
     }
 
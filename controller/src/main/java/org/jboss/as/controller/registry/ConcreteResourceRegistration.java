@@ -89,6 +89,8 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
 
     private Set<RuntimePackageDependency> additionalPackages;
 
+    private final DescriptionCache descriptionCache = new DescriptionCache();
+
     /** Constructor for a root MRR */
     ConcreteResourceRegistration(final ResourceDefinition definition,
                                  final AccessConstraintUtilizationRegistry constraintUtilizationRegistry,
@@ -131,7 +133,13 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
     }
 
     void initialized() {
+        writeUnlock();
+    }
+
+    /** Releases the write lock, discarding any descriptions that may have been affected by the change just made */
+    private void writeUnlock() {
         writeLock.unlock();
+        DescriptionCache.registrationChanged();
     }
 
     @Override
@@ -167,7 +175,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         try {
             this.runtimeOnly = runtimeOnly;
         } finally {
-            writeLock.unlock();
+            writeUnlock();
         }
     }
 
@@ -258,7 +266,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 }
             }
         } finally {
-            writeLock.unlock();
+            writeUnlock();
         }
     }
 
@@ -295,7 +303,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 constraintUtilizationRegistry.unregisterAccessConstraintUtilizations(getPathAddress().append(address));
             }
         } finally {
-            writeLock.unlock();
+            writeUnlock();
         }
     }
 
@@ -406,7 +414,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 throw operationNotRegisteredException(operationName, resourceDefinition.getPathElement());
             }
         } finally {
-            writeLock.unlock();
+            writeUnlock();
         }
     }
 
@@ -441,7 +449,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         try {
             attributes.remove(attributeName);
         } finally {
-            writeLock.unlock();
+            writeUnlock();
         }
     }
 
@@ -464,7 +472,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 notifications.put(type, entry);
             }
         } finally {
-            writeLock.unlock();
+            writeUnlock();
         }
     }
 
@@ -482,7 +490,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 notifications.remove(notificationType);
             }
         } finally {
-            writeLock.unlock();
+            writeUnlock();
         }
     }
 
@@ -528,7 +536,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             attributes.put(attributeName, aa);
             registerAttributeAccessConstraints(definition);
         } finally {
-            writeLock.unlock();
+            writeUnlock();
         }
     }
 
@@ -715,7 +723,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 }
             }
         } finally {
-            writeLock.unlock();
+            writeUnlock();
         }
     }
 
@@ -731,7 +739,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 incorporatingCapabilities = Collections.unmodifiableSet(new HashSet<>(capabilities));
             }
         } finally {
-            writeLock.unlock();
+            writeUnlock();
         }
     }
 
@@ -745,7 +753,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 this.requirements = Collections.unmodifiableSet(new HashSet<>(requirements));
             }
         } finally {
-            writeLock.unlock();
+            writeUnlock();
         }
     }
 
@@ -790,7 +798,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 return newRegistry;
             }
         } finally {
-            writeLock.unlock();
+            writeUnlock();
         }
     }
 
@@ -805,7 +813,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             return subregistry.getModelDescription(iterator, next.getValue());
         } else {
             checkPermission();
-            return resourceDefinition.getDescriptionProvider(this);
+            return descriptionCache.wrap(resourceDefinition.getDescriptionProvider(this));
         }
     }
 
@@ -1010,7 +1018,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 orderedChildTypes.add(type);
             }
         } finally {
-            writeLock.unlock();
+            writeUnlock();
         }
     }
 
@@ -1025,7 +1033,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 additionalPackages.add(pkg);
             }
         } finally {
-            writeLock.unlock();
+            writeUnlock();
         }
     }
 
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.descriptions.DefaultOperationDescriptionProvider;
+import org.jboss.as.controller.descriptions.DefaultResourceAddDescriptionProvider;
+import org.jboss.as.controller.descriptions.DefaultResourceDescriptionProvider;
+import org.jboss.as.controller.descriptions.DefaultResourceRemoveDescriptionProvider;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Per-locale cache of the description of a single resource registration or operation entry.
+ * <p>
+ * Only the standard description providers are cached, as their output depends on nothing but the static
+ * description resolvers and the content of the registration tree. Any change to the tree (including extensions
+ * registering or unregistering their subsystems) calls {@link #registrationChanged()}, which discards every
+ * cached description. Callers get a copy of the cached description, so they are free to modify it.
+ * <p>
+ * Caching can be disabled by setting the {@code jboss.as.management.description-cache} system property to
+ * {@code false}.
+ */
+final class DescriptionCache {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged("jboss.as.management.description-cache", "true"));
+
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private volatile Descriptions descriptions;
+
+    /**
+     * Records that the registration tree has changed. Must be called after the change is visible, so descriptions
+     * built from the old tree are never cached as current.
+     */
+    static void registrationChanged() {
+        VERSION.incrementAndGet();
+    }
+
+    /**
+     * Gets a description provider that caches the descriptions created by {@code provider} in this cache.
+     *
+     * @param provider the provider. May be {@code null}
+     * @return a caching provider, or {@code provider} itself if its descriptions cannot be cached
+     */
+    DescriptionProvider wrap(final DescriptionProvider provider) {
+        if (!ENABLED || !isCacheable(provider)) {
+            return provider;
+        }
+        return locale -> getModelDescription(provider, locale);
+    }
+
+    private ModelNode getModelDescription(DescriptionProvider provider, Locale requested) {
+        // Most requests carry no locale, which the standard providers treat as the default locale
+        final Locale locale = requested != null ? requested : Locale.getDefault();
+        final long version = VERSION.get();
+        Descriptions current = descriptions;
+        if (current == null || current.version != version) {
+            current = new Descriptions(version);
+            descriptions = current;
+        }
+        ModelNode description = current.byLocale.get(locale);
+        if (description == null) {
+            description = provider.getModelDescription(locale);
+            current.byLocale.putIfAbsent(locale, description);
+        }
+        return description.clone();
+    }
+
+    private static boolean isCacheable(DescriptionProvider provider) {
+        if (provider == null) {
+            return false;
+        }
+        // Subclasses may describe runtime state, so only the exact standard types qualify
+        Class<?> type = provider.getClass();
+        return type == DefaultResourceDescriptionProvider.class
+                || type == DefaultOperationDescriptionProvider.class
+                || type == DefaultResourceAddDescriptionProvider.class
+                || type == DefaultResourceRemoveDescriptionProvider.class;
+    }
+
+    /** The descriptions created while the registration tree was at a given version */
+    private static final class Descriptions {
+        private final long version;
+        private final Map<Locale, ModelNode> byLocale = new ConcurrentHashMap<>(2);
+
+        private Descriptions(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -138,6 +138,7 @@ final class NodeSubregistry {
         if (appearingRegistry != null) {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
         }
+        DescriptionCache.registrationChanged();
         //register(elementValue, newRegistry);
         return newRegistry;
     }
@@ -145,6 +146,7 @@ final class NodeSubregistry {
     void unregisterProxyController(final String elementValue) {
         checkPermission();
         childRegistriesUpdater.remove(this, elementValue);
+        DescriptionCache.registrationChanged();
     }
 
     public AliasResourceRegistration registerAlias(final String elementValue, AliasEntry aliasEntry, AbstractResourceRegistration target) {
@@ -153,18 +155,21 @@ final class NodeSubregistry {
         if (existingRegistry != null) {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
         }
+        DescriptionCache.registrationChanged();
         return newRegistry;
     }
 
     public void unregisterAlias(final String elementValue) {
         checkPermission();
         childRegistriesUpdater.remove(this, elementValue);
+        DescriptionCache.registrationChanged();
     }
 
 
     void unregisterSubModel(final String elementValue) {
         checkPermission();
         AbstractResourceRegistration rr = childRegistriesUpdater.remove(this, elementValue);
+        DescriptionCache.registrationChanged();
         if (rr != null) {
             // We want to remove the possible capabilities.
             // We've removed the MRR so the normal getCapabilities() won't work as it
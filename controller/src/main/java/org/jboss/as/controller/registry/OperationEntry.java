@@ -99,6 +99,7 @@ public final class OperationEntry {
     private final OperationDefinition operationDefinition;
     private final OperationStepHandler operationHandler;
     private final boolean inherited;
+    private final DescriptionCache descriptionCache = new DescriptionCache();
 
     OperationEntry(final OperationDefinition definition, final OperationStepHandler operationHandler, final boolean inherited) {
         this.operationDefinition = definition;
@@ -115,7 +116,7 @@ public final class OperationEntry {
     }
 
     public DescriptionProvider getDescriptionProvider() {
-        return operationDefinition.getDescriptionProvider();
+        return descriptionCache.wrap(operationDefinition.getDescriptionProvider());
     }
 
     public boolean isInherited() {
@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ValueExpression;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ExpressionResolutionCache}.
+ */
+public class ExpressionResolutionCacheTestCase {
+
+    @Before
+    public void setUp() {
+        ExpressionResolutionCache.clear();
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty("test.cache.a");
+        System.clearProperty("test.cache.b");
+        ExpressionResolutionCache.clear();
+    }
+
+    @Test
+    public void testRepeatedResolutionHitsCache() throws OperationFailedException {
+        System.setProperty("test.cache.a", "A");
+        ModelNode node = new ModelNode(new ValueExpression("x-${test.cache.a}-${test.cache.b:B}"));
+        for (int i = 0; i < 3; i++) {
+            assertEquals("x-A-B", ExpressionResolver.TEST_RESOLVER.resolveExpressions(node).asString());
+        }
+        assertEquals(2, ExpressionResolutionCache.size());
+        assertEquals(2, ExpressionResolutionCache.getMissCount());
+        assertEquals(4, ExpressionResolutionCache.getHitCount());
+        assertTrue(ExpressionResolutionCache.getHitRate() > 0.6);
+    }
+
+    @Test
+    public void testPropertyChangesAreSeenWithoutInvalidation() throws OperationFailedException {
+        ModelNode node = new ModelNode(new ValueExpression("${test.cache.b,test.cache.a:default}"));
+        assertEquals("default", ExpressionResolver.TEST_RESOLVER.resolveExpressions(node).asString());
+        System.setProperty("test.cache.a", "A");
+        assertEquals("A", ExpressionResolver.TEST_RESOLVER.resolveExpressions(node).asString());
+        System.setProperty("test.cache.b", "B");
+        assertEquals("B", ExpressionResolver.TEST_RESOLVER.resolveExpressions(node).asString());
+        System.clearProperty("test.cache.b");
+        System.clearProperty("test.cache.a");
+        assertEquals("default", ExpressionResolver.TEST_RESOLVER.resolveExpressions(node).asString());
+    }
+
+    @Test
+    public void testDeclinedPluggableResolutionIsRemembered() throws OperationFailedException {
+        System.setProperty("test.cache.a", "A");
+        final AtomicInteger calls = new AtomicInteger();
+        ExpressionResolver resolver = new ExpressionResolverImpl() {
+            @Override
+            protected void resolvePluggableExpression(ModelNode node) {
+                calls.incrementAndGet();
+            }
+
+            @Override
+            protected boolean isPluggableResolutionCacheable() {
+                return true;
+            }
+        };
+        ModelNode node = new ModelNode(new ValueExpression("${test.cache.a}"));
+        assertEquals("A", resolver.resolveExpressions(node).asString());
+        assertEquals("A", resolver.resolveExpressions(node).asString());
+        assertEquals(1, calls.get());
+
+        ExpressionResolutionCache.invalidate();
+        assertEquals("A", resolver.resolveExpressions(node).asString());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testPluggableResolutionNotRememberedByDefault() throws OperationFailedException {
+        final AtomicInteger calls = new AtomicInteger();
+        ExpressionResolver resolver = new ExpressionResolverImpl() {
+            @Override
+            protected void resolvePluggableExpression(ModelNode node) {
+                if (calls.incrementAndGet() > 1) {
+                    node.set("plugged");
+                }
+            }
+        };
+        ModelNode node = new ModelNode(new ValueExpression("${test.cache.b:B}"));
+        assertEquals("B", resolver.resolveExpressions(node).asString());
+        assertEquals("plugged", resolver.resolveExpressions(node).asString());
+    }
+}
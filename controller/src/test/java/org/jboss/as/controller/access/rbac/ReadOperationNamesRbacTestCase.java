@@ -66,6 +66,7 @@ import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraint
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
 import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.AggregateMetricsHandler;
 import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
@@ -124,7 +125,7 @@ public class ReadOperationNamesRbacTestCase extends AbstractControllerTestBase {
                 OP_RUNTIME_RW_ACCESS_READ_WRITE, OP_RUNTIME_RW_READ_WRITE, OP_RUNTIME_RW_WRITE, OP_RUNTIME_RW_READ, OP_RUNTIME_RW_NONE,
                 OP_CONFIG_RO_ACCESS_READ_WRITE, OP_CONFIG_RO_READ_WRITE, OP_CONFIG_RO_WRITE, OP_CONFIG_RO_READ, OP_CONFIG_RO_NONE,
                 OP_RUNTIME_RO_ACCESS_READ_WRITE, OP_RUNTIME_RO_READ_WRITE, OP_RUNTIME_RO_WRITE, OP_RUNTIME_RO_READ, OP_RUNTIME_RO_NONE,
-        "map-clear", "list-clear", "map-put", "list-get", "map-get", "list-remove", "list-add", "map-remove", QUERY};
+        "map-clear", "list-clear", "map-put", "list-get", "map-get", "list-remove", "list-add", "map-remove", QUERY, AggregateMetricsHandler.OPERATION_NAME};
         HashSet<String> allNames = new HashSet<>(
                 Arrays.asList(ALL_OPERATION_NAMES_ARRAY));
         ALL_OPERATION_NAMES = Collections.unmodifiableSet(allNames);
@@ -149,7 +150,7 @@ public class ReadOperationNamesRbacTestCase extends AbstractControllerTestBase {
                 OP_CONFIG_RO_WRITE /*Although this has a write sensitivity, the operation is read-only so the sensitivity should not be relevant*/,
                 OP_CONFIG_RO_NONE,
                 OP_RUNTIME_RO_WRITE /*Although this has a write sensitivity, the operation is read-only so the sensitivity should not be relevant*/,
-                OP_RUNTIME_RO_NONE, "list-get", "map-get", QUERY});
+                OP_RUNTIME_RO_NONE, "list-get", "map-get", QUERY, AggregateMetricsHandler.OPERATION_NAME});
         testReadOperationNames(StandardRole.MONITOR, false, ALL_OPERATION_NAMES_ARRAY);
     }
 
@@ -172,7 +173,8 @@ public class ReadOperationNamesRbacTestCase extends AbstractControllerTestBase {
                 OP_RUNTIME_RO_WRITE /*Although this has a write sensitivity, the operation is read-only so the sensitivity should not be relevant*/,
                 OP_RUNTIME_RO_NONE,
                 "map-clear", "list-clear", "map-put", "list-get", "map-get", "list-remove", "list-add", "map-remove",
-                QUERY
+                QUERY,
+                AggregateMetricsHandler.OPERATION_NAME
         });
         testReadOperationNames(StandardRole.MAINTAINER, false, ALL_OPERATION_NAMES_ARRAY);
     }
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.access.rbac;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.jboss.as.controller.access.AuthorizerConfiguration;
+import org.jboss.as.controller.access.Caller;
+import org.jboss.as.controller.access.management.WritableAuthorizerConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.security.auth.permission.LoginPermission;
+import org.wildfly.security.auth.server.SecurityDomain;
+import org.wildfly.security.auth.server.SecurityRealm;
+
+/**
+ * Tests of the caching of mapped roles by {@link StandardRoleMapper}.
+ */
+public class StandardRoleMapperTestCase {
+
+    private static final String MONITOR = StandardRole.MONITOR.getOfficialForm();
+
+    private WritableAuthorizerConfiguration configuration;
+    private StandardRoleMapper roleMapper;
+    private Caller caller;
+
+    @Before
+    public void setUp() {
+        configuration = new WritableAuthorizerConfiguration(StandardRBACAuthorizer.AUTHORIZER_DESCRIPTION);
+        configuration.addRoleMapping(MONITOR);
+        roleMapper = new StandardRoleMapper(configuration);
+        SecurityDomain domain = SecurityDomain.builder()
+                .setDefaultRealmName("Test")
+                .addRealm("Test", SecurityRealm.EMPTY_REALM).build()
+                .setPermissionMapper((permissionMappable, roles) -> LoginPermission.getInstance())
+                .build();
+        caller = Caller.createCaller(domain.createAdHocIdentity("TestUser"));
+    }
+
+    @Test
+    public void testRolesCachedPerCaller() {
+        configuration.setRoleMappingIncludeAll(MONITOR, true);
+        Set<String> roles = roleMapper.mapRoles(caller, null, null);
+        assertEquals(Collections.singleton(MONITOR), roles);
+        assertSame(roles, roleMapper.mapRoles(caller, null, null));
+    }
+
+    @Test
+    public void testConfigurationChangesInvalidateCachedRoles() {
+        assertEquals(Collections.emptySet(), roleMapper.mapRoles(caller, null, null));
+
+        configuration.addRoleMappingPrincipal(MONITOR, AuthorizerConfiguration.PrincipalType.USER,
+                WritableAuthorizerConfiguration.MatchType.INCLUDE, "TestUser", null, false);
+        assertEquals(Collections.singleton(MONITOR), roleMapper.mapRoles(caller, null, null));
+
+        configuration.addRoleMappingPrincipal(MONITOR, AuthorizerConfiguration.PrincipalType.USER,
+                WritableAuthorizerConfiguration.MatchType.EXCLUDE, "TestUser", null, false);
+        assertEquals(Collections.emptySet(), roleMapper.mapRoles(caller, null, null));
+
+        Object removalKey = configuration.removeRoleMapping(MONITOR);
+        configuration.undoRoleMappingRemove(removalKey);
+        configuration.removeRoleMappingPrincipal(MONITOR, AuthorizerConfiguration.PrincipalType.USER,
+                WritableAuthorizerConfiguration.MatchType.EXCLUDE, "TestUser", null);
+        assertEquals(Collections.singleton(MONITOR), roleMapper.mapRoles(caller, null, null));
+    }
+
+    @Test
+    public void testConfigurationVersion() {
+        long version = configuration.getConfigurationVersion();
+        configuration.setUseIdentityRoles(true);
+        assertNotEquals(version, configuration.getConfigurationVersion());
+        version = configuration.getConfigurationVersion();
+        configuration.reset();
+        assertNotEquals(version, configuration.getConfigurationVersion());
+    }
+}
@@ -30,7 +30,9 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -107,4 +109,116 @@ public class NotificationSupportImplTestCase {
         // handled the 2nd notifications2 that were emitted
         assertEquals(notifications2, handler.getNotifications().subList(9, 12));
     }
+
+    @Test
+    public void testSlowHandlerDoesNotDelayOtherHandlers() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            NotificationSupport notificationSupport = NotificationSupport.Factory.create(executor);
+            BlockingNotificationHandler slowHandler = new BlockingNotificationHandler();
+            CountDownLatch latch = new CountDownLatch(3);
+            CountdownListBackedNotificationHandler fastHandler = new CountdownListBackedNotificationHandler(latch);
+            notificationSupport.getNotificationRegistry().registerNotificationHandler(NotificationHandlerRegistration.ANY_ADDRESS, slowHandler, ALL);
+            notificationSupport.getNotificationRegistry().registerNotificationHandler(NotificationHandlerRegistration.ANY_ADDRESS, fastHandler, ALL);
+
+            notificationSupport.emit(new Notification("foo", pathAddress("resource", "foo"), "foo"),
+                    new Notification("foo", pathAddress("resource", "foo"), "bar"),
+                    new Notification("foo", pathAddress("resource", "foo"), "baz"));
+
+            // the fast handler receives all the notifications while the slow handler is still blocked on the first one
+            assertTrue(slowHandler.entered.await(5, SECONDS));
+            assertTrue(latch.await(5, SECONDS));
+            assertEquals(1, slowHandler.notifications.size());
+            slowHandler.release.countDown();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testOverflowAndCoalescing() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            NotificationSupports.NonBlockingNotificationSupport notificationSupport = new NotificationSupports.NonBlockingNotificationSupport(
+                    NotificationHandlerRegistration.Factory.create(), executor, 2, NotificationSupports.OverflowPolicy.DISCARD_OLDEST, true);
+            BlockingNotificationHandler handler = new BlockingNotificationHandler();
+            notificationSupport.getNotificationRegistry().registerNotificationHandler(NotificationHandlerRegistration.ANY_ADDRESS, handler, ALL);
+
+            Notification first = new Notification("foo", pathAddress("resource", "foo"), "1");
+            notificationSupport.emit(first);
+            assertTrue(handler.entered.await(5, SECONDS));
+
+            Notification second = new Notification("foo", pathAddress("resource", "foo"), "2");
+            Notification third = new Notification("foo", pathAddress("resource", "foo"), "3");
+            Notification fourth = new Notification("foo", pathAddress("resource", "foo"), "4");
+            // the repeated third notification is coalesced; the fourth one pushes the second one out of the full queue
+            notificationSupport.emit(second, third, new Notification("foo", pathAddress("resource", "foo"), "3"), fourth);
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (notificationSupport.getDroppedCount() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, notificationSupport.getDroppedCount());
+            assertEquals(1, notificationSupport.getCoalescedCount());
+            assertEquals(2, notificationSupport.getQueueDepth());
+            assertEquals(2, notificationSupport.getMaxHandlerQueueDepth());
+
+            handler.release.countDown();
+            deadline = System.currentTimeMillis() + 5000;
+            while (notificationSupport.getQueueDepth() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(Arrays.asList(first, third, fourth), handler.notifications);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRepeatedNotificationsDeliveredByDefault() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            NotificationSupports.NonBlockingNotificationSupport notificationSupport = new NotificationSupports.NonBlockingNotificationSupport(
+                    NotificationHandlerRegistration.Factory.create(), executor, 10, NotificationSupports.OverflowPolicy.BLOCK, false);
+            BlockingNotificationHandler handler = new BlockingNotificationHandler();
+            notificationSupport.getNotificationRegistry().registerNotificationHandler(NotificationHandlerRegistration.ANY_ADDRESS, handler, ALL);
+
+            Notification first = new Notification("foo", pathAddress("resource", "foo"), "1");
+            notificationSupport.emit(first);
+            assertTrue(handler.entered.await(5, SECONDS));
+
+            // e.g. the same value written twice to an attribute
+            Notification second = new Notification("foo", pathAddress("resource", "foo"), "2");
+            Notification repeated = new Notification("foo", pathAddress("resource", "foo"), "2");
+            notificationSupport.emit(second, repeated);
+
+            handler.release.countDown();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (handler.notifications.size() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(Arrays.asList(first, second, repeated), handler.notifications);
+            assertEquals(0, notificationSupport.getCoalescedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class BlockingNotificationHandler implements NotificationHandler {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<Notification> notifications = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void handleNotification(Notification notification) {
+            notifications.add(notification);
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 }
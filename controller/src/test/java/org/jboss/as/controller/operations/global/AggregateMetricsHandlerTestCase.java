@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.operations.global;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MIN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.operations.global.AggregateMetricsHandler.AVERAGE;
+import static org.jboss.as.controller.operations.global.AggregateMetricsHandler.COUNT;
+import static org.jboss.as.controller.operations.global.AggregateMetricsHandler.SKIPPED;
+import static org.jboss.as.controller.operations.global.AggregateMetricsHandler.SUM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link AggregateMetricsHandler.Aggregate}.
+ */
+public class AggregateMetricsHandlerTestCase {
+
+    @Test
+    public void testFailedAndUndefinedTargetsAreCounted() {
+        AggregateMetricsHandler.Aggregate aggregate = new AggregateMetricsHandler.Aggregate(false);
+        assertNull(AggregateMetricsHandler.addTargetResults(aggregate, Arrays.asList(
+                success("a", new ModelNode(4)),
+                failure("b"),
+                success("c", new ModelNode()),
+                success("d", new ModelNode(8)))));
+
+        ModelNode result = aggregate.toResult(new ModelNode());
+        assertEquals(2, result.get(COUNT).asLong());
+        assertEquals(1, result.get(FAILED).asLong());
+        assertEquals(1, result.get(SKIPPED).asLong());
+        assertEquals(12, result.get(SUM).asDouble(), 0);
+        assertEquals(4, result.get(MIN).asDouble(), 0);
+        assertEquals(8, result.get(MAX).asDouble(), 0);
+        assertEquals(6, result.get(AVERAGE).asDouble(), 0);
+    }
+
+    @Test
+    public void testPartialCarriesFailedAndSkipped() {
+        AggregateMetricsHandler.Aggregate remote = new AggregateMetricsHandler.Aggregate(false);
+        AggregateMetricsHandler.addTargetResults(remote, Arrays.asList(success("a", new ModelNode(3)), failure("b")));
+        remote.skipped(2);
+
+        AggregateMetricsHandler.Aggregate aggregate = new AggregateMetricsHandler.Aggregate(false);
+        assertNull(AggregateMetricsHandler.addTargetResults(aggregate, Arrays.asList(
+                success("host", remote.toPartial()),
+                failure("other"))));
+
+        ModelNode result = aggregate.toResult(new ModelNode());
+        assertEquals(1, result.get(COUNT).asLong());
+        assertEquals(2, result.get(FAILED).asLong());
+        assertEquals(2, result.get(SKIPPED).asLong());
+        assertEquals(3, result.get(SUM).asDouble(), 0);
+    }
+
+    @Test
+    public void testNonNumericTargetIsReported() {
+        AggregateMetricsHandler.Aggregate aggregate = new AggregateMetricsHandler.Aggregate(false);
+        PathAddress nonNumeric = AggregateMetricsHandler.addTargetResults(aggregate, Arrays.asList(
+                success("a", new ModelNode(1)),
+                success("b", new ModelNode("text"))));
+        assertEquals(PathAddress.pathAddress("subsystem", "b"), nonNumeric);
+    }
+
+    private static ModelNode success(String name, ModelNode result) {
+        ModelNode item = new ModelNode();
+        item.get(OP_ADDR).set(PathAddress.pathAddress("subsystem", name).toModelNode());
+        item.get(OUTCOME).set(SUCCESS);
+        item.get(RESULT).set(result);
+        return item;
+    }
+
+    private static ModelNode failure(String name) {
+        ModelNode item = new ModelNode();
+        item.get(OP_ADDR).set(PathAddress.pathAddress("subsystem", name).toModelNode());
+        item.get(OUTCOME).set(FAILED);
+        item.get(FAILURE_DESCRIPTION).set("failed");
+        return item;
+    }
+}
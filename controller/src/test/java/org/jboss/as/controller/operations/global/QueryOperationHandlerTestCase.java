@@ -0,0 +1,258 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.operations.global;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES_ONLY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.QUERY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SELECT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WHERE;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.ModelOnlyAddStepHandler;
+import org.jboss.as.controller.OperationDefinition;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.test.AbstractControllerTestBase;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that a query whose {@code where} and {@code select} are pushed down into the resource read returns
+ * the same result as a full {@code read-resource(include-runtime=true)} that is filtered and reduced afterwards.
+ */
+public class QueryOperationHandlerTestCase extends AbstractControllerTestBase {
+
+    private static final PathElement SUBSYSTEM = PathElement.pathElement("subsystem", "test");
+    private static final PathElement ITEM = PathElement.pathElement("item");
+    private static final String READ_SELECTED = "read-selected";
+
+    private static final AttributeDefinition GROUP = new SimpleAttributeDefinitionBuilder("group", ModelType.STRING, true).build();
+    private static final AttributeDefinition SIZE = new SimpleAttributeDefinitionBuilder("size", ModelType.INT, true).build();
+    private static final AttributeDefinition STATE = new SimpleAttributeDefinitionBuilder("state", ModelType.STRING, true)
+            .setStorageRuntime()
+            .build();
+
+    private static final OperationDefinition READ_SELECTED_DEFINITION = new SimpleOperationDefinitionBuilder(READ_SELECTED, new NonResolvingResourceDescriptionResolver())
+            .setParameters(ReadResourceHandler.DEFINITION.getParameters())
+            .setReadOnly()
+            .build();
+
+    /** Number of times the runtime {@code state} attribute has been read */
+    private final AtomicInteger stateReads = new AtomicInteger();
+
+    @Before
+    public void addItems() throws Exception {
+        addItem("one", "a", 1);
+        addItem("two", "a", 2);
+        addItem("three", "b", 1);
+        addItem("four", "b", null);
+        stateReads.set(0);
+    }
+
+    @Test
+    public void testWhereOnNonSelectedAttribute() throws Exception {
+        ModelNode query = query(where("group", "a"), "size", "state");
+        assertEquals(expected(where("group", "a"), "size", "state"), results(query));
+        // The runtime attribute is only read for the resources that match
+        stateReads.set(0);
+        executeForResult(query);
+        assertEquals(2, stateReads.get());
+    }
+
+    @Test
+    public void testWhereOnSeveralAttributes() throws Exception {
+        ModelNode where = where("group", "b");
+        where.get("size").set(1);
+        assertEquals(expected(where, "group", "state"), results(query(where, "group", "state")));
+    }
+
+    @Test
+    public void testSelectContainedInWhere() throws Exception {
+        ModelNode where = where("group", "a");
+        where.get("size").set(2);
+        assertEquals(expected(where, "size"), results(query(where, "size")));
+        stateReads.set(0);
+        executeForResult(query(where, "size"));
+        assertEquals(0, stateReads.get());
+    }
+
+    @Test
+    public void testWhereUndefined() throws Exception {
+        ModelNode where = where("size", "undefined");
+        assertEquals(expected(where, "group", "state"), results(query(where, "group", "state")));
+    }
+
+    @Test
+    public void testWhereOnRuntimeAttribute() throws Exception {
+        assertEquals(expected(where("state", "three-a"), "group"), results(query(where("state", "three-a"), "group")));
+        assertEquals(expected(where("state", "three-b"), "group"), results(query(where("state", "three-b"), "group")));
+    }
+
+    @Test
+    public void testWhereWithoutSelect() throws Exception {
+        assertEquals(expected(where("group", "b")), results(query(where("group", "b"))));
+    }
+
+    @Test
+    public void testSelectWithoutWhere() throws Exception {
+        assertEquals(expected(new ModelNode(), "group", "state"), results(query(new ModelNode(), "group", "state")));
+    }
+
+    @Test
+    public void testReadSelectedAttributes() throws Exception {
+        for (String name : Arrays.asList("one", "two", "three", "four")) {
+            PathAddress address = PathAddress.pathAddress(SUBSYSTEM, PathElement.pathElement(ITEM.getKey(), name));
+            ModelNode op = createOperation(READ_SELECTED, address);
+            op.get(INCLUDE_RUNTIME).set(true);
+            op.get(ATTRIBUTES_ONLY).set(true);
+
+            ModelNode full = readFully(address);
+            ModelNode expected = new ModelNode();
+            expected.get("size").set(full.get("size"));
+            expected.get("state").set(full.get("state"));
+            assertEquals(expected, executeForResult(op));
+
+            // Without include-runtime the handler only reads the selected configuration attribute
+            op.get(INCLUDE_RUNTIME).set(false);
+            expected.remove("state");
+            assertEquals(expected, executeForResult(op));
+        }
+    }
+
+    @Override
+    protected void initModel(ManagementModel managementModel) {
+        ManagementResourceRegistration registration = managementModel.getRootResourceRegistration();
+        GlobalOperationHandlers.registerGlobalOperations(registration, processType);
+        GlobalNotifications.registerGlobalNotifications(registration, processType);
+
+        ManagementResourceRegistration subsystem = registration.registerSubModel(
+                new SimpleResourceDefinition(SUBSYSTEM, new NonResolvingResourceDescriptionResolver()));
+        ManagementResourceRegistration item = subsystem.registerSubModel(
+                new SimpleResourceDefinition(new SimpleResourceDefinition.Parameters(ITEM, new NonResolvingResourceDescriptionResolver())
+                        .setAddHandler(new ModelOnlyAddStepHandler(GROUP, SIZE))));
+        item.registerReadOnlyAttribute(GROUP, null);
+        item.registerReadOnlyAttribute(SIZE, null);
+        item.registerReadOnlyAttribute(STATE, (context, operation) -> {
+            stateReads.incrementAndGet();
+            String name = context.getCurrentAddressValue();
+            String group = context.readResource(PathAddress.EMPTY_ADDRESS).getModel().get(GROUP.getName()).asString();
+            context.getResult().set(name + "-" + group);
+        });
+        item.registerOperationHandler(READ_SELECTED_DEFINITION,
+                new ReadResourceHandler(new HashSet<>(Arrays.asList(SIZE.getName(), STATE.getName()))));
+
+        registration.registerOperationHandler(new SimpleOperationDefinitionBuilder("setup", new NonResolvingResourceDescriptionResolver())
+                .setPrivateEntry()
+                .build(), (context, operation) -> context.createResource(PathAddress.pathAddress(SUBSYSTEM)));
+    }
+
+    private void addItem(String name, String group, Integer size) throws Exception {
+        ModelNode add = createOperation(ADD, PathAddress.pathAddress(SUBSYSTEM, PathElement.pathElement(ITEM.getKey(), name)));
+        add.get(GROUP.getName()).set(group);
+        if (size != null) {
+            add.get(SIZE.getName()).set(size);
+        }
+        executeForResult(add);
+    }
+
+    private ModelNode query(ModelNode where, String... select) {
+        ModelNode op = createOperation(QUERY, PathAddress.pathAddress(SUBSYSTEM, ITEM));
+        if (where.isDefined()) {
+            op.get(WHERE).set(where);
+        }
+        for (String name : select) {
+            op.get(SELECT).add(name);
+        }
+        return op;
+    }
+
+    private static ModelNode where(String name, String value) {
+        ModelNode where = new ModelNode();
+        where.get(name).set(value);
+        return where;
+    }
+
+    /** Maps the name of each item in a query result to its value */
+    private Map<String, ModelNode> results(ModelNode query) throws Exception {
+        Map<String, ModelNode> results = new HashMap<>();
+        for (ModelNode item : executeForResult(query).asList()) {
+            results.put(PathAddress.pathAddress(item.get(OP_ADDR)).getLastElement().getValue(), item.get(RESULT));
+        }
+        return results;
+    }
+
+    /** Computes the query result from a full read of every item, the way the query did before the push-down */
+    private Map<String, ModelNode> expected(ModelNode where, String... select) throws Exception {
+        Map<String, ModelNode> expected = new HashMap<>();
+        for (String name : Arrays.asList("one", "two", "three", "four")) {
+            ModelNode full = readFully(PathAddress.pathAddress(SUBSYSTEM, PathElement.pathElement(ITEM.getKey(), name)));
+            boolean matches = true;
+            if (where.isDefined()) {
+                for (String key : where.keys()) {
+                    ModelNode value = where.get(key);
+                    matches &= "undefined".equals(value.asString())
+                            ? !full.get(key).isDefined()
+                            : full.hasDefined(key) && value.asString().equals(full.get(key).asString());
+                }
+            }
+            if (matches) {
+                ModelNode reduced = full;
+                if (select.length > 0) {
+                    reduced = new ModelNode();
+                    for (String key : select) {
+                        if (full.hasDefined(key)) {
+                            reduced.get(key).set(full.get(key));
+                        }
+                    }
+                }
+                expected.put(name, reduced);
+            }
+        }
+        return expected;
+    }
+
+    private ModelNode readFully(PathAddress address) throws Exception {
+        ModelNode op = createOperation(READ_RESOURCE_OPERATION, address);
+        op.get(INCLUDE_RUNTIME).set(true);
+        return executeForResult(op);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests of {@link CoalescingConfigurationWriter}.
+ */
+public class CoalescingConfigurationWriterTestCase {
+
+    private final List<String> written = Collections.synchronizedList(new ArrayList<>());
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private volatile boolean failing;
+
+    private final CoalescingConfigurationWriter writer = new CoalescingConfigurationWriter("test.xml", model -> new ConfigurationPersister.PersistenceResource() {
+        @Override
+        public void commit() {
+            if (failing) {
+                throw new IllegalStateException("disk full");
+            }
+            written.add(model.asString());
+        }
+
+        @Override
+        public void rollback() {
+        }
+    });
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSynchronousWrites() throws Exception {
+        writer.store(new ModelNode("one")).commit();
+        assertEquals(1, written.size());
+        writer.store(new ModelNode("two")).rollback();
+        writer.store(new ModelNode("three")).commit();
+        assertEquals(2, written.size());
+        assertEquals(new ModelNode("three").asString(), written.get(1));
+        assertEquals(2, writer.getCommitCount());
+        assertEquals(2, writer.getWriteCount());
+    }
+
+    @Test
+    public void testCoalescedWrites() throws Exception {
+        writer.setWindow(60000, executor);
+        for (int i = 0; i < 10; i++) {
+            writer.store(new ModelNode(i)).commit();
+        }
+        writer.store(new ModelNode("rolled back")).rollback();
+        assertEquals(0, written.size());
+        writer.flush();
+        assertEquals(1, written.size());
+        assertEquals(new ModelNode(9).asString(), written.get(0));
+        assertEquals(10, writer.getCommitCount());
+        assertEquals(1, writer.getWriteCount());
+        writer.close();
+    }
+
+    @Test
+    public void testWindowElapses() throws Exception {
+        writer.setWindow(500, executor);
+        writer.store(new ModelNode("one")).commit();
+        writer.store(new ModelNode("two")).commit();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (written.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Collections.singletonList(new ModelNode("two").asString()), written);
+        writer.close();
+    }
+
+    @Test
+    public void testPendingWrittenBeforeSynchronous() throws Exception {
+        writer.setWindow(60000, executor);
+        writer.store(new ModelNode("coalesced")).commit();
+        writer.setWindow(0, null);
+        writer.store(new ModelNode("synchronous")).commit();
+        assertEquals(2, written.size());
+        assertEquals(new ModelNode("synchronous").asString(), written.get(1));
+        writer.close();
+    }
+
+    @Test
+    public void testFailedWriteIsRetried() throws Exception {
+        writer.setWindow(60000, executor);
+        failing = true;
+        writer.store(new ModelNode("one")).commit();
+        writer.flush();
+        assertEquals(0, written.size());
+        assertEquals(1, writer.getFailedWriteCount());
+        assertTrue(writer.isPersistenceRequired());
+        assertTrue(writer.getLastFailure() instanceof IllegalStateException);
+
+        // Still pending, so a flush retries it
+        failing = false;
+        writer.flush();
+        assertEquals(Collections.singletonList(new ModelNode("one").asString()), written);
+        assertFalse(writer.isPersistenceRequired());
+
+        // A newer commit supersedes a failed model
+        failing = true;
+        writer.store(new ModelNode("two")).commit();
+        writer.flush();
+        failing = false;
+        writer.store(new ModelNode("three")).commit();
+        writer.close();
+        assertEquals(2, written.size());
+        assertEquals(new ModelNode("three").asString(), written.get(1));
+        assertEquals(2, writer.getWriteCount());
+        assertEquals(2, writer.getFailedWriteCount());
+    }
+
+    @Test
+    public void testNoCoalescingWithoutExecutor() throws Exception {
+        writer.setWindow(60000, null);
+        writer.store(new ModelNode("one")).commit();
+        assertEquals(1, written.size());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the caching of resource descriptions by the registration tree.
+ */
+public class DescriptionCacheTestCase {
+
+    private static final PathElement CHILD = PathElement.pathElement("child");
+
+    private ManagementResourceRegistration rootRegistration;
+
+    @Before
+    public void setup() {
+        rootRegistration = ManagementResourceRegistration.Factory.forProcessType(ProcessType.EMBEDDED_SERVER)
+                .createRegistration(new SimpleResourceDefinition(null, new NonResolvingResourceDescriptionResolver()));
+    }
+
+    @Test
+    public void testCachedDescriptionIsCopied() {
+        DescriptionProvider provider = rootRegistration.getModelDescription(PathAddress.EMPTY_ADDRESS);
+        ModelNode first = provider.getModelDescription(Locale.ENGLISH);
+        first.get("modified").set(true);
+
+        ModelNode second = rootRegistration.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(Locale.ENGLISH);
+        assertNotSame(first, second);
+        assertFalse(second.has("modified"));
+        assertEquals(second, rootRegistration.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(Locale.ENGLISH));
+    }
+
+    @Test
+    public void testDefaultLocaleIsCached() {
+        final AtomicInteger resolved = new AtomicInteger();
+        ManagementResourceRegistration registration = ManagementResourceRegistration.Factory.forProcessType(ProcessType.EMBEDDED_SERVER)
+                .createRegistration(new SimpleResourceDefinition(null, new NonResolvingResourceDescriptionResolver() {
+                    @Override
+                    public String getResourceDescription(Locale locale, ResourceBundle bundle) {
+                        resolved.incrementAndGet();
+                        return super.getResourceDescription(locale, bundle);
+                    }
+                }));
+
+        ModelNode first = registration.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(null);
+        final int calls = resolved.get();
+        assertTrue(calls > 0);
+        assertEquals(first, registration.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(null));
+        assertEquals(calls, resolved.get());
+        // No locale means the default locale, so both share the cached description
+        assertEquals(first, registration.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(Locale.getDefault()));
+        assertEquals(calls, resolved.get());
+    }
+
+    @Test
+    public void testRegistrationChangesInvalidate() {
+        ModelNode before = rootRegistration.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(Locale.ENGLISH);
+        assertFalse(before.get(ModelDescriptionConstants.ATTRIBUTES).has("test"));
+        assertFalse(before.get(ModelDescriptionConstants.CHILDREN).has(CHILD.getKey()));
+
+        rootRegistration.registerReadOnlyAttribute(new SimpleAttributeDefinitionBuilder("test", ModelType.STRING).build(), null);
+        rootRegistration.registerSubModel(
+                new SimpleResourceDefinition(CHILD, new NonResolvingResourceDescriptionResolver()));
+
+        ModelNode after = rootRegistration.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(Locale.ENGLISH);
+        assertTrue(after.get(ModelDescriptionConstants.ATTRIBUTES).has("test"));
+        assertTrue(after.get(ModelDescriptionConstants.CHILDREN).has(CHILD.getKey()));
+
+        rootRegistration.unregisterSubModel(CHILD);
+        ModelNode removed = rootRegistration.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(Locale.ENGLISH);
+        assertFalse(removed.get(ModelDescriptionConstants.CHILDREN).has(CHILD.getKey()));
+    }
+}
@@ -37,6 +37,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAM
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NOTIFICATIONS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NOTIFICATION_TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATIONS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
@@ -52,6 +53,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQ
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUIRED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESOURCE_ADDED_NOTIFICATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESOURCE_REMOVED_NOTIFICATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_ONLY;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
@@ -69,6 +71,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.operations.global.AggregateMetricsHandler;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.dmr.Property;
@@ -322,6 +325,38 @@ public class GlobalOperationsTestCase extends AbstractGlobalOperationsTestCase {
     }
 
 
+    @Test
+    public void testAggregateMetrics() throws Exception {
+        ModelNode operation = createOperation(AggregateMetricsHandler.OPERATION_NAME, "profile", "*", "subsystem", "subsystem2");
+        operation.get(NAME).set("int");
+        operation.get("percentiles").add(50);
+        ModelNode result = executeForResult(operation);
+        assertEquals(1, result.get("count").asLong());
+        assertEquals(102, result.get("sum").asDouble(), 0.0d);
+        assertEquals(102, result.get("min").asDouble(), 0.0d);
+        assertEquals(102, result.get("max").asDouble(), 0.0d);
+        assertEquals(102, result.get("average").asDouble(), 0.0d);
+        assertEquals(102, result.get("percentile-50").asDouble(), 0.0d);
+        assertFalse(result.has("values"));
+        assertEquals(0, result.get("failed").asLong());
+        assertEquals(0, result.get("skipped").asLong());
+
+        operation.get(OPERATION_HEADERS, "aggregate-metrics-partial").set(true);
+        result = executeForResult(operation);
+        assertEquals(ModelType.LIST, result.getType());
+        assertEquals(1, result.asList().size());
+        assertEquals(1, result.get(0).get(RESULT, "count").asLong());
+        assertEquals(1, result.get(0).get(RESULT, "values").asList().size());
+
+        operation = createOperation(AggregateMetricsHandler.OPERATION_NAME, "profile", "profileA", "subsystem", "subsystem2");
+        operation.get(NAME).set("string1");
+        try {
+            executeForResult(operation);
+            fail("Expected error for non-numeric attribute");
+        } catch (OperationFailedException expected) {
+        }
+    }
+
     @Test
     public void testReadChildrenNames() throws Exception {
         ModelNode operation = createOperation(READ_CHILDREN_NAMES_OPERATION, "profile", "profileA");
@@ -562,7 +597,7 @@ public class GlobalOperationsTestCase extends AbstractGlobalOperationsTestCase {
         ModelNode result = executeForResult(operation);
 
         assertEquals(ModelType.LIST, result.getType());
-        assertEquals(23, result.asList().size());
+        assertEquals(24, result.asList().size());
         List<String> names = modelNodeListToStringList(result.asList());
         assertTrue(names.contains("testA1-1"));
         assertTrue(names.contains("testA1-2"));
@@ -581,7 +616,7 @@ public class GlobalOperationsTestCase extends AbstractGlobalOperationsTestCase {
 
         result = executeForResult(operation);
         assertEquals(ModelType.LIST, result.getType());
-        assertEquals(22, result.asList().size());
+        assertEquals(23, result.asList().size());
         names = modelNodeListToStringList(result.asList());
         assertTrue(names.contains("testA2"));
         assertTrue(names.contains(READ_RESOURCE_OPERATION));
@@ -597,7 +632,7 @@ public class GlobalOperationsTestCase extends AbstractGlobalOperationsTestCase {
         operation = createOperation(READ_OPERATION_NAMES_OPERATION, "profile", "profileB");
         result = executeForResult(operation);
         assertEquals(ModelType.LIST, result.getType());
-        assertEquals(21, result.asList().size());
+        assertEquals(22, result.asList().size());
         assertTrue(names.contains(READ_RESOURCE_OPERATION));
         assertTrue(names.contains(READ_ATTRIBUTE_OPERATION));
         assertTrue(names.contains(READ_RESOURCE_DESCRIPTION_OPERATION));
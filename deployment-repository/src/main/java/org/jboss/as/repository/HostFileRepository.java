@@ -47,4 +47,15 @@ public interface HostFileRepository extends DeploymentFileRepository {
      * @return The file at that path, or null if it is not found
      */
     File getConfigurationFile(final String relativePath);
+
+    /**
+     * Starts making the files associated with a given deployment available locally in the background, so they
+     * do not have to be fetched once {@link #getDeploymentFiles(ContentReference)} is called. Does nothing by default.
+     *
+     * @param reference the reference of the deployment content.
+     * @param required {@code true} if the caller is about to use the content, so it must be kept until then;
+     *                 {@code false} if the content is only likely to be used, so it may be discarded again to save space
+     */
+    default void prefetchDeployment(final ContentReference reference, final boolean required) {
+    }
 }
@@ -25,15 +25,32 @@ import static org.jboss.as.protocol.mgmt.ProtocolUtils.expectHeader;
 
 import java.io.BufferedOutputStream;
 import java.io.DataInput;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
@@ -41,16 +58,35 @@ import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
 import org.jboss.as.protocol.mgmt.RequestProcessingException;
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
 import org.jboss.logging.BasicLogger;
 
 
 /**
  * Common protocol code for getting files from master->slave HC and HC->server.
+ * <p>
+ * A requester can ask for a chunked transfer by adding its transfer options to the request. A handler that
+ * understands them then sends each file in checksummed, optionally compressed, chunks and can resume partially
+ * received files. Handlers that don't understand them ignore the options and send the original single stream
+ * response, which the requester still accepts.
+ * <p>
+ * Content addressed by its hash is received into a staging directory next to its local path, and is moved into
+ * place only once its hash has been verified. A staging directory left by an interrupted transfer is what the next
+ * request for the same content resumes from.
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  */
 public abstract class RemoteFileRequestAndHandler {
 
+    /** Suffix of the files a chunked transfer writes until they are complete, and of staging directories */
+    private static final String PARTIAL_SUFFIX = ".part";
+    /** Transfer option flag: the requester accepts compressed chunks */
+    private static final byte OPTION_COMPRESS = 0x01;
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int BUFFER_SIZE = 8192;
+    /** Name of the file or exploded directory a deployment root holds its content in */
+    private static final String CONTENT = "content";
+
     private final RemoteFileProtocolIdMapper protocol;
     private final Executor asyncExecutor;
 
@@ -71,9 +107,59 @@ public abstract class RemoteFileRequestAndHandler {
 
     }
 
+    /**
+     * Sends a request for a chunked transfer.
+     *
+     * @param output the output to write the request to
+     * @param rootId the id of the root the file path is relative to
+     * @param filePath the path of the file
+     * @param resumeFrom the local path the response will be stored in, if its content never changes and any files
+     *                   partially received by an earlier attempt can thus be resumed. {@code null} to not resume
+     * @param compress {@code true} to ask for chunks to be compressed when that makes them smaller
+     * @throws IOException if the request could not be written
+     */
+    public void sendRequest(FlushableDataOutput output, byte rootId, String filePath, File resumeFrom, boolean compress) throws IOException {
+        sendRequest(output, rootId, filePath);
+        output.writeByte(protocol.paramTransferOptions());
+        output.writeByte(compress ? OPTION_COMPRESS : 0);
+        final Map<String, Long> partialFiles = resumeFrom == null ? Collections.<String, Long>emptyMap() : getPartialFiles(getStagingPath(resumeFrom));
+        output.writeInt(partialFiles.size());
+        for (Map.Entry<String, Long> entry : partialFiles.entrySet()) {
+            output.writeUTF(entry.getKey());
+            output.writeLong(entry.getValue());
+        }
+    }
+
     public void handleResponse(DataInput input, File localPath, BasicLogger log, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context)
             throws IOException, CannotCreateLocalDirectoryException, DidNotReadEntireFileException{
-        expectHeader(input, protocol.paramNumFiles());
+        handleResponse(input, localPath, null, log, resultHandler, context);
+    }
+
+    /**
+     * Reads the response to a request, verifying the received content against the hash it is addressed by.
+     * The content is received into a staging directory, and only moved to {@code localPath} if its hash matches.
+     * Otherwise the staging directory is deleted, so the next request starts over rather than resuming from
+     * corrupted content, and a {@link CorruptedContentException} is thrown.
+     *
+     * @param input the response
+     * @param localPath the local path to store the content in
+     * @param expectedHash the hash of the content, or {@code null} to store it directly without verification
+     * @param log the logger
+     * @param resultHandler notified with {@code localPath} once the content is stored
+     * @param context the request context
+     */
+    public void handleResponse(DataInput input, File localPath, byte[] expectedHash, BasicLogger log, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context)
+            throws IOException, CannotCreateLocalDirectoryException, DidNotReadEntireFileException{
+        final File targetPath = expectedHash == null ? localPath : getStagingPath(localPath);
+        final byte first = input.readByte();
+        final boolean chunked = first == protocol.paramTransferOptions();
+        if (chunked) {
+            // The options the handler agreed to; the chunks themselves say if they are compressed
+            input.readByte();
+            expectHeader(input, protocol.paramNumFiles());
+        } else if (first != protocol.paramNumFiles()) {
+            expectHeader(first, protocol.paramNumFiles());
+        }
         int numFiles = input.readInt();
         log.debugf("Received %d files for %s", numFiles, localPath);
         switch (numFiles) {
@@ -81,12 +167,13 @@ public abstract class RemoteFileRequestAndHandler {
                 break;
             }
             case 0: { // Found on DC, but was an empty dir
-                if (!localPath.mkdirs()) {
-                    throw new CannotCreateLocalDirectoryException(localPath);
+                if (!targetPath.mkdirs()) {
+                    throw new CannotCreateLocalDirectoryException(targetPath);
                 }
                 break;
             }
             default: { // Found on DC
+                final byte[] buffer = new byte[chunked ? CHUNK_SIZE : BUFFER_SIZE];
                 for (int i = 0; i < numFiles; i++) {
                     expectHeader(input, protocol.fileStart());
                     expectHeader(input, protocol.paramFilePath());
@@ -94,16 +181,18 @@ public abstract class RemoteFileRequestAndHandler {
                     expectHeader(input, protocol.paramFileSize());
                     final long length = input.readLong();
                     log.debugf("Received file [%s] of length %d", path, length);
-                    final File file = new File(localPath, path);
+                    final File file = new File(targetPath, path);
                     if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
-                        throw new CannotCreateLocalDirectoryException(localPath.getParentFile());
+                        throw new CannotCreateLocalDirectoryException(targetPath.getParentFile());
                     }
                     if(length == 0L) {
                         file.mkdir();
+                    } else if (chunked) {
+                        // A staged file can be written in place, it only becomes visible once the content is verified
+                        readChunkedFile(input, file, length, buffer, expectedHash == null, log);
                     } else {
                         long totalRead = 0;
                         try (OutputStream fileOut = new BufferedOutputStream(new FileOutputStream(file))) {
-                            final byte[] buffer = new byte[8192];
                             while (totalRead < length) {
                                 int len = Math.min((int) (length - totalRead), buffer.length);
                                 input.readFully(buffer, 0, len);
@@ -119,9 +208,157 @@ public abstract class RemoteFileRequestAndHandler {
                 }
             }
         }
+        if (expectedHash != null && targetPath.exists()) {
+            moveVerifiedContent(targetPath, localPath, expectedHash);
+        }
         resultHandler.done(localPath);
     }
 
+    private void readChunkedFile(final DataInput input, final File file, final long length, final byte[] buffer,
+                                 final boolean usePartialFile, final BasicLogger log) throws IOException {
+        final File partial = usePartialFile ? new File(file.getParentFile(), file.getName() + PARTIAL_SUFFIX) : file;
+        final long offset = input.readLong();
+        if (offset < 0 || offset > length) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.corruptedContentChunk(file.getPath(), offset);
+        }
+        if (offset > 0) {
+            log.debugf("Resuming [%s] at offset %d", file, offset);
+        }
+        final CRC32 crc = new CRC32();
+        final Inflater inflater = new Inflater();
+        try (FileChannel fileOut = FileChannel.open(partial.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Drop anything past the offset the sender resumes from
+            fileOut.truncate(offset);
+            fileOut.position(offset);
+            byte[] wire = null;
+            long position = offset;
+            while (position < length) {
+                final int rawLength = input.readInt();
+                final int wireLength = input.readInt();
+                final long checksum = input.readLong();
+                // Never trust the lengths to fit the buffers, or the chunk to fit the file
+                if (rawLength <= 0 || rawLength > buffer.length || rawLength > length - position
+                        || wireLength <= 0 || wireLength > buffer.length) {
+                    throw DeploymentRepositoryLogger.ROOT_LOGGER.corruptedContentChunk(file.getPath(), position);
+                }
+                if (wireLength == rawLength) {
+                    input.readFully(buffer, 0, rawLength);
+                } else {
+                    if (wire == null) {
+                        wire = new byte[buffer.length];
+                    }
+                    input.readFully(wire, 0, wireLength);
+                    inflater.reset();
+                    inflater.setInput(wire, 0, wireLength);
+                    try {
+                        if (inflater.inflate(buffer, 0, rawLength) != rawLength) {
+                            throw DeploymentRepositoryLogger.ROOT_LOGGER.corruptedContentChunk(file.getPath(), position);
+                        }
+                    } catch (DataFormatException e) {
+                        throw DeploymentRepositoryLogger.ROOT_LOGGER.corruptedContentChunk(file.getPath(), position);
+                    }
+                }
+                crc.reset();
+                crc.update(buffer, 0, rawLength);
+                if (crc.getValue() != checksum) {
+                    throw DeploymentRepositoryLogger.ROOT_LOGGER.corruptedContentChunk(file.getPath(), position);
+                }
+                writeFully(fileOut, buffer, rawLength);
+                position += rawLength;
+            }
+        } finally {
+            inflater.end();
+        }
+        if (partial != file) {
+            Files.move(partial.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Moves the content received into a staging directory to its local path, if its hash matches.
+     */
+    private static void moveVerifiedContent(final File stagingPath, final File localPath, final byte[] expectedHash) throws IOException {
+        final byte[] hash;
+        try {
+            hash = hashContent(stagingPath);
+        } catch (IOException | RuntimeException e) {
+            deleteRecursively(stagingPath);
+            throw e;
+        }
+        if (!MessageDigest.isEqual(expectedHash, hash)) {
+            deleteRecursively(stagingPath);
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.contentHashMismatch(localPath.getPath(), HashUtil.bytesToHexString(hash));
+        }
+        try {
+            Files.move(stagingPath.toPath(), localPath.toPath());
+        } catch (FileAlreadyExistsException e) {
+            // Another request already stored the same content
+            deleteRecursively(stagingPath);
+        }
+    }
+
+    /**
+     * Computes the hash of a deployment root the way the content repository does: that of the bytes of its
+     * {@code content} file, or that of its exploded {@code content} directory.
+     */
+    private static byte[] hashContent(final File root) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        final Path content = root.toPath().resolve(CONTENT);
+        if (Files.isDirectory(content)) {
+            return HashUtil.hashPath(digest, content);
+        }
+        try (InputStream stream = Files.newInputStream(content)) {
+            return HashUtil.hashContent(digest, stream);
+        }
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        if (!file.delete() && file.exists()) {
+            DeploymentRepositoryLogger.ROOT_LOGGER.cannotDeleteFile(null, file.toPath());
+        }
+    }
+
+    /**
+     * Gets the staging directory content addressed by its hash is received into before being moved to its local path.
+     */
+    private static File getStagingPath(final File localPath) {
+        return new File(localPath.getParentFile(), localPath.getName() + PARTIAL_SUFFIX);
+    }
+
+    /**
+     * Gets whether a failure to get a file was caused by the received content not matching its hash. The partially
+     * received content has then been discarded, so requesting it again starts over.
+     *
+     * @param failure the failure
+     * @return {@code true} if the failure was caused by a {@link CorruptedContentException}
+     */
+    public static boolean isCorruptedContent(final Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof CorruptedContentException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeFully(final FileChannel channel, final byte[] bytes, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
     public void handleRequest(final DataInput input, final RootFileReader reader,
                               final ActiveOperation.ResultHandler<Void> resultHandler,
                               final ManagementRequestContext<Void> context) throws IOException {
@@ -129,6 +366,7 @@ public abstract class RemoteFileRequestAndHandler {
         final byte rootId = input.readByte();
         expectHeader(input, protocol.paramFilePath());
         final String filePath = input.readUTF();
+        final TransferOptions options = readTransferOptions(input);
 
         ManagementRequestContext.AsyncTask<Void> task = new ManagementRequestContext.AsyncTask<Void>() {
             @Override
@@ -136,7 +374,7 @@ public abstract class RemoteFileRequestAndHandler {
                 final File localPath = reader.readRootFile(rootId, filePath);
                 FlushableDataOutput output = context.writeMessage(ManagementResponseHeader.create(context.getRequestHeader()));
                 try {
-                    writeResponse(localPath, output);
+                    writeResponse(localPath, output, options);
                     output.close();
                     resultHandler.done(null); // call stack (AsyncTaskRunner created by ManagementRequestContext) handles failures
                 } finally {
@@ -152,18 +390,47 @@ public abstract class RemoteFileRequestAndHandler {
         }
     }
 
-    private void writeResponse(final File localPath, final FlushableDataOutput output) throws IOException {
+    /**
+     * Reads the transfer options of a request, if any.
+     *
+     * @return the options, or {@code null} if the requester does not understand chunked transfers
+     */
+    TransferOptions readTransferOptions(final DataInput input) throws IOException {
+        final byte next;
+        try {
+            next = input.readByte();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (next != protocol.paramTransferOptions()) {
+            // The end of an older requester's request
+            return null;
+        }
+        final boolean compress = (input.readByte() & OPTION_COMPRESS) != 0;
+        final int numPartial = input.readInt();
+        final Map<String, Long> offsets = numPartial == 0 ? Collections.<String, Long>emptyMap() : new HashMap<>();
+        for (int i = 0; i < numPartial; i++) {
+            offsets.put(input.readUTF(), input.readLong());
+        }
+        return new TransferOptions(compress, offsets);
+    }
+
+    void writeResponse(final File localPath, final FlushableDataOutput output, final TransferOptions options) throws IOException {
+        if (options != null) {
+            output.writeByte(protocol.paramTransferOptions());
+            output.writeByte(options.compress ? OPTION_COMPRESS : 0);
+        }
         output.writeByte(protocol.paramNumFiles());
         if (localPath == null || !localPath.exists()) {
             output.writeInt(-1);
         } else if (localPath.isFile()) {
             output.writeInt(1);
-            writeFile(localPath, localPath, output);
+            writeFile(localPath, localPath, output, options);
         } else {
             final List<File> childFiles = getChildFiles(localPath);
             output.writeInt(childFiles.size());
             for (File child : childFiles) {
-                writeFile(localPath, child, output);
+                writeFile(localPath, child, output, options);
             }
         }
     }
@@ -177,9 +444,7 @@ public abstract class RemoteFileRequestAndHandler {
     private void getChildFiles(final File base, final List<File> childFiles) {
         for (File child : base.listFiles()) {
             childFiles.add(child);
-            if (child.isFile() || isEmpty(child)) {
-                childFiles.add(child);
-            } else {
+            if (child.isDirectory() && !isEmpty(child)) {
                 getChildFiles(child, childFiles);
             }
         }
@@ -193,22 +458,31 @@ public abstract class RemoteFileRequestAndHandler {
         return child.getAbsolutePath().substring(parent.getAbsolutePath().length()+1);
     }
 
-    private void writeFile(final File localPath, final File file, final FlushableDataOutput output) throws IOException {
+    private void writeFile(final File localPath, final File file, final FlushableDataOutput output, final TransferOptions options) throws IOException {
+        final String relativePath = getRelativePath(localPath, file);
         output.writeByte(protocol.fileStart());
         output.writeByte(protocol.paramFilePath());
-        output.writeUTF(getRelativePath(localPath, file));
+        output.writeUTF(relativePath);
         output.writeByte(protocol.paramFileSize());
         if (file.isDirectory()) {
             output.writeLong(0L);
             output.writeByte(protocol.fileEnd());
             return;
-        } else {
-            output.writeLong(file.length());
         }
+        if (options != null) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                final long length = channel.size();
+                output.writeLong(length);
+                writeChunks(channel, length, options.getOffset(relativePath, length), output, options.compress);
+            }
+            output.writeByte(protocol.fileEnd());
+            return;
+        }
+        output.writeLong(file.length());
         InputStream inputStream = null;
         try {
             inputStream = new FileInputStream(file);
-            byte[] buffer = new byte[8192];
+            byte[] buffer = new byte[BUFFER_SIZE];
             int len;
             while ((len = inputStream.read(buffer)) != -1) {
                 output.write(buffer, 0, len);
@@ -224,6 +498,108 @@ public abstract class RemoteFileRequestAndHandler {
         output.writeByte(protocol.fileEnd());
     }
 
+    private static void writeChunks(final FileChannel channel, final long length, final long offset,
+                                    final FlushableDataOutput output, final boolean compress) throws IOException {
+        output.writeLong(offset);
+        channel.position(offset);
+        final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+        final byte[] compressed = compress ? new byte[CHUNK_SIZE] : null;
+        final Deflater deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        final CRC32 crc = new CRC32();
+        boolean compressing = compress;
+        try {
+            long remaining = length - offset;
+            while (remaining > 0) {
+                buffer.clear();
+                if (remaining < buffer.capacity()) {
+                    buffer.limit((int) remaining);
+                }
+                final int len = readFully(channel, buffer);
+                crc.reset();
+                crc.update(buffer.array(), 0, len);
+                int wireLength = len;
+                if (compressing) {
+                    deflater.reset();
+                    deflater.setInput(buffer.array(), 0, len);
+                    deflater.finish();
+                    final int deflated = deflater.deflate(compressed, 0, compressed.length);
+                    if (deflater.finished() && deflated < len) {
+                        wireLength = deflated;
+                    } else {
+                        // Already compressed content (the usual for archives) does not shrink; stop trying
+                        compressing = false;
+                    }
+                }
+                output.writeInt(len);
+                output.writeInt(wireLength);
+                output.writeLong(crc.getValue());
+                output.write(wireLength == len ? buffer.array() : compressed, 0, wireLength);
+                remaining -= len;
+            }
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    private static int readFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) == -1) {
+                throw new EOFException();
+            }
+        }
+        return buffer.position();
+    }
+
+    /**
+     * Gets the files left partially received by an earlier chunked transfer into the given path.
+     *
+     * @param localPath the local path. May be {@code null}
+     * @return the received lengths of the files, keyed by their paths relative to {@code localPath}
+     */
+    private static Map<String, Long> getPartialFiles(final File localPath) {
+        if (!localPath.isDirectory()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Long> result = new HashMap<>();
+        getPartialFiles(localPath, "", result);
+        return result;
+    }
+
+    private static void getPartialFiles(final File dir, final String prefix, final Map<String, Long> result) {
+        final File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            final String name = child.getName();
+            if (child.isDirectory()) {
+                getPartialFiles(child, prefix + name + File.separatorChar, result);
+            } else if (child.length() > 0) {
+                // Files of a staging directory are written in place; the sender skips those already complete
+                result.put(prefix + name, child.length());
+            }
+        }
+    }
+
+    /** The options of a chunked transfer */
+    static final class TransferOptions {
+        private final boolean compress;
+        private final Map<String, Long> offsets;
+
+        private TransferOptions(final boolean compress, final Map<String, Long> offsets) {
+            this.compress = compress;
+            this.offsets = offsets;
+        }
+
+        /** Gets the offset to resume sending a file from, ignoring offsets that don't fit the file */
+        private long getOffset(final String relativePath, final long length) {
+            final Long offset = offsets.get(relativePath);
+            return offset == null || offset < 0 || offset > length ? 0 : offset;
+        }
+    }
+
     /**
      * Maps the expected protocol codes to the actual protocol
      */
@@ -234,6 +610,7 @@ public abstract class RemoteFileRequestAndHandler {
         byte paramFilePath();
         byte paramFileSize();
         byte fileEnd();
+        byte paramTransferOptions();
     }
 
     /**
@@ -259,6 +636,17 @@ public abstract class RemoteFileRequestAndHandler {
         }
     }
 
+    /**
+     *  Indicates received content does not match the hash it is addressed by
+     */
+    public static class CorruptedContentException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public CorruptedContentException(String message) {
+            super(message);
+        }
+    }
+
     /**
      *  Indicates a file was not completely read
      */
@@ -26,8 +26,10 @@ import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.INFO;
 import static org.jboss.logging.Logger.Level.WARN;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import org.jboss.as.repository.ExplodedContentException;
+import org.jboss.as.repository.RemoteFileRequestAndHandler;
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.annotations.Cause;
 import org.jboss.logging.annotations.LogMessage;
@@ -162,4 +164,10 @@ public interface DeploymentRepositoryLogger extends BasicLogger {
     @LogMessage(level = ERROR)
     @Message(id = 24, value = "Error copying file %s")
     void cannotCopyFile(@Cause Exception ex, Path path);
+
+    @Message(id = 25, value = "Checksum mismatch in content received for %s at offset %d")
+    IOException corruptedContentChunk(String path, long offset);
+
+    @Message(id = 26, value = "Content received for %s has hash %s, which does not match the requested hash; it was discarded")
+    RemoteFileRequestAndHandler.CorruptedContentException contentHashMismatch(String path, String actualHash);
 }
@@ -0,0 +1,246 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.jboss.as.protocol.mgmt.ActiveOperation;
+import org.jboss.as.protocol.mgmt.FlushableDataOutput;
+import org.jboss.logging.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests chunked transfers of deployment content by {@link RemoteFileRequestAndHandler}.
+ */
+public class RemoteFileRequestAndHandlerTest {
+
+    private static final RemoteFileRequestAndHandler.RemoteFileProtocolIdMapper MAPPER = new RemoteFileRequestAndHandler.RemoteFileProtocolIdMapper() {
+        public byte paramRootId() {
+            return 1;
+        }
+
+        public byte paramNumFiles() {
+            return 2;
+        }
+
+        public byte fileStart() {
+            return 3;
+        }
+
+        public byte paramFilePath() {
+            return 4;
+        }
+
+        public byte paramFileSize() {
+            return 5;
+        }
+
+        public byte fileEnd() {
+            return 6;
+        }
+
+        public byte paramTransferOptions() {
+            return 7;
+        }
+    };
+
+    private final Path root = new File("target", "temp").toPath().resolve("remotefile");
+    private final RemoteFileRequestAndHandler handler = new RemoteFileRequestAndHandler(MAPPER) {
+    };
+    private byte[] content;
+    private byte[] hash;
+    private File source;
+    private File target;
+
+    @Before
+    public void createContent() throws Exception {
+        if (Files.exists(root)) {
+            deleteRecursively(root.toFile());
+        }
+        // Random bytes do not compress, so use a repetitive second half to exercise compressed chunks as well
+        content = new byte[300 * 1024];
+        new Random(42).nextBytes(content);
+        for (int i = content.length / 2; i < content.length; i++) {
+            content[i] = (byte) (i % 13);
+        }
+        hash = MessageDigest.getInstance("SHA-1").digest(content);
+        source = root.resolve("source").toFile();
+        Assert.assertTrue(source.mkdirs());
+        Files.write(new File(source, "content").toPath(), content);
+        target = root.resolve("target").resolve(HashUtil.bytesToHexString(hash)).toFile();
+    }
+
+    @After
+    public void destroyContent() {
+        deleteRecursively(root.toFile());
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        for (boolean compress : new boolean[] {false, true}) {
+            transfer(respond(request(compress)));
+            Assert.assertArrayEquals(content, Files.readAllBytes(new File(target, "content").toPath()));
+            Assert.assertFalse(stagingPath().exists());
+            deleteRecursively(target);
+        }
+    }
+
+    @Test
+    public void testResumeFromStagedPrefix() throws Exception {
+        final int received = 100 * 1024;
+        Assert.assertTrue(stagingPath().mkdirs());
+        Files.write(new File(stagingPath(), "content").toPath(), Arrays.copyOf(content, received));
+
+        final byte[] response = respond(request(false));
+        Assert.assertTrue(response.length < content.length - received + 1024);
+        transfer(response);
+        Assert.assertArrayEquals(content, Files.readAllBytes(new File(target, "content").toPath()));
+        Assert.assertFalse(stagingPath().exists());
+    }
+
+    @Test
+    public void testCorruptedPrefixIsDiscarded() throws Exception {
+        final byte[] prefix = Arrays.copyOf(content, 100 * 1024);
+        prefix[10]++;
+        Assert.assertTrue(stagingPath().mkdirs());
+        Files.write(new File(stagingPath(), "content").toPath(), prefix);
+
+        try {
+            transfer(respond(request(false)));
+            Assert.fail("Content not matching its hash should not be accepted");
+        } catch (RemoteFileRequestAndHandler.CorruptedContentException e) {
+            Assert.assertTrue(RemoteFileRequestAndHandler.isCorruptedContent(new RuntimeException(e)));
+        }
+        Assert.assertFalse(target.exists());
+        Assert.assertFalse(stagingPath().exists());
+
+        // Nothing is left to resume from, so the next request starts over
+        transfer(respond(request(false)));
+        Assert.assertArrayEquals(content, Files.readAllBytes(new File(target, "content").toPath()));
+    }
+
+    @Test
+    public void testCorruptedChunk() throws Exception {
+        final byte[] response = respond(request(false));
+        // The last byte ends the file, the one before it is chunk data
+        response[response.length - 2]++;
+        try {
+            transfer(response);
+            Assert.fail("A chunk not matching its checksum should not be accepted");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("WFLYDR0025"));
+        }
+        Assert.assertFalse(target.exists());
+    }
+
+    @Test
+    public void testChunkLargerThanBuffer() throws Exception {
+        final byte[] response = respond(request(false));
+        // Options, number of files, file start, path, size and resume offset precede the first chunk's raw length
+        final int rawLength = 2 + 1 + 4 + 1 + 1 + 2 + "content".length() + 1 + 8 + 8;
+        response[rawLength] = 0x7f;
+        try {
+            transfer(response);
+            Assert.fail("A chunk larger than the buffer should not be accepted");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("WFLYDR0025"));
+        }
+    }
+
+    private File stagingPath() {
+        return new File(target.getParentFile(), target.getName() + ".part");
+    }
+
+    private byte[] request(final boolean compress) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TestOutput output = new TestOutput(bytes)) {
+            handler.sendRequest(output, (byte) 0, HashUtil.bytesToHexString(hash), target, compress);
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] respond(final byte[] request) throws IOException {
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(request));
+        Assert.assertEquals(MAPPER.paramRootId(), input.readByte());
+        input.readByte();
+        Assert.assertEquals(MAPPER.paramFilePath(), input.readByte());
+        input.readUTF();
+        final RemoteFileRequestAndHandler.TransferOptions options = handler.readTransferOptions(input);
+        Assert.assertNotNull(options);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TestOutput output = new TestOutput(bytes)) {
+            handler.writeResponse(source, output, options);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void transfer(final byte[] response) throws Exception {
+        final File[] result = new File[1];
+        handler.handleResponse(new DataInputStream(new ByteArrayInputStream(response)), target, hash,
+                Logger.getLogger(RemoteFileRequestAndHandlerTest.class), new ActiveOperation.ResultHandler<File>() {
+                    @Override
+                    public boolean done(File file) {
+                        result[0] = file;
+                        return true;
+                    }
+
+                    @Override
+                    public boolean failed(Throwable t) {
+                        return false;
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                }, null);
+        Assert.assertEquals(target, result[0]);
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static class TestOutput extends DataOutputStream implements FlushableDataOutput {
+        TestOutput(final ByteArrayOutputStream bytes) {
+            super(bytes);
+        }
+    }
+}
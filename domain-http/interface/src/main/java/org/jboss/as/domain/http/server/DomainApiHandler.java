@@ -210,13 +210,14 @@ class DomainApiHandler implements HttpHandler {
                 headers.remove(DOMAIN_UUID);
             }
             response = modelController.execute(new OperationBuilder(dmr).build(), OperationMessageHandler.logging, control);
-            if (cachable && streamIndex > -1) {
+            if (cachable) {
                 // Use the MD5 of the model nodes asString() method as ETag
                 MessageDigest md = MessageDigest.getInstance("MD5");
                 md.update(response.getResponseNode().toString().getBytes(StandardCharsets.UTF_8));
                 ETag etag = new ETag(false, HexConverter.convertToHexString(md.digest()));
                 operationParameterBuilder.etag(etag);
                 if (!ETagUtils.handleIfNoneMatch(exchange, etag, false)) {
+                    StreamUtils.safeClose(response);
                     exchange.setStatusCode(304);
                     DomainUtil.writeCacheHeaders(exchange, 304, operationParameterBuilder.build());
                     exchange.endExchange();
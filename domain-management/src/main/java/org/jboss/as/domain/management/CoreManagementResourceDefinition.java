@@ -25,19 +25,30 @@ package org.jboss.as.domain.management;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.BootErrorCollector;
+import org.jboss.as.controller.ExpressionResolutionCache;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.access.AuthorizationStatistics;
 import org.jboss.as.controller.access.management.AccessConstraintUtilizationRegistry;
 import org.jboss.as.controller.access.management.DelegatingConfigurableAuthorizer;
 import org.jboss.as.controller.access.management.ManagementSecurityIdentitySupplier;
 import org.jboss.as.controller.audit.ManagedAuditLogger;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.notification.NotificationDispatchMetrics;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.services.path.PathManagerService;
@@ -49,6 +60,9 @@ import org.jboss.as.domain.management.audit.EnvironmentNameReader;
 import org.jboss.as.domain.management.connections.ldap.LdapConnectionResourceDefinition;
 import org.jboss.as.domain.management.controller.ManagementControllerResourceDefinition;
 import org.jboss.as.domain.management.security.SecurityRealmResourceDefinition;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
 
 /**
  * A {@link org.jboss.as.controller.ResourceDefinition} for the the core management resource.
@@ -62,6 +76,66 @@ public class CoreManagementResourceDefinition extends SimpleResourceDefinition {
 
     public static final PathElement PATH_ELEMENT = PathElement.pathElement(CORE_SERVICE, MANAGEMENT);
 
+    public static final SimpleAttributeDefinition NOTIFICATION_QUEUE_DEPTH = new SimpleAttributeDefinitionBuilder("notification-queue-depth", ModelType.INT)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    public static final SimpleAttributeDefinition NOTIFICATION_MAX_HANDLER_QUEUE_DEPTH = new SimpleAttributeDefinitionBuilder("notification-max-handler-queue-depth", ModelType.INT)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    public static final SimpleAttributeDefinition NOTIFICATIONS_DROPPED = new SimpleAttributeDefinitionBuilder("notifications-dropped", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    public static final SimpleAttributeDefinition NOTIFICATIONS_COALESCED = new SimpleAttributeDefinitionBuilder("notifications-coalesced", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    public static final SimpleAttributeDefinition EXPRESSION_CACHE_HITS = new SimpleAttributeDefinitionBuilder("expression-cache-hits", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    public static final SimpleAttributeDefinition EXPRESSION_CACHE_MISSES = new SimpleAttributeDefinitionBuilder("expression-cache-misses", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    public static final SimpleAttributeDefinition EXPRESSION_CACHE_HIT_RATE = new SimpleAttributeDefinitionBuilder("expression-cache-hit-rate", ModelType.DOUBLE)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    public static final SimpleAttributeDefinition EXPRESSION_CACHE_SIZE = new SimpleAttributeDefinitionBuilder("expression-cache-size", ModelType.INT)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    public static final SimpleAttributeDefinition AUTHORIZATION_CHECKS = new SimpleAttributeDefinitionBuilder("authorization-checks", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    public static final SimpleAttributeDefinition AUTHORIZATION_TIME = new SimpleAttributeDefinitionBuilder("authorization-time", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    private static final AttributeDefinition[] AUTHORIZATION_METRICS = new AttributeDefinition[] {AUTHORIZATION_CHECKS,
+            AUTHORIZATION_TIME};
+
+    private static final AttributeDefinition[] EXPRESSION_CACHE_METRICS = new AttributeDefinition[] {EXPRESSION_CACHE_HITS,
+            EXPRESSION_CACHE_MISSES, EXPRESSION_CACHE_HIT_RATE, EXPRESSION_CACHE_SIZE};
+
+    private static final AttributeDefinition[] NOTIFICATION_METRICS = new AttributeDefinition[] {NOTIFICATION_QUEUE_DEPTH,
+            NOTIFICATION_MAX_HANDLER_QUEUE_DEPTH, NOTIFICATIONS_DROPPED, NOTIFICATIONS_COALESCED};
+
     public static void registerDomainResource(Resource parent, AccessConstraintUtilizationRegistry registry) {
         Resource coreManagement = Resource.Factory.create();
         coreManagement.registerChild(AccessAuthorizationResourceDefinition.PATH_ELEMENT,
@@ -125,6 +199,22 @@ public class CoreManagementResourceDefinition extends SimpleResourceDefinition {
         }
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        if (environment != Environment.DOMAIN) {
+            for (AttributeDefinition def : NOTIFICATION_METRICS) {
+                resourceRegistration.registerMetric(def, NotificationMetricsHandler.INSTANCE);
+            }
+            for (AttributeDefinition def : EXPRESSION_CACHE_METRICS) {
+                resourceRegistration.registerMetric(def, ExpressionCacheMetricsHandler.INSTANCE);
+            }
+            for (AttributeDefinition def : AUTHORIZATION_METRICS) {
+                resourceRegistration.registerMetric(def, AuthorizationMetricsHandler.INSTANCE);
+            }
+        }
+    }
+
     @Override
     public void registerOperations(ManagementResourceRegistration resourceRegistration) {
         super.registerOperations(resourceRegistration);
@@ -157,4 +247,70 @@ public class CoreManagementResourceDefinition extends SimpleResourceDefinition {
         return new CoreManagementResourceDefinition(Environment.STANDALONE_SERVER, authorizer, securityIdentitySupplier, auditLogger, pathManager, environmentReader, Arrays.asList(interfaces), bootErrorCollector);
     }
 
+    /**
+     * Reads the statistics of the asynchronous delivery of the process' management notifications. Reports zero
+     * if the notifications are delivered synchronously.
+     */
+    private static class NotificationMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+        private static final NotificationMetricsHandler INSTANCE = new NotificationMetricsHandler();
+
+        @Override
+        protected boolean requiresRuntime(OperationContext context) {
+            return true;
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String attr = operation.require(NAME).asString();
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(NotificationDispatchMetrics.SERVICE_NAME);
+            final NotificationDispatchMetrics metrics = controller == null ? null : (NotificationDispatchMetrics) controller.getValue();
+            final ModelNode result = context.getResult();
+            if (NOTIFICATION_QUEUE_DEPTH.getName().equals(attr)) {
+                result.set(metrics == null ? 0 : metrics.getQueueDepth());
+            } else if (NOTIFICATION_MAX_HANDLER_QUEUE_DEPTH.getName().equals(attr)) {
+                result.set(metrics == null ? 0 : metrics.getMaxHandlerQueueDepth());
+            } else if (NOTIFICATIONS_DROPPED.getName().equals(attr)) {
+                result.set(metrics == null ? 0L : metrics.getDroppedCount());
+            } else if (NOTIFICATIONS_COALESCED.getName().equals(attr)) {
+                result.set(metrics == null ? 0L : metrics.getCoalescedCount());
+            }
+        }
+    }
+
+    private static class ExpressionCacheMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+        private static final ExpressionCacheMetricsHandler INSTANCE = new ExpressionCacheMetricsHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String attr = operation.require(NAME).asString();
+            final ModelNode result = context.getResult();
+            if (EXPRESSION_CACHE_HITS.getName().equals(attr)) {
+                result.set(ExpressionResolutionCache.getHitCount());
+            } else if (EXPRESSION_CACHE_MISSES.getName().equals(attr)) {
+                result.set(ExpressionResolutionCache.getMissCount());
+            } else if (EXPRESSION_CACHE_HIT_RATE.getName().equals(attr)) {
+                result.set(ExpressionResolutionCache.getHitRate());
+            } else if (EXPRESSION_CACHE_SIZE.getName().equals(attr)) {
+                result.set(ExpressionResolutionCache.size());
+            }
+        }
+    }
+
+    private static class AuthorizationMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+        private static final AuthorizationMetricsHandler INSTANCE = new AuthorizationMetricsHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String attr = operation.require(NAME).asString();
+            final ModelNode result = context.getResult();
+            if (AUTHORIZATION_CHECKS.getName().equals(attr)) {
+                result.set(AuthorizationStatistics.getCheckCount());
+            } else if (AUTHORIZATION_TIME.getName().equals(attr)) {
+                result.set(AuthorizationStatistics.getTime());
+            }
+        }
+    }
 }
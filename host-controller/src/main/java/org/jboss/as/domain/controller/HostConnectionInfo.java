@@ -34,6 +34,7 @@ public interface HostConnectionInfo {
     String ADDRESS = "address";
     String CONNECTED = "connected";
     String EVENTS = "events";
+    String PING_STATISTICS = "ping-statistics";
     String TIMESTAMP = "timestamp";
     String TYPE = "type";
 
@@ -58,6 +59,15 @@ public interface HostConnectionInfo {
      */
     List<Event> getEvents();
 
+    /**
+     * Get statistics of the round trip times of pings sent to the host, in microseconds.
+     *
+     * @return the statistics, undefined if there are none
+     */
+    default ModelNode getPingStatistics() {
+        return new ModelNode();
+    }
+
     public interface Event {
 
         /**
@@ -805,4 +805,20 @@ public interface DomainControllerLogger extends BasicLogger {
 
     @Message(id = 98, value = "The following servers %s are starting; execution of remote management operations is not currently available")
     OperationFailedException serverManagementUnavailableDuringBoot(String serverNames);
+
+    /**
+     * A message indicating an invalid rollout plan. The server group, represented by the {@code name} parameter, has an
+     * invalid value and must be greater than 0.
+     *
+     * @param name         the name of the group.
+     * @param propertyName the name of the property.
+     * @param value        the invalid value.
+     *
+     * @return the message.
+     */
+    @Message(id = 99, value = "Invalid rollout plan. Server group %s has a %s value of %s; must be greater than 0.")
+    String invalidRolloutPlanNotPositive(String name, String propertyName, int value);
+
+    @Message(id = 100, value = "Timed out after %d ms sending the operation outcome to host %s; remote process has been notified to cancel operation")
+    String timedOutSendingOperationOutcome(long timeout, String hostName);
 }
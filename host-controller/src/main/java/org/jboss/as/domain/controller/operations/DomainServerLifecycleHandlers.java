@@ -34,13 +34,16 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STA
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STOP_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUSPEND_SERVERS;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.BlockingTimeout;
@@ -58,7 +61,9 @@ import org.jboss.as.controller.access.Action;
 import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.client.helpers.domain.ServerStatus;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.registry.Resource;
@@ -110,6 +115,14 @@ public class DomainServerLifecycleHandlers {
             .setDefaultValue(ModelNode.ZERO)
             .build();
 
+    private static final AttributeDefinition MAX_CONCURRENCY = SimpleAttributeDefinitionBuilder.create("max-concurrency", ModelType.INT, true)
+            .setValidator(new IntRangeValidator(1, true))
+            .build();
+
+    private static final AttributeDefinition MAX_START_RATE = SimpleAttributeDefinitionBuilder.create("max-start-rate", ModelType.INT, true)
+            .setValidator(new IntRangeValidator(1, true))
+            .build();
+
     public static final String RESTART_SERVERS_NAME = RESTART_SERVERS;
     public static final String START_SERVERS_NAME = START_SERVERS;
     public static final String STOP_SERVERS_NAME = STOP_SERVERS;
@@ -169,6 +182,8 @@ public class DomainServerLifecycleHandlers {
                 DomainResolver.getResolver(serverGroup ? ModelDescriptionConstants.SERVER_GROUP : ModelDescriptionConstants.DOMAIN))
                 .addParameter(BLOCKING)
                 .addParameter(START_MODE)
+                .addParameter(MAX_CONCURRENCY)
+                .addParameter(MAX_START_RATE)
                 .setRuntimeOnly()
                 .build();
     }
@@ -251,6 +266,38 @@ public class DomainServerLifecycleHandlers {
             return servers;
         }
 
+        /**
+         * Gets the scheduler pacing the server starts. Pacing happens within the operation, so when either limit is
+         * set the operation does not complete before the last server has begun starting, even if it is not blocking.
+         */
+        ServerStartScheduler getStartScheduler(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final ModelNode maxConcurrency = MAX_CONCURRENCY.resolveModelAttribute(context, operation);
+            final ModelNode maxStartRate = MAX_START_RATE.resolveModelAttribute(context, operation);
+            return new ServerStartScheduler(maxConcurrency.isDefined() ? maxConcurrency.asInt() : 0,
+                    maxStartRate.isDefined() ? maxStartRate.asInt() : 0);
+        }
+
+        /**
+         * Starts the servers within the scheduler's limits. A server that has not started within the local blocking
+         * timeout no longer holds up the others.
+         */
+        void startServers(final ServerStartScheduler scheduler, final Collection<String> servers, final Consumer<String> start,
+                          final BlockingTimeout blockingTimeout) throws OperationFailedException {
+            final int timeout = blockingTimeout.getLocalBlockingTimeout();
+            try {
+                scheduler.start(servers, start, server -> {
+                    if (!serverInventory.awaitServerState(server, true, timeout)
+                            && !Thread.currentThread().isInterrupted()
+                            && serverInventory.determineServerStatus(server) == ServerStatus.STARTING) {
+                        HostControllerLogger.ROOT_LOGGER.timedOutAwaitingPacedServerStart(server, timeout);
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OperationFailedException(ControllerLogger.ROOT_LOGGER.operationCancelled());
+            }
+        }
+
         Set<String> getServersForHost(final Resource hostResource) {
             final Set<String> servers = new HashSet<>();
             final ModelNode hostModel = Resource.Tools.readModel(hostResource);
@@ -317,13 +364,15 @@ public class DomainServerLifecycleHandlers {
             final String group = getServerGroupName(operation);
             final boolean blocking = BLOCKING.resolveModelAttribute(context, operation).asBoolean();
             final boolean suspend = START_MODE.resolveModelAttribute(context, operation).asString().toLowerCase(Locale.ENGLISH).equals(StartMode.SUSPEND.toString());
+            final ServerStartScheduler scheduler = getStartScheduler(context, operation);
+            final BlockingTimeout blockingTimeout = BlockingTimeout.Factory.getProxyBlockingTimeout(context);
             context.addStep(new OperationStepHandler() {
                 @Override
                 public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
                     final String hostName = model.get(HOST).keys().iterator().next();
                     final ModelNode serverConfig = model.get(HOST, hostName).get(SERVER_CONFIG);
                     final Set<String> serversInGroup = getServersForGroup(model, group);
-                    final Set<String> waitForServers = new HashSet<String>();
+                    final Set<String> waitForServers = new LinkedHashSet<String>();
                     if (serverConfig.isDefined()) {
                         // Even though we don't read from the service registry, we are modifying a service
                         context.getServiceRegistry(true);
@@ -331,14 +380,16 @@ public class DomainServerLifecycleHandlers {
                             final ServerStatus status = serverInventory.determineServerStatus(config.getName());
                             if (status != ServerStatus.STARTING && status != ServerStatus.STARTED) {
                                 if (group == null || serversInGroup.contains(config.getName())) {
-                                    if (status != ServerStatus.STOPPED) {
-                                        serverInventory.stopServer(config.getName(), 0);
-                                    }
-                                    serverInventory.startServer(config.getName(), model, false, suspend);
                                     waitForServers.add(config.getName());
                                 }
                             }
                         }
+                        startServers(scheduler, waitForServers, server -> {
+                            if (serverInventory.determineServerStatus(server) != ServerStatus.STOPPED) {
+                                serverInventory.stopServer(server, 0);
+                            }
+                            serverInventory.startServer(server, model, false, suspend);
+                        }, blockingTimeout);
                         if (blocking) {
                             serverInventory.awaitServersState(waitForServers, true);
                         }
@@ -361,6 +412,8 @@ public class DomainServerLifecycleHandlers {
             final String group = getServerGroupName(operation);
             final boolean blocking = BLOCKING.resolveModelAttribute(context, operation).asBoolean();
             final boolean suspend = START_MODE.resolveModelAttribute(context, operation).asString().toLowerCase(Locale.ENGLISH).equals(StartMode.SUSPEND.toString());
+            final ServerStartScheduler scheduler = getStartScheduler(context, operation);
+            final BlockingTimeout blockingTimeout = BlockingTimeout.Factory.getProxyBlockingTimeout(context);
             context.addStep(new OperationStepHandler() {
                 @Override
                 public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
@@ -368,14 +421,14 @@ public class DomainServerLifecycleHandlers {
                     context.getServiceRegistry(true);
                     Map<String, ProcessInfo> processes = serverInventory.determineRunningProcesses(true);
                     final Set<String> serversInGroup = getServersForGroup(model, group);
-                    final Set<String> waitForServers = new HashSet<String>();
+                    final Set<String> waitForServers = new LinkedHashSet<String>();
                     for (String serverName : processes.keySet()) {
                         final String serverModelName = serverInventory.getProcessServerName(serverName);
                         if (group == null || serversInGroup.contains(serverModelName)) {
-                            serverInventory.restartServer(serverModelName, 0, model, false, suspend);
                             waitForServers.add(serverModelName);
                         }
                     }
+                    startServers(scheduler, waitForServers, server -> serverInventory.restartServer(server, 0, model, false, suspend), blockingTimeout);
                     if (blocking) {
                         serverInventory.awaitServersState(waitForServers, true);
                     }
@@ -398,6 +451,8 @@ public class DomainServerLifecycleHandlers {
             final String group = getServerGroupName(operation);
             final boolean blocking = BLOCKING.resolveModelAttribute(context, operation).asBoolean();
             final boolean suspend = START_MODE.resolveModelAttribute(context, operation).asString().toLowerCase(Locale.ENGLISH).equals(StartMode.SUSPEND.toString());
+            final ServerStartScheduler scheduler = getStartScheduler(context, operation);
+            final BlockingTimeout blockingTimeout = BlockingTimeout.Factory.getProxyBlockingTimeout(context);
             context.addStep(new OperationStepHandler() {
                 @Override
                 public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
@@ -405,14 +460,14 @@ public class DomainServerLifecycleHandlers {
                     context.getServiceRegistry(true);
                     Map<String, ProcessInfo> processes = serverInventory.determineRunningProcesses(true);
                     final Set<String> serversInGroup = getServersForGroup(model, group);
-                    final Set<String> waitForServers = new HashSet<String>();
+                    final Set<String> waitForServers = new LinkedHashSet<String>();
                     for (String serverName : processes.keySet()) {
                         final String serverModelName = serverInventory.getProcessServerName(serverName);
                         if (group == null || serversInGroup.contains(serverModelName)) {
-                            serverInventory.reloadServer(serverModelName, false, suspend);
                             waitForServers.add(serverModelName);
                         }
                     }
+                    startServers(scheduler, waitForServers, server -> serverInventory.reloadServer(server, false, suspend), blockingTimeout);
                     if (blocking) {
                         serverInventory.awaitServersState(waitForServers, true);
                     }
@@ -50,10 +50,17 @@ public class FetchMissingConfigurationHandler implements OperationStepHandler {
 
     private final Transformers transformers;
     private final ExtensionRegistry extensionRegistry;
+    private final TransformedDomainModelCache cache;
 
     public FetchMissingConfigurationHandler(final String hostName, final Transformers transformers, final ExtensionRegistry extensionRegistry) {
+        this(hostName, transformers, extensionRegistry, null);
+    }
+
+    public FetchMissingConfigurationHandler(final String hostName, final Transformers transformers, final ExtensionRegistry extensionRegistry,
+                                            final TransformedDomainModelCache cache) {
         this.transformers = transformers;
         this.extensionRegistry = extensionRegistry;
+        this.cache = cache;
     }
 
     @Override
@@ -69,7 +76,7 @@ public class FetchMissingConfigurationHandler implements OperationStepHandler {
         final Transformers.ResourceIgnoredTransformationRegistry manualExcludes = HostInfo.createIgnoredRegistry(operation);
         final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry = ReadMasterDomainModelUtil.createServerIgnoredRegistry(rc, manualExcludes);
 
-        final ReadDomainModelHandler handler = new ReadDomainModelHandler(ignoredTransformationRegistry, transformers, true);
+        final ReadDomainModelHandler handler = new ReadDomainModelHandler(ignoredTransformationRegistry, transformers, true, cache);
         context.addStep(handler, OperationContext.Stage.MODEL);
     }
 
@@ -38,11 +38,18 @@ class ReadDomainModelHandler implements OperationStepHandler {
     private final Transformers transformers;
     private final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry;
     private final boolean lock;
+    private final TransformedDomainModelCache cache;
 
     public ReadDomainModelHandler(final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry, final Transformers transformers, final boolean lock) {
+        this(ignoredTransformationRegistry, transformers, lock, null);
+    }
+
+    ReadDomainModelHandler(final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry, final Transformers transformers,
+                           final boolean lock, final TransformedDomainModelCache cache) {
         this.transformers = transformers;
         this.ignoredTransformationRegistry = ignoredTransformationRegistry != null ? ignoredTransformationRegistry : Transformers.DEFAULT;
         this.lock = lock;
+        this.cache = cache;
     }
 
     public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
@@ -52,9 +59,11 @@ class ReadDomainModelHandler implements OperationStepHandler {
             context.acquireControllerLock();
         }
 
+        // Read the revision first; the model read next is at least as new
+        final long modelRevision = cache == null ? 0 : cache.getModelRevision();
         final Transformers.TransformationInputs transformationInputs = new Transformers.TransformationInputs(context);
         final ReadMasterDomainModelUtil readUtil = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(transformers,
-                transformationInputs, ignoredTransformationRegistry, transformationInputs.getRootResource());
+                transformationInputs, ignoredTransformationRegistry, transformationInputs.getRootResource(), cache, modelRevision);
         context.getResult().set(readUtil.getDescribedResources());
     }
 
@@ -86,12 +86,48 @@ public class ReadMasterDomainModelUtil {
                                                                                 final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry,
                                                                                 final Resource domainRoot) throws OperationFailedException {
 
-        Resource transformedResource = transformers.transformRootResource(transformationInputs, domainRoot, ignoredTransformationRegistry);
-        ReadMasterDomainModelUtil util = new ReadMasterDomainModelUtil();
-        util.describedResources = util.describeAsNodeList(PathAddress.EMPTY_ADDRESS, transformedResource, false);
+        return readMasterDomainResourcesForInitialConnect(transformers, transformationInputs, ignoredTransformationRegistry, domainRoot, null, 0);
+    }
+
+    /**
+     * Used to read the domain model when a slave host connects to the DC, reusing the result of an identical
+     * transformation for another slave if available.
+     *
+     *  @param transformers the transformers for the host
+     *  @param transformationInputs parameters for the transformation
+     *  @param ignoredTransformationRegistry registry of resources ignored by the transformation target
+     *  @param domainRoot the root resource for the domain resource tree
+     *  @param cache cache of transformed domain models. May be {@code null}
+     *  @param modelRevision the revision of the domain model read from {@code cache} before {@code domainRoot} was read
+     * @return a read master domain model util instance
+     */
+    static ReadMasterDomainModelUtil readMasterDomainResourcesForInitialConnect(final Transformers transformers,
+                                                                                final Transformers.TransformationInputs transformationInputs,
+                                                                                final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry,
+                                                                                final Resource domainRoot,
+                                                                                final TransformedDomainModelCache cache,
+                                                                                final long modelRevision) throws OperationFailedException {
+
+        final ReadMasterDomainModelUtil util = new ReadMasterDomainModelUtil();
+        final TransformedDomainModelCache.Transformation transformation = () -> {
+            Resource transformedResource = transformers.transformRootResource(transformationInputs, domainRoot, ignoredTransformationRegistry);
+            return util.describeAsNodeList(PathAddress.EMPTY_ADDRESS, transformedResource, false);
+        };
+        util.describedResources = cache == null ? transformation.transform()
+                : cache.getDescribedResources(transformers, ignoredTransformationRegistry, domainRoot, modelRevision, transformation);
         return util;
     }
 
+    /**
+     * Describes an untransformed resource tree the same way as the transformed one sent to the slaves.
+     *
+     * @param root the root resource
+     * @return the list of resources
+     */
+    static List<ModelNode> describeResources(final Resource root) {
+        return new ReadMasterDomainModelUtil().describeAsNodeList(PathAddress.EMPTY_ADDRESS, root, false);
+    }
+
     /**
      * Gets a list of the resources for the slave's ApplyXXXXHandlers. Although the format might appear
      * similar as the operations generated at boot-time this description is only useful
@@ -0,0 +1,259 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST_EXCLUDE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_CLIENT_CONTENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Computes the revision of the part of the domain and host model a single server is launched and configured from.
+ * <p>
+ * The revision is the slice of the model the server depends on: the host model without the other server configs,
+ * the server's group together with its profile and socket binding group (including anything they include), the
+ * deployments the group references, and the remaining domain-wide resources. Resources that can only affect other
+ * servers are left out, so two revisions of a server compare equal whenever nothing it depends on has changed, and
+ * the server does not need to be checked any further when the host controller synchronizes its model.
+ * <p>
+ * Nothing is copied: a revision only records which resources each server references, and the models themselves are
+ * compared when the revisions are. The domain-wide and host-wide part is compared once, and so is each distinct server
+ * group, profile, socket binding group and deployment, however many servers reference it. The models passed to
+ * {@link #of(ModelNode, ModelNode)} must therefore not be modified afterwards.
+ */
+final class ServerModelRevision {
+
+    /** Root level children which never contribute to a server's configuration, or are referenced per server below. */
+    private static final Set<String> EXCLUDED_ROOT_CHILDREN = new HashSet<>();
+    static {
+        EXCLUDED_ROOT_CHILDREN.add(HOST);
+        EXCLUDED_ROOT_CHILDREN.add(HOST_EXCLUDE);
+        EXCLUDED_ROOT_CHILDREN.add(MANAGEMENT_CLIENT_CONTENT);
+        EXCLUDED_ROOT_CHILDREN.add(SERVER_GROUP);
+        EXCLUDED_ROOT_CHILDREN.add(PROFILE);
+        EXCLUDED_ROOT_CHILDREN.add(SOCKET_BINDING_GROUP);
+        EXCLUDED_ROOT_CHILDREN.add(DEPLOYMENT);
+    }
+
+    /** Host level children which are referenced per server, or are runtime only. */
+    private static final Set<String> EXCLUDED_HOST_CHILDREN = new HashSet<>();
+    static {
+        EXCLUDED_HOST_CHILDREN.add(SERVER_CONFIG);
+        EXCLUDED_HOST_CHILDREN.add(SERVER);
+    }
+
+    private final ModelNode root;
+    private final ModelNode hostModel;
+    /** server name -> the root level resources the server references */
+    private final Map<String, Set<PathElement>> servers;
+
+    private ServerModelRevision(final ModelNode root, final ModelNode hostModel, final Map<String, Set<PathElement>> servers) {
+        this.root = root;
+        this.hostModel = hostModel;
+        this.servers = servers;
+    }
+
+    /**
+     * Gets the revision of each server configured in the given host model.
+     *
+     * @param root the domain model, which must not be modified afterwards
+     * @param hostModel the local host model, which must not be modified afterwards
+     * @return the revisions. Will not be {@code null}
+     */
+    static ServerModelRevision of(final ModelNode root, final ModelNode hostModel) {
+        final Map<String, Set<PathElement>> servers = new HashMap<>();
+        if (hostModel.hasDefined(SERVER_CONFIG)) {
+            for (String serverName : hostModel.get(SERVER_CONFIG).keys()) {
+                servers.put(serverName, getReferences(hostModel.get(SERVER_CONFIG, serverName), root));
+            }
+        }
+        return new ServerModelRevision(root, hostModel, servers);
+    }
+
+    /**
+     * Gets the names of the servers whose revision is the same here and in the given earlier revisions.
+     *
+     * @param previous the revisions before the model was changed
+     * @return the unchanged servers. Will not be {@code null}
+     */
+    Set<String> getUnchangedServers(final ServerModelRevision previous) {
+        if (!isSharedUnchanged(previous)) {
+            return Collections.emptySet();
+        }
+        final Map<PathElement, Boolean> unchangedResources = new HashMap<>();
+        final Set<String> unchanged = new HashSet<>();
+        for (Map.Entry<String, Set<PathElement>> entry : servers.entrySet()) {
+            final String serverName = entry.getKey();
+            final Set<PathElement> references = entry.getValue();
+            if (!references.equals(previous.servers.get(serverName))
+                    || !hostModel.get(SERVER_CONFIG, serverName).equals(previous.hostModel.get(SERVER_CONFIG, serverName))) {
+                continue;
+            }
+            boolean same = true;
+            for (PathElement reference : references) {
+                final Boolean known = unchangedResources.get(reference);
+                final boolean resourceUnchanged;
+                if (known != null) {
+                    resourceUnchanged = known;
+                } else {
+                    resourceUnchanged = getChild(root, reference).equals(getChild(previous.root, reference));
+                    unchangedResources.put(reference, resourceUnchanged);
+                }
+                if (!resourceUnchanged) {
+                    same = false;
+                    break;
+                }
+            }
+            if (same) {
+                unchanged.add(serverName);
+            }
+        }
+        return unchanged;
+    }
+
+    /**
+     * Gets a filter accepting the addresses of the operations which may change the configuration of any of the given
+     * servers, in either of the given revisions. Operations on resources only other servers depend on are rejected,
+     * so they need not be resolved against the servers.
+     *
+     * @param serverNames the servers
+     * @param start the revisions before the model was changed
+     * @param end the revisions after the model was changed
+     * @return the filter. Will not be {@code null}
+     */
+    static Predicate<PathAddress> affecting(final Set<String> serverNames, final ServerModelRevision start, final ServerModelRevision end) {
+        if (serverNames.isEmpty()) {
+            return address -> false;
+        }
+        final Set<PathElement> references = new HashSet<>();
+        for (String serverName : serverNames) {
+            references.addAll(start.servers.getOrDefault(serverName, Collections.emptySet()));
+            references.addAll(end.servers.getOrDefault(serverName, Collections.emptySet()));
+        }
+        return address -> {
+            if (address.size() == 0) {
+                return true;
+            }
+            final PathElement element = address.getElement(0);
+            switch (element.getKey()) {
+                case HOST:
+                    if (address.size() > 1) {
+                        final PathElement hostChild = address.getElement(1);
+                        if (EXCLUDED_HOST_CHILDREN.contains(hostChild.getKey())) {
+                            return serverNames.contains(hostChild.getValue());
+                        }
+                    }
+                    return true;
+                case SERVER_GROUP:
+                case PROFILE:
+                case SOCKET_BINDING_GROUP:
+                case DEPLOYMENT:
+                    return references.contains(element);
+                case HOST_EXCLUDE:
+                case MANAGEMENT_CLIENT_CONTENT:
+                    return false;
+                default:
+                    return true;
+            }
+        };
+    }
+
+    private boolean isSharedUnchanged(final ServerModelRevision previous) {
+        return isUnchanged(root, previous.root, EXCLUDED_ROOT_CHILDREN)
+                && isUnchanged(hostModel, previous.hostModel, EXCLUDED_HOST_CHILDREN);
+    }
+
+    private static boolean isUnchanged(final ModelNode model, final ModelNode previous, final Set<String> excluded) {
+        final Set<String> keys = new HashSet<>(model.keys());
+        keys.removeAll(excluded);
+        final Set<String> previousKeys = new HashSet<>(previous.keys());
+        previousKeys.removeAll(excluded);
+        if (!keys.equals(previousKeys)) {
+            return false;
+        }
+        for (String key : keys) {
+            if (!model.get(key).equals(previous.get(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<PathElement> getReferences(final ModelNode serverConfig, final ModelNode root) {
+        final Set<PathElement> references = new LinkedHashSet<>();
+        final String groupName = serverConfig.get(GROUP).asString();
+        references.add(PathElement.pathElement(SERVER_GROUP, groupName));
+        final ModelNode group = getChild(root, PathElement.pathElement(SERVER_GROUP, groupName));
+        if (group.hasDefined(DEPLOYMENT)) {
+            for (String deployment : group.get(DEPLOYMENT).keys()) {
+                references.add(PathElement.pathElement(DEPLOYMENT, deployment));
+            }
+        }
+        if (group.hasDefined(PROFILE)) {
+            addIncluded(root, PathElement.pathElement(PROFILE, group.get(PROFILE).asString()), references);
+        }
+        if (group.hasDefined(SOCKET_BINDING_GROUP)) {
+            addIncluded(root, PathElement.pathElement(SOCKET_BINDING_GROUP, group.get(SOCKET_BINDING_GROUP).asString()), references);
+        }
+        if (serverConfig.hasDefined(SOCKET_BINDING_GROUP)) {
+            addIncluded(root, PathElement.pathElement(SOCKET_BINDING_GROUP, serverConfig.get(SOCKET_BINDING_GROUP).asString()), references);
+        }
+        return references;
+    }
+
+    private static void addIncluded(final ModelNode root, final PathElement reference, final Set<PathElement> references) {
+        if (!references.add(reference)) {
+            return;
+        }
+        final ModelNode resource = getChild(root, reference);
+        if (resource.hasDefined(INCLUDES)) {
+            for (ModelNode include : resource.get(INCLUDES).asList()) {
+                addIncluded(root, PathElement.pathElement(reference.getKey(), include.asString()), references);
+            }
+        }
+    }
+
+    private static ModelNode getChild(final ModelNode model, final PathElement element) {
+        // Don't use get() directly, it would add the missing child to the model being inspected
+        return model.hasDefined(element.getKey(), element.getValue()) ? model.get(element.getKey(), element.getValue()) : new ModelNode();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Paces the (re)starts of a set of servers for the server lifecycle operations. At most {@code maxConcurrency}
+ * servers are starting at any time, a server stops counting against that limit once it is running, and
+ * at most {@code maxStartRate} starts are begun per second. Servers are waited on in the order they were started,
+ * so a wave of servers is admitted as the earlier ones become ready. The calling thread is blocked until the last
+ * server has been started.
+ */
+final class ServerStartScheduler {
+
+    private final int maxConcurrency;
+    private final long startInterval;
+    private boolean started;
+    private long nextStart;
+
+    /**
+     * Creates the scheduler.
+     *
+     * @param maxConcurrency the maximum number of servers starting at once, or {@code 0} for no limit
+     * @param maxStartRate the maximum number of server starts per second, or {@code 0} for no limit
+     */
+    ServerStartScheduler(int maxConcurrency, int maxStartRate) {
+        this.maxConcurrency = maxConcurrency;
+        this.startInterval = maxStartRate > 0 ? TimeUnit.SECONDS.toNanos(1) / maxStartRate : 0;
+    }
+
+    /**
+     * Starts the given servers within the configured limits.
+     *
+     * @param servers the names of the servers to start
+     * @param start begins starting a server, without waiting for it to be running
+     * @param awaitRunning waits, for a bounded time, for a server to either be running or have failed to start
+     * @throws InterruptedException if interrupted while waiting. Servers not started yet are left alone
+     */
+    void start(Collection<String> servers, Consumer<String> start, Consumer<String> awaitRunning) throws InterruptedException {
+        final Deque<String> starting = new ArrayDeque<>();
+        for (String server : servers) {
+            if (maxConcurrency > 0) {
+                while (starting.size() >= maxConcurrency) {
+                    awaitRunning.accept(starting.poll());
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+            }
+            awaitStartPermit();
+            start.accept(server);
+            starting.add(server);
+        }
+    }
+
+    private void awaitStartPermit() throws InterruptedException {
+        if (startInterval == 0) {
+            return;
+        }
+        final long now = System.nanoTime();
+        if (!started || now - nextStart >= 0) {
+            started = true;
+            nextStart = now + startInterval;
+        } else {
+            TimeUnit.NANOSECONDS.sleep(nextStart - now);
+            nextStart += startInterval;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -78,6 +79,7 @@ class SyncServerStateOperationHandler implements OperationStepHandler {
         }
 
         final ServerOperationResolver resolver = new ServerOperationResolver(localHostName, parameters.getServerProxies());
+        final ServerModelRevision startRevision = ServerModelRevision.of(startRoot, startHostModel);
 
         context.addStep(operation, new OperationStepHandler() {
             @Override
@@ -86,12 +88,25 @@ class SyncServerStateOperationHandler implements OperationStepHandler {
                 final ModelNode endRoot = Resource.Tools.readModel(domainRootResource);
                 final ModelNode endHostModel = endRoot.require(HOST).asPropertyList().iterator().next().getValue();
 
+                // Servers whose part of the model did not change can neither need a reload nor a restart,
+                // so only resolve the operations which may affect the other servers, and skip the boot cmd comparison
+                final Set<String> serverNames = endHostModel.get(SERVER_CONFIG).keys();
+                final ServerModelRevision endRevision = ServerModelRevision.of(endRoot, endHostModel);
+                final Set<String> unchangedServers = endRevision.getUnchangedServers(startRevision);
+                final Set<String> changedServers = new HashSet<>(serverNames);
+                changedServers.removeAll(unchangedServers);
+
                 //Get the affected servers for each op.
                 ContentDownloader contentDownloader = new ContentDownloader(startRoot, endRoot, endHostModel);
                 final Map<String, SyncServerResultAction> servers =
-                        determineServerStateChanges(context, domainRootResource, resolver, contentDownloader);
+                        determineServerStateChanges(context, domainRootResource, resolver, contentDownloader,
+                                ServerModelRevision.affecting(changedServers, startRevision, endRevision));
+                servers.keySet().removeAll(unchangedServers);
 
-                for (String serverName : endHostModel.get(SERVER_CONFIG).keys()) {
+                for (String serverName : serverNames) {
+                    if (unchangedServers.contains(serverName)) {
+                        continue;
+                    }
                     // Compare boot cmd (requires restart)
                     SyncServerResultAction restart = servers.get(serverName);
                     if (restart == null || restart == SyncServerResultAction.RELOAD_REQUIRED) {
@@ -136,11 +151,14 @@ class SyncServerStateOperationHandler implements OperationStepHandler {
     }
 
     private Map<String, SyncServerResultAction> determineServerStateChanges(OperationContext context, Resource domainRootResource, ServerOperationResolver resolver,
-                                                             ContentDownloader contentDownloader) {
+                                                             ContentDownloader contentDownloader, Predicate<PathAddress> resolveServerOperations) {
         final Map<String, SyncServerResultAction> serverStateChanges = new HashMap<>();
         for (ModelNode operation : operations) {
             PathAddress addr = PathAddress.pathAddress(operation.get(OP_ADDR));
             contentDownloader.checkContent(operation, addr);
+            if (!resolveServerOperations.test(addr)) {
+                continue;
+            }
 
             Map<Set<ServerIdentity>, ModelNode> serverMap = resolver.getServerOperations(context, operation, addr);
             for (Map.Entry<Set<ServerIdentity>, ModelNode> entry : serverMap.entrySet()) {
@@ -215,6 +233,8 @@ class SyncServerStateOperationHandler implements OperationStepHandler {
         private final Set<String> affectedGroups = new HashSet<>();
         private final Map<String, Set<ContentReference>> deploymentHashes = new HashMap<>();
         private final Set<String> relevantDeployments = new HashSet<String>();
+        /** Deployments which are new or whose content changed, and which may be deployed to our groups later */
+        private final Set<String> updatedDeployments = new HashSet<>();
         private final Set<ContentReference> requiredContent = new HashSet<>();
 
         private boolean updateRolloutPlans;
@@ -251,6 +271,10 @@ class SyncServerStateOperationHandler implements OperationStepHandler {
                                     relevantDeployments.add(firstElement.getValue());
                                 }
                             }
+                            if (!startRoot.hasDefined(DEPLOYMENT, deployment)
+                                    || !startRoot.get(DEPLOYMENT, deployment, CONTENT).equals(operation.get(CONTENT))) {
+                                updatedDeployments.add(deployment);
+                            }
                         }
                         makeExistingDeploymentUpdatedAffected(firstElement, operation);
                         break;
@@ -328,6 +352,19 @@ class SyncServerStateOperationHandler implements OperationStepHandler {
                     requiredContent.addAll(hashes);
                 }
             }
+            // Fetch all the content concurrently, then wait for each
+            for (final ContentReference reference : requiredContent) {
+                parameters.getFileRepository().prefetchDeployment(reference, true);
+            }
+            // Speculatively fetch new content none of our groups uses yet, so deploying it to them later is local
+            for (final String id : updatedDeployments) {
+                final Set<ContentReference> hashes = deploymentHashes.get(id);
+                if (hashes != null) {
+                    for (final ContentReference reference : hashes) {
+                        parameters.getFileRepository().prefetchDeployment(reference, false);
+                    }
+                }
+            }
             for (final ContentReference reference : requiredContent) {
                 parameters.getFileRepository().getDeploymentFiles(reference);
                 parameters.getContentRepository().addContentReference(reference);
@@ -0,0 +1,240 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.transform.TransformationTarget;
+import org.jboss.as.controller.transform.Transformers;
+import org.jboss.as.domain.controller.logging.DomainControllerLogger;
+import org.jboss.as.host.controller.logging.HostControllerLogger;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Cache of the transformed domain model sent to slave host controllers, so slaves running the same
+ * management and subsystem versions and ignoring the same top level resources share one transformation
+ * instead of each running the full transformer chain against the whole domain model.
+ * <p>
+ * Entries are only valid for the domain model they were computed from. Every committed write to the domain model
+ * bumps its revision, and the cached transformations are discarded the next time the cache is used with a newer
+ * revision. Callers read the revision before they read the domain model, so a transformation is never cached for
+ * a revision newer than the model it was computed from.
+ * <p>
+ * The ignored resource registries passed in must only base their decisions on the first element of the address,
+ * as the ones used for slave registration and for fetching missing configuration do.
+ */
+public final class TransformedDomainModelCache {
+
+    private static final String MAX_ENTRIES_PROPERTY = "jboss.domain.transformed-model-cache.size";
+    private static final int DEFAULT_MAX_ENTRIES = 16;
+
+    private final LongSupplier modelRevision;
+    private final int maxEntries;
+    private final Map<Key, List<ModelNode>> entries;
+    /** The revision of the domain model the entries were computed from. Guarded by this */
+    private long revision = -1;
+
+    /**
+     * Creates a cache.
+     *
+     * @param modelRevision supplies the current revision of the domain model, which must increase with every
+     *                      committed write to it
+     */
+    public TransformedDomainModelCache(final LongSupplier modelRevision) {
+        this(modelRevision, getMaxEntries());
+    }
+
+    TransformedDomainModelCache(final LongSupplier modelRevision, final int maxEntries) {
+        this.modelRevision = modelRevision;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, List<ModelNode>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<ModelNode>> eldest) {
+                return size() > TransformedDomainModelCache.this.maxEntries;
+            }
+        };
+    }
+
+    private static int getMaxEntries() {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(MAX_ENTRIES_PROPERTY, null);
+        if (value != null) {
+            try {
+                final int maxEntries = Integer.parseInt(value.trim());
+                if (maxEntries >= 0) {
+                    return maxEntries;
+                }
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+            HostControllerLogger.ROOT_LOGGER.invalidSystemPropertyValue(value, MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES);
+        }
+        return DEFAULT_MAX_ENTRIES;
+    }
+
+    /**
+     * Gets the current revision of the domain model. Must be called before the domain model passed to
+     * {@link #getDescribedResources} is read.
+     *
+     * @return the revision
+     */
+    long getModelRevision() {
+        return modelRevision.getAsLong();
+    }
+
+    /**
+     * Gets the described transformed domain model, running the transformation only if no slave with the same
+     * versions and ignored resources was sent the current domain model yet.
+     *
+     * @param transformers the transformers for the slave
+     * @param ignoredTransformationRegistry registry of resources ignored by the slave
+     * @param domainRoot the untransformed root resource
+     * @param modelRevision the {@link #getModelRevision() revision} of the domain model read before {@code domainRoot}
+     * @param transformation transforms and describes the domain model if it isn't cached
+     * @return a copy of the described resources. Will not be {@code null}
+     * @throws OperationFailedException if the transformation fails
+     */
+    List<ModelNode> getDescribedResources(final Transformers transformers,
+                                          final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry,
+                                          final Resource domainRoot, final long modelRevision,
+                                          final Transformation transformation) throws OperationFailedException {
+        if (maxEntries <= 0) {
+            return transformation.transform();
+        }
+        final Key key = new Key(transformers.getTarget(), ignoredTransformationRegistry, domainRoot);
+        List<ModelNode> described;
+        synchronized (this) {
+            if (modelRevision > revision) {
+                // The domain model was written since the cached transformations were computed
+                entries.clear();
+                revision = modelRevision;
+            }
+            // A caller which read an older model than the cached one can't use the cache
+            described = modelRevision == revision ? entries.get(key) : null;
+        }
+        if (described != null) {
+            DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Using cached transformed domain model for %s", key);
+            return copy(described);
+        }
+        described = transformation.transform();
+        synchronized (this) {
+            // Only cache if no newer model was seen in the meantime
+            if (modelRevision == revision) {
+                entries.put(key, copy(described));
+            }
+        }
+        return described;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static List<ModelNode> copy(final List<ModelNode> nodes) {
+        final List<ModelNode> result = new ArrayList<>(nodes.size());
+        for (ModelNode node : nodes) {
+            result.add(node.clone());
+        }
+        return result;
+    }
+
+    /**
+     * Transforms and describes the domain model.
+     */
+    interface Transformation {
+        List<ModelNode> transform() throws OperationFailedException;
+    }
+
+    /**
+     * Identifies what the transformation of a given domain model depends on: the versions of the slave
+     * and of the subsystems in the domain model, and which top level resources the slave ignores.
+     */
+    private static final class Key {
+        private final TransformationTarget.TransformationTargetType type;
+        private final ModelVersion version;
+        private final Map<String, ModelVersion> subsystemVersions = new TreeMap<>();
+        private final Set<PathElement> ignored = new HashSet<>();
+        private final int hash;
+
+        private Key(final TransformationTarget target, final Transformers.ResourceIgnoredTransformationRegistry ignoredRegistry,
+                    final Resource domainRoot) {
+            this.type = target.getTargetType();
+            this.version = target.getVersion();
+            for (Resource.ResourceEntry profile : domainRoot.getChildren(PROFILE)) {
+                for (String subsystem : profile.getChildrenNames(SUBSYSTEM)) {
+                    if (!subsystemVersions.containsKey(subsystem)) {
+                        subsystemVersions.put(subsystem, target.getSubsystemVersion(subsystem));
+                    }
+                }
+            }
+            for (String childType : domainRoot.getChildTypes()) {
+                for (Resource.ResourceEntry child : domainRoot.getChildren(childType)) {
+                    final PathElement element = child.getPathElement();
+                    if (ignoredRegistry.isResourceTransformationIgnored(PathAddress.pathAddress(element))) {
+                        ignored.add(element);
+                    }
+                }
+            }
+            this.hash = Objects.hash(type, version, subsystemVersions, ignored);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return hash == other.hash && type == other.type && version.equals(other.version)
+                    && subsystemVersions.equals(other.subsystemVersions) && ignored.equals(other.ignored);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return "{type=" + type + ", version=" + version + ", subsystems=" + subsystemVersions + ", ignored=" + ignored + "}";
+        }
+    }
+}
@@ -32,10 +32,18 @@ import static org.jboss.as.domain.controller.logging.DomainControllerLogger.HOST
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -57,18 +65,37 @@ import org.jboss.as.controller.operations.DomainOperationTransmuter;
 
 /**
  * Executes the first phase of a two phase operation on one or more remote, slave host controllers.
+ * <p>
+ * Prepared and final responses are processed in the order the hosts send them. As any failed host makes the whole
+ * domain operation roll back, hosts that already prepared are told to roll back as soon as the first failure is seen,
+ * rather than after the slowest host responded. The commit or rollback messages of the second phase are sent to all
+ * hosts concurrently when an executor is available, within the domain blocking timeout; a host whose message could not
+ * be sent in time is recorded as failed. How long each host took to prepare, and to complete once told the outcome,
+ * is reported in milliseconds in the {@value #HOST_LATENCIES} response header.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
 public class DomainSlaveHandler implements OperationStepHandler {
 
+    static final String HOST_LATENCIES = "host-latencies";
+    static final String PREPARE = "prepare";
+    static final String COMPLETE = "complete";
+
     private final MultiphaseOverallContext multiphaseContext;
     private final Map<String, ProxyController> hostProxies;
+    private final ExecutorService executorService;
 
     public DomainSlaveHandler(final Map<String, ProxyController> hostProxies,
                               final MultiphaseOverallContext domainOperationContext) {
+        this(hostProxies, domainOperationContext, null);
+    }
+
+    public DomainSlaveHandler(final Map<String, ProxyController> hostProxies,
+                              final MultiphaseOverallContext domainOperationContext,
+                              final ExecutorService executorService) {
         this.hostProxies = hostProxies;
         this.multiphaseContext = domainOperationContext;
+        this.executorService = executorService;
     }
 
     @Override
@@ -87,6 +114,8 @@ public class DomainSlaveHandler implements OperationStepHandler {
         final HostControllerUpdateTask.ProxyOperationListener listener = new HostControllerUpdateTask.ProxyOperationListener();
         final Transformers.TransformationInputs transformationInputs = Transformers.TransformationInputs.getOrCreate(context);
         final List<DomainOperationTransmuter> transformers = context.getAttachment(OperationAttachments.SLAVE_SERVER_OPERATION_TRANSMUTERS);
+        final HostTimings timings = new HostTimings();
+        final BlockingQueue<String> completed = new LinkedBlockingQueue<>();
         for (Map.Entry<String, ProxyController> entry : hostProxies.entrySet()) {
             // Create the proxy task
             final String host = entry.getKey();
@@ -103,6 +132,7 @@ public class DomainSlaveHandler implements OperationStepHandler {
             clonedOp.get(OPERATION_HEADERS, DomainControllerLockIdUtils.DOMAIN_CONTROLLER_LOCK_ID).set(CurrentOperationIdHolder.getCurrentOperationID());
             final HostControllerUpdateTask task = new HostControllerUpdateTask(host, clonedOp, context, proxyController, transformationInputs);
             // Execute the operation on the remote host
+            timings.sent.put(host, System.nanoTime());
             final HostControllerUpdateTask.ExecutedHostRequest finalResult = task.execute(listener);
             multiphaseContext.recordHostRequest(host, finalResult);
             finalResults.put(host, finalResult);
@@ -111,6 +141,7 @@ public class DomainSlaveHandler implements OperationStepHandler {
         // Wait for all hosts to reach the prepared state
         boolean interrupted = false;
         boolean completeStepCalled = false;
+        boolean hostFailed = false;
         try {
             long timeout = 0;
             while (outstanding.size() > 0) {
@@ -126,6 +157,7 @@ public class DomainSlaveHandler implements OperationStepHandler {
                     if (!outstanding.remove(hostName)) {
                         continue;
                     }
+                    timings.prepared(hostName);
                     final ModelNode preparedResult = prepared.getPreparedResult();
                     HOST_CONTROLLER_LOGGER.tracef("Preliminary result for remote host %s is %s", hostName, preparedResult);
                     // See if we have to reject the result
@@ -141,11 +173,19 @@ public class DomainSlaveHandler implements OperationStepHandler {
 
                         // Record the failed result
                         multiphaseContext.addHostControllerPreparedResult(hostName, failedResult);
+                        hostFailed = true;
                     } else {
                         // Record the prepared result
                         multiphaseContext.addHostControllerPreparedResult(hostName, preparedResult);
+                        hostFailed |= preparedResult.has(FAILURE_DESCRIPTION);
                     }
                     results.add(prepared);
+                    awaitFinalResult(prepared, timings, completed);
+                    if (hostFailed) {
+                        // Any failed host rolls back the whole domain operation, so don't keep the hosts that
+                        // prepared fine holding their locks until the slowest host answers
+                        rollbackEarly(results, timings);
+                    }
                 } else {
                     // Either interrupted or timed out.
                     handleMissingHostResponses(finalResults, outstanding, !interrupted, timeout);
@@ -165,7 +205,7 @@ public class DomainSlaveHandler implements OperationStepHandler {
             context.completeStep(new OperationContext.ResultHandler() {
                 @Override
                 public void handleResult(OperationContext.ResultAction resultAction, OperationContext context, ModelNode operation) {
-                    finalizeOp(results, finalResults, false, context, blockingTimeout);
+                    finalizeOp(results, finalResults, false, context, blockingTimeout, timings, completed);
                 }
             });
 
@@ -173,7 +213,41 @@ public class DomainSlaveHandler implements OperationStepHandler {
 
         } finally {
             if (!completeStepCalled) {
-                finalizeOp(results, finalResults, interrupted, context, blockingTimeout);
+                finalizeOp(results, finalResults, interrupted, context, blockingTimeout, timings, completed);
+            }
+        }
+    }
+
+    /** Queues the name of the host once its final result is available, so final results are processed in arrival order. */
+    private static void awaitFinalResult(final TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation> prepared,
+                                         final HostTimings timings, final BlockingQueue<String> completed) {
+        prepared.getFinalResult().addListener(new AsyncFuture.Listener<OperationResponse, String>() {
+            @Override
+            public void handleComplete(AsyncFuture<? extends OperationResponse> future, String hostName) {
+                timings.completed(hostName);
+                completed.add(hostName);
+            }
+
+            @Override
+            public void handleFailed(AsyncFuture<? extends OperationResponse> future, Throwable cause, String hostName) {
+                completed.add(hostName);
+            }
+
+            @Override
+            public void handleCancelled(AsyncFuture<? extends OperationResponse> future, String hostName) {
+                completed.add(hostName);
+            }
+        }, prepared.getOperation().getName());
+    }
+
+    private void rollbackEarly(final List<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>> results,
+                               final HostTimings timings) {
+        for (final TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation> prepared : results) {
+            final String hostName = prepared.getOperation().getName();
+            if (!prepared.isDone() && !timings.completing.containsKey(hostName)) {
+                HOST_CONTROLLER_LOGGER.tracef("Rolling back remote host %s early as another host failed", hostName);
+                timings.completing.put(hostName, System.nanoTime());
+                prepared.rollback();
             }
         }
     }
@@ -217,75 +291,192 @@ public class DomainSlaveHandler implements OperationStepHandler {
 
     private void finalizeOp(final List<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>> results,
                             final Map<String, HostControllerUpdateTask.ExecutedHostRequest> finalResults,
-                            final boolean interrupted, final OperationContext context, final BlockingTimeout blockingTimeout) {
+                            final boolean interrupted, final OperationContext context, final BlockingTimeout blockingTimeout,
+                            final HostTimings timings, final BlockingQueue<String> completed) {
 
         // If an interrupt occurred, either in our execute method or after it called completeStep,
         // we will be less patient in waiting for final responses, as the user has indicated
         // they want the op ended. Quite likely that is because the op is taking too long.
         boolean interruptThread = Thread.interrupted() || interrupted;
         try {
-            // Inform the remote hosts whether to commit or roll back their updates
-            // The slaves will then being doing the commit/rollback in parallel
-            boolean rollback = multiphaseContext.isCompleteRollback();
+            final Map<String, TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>> pending = new HashMap<>();
             for (final TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation> prepared : results) {
+                pending.put(prepared.getOperation().getName(), prepared);
+            }
 
-                // Clear any thread interrupted status so we know the commit/rollback message will go out
-                interruptThread = Thread.interrupted() || interruptThread;
+            // Inform the remote hosts whether to commit or roll back their updates
+            // The slaves will then being doing the commit/rollback in parallel
+            final int sendTimeout = interruptThread ? 50 : blockingTimeout.getDomainBlockingTimeout(false);
+            final Set<String> unsent = new HashSet<>();
+            interruptThread = sendOutcome(results, multiphaseContext.isCompleteRollback(), timings, sendTimeout, unsent) || interruptThread;
+            for (final String hostName : unsent) {
+                // Stuck sending the outcome; as far as this operation is concerned the host failed
+                pending.remove(hostName).getFinalResult().asyncCancel(true);
+                HOST_CONTROLLER_LOGGER.timedOutAwaitingFinalResponse(sendTimeout, hostName);
+                final ModelNode failureResponse = new ModelNode();
+                failureResponse.get(OUTCOME).set(FAILED);
+                failureResponse.get(FAILURE_DESCRIPTION).set(HOST_CONTROLLER_LOGGER.timedOutSendingOperationOutcome(sendTimeout, hostName));
+                multiphaseContext.addHostControllerFinalResult(hostName, failureResponse);
+            }
 
-                if (prepared.isDone()) {
-                    continue;
+            // Now get the final results from the hosts, in the order they arrive
+            // If we've been interrupted, only wait 50 ms for a final response, otherwise wait the domain blocking timeout
+            // Before WFCORE-996 was analyzed, in the interrupted case we would wait 0 ms. 50 ms is a
+            // workaround attempt to avoid a race
+            final int patient = interruptThread ? 50 : blockingTimeout.getDomainBlockingTimeout(false);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(patient);
+            while (!pending.isEmpty()) {
+                final long wait = deadline - System.nanoTime();
+                String hostName = null;
+                if (wait > 0) {
+                    try {
+                        hostName = completed.poll(wait, TimeUnit.NANOSECONDS);
+                    } catch (InterruptedException e) {
+                        interruptThread = true;
+                        // We suppressed an interrupt, so don't block for long waiting for the other responses;
+                        // just grab them if they are already available
+                        deadline = Math.min(deadline, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50));
+                        continue;
+                    }
+                }
+                if (hostName == null) {
+                    break;
                 }
+                final TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation> prepared = pending.remove(hostName);
+                if (prepared != null) {
+                    processFinalResult(hostName, prepared.getFinalResult(), finalResults.get(hostName), context);
+                }
+            }
+            for (Map.Entry<String, TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>> entry : pending.entrySet()) {
+                entry.getValue().getFinalResult().asyncCancel(true);
+                if (interruptThread) {
+                    HOST_CONTROLLER_LOGGER.interruptedAwaitingFinalResponse(entry.getKey());
+                } else {
+                    HOST_CONTROLLER_LOGGER.timedOutAwaitingFinalResponse(patient, entry.getKey());
+                }
+            }
+            timings.report(context.getResponseHeaders(), finalResults.keySet());
+        } finally {
+            if (interruptThread) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Sends commit or rollback to each host that has not completed yet, concurrently if there is an executor.
+     *
+     * @param timeout how long to wait for the concurrent sends, in milliseconds
+     * @param unsent receives the names of the hosts whose concurrent send did not complete in time
+     * @return {@code true} if the calling thread's interrupt status was cleared and needs to be restored
+     */
+    private boolean sendOutcome(final List<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>> results,
+                                final boolean rollback, final HostTimings timings, final long timeout, final Set<String> unsent) {
+        boolean interruptThread = false;
+        final Map<String, Future<?>> sends = new LinkedHashMap<>();
+        for (final TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation> prepared : results) {
+            final String hostName = prepared.getOperation().getName();
+            if (prepared.isDone() || timings.completing.containsKey(hostName)) {
+                continue;
+            }
+            timings.completing.put(hostName, System.nanoTime());
+            final Runnable send = () -> {
                 if (!rollback) {
                     prepared.commit();
                 } else {
                     prepared.rollback();
                 }
+            };
+            if (executorService != null && results.size() > 1) {
+                try {
+                    sends.put(hostName, executorService.submit(send));
+                    continue;
+                } catch (RejectedExecutionException e) {
+                    // send it ourselves
+                }
             }
-            // Now get the final results from the hosts
-            // If we've been interrupted, only wait 50 ms for a final response, otherwise wait the domain blocking timeout
-            // Before WFCORE-996 was analyzed, in the interrupted case we would wait 0 ms. 50 ms is a
-            // workaround attempt to avoid a race
-            int patient = interruptThread ? 50 : blockingTimeout.getDomainBlockingTimeout(false);
-            for (final TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation> prepared : results) {
-                final String hostName = prepared.getOperation().getName();
-                final HostControllerUpdateTask.ExecutedHostRequest request = finalResults.get(hostName);
-                final AsyncFuture<OperationResponse> future = prepared.getFinalResult();
+            // Clear any thread interrupted status so we know the commit/rollback message will go out
+            interruptThread = Thread.interrupted() || interruptThread;
+            send.run();
+        }
+        // Don't start waiting for final results until every message is out, or could not be sent in time
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        for (final Map.Entry<String, Future<?>> entry : sends.entrySet()) {
+            final Future<?> future = entry.getValue();
+            boolean done = false;
+            while (!done) {
                 try {
-                    final OperationResponse finalResponse = future.get(patient, TimeUnit.MILLISECONDS);
-                    final ModelNode transformedResult = request.transformResult(finalResponse.getResponseNode());
-                    multiphaseContext.addHostControllerFinalResult(hostName, transformedResult);
-
-                    // Make sure any streams associated with the remote response are properly
-                    // integrated with our response
-                    ResponseAttachmentInputStreamSupport.handleDomainOperationResponseStreams(context, transformedResult, finalResponse.getInputStreams());
-
-                    HOST_CONTROLLER_LOGGER.tracef("Final result for remote host %s is %s", hostName, finalResponse.getResponseNode());
-                    HOST_CONTROLLER_LOGGER.tracef("Transformed result from host %s is %s", hostName, transformedResult);
-
+                    future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                    done = true;
                 } catch (InterruptedException e) {
                     interruptThread = true;
-                    future.asyncCancel(true);
-                    // We suppressed an interrupt, so don't block indefinitely waiting for other responses;
-                    // just grab them if they are already available
-                    patient = patient == 0 ? 0 : 50; // if we were already really impatient, we still are
-                    HOST_CONTROLLER_LOGGER.interruptedAwaitingFinalResponse(hostName);
+                    // As in finalizeOp, don't keep waiting long once interrupted
+                    deadline = Math.min(deadline, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50));
                 } catch (ExecutionException e) {
-                    HOST_CONTROLLER_LOGGER.caughtExceptionAwaitingFinalResponse(e.getCause(), hostName);
+                    HOST_CONTROLLER_LOGGER.debug("Failed sending operation outcome to a remote host", e.getCause());
+                    done = true;
                 } catch (TimeoutException e) {
-                    future.asyncCancel(true);
-                    if (interruptThread) {
-                        HOST_CONTROLLER_LOGGER.interruptedAwaitingFinalResponse(hostName);
-                    } else {
-                        HOST_CONTROLLER_LOGGER.timedOutAwaitingFinalResponse(patient, hostName);
-                    }
-                    // we already waited at least the original 'patient' value since we sent out commit/rollback msgs;
-                    // don't need to wait so long any more
-                    patient = 0;
+                    future.cancel(true);
+                    unsent.add(entry.getKey());
+                    done = true;
                 }
             }
-        } finally {
-            if (interruptThread) {
-                Thread.currentThread().interrupt();
+        }
+        return interruptThread;
+    }
+
+    private void processFinalResult(final String hostName, final AsyncFuture<OperationResponse> future,
+                                    final HostControllerUpdateTask.ExecutedHostRequest request, final OperationContext context) {
+        try {
+            final OperationResponse finalResponse = future.getUninterruptibly();
+            final ModelNode transformedResult = request.transformResult(finalResponse.getResponseNode());
+            multiphaseContext.addHostControllerFinalResult(hostName, transformedResult);
+
+            // Make sure any streams associated with the remote response are properly
+            // integrated with our response
+            ResponseAttachmentInputStreamSupport.handleDomainOperationResponseStreams(context, transformedResult, finalResponse.getInputStreams());
+
+            HOST_CONTROLLER_LOGGER.tracef("Final result for remote host %s is %s", hostName, finalResponse.getResponseNode());
+            HOST_CONTROLLER_LOGGER.tracef("Transformed result from host %s is %s", hostName, transformedResult);
+        } catch (ExecutionException e) {
+            HOST_CONTROLLER_LOGGER.caughtExceptionAwaitingFinalResponse(e.getCause(), hostName);
+        } catch (CancellationException e) {
+            HOST_CONTROLLER_LOGGER.interruptedAwaitingFinalResponse(hostName);
+        }
+    }
+
+    /** When each host was sent the operation, prepared it, was sent the outcome and completed. */
+    private static final class HostTimings {
+
+        private final Map<String, Long> sent = new HashMap<>();
+        private final Map<String, Long> prepareLatencies = new HashMap<>();
+        private final Map<String, Long> completing = new ConcurrentHashMap<>();
+        private final Map<String, Long> completeLatencies = new ConcurrentHashMap<>();
+
+        private void prepared(final String hostName) {
+            final Long start = sent.get(hostName);
+            if (start != null) {
+                prepareLatencies.put(hostName, System.nanoTime() - start);
+            }
+        }
+
+        private void completed(final String hostName) {
+            final Long start = completing.get(hostName);
+            if (start != null) {
+                completeLatencies.put(hostName, System.nanoTime() - start);
+            }
+        }
+
+        private void report(final ModelNode responseHeaders, final Set<String> hosts) {
+            for (final String hostName : hosts) {
+                final Long prepare = prepareLatencies.get(hostName);
+                final Long complete = completeLatencies.get(hostName);
+                if (prepare != null) {
+                    responseHeaders.get(HOST_LATENCIES, hostName, PREPARE).set(TimeUnit.NANOSECONDS.toMillis(prepare));
+                }
+                if (complete != null) {
+                    responseHeaders.get(HOST_LATENCIES, hostName, COMPLETE).set(TimeUnit.NANOSECONDS.toMillis(complete));
+                }
             }
         }
     }
@@ -27,6 +27,9 @@ import static org.jboss.as.server.controller.resources.DeploymentAttributes.ENAB
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.RUNTIME_NAME_NILLABLE;
 import static org.jboss.as.server.controller.resources.DeploymentAttributes.SERVER_GROUP_ADD_ATTRIBUTES;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -70,12 +73,14 @@ public class ServerGroupDeploymentAddHandler implements OperationStepHandler {
         final Resource deploymentResource = context.readResourceFromRoot(PathAddress.pathAddress(PathElement.pathElement(DEPLOYMENT, name)));
         ModelNode deployment = deploymentResource.getModel();
 
+        final List<ContentReference> references = new ArrayList<>();
         for (ModelNode content : deployment.require(CONTENT).asList()) {
             if ((content.hasDefined(CONTENT_HASH.getName()))) {
                 CONTENT_HASH.validateOperation(content);
-                // Ensure the local repo has the files
                 ContentReference reference = ModelContentReference.fromModelAddress(address, CONTENT_HASH.resolveModelAttribute(context, content).asBytes());
-                fileRepository.getDeploymentFiles(reference);
+                // Start getting the files while the rest of the model is updated
+                fileRepository.prefetchDeployment(reference, true);
+                references.add(reference);
                 if (contentRepository != null) {
                     contentRepository.addContentReference(reference);
                 }
@@ -99,6 +104,18 @@ public class ServerGroupDeploymentAddHandler implements OperationStepHandler {
                 validateRuntimeNames(name, context, address);
             }
         }, OperationContext.Stage.MODEL);
+
+        if (!references.isEmpty()) {
+            // Ensure the local repo has the files
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    for (ContentReference reference : references) {
+                        fileRepository.getDeploymentFiles(reference);
+                    }
+                }
+            }, OperationContext.Stage.MODEL);
+        }
     }
 
     static void validateRuntimeNames(String deploymentName, OperationContext context, PathAddress address) throws OperationFailedException {
@@ -24,6 +24,8 @@ package org.jboss.as.domain.controller.plan;
 
 import java.net.InetAddress;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -35,67 +37,121 @@ import org.jboss.as.domain.controller.logging.DomainControllerLogger;
 import org.wildfly.security.auth.server.SecurityIdentity;
 
 /**
+ * Pushes the operation to the servers of a server group concurrently. The number of servers with an
+ * outstanding prepared response can optionally be limited, overall and per host, in which case the servers
+ * are updated in waves. The update policy is evaluated as each prepared response arrives, so once the failure
+ * threshold is crossed no further servers are updated.
+ *
  * @author Emanuel Muckenhuber
  */
 class ConcurrentServerGroupUpdateTask extends AbstractServerGroupRolloutTask implements Runnable {
 
+    private final int maxConcurrent;
+    private final int maxPerHost;
+
     public ConcurrentServerGroupUpdateTask(List<ServerUpdateTask> tasks, ServerUpdatePolicy updatePolicy,
                                            ServerTaskExecutor executor, SecurityIdentity securityIdentity, InetAddress sourceAddress, BlockingTimeout blockingTimeout) {
+        this(tasks, updatePolicy, executor, securityIdentity, sourceAddress, blockingTimeout, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    ConcurrentServerGroupUpdateTask(List<ServerUpdateTask> tasks, ServerUpdatePolicy updatePolicy,
+                                    ServerTaskExecutor executor, SecurityIdentity securityIdentity, InetAddress sourceAddress, BlockingTimeout blockingTimeout,
+                                    int maxConcurrent, int maxPerHost) {
         super(tasks, updatePolicy, executor, securityIdentity, sourceAddress, blockingTimeout);
+        assert maxConcurrent > 0 && maxPerHost > 0;
+        this.maxConcurrent = maxConcurrent;
+        this.maxPerHost = maxPerHost;
     }
 
     @Override
     public void execute() {
+        final LinkedList<ServerUpdateTask> pending = new LinkedList<>(tasks);
         final Map<ServerIdentity, ServerUpdateTask> outstanding = new HashMap<>();
+        final Map<ServerIdentity, Long> pushed = new HashMap<>();
+        final Map<String, Integer> perHost = new HashMap<>();
         final ServerTaskExecutor.ServerOperationListener listener = new ServerTaskExecutor.ServerOperationListener();
         int preparedTimeout = 0;
-        for(final ServerUpdateTask task : tasks) {
-            final ServerIdentity identity = task.getServerIdentity();
-            if (updatePolicy.canUpdateServer(identity) && !Thread.currentThread().isInterrupted()) {
-                // Execute the task
-                int serverTimeout = executor.executeTask(listener, task);
-                if (serverTimeout > -1) {
-                    outstanding.put(task.getServerIdentity(), task);
-                    if (serverTimeout > preparedTimeout) {
-                        preparedTimeout = serverTimeout;
+        boolean interrupted = false;
+        for (;;) {
+            // Push to as many servers as the limits allow
+            final Iterator<ServerUpdateTask> it = pending.iterator();
+            while (it.hasNext() && outstanding.size() < maxConcurrent) {
+                final ServerUpdateTask task = it.next();
+                final ServerIdentity identity = task.getServerIdentity();
+                final Integer hostCount = perHost.get(identity.getHostName());
+                if (hostCount != null && hostCount >= maxPerHost) {
+                    continue;
+                }
+                it.remove();
+                if (interrupted || Thread.currentThread().isInterrupted()) {
+                    DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Cancelling server update task for %s", identity);
+                    executor.recordCancelledTask(identity);
+                } else if (updatePolicy.canUpdateServer(identity)) {
+                    // Execute the task
+                    int serverTimeout = executor.executeTask(listener, task);
+                    if (serverTimeout > -1) {
+                        outstanding.put(identity, task);
+                        pushed.put(identity, System.currentTimeMillis());
+                        perHost.put(identity.getHostName(), hostCount == null ? 1 : hostCount + 1);
+                        if (serverTimeout > preparedTimeout) {
+                            preparedTimeout = serverTimeout;
+                        }
                     }
+                } else {
+                    DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Skipping server update task for %s", identity);
+                    executor.recordSkippedTask(identity);
                 }
-            } else {
-                DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Skipping server update task for %s", identity);
             }
-        }
-        boolean interrupted = false;
-        long deadline = System.currentTimeMillis() + preparedTimeout;
-        long remaining = preparedTimeout;
-        while (!interrupted && !outstanding.isEmpty() && remaining > 0) {
-            try {
-                // Wait for all prepared results
-                final TransactionalProtocolClient.PreparedOperation<ServerTaskExecutor.ServerOperation> prepared = listener.retrievePreparedOperation(remaining, TimeUnit.MILLISECONDS);
-                if (prepared == null) {
-                    // timed out
-                    break;
+            if (interrupted || outstanding.isEmpty()) {
+                break;
+            }
+            // Wait for the next prepared result, or until the oldest outstanding request times out
+            long oldest = Long.MAX_VALUE;
+            for (Long start : pushed.values()) {
+                oldest = Math.min(oldest, start);
+            }
+            final long remaining = oldest + preparedTimeout - System.currentTimeMillis();
+            TransactionalProtocolClient.PreparedOperation<ServerTaskExecutor.ServerOperation> prepared = null;
+            if (remaining > 0) {
+                try {
+                    prepared = listener.retrievePreparedOperation(remaining, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    continue;
                 }
+            }
+            if (prepared != null) {
                 final ServerIdentity identity = prepared.getOperation().getIdentity();
-                recordPreparedOperation(identity, prepared);
-                outstanding.remove(identity);
-            } catch (InterruptedException e) {
-                interrupted = true;
+                // Ignore late responses from servers already treated as timed out
+                if (outstanding.remove(identity) != null) {
+                    recordPreparedOperation(identity, prepared);
+                    release(identity, pushed, perHost);
+                }
+            } else {
+                // timed out
+                final long now = System.currentTimeMillis();
+                final Map<ServerIdentity, ServerUpdateTask> expired = new HashMap<>();
+                for (Map.Entry<ServerIdentity, Long> entry : pushed.entrySet()) {
+                    if (entry.getValue() + preparedTimeout <= now) {
+                        expired.put(entry.getKey(), outstanding.get(entry.getKey()));
+                    }
+                }
+                DomainControllerLogger.HOST_CONTROLLER_LOGGER.timedOutAwaitingPreparedResponse(getClass().getSimpleName(), preparedTimeout, expired.keySet());
+                for (Map.Entry<ServerIdentity, ServerUpdateTask> entry : expired.entrySet()) {
+                    final ServerIdentity identity = entry.getKey();
+                    executor.cancelTask(identity);
+                    handlePreparePhaseTimeout(identity, entry.getValue(), preparedTimeout);
+                    outstanding.remove(identity);
+                    release(identity, pushed, perHost);
+                }
             }
-            remaining = deadline - System.currentTimeMillis();
         }
 
         if (!outstanding.isEmpty()) {
-            if (interrupted) {
-                DomainControllerLogger.HOST_CONTROLLER_LOGGER.interruptedAwaitingPreparedResponse(getClass().getSimpleName(), outstanding.keySet());
-            } else {
-                DomainControllerLogger.HOST_CONTROLLER_LOGGER.timedOutAwaitingPreparedResponse(getClass().getSimpleName(), preparedTimeout, outstanding.keySet());
-            }
-            for (Map.Entry<ServerIdentity, ServerUpdateTask> entry : outstanding.entrySet()) {
-                ServerIdentity identity = entry.getKey();
+            DomainControllerLogger.HOST_CONTROLLER_LOGGER.interruptedAwaitingPreparedResponse(getClass().getSimpleName(), outstanding.keySet());
+            for (ServerIdentity identity : outstanding.keySet()) {
                 executor.cancelTask(identity);
-                if (!interrupted) {
-                    handlePreparePhaseTimeout(identity, entry.getValue(), preparedTimeout);
-                }
+                executor.recordCancelledTask(identity);
             }
         }
 
@@ -103,4 +159,9 @@ class ConcurrentServerGroupUpdateTask extends AbstractServerGroupRolloutTask imp
             Thread.currentThread().interrupt();
         }
     }
+
+    private static void release(ServerIdentity identity, Map<ServerIdentity, Long> pushed, Map<String, Integer> perHost) {
+        pushed.remove(identity);
+        perHost.computeIfPresent(identity.getHostName(), (host, count) -> count > 1 ? count - 1 : null);
+    }
 }
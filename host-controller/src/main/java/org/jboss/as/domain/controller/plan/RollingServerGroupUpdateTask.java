@@ -49,8 +49,14 @@ class RollingServerGroupUpdateTask extends AbstractServerGroupRolloutTask implem
         final ServerTaskExecutor.ServerOperationListener listener = new ServerTaskExecutor.ServerOperationListener();
         for(final ServerUpdateTask task : tasks) {
             final ServerIdentity identity = task.getServerIdentity();
-            if(interrupted || ! updatePolicy.canUpdateServer(identity)) {
+            if(interrupted) {
+                DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Cancelling server update task for %s", identity);
+                executor.recordCancelledTask(identity);
+                continue;
+            }
+            if(! updatePolicy.canUpdateServer(identity)) {
                 DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Skipping server update task for %s", identity);
+                executor.recordSkippedTask(identity);
                 continue;
             }
             // Execute the task
@@ -70,6 +76,7 @@ class RollingServerGroupUpdateTask extends AbstractServerGroupRolloutTask implem
                 } catch (InterruptedException e) {
                     DomainControllerLogger.HOST_CONTROLLER_LOGGER.interruptedAwaitingPreparedResponse(getClass().getSimpleName(), Collections.singleton(identity));
                     executor.cancelTask(identity);
+                    executor.recordCancelledTask(identity);
                     interrupted = true;
                 }
             }
@@ -29,6 +29,8 @@ import static java.security.AccessController.doPrivileged;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONCURRENT_GROUPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GRACEFUL_SHUTDOWN_TIMEOUT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IN_SERIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_SERVERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_SERVERS_PER_HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILED_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILURE_PERCENTAGE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ACROSS_GROUPS;
@@ -74,6 +76,7 @@ public class RolloutPlanController {
     private final boolean shutdown;
     private final long gracefulShutdownPeriod;
     private final MultiphaseOverallContext domainOperationContext;
+    private boolean waveLimited;
 
     public RolloutPlanController(final Map<String, Map<ServerIdentity, ModelNode>> opsByGroup,
                                  final ModelNode rolloutPlan,
@@ -141,8 +144,15 @@ public class RolloutPlanController {
 
                     SecurityIdentity securityIdentity = accessAuditContext != null ?  accessAuditContext.getSecurityIdentity() : null;
                     InetAddress sourceAddress = accessAuditContext != null ?  accessAuditContext.getRemoteAddress() : null;
-                    seriesTasks.add(rollingGroup ? new RollingServerGroupUpdateTask(groupTasks, policy, taskExecutor, securityIdentity, sourceAddress, blockingTimeout)
-                        : new ConcurrentServerGroupUpdateTask(groupTasks, policy, taskExecutor, securityIdentity, sourceAddress, blockingTimeout));
+                    if (rollingGroup) {
+                        seriesTasks.add(new RollingServerGroupUpdateTask(groupTasks, policy, taskExecutor, securityIdentity, sourceAddress, blockingTimeout));
+                    } else {
+                        // Optionally push to the servers in waves, bounded overall and per host
+                        final int maxConcurrent = policyNode.hasDefined(MAX_CONCURRENT_SERVERS) ? policyNode.get(MAX_CONCURRENT_SERVERS).asInt() : Integer.MAX_VALUE;
+                        final int maxPerHost = policyNode.hasDefined(MAX_CONCURRENT_SERVERS_PER_HOST) ? policyNode.get(MAX_CONCURRENT_SERVERS_PER_HOST).asInt() : Integer.MAX_VALUE;
+                        waveLimited |= maxConcurrent != Integer.MAX_VALUE || maxPerHost != Integer.MAX_VALUE;
+                        seriesTasks.add(new ConcurrentServerGroupUpdateTask(groupTasks, policy, taskExecutor, securityIdentity, sourceAddress, blockingTimeout, maxConcurrent, maxPerHost));
+                    }
 
                     updatePolicies.put(serverGroupName, policy);
 
@@ -175,6 +185,15 @@ public class RolloutPlanController {
         return result;
     }
 
+    /**
+     * Gets whether any server group of the plan limits the number of servers updated concurrently.
+     *
+     * @return {@code true} if the servers of at least one group are updated in waves
+     */
+    public boolean isWaveLimited() {
+        return waveLimited;
+    }
+
     private ServerUpdateTask createServerTask(final ServerIdentity serverIdentity, final ModelNode serverOp,
                                               final ServerUpdatePolicy policy) {
         ServerUpdateTask result;
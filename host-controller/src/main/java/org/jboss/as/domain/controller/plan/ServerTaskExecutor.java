@@ -28,7 +28,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -50,9 +52,30 @@ import org.jboss.threads.AsyncFuture;
  */
 public abstract class ServerTaskExecutor {
 
+    /** Key of the prepare time, in ms, of each server in the {@link #getRolloutStatistics() rollout statistics}, by host and server name. */
+    public static final String PREPARE_TIME = "prepare-time";
+    /** Key of the number of servers which sent a prepared response in the rollout statistics. */
+    public static final String SERVERS_PREPARED = "servers-prepared";
+    /** Key of the longest prepare time, in ms, in the rollout statistics. */
+    public static final String MAX_PREPARE_TIME = "max-prepare-time";
+    /** Key of the average prepare time, in ms, in the rollout statistics. */
+    public static final String AVERAGE_PREPARE_TIME = "average-prepare-time";
+    /** Key of the number of servers skipped by the update policy in the rollout statistics. */
+    public static final String SERVERS_SKIPPED = "servers-skipped";
+    /** Key of the names of the skipped servers, by host name, in the rollout statistics. */
+    public static final String SKIPPED = "skipped";
+    /** Key of the number of servers whose update was cancelled in the rollout statistics. */
+    public static final String SERVERS_CANCELLED = "servers-cancelled";
+    /** Key of the names of the cancelled servers, by host name, in the rollout statistics. */
+    public static final String CANCELLED = "cancelled";
+
     private final OperationContext context;
     private final Map<ServerIdentity, ExecutedServerRequest> submittedTasks;
     private final List<ServerTaskExecutor.ServerPreparedResponse> preparedResults;
+    private final Map<ServerIdentity, Long> executionStart = new ConcurrentHashMap<>();
+    private final Map<ServerIdentity, Long> prepareTimes = new ConcurrentHashMap<>();
+    private final Map<ServerIdentity, Boolean> skipped = new ConcurrentHashMap<>();
+    private final Map<ServerIdentity, Boolean> cancelled = new ConcurrentHashMap<>();
 
     protected ServerTaskExecutor(OperationContext context, Map<ServerIdentity, ExecutedServerRequest> submittedTasks, List<ServerPreparedResponse> preparedResults) {
         this.context = context;
@@ -79,6 +102,7 @@ public abstract class ServerTaskExecutor {
      * @return time to wait in ms for a response from the server, or {@code -1} if the task execution failed locally
      */
     public int executeTask(final TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener, final ServerUpdateTask task) {
+        executionStart.put(task.getServerIdentity(), System.nanoTime());
         try {
             return execute(listener, task.getServerIdentity(), task.getOperation());
         } catch (OperationFailedException e) {
@@ -171,11 +195,69 @@ public abstract class ServerTaskExecutor {
      * @param task the prepared operation
      */
     void recordPreparedTask(ServerTaskExecutor.ServerPreparedResponse task) {
+        final Long start = executionStart.get(task.getServerIdentity());
+        if (start != null) {
+            prepareTimes.put(task.getServerIdentity(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
         synchronized (preparedResults) {
             preparedResults.add(task);
         }
     }
 
+    /**
+     * Record that a server was not updated, as the update policy no longer allowed it.
+     *
+     * @param identity the server identity
+     */
+    void recordSkippedTask(final ServerIdentity identity) {
+        skipped.put(identity, Boolean.TRUE);
+    }
+
+    /**
+     * Record that a server was not updated, or not waited on, as the rollout was interrupted.
+     *
+     * @param identity the server identity
+     */
+    void recordCancelledTask(final ServerIdentity identity) {
+        cancelled.put(identity, Boolean.TRUE);
+    }
+
+    /**
+     * Gets statistics about the servers the operation was pushed to: the time in ms each server
+     * took to send its prepared response, the servers that were skipped because the
+     * failure threshold of their server group had already been crossed and the servers
+     * whose update was cancelled because the rollout was interrupted.
+     *
+     * @return the statistics. Will not be {@code null}
+     */
+    public ModelNode getRolloutStatistics() {
+        final ModelNode result = new ModelNode();
+        long max = 0;
+        long total = 0;
+        final ModelNode times = result.get(PREPARE_TIME).setEmptyObject();
+        for (Map.Entry<ServerIdentity, Long> entry : prepareTimes.entrySet()) {
+            final ServerIdentity identity = entry.getKey();
+            final long time = entry.getValue();
+            times.get(identity.getHostName(), identity.getServerName()).set(time);
+            max = Math.max(max, time);
+            total += time;
+        }
+        result.get(SERVERS_PREPARED).set(prepareTimes.size());
+        result.get(MAX_PREPARE_TIME).set(max);
+        result.get(AVERAGE_PREPARE_TIME).set(prepareTimes.isEmpty() ? 0 : total / prepareTimes.size());
+        result.get(SERVERS_SKIPPED).set(skipped.size());
+        final ModelNode skippedNode = result.get(SKIPPED).setEmptyObject();
+        for (ServerIdentity identity : skipped.keySet()) {
+            skippedNode.get(identity.getHostName()).add(identity.getServerName());
+        }
+        result.get(SERVERS_CANCELLED).set(cancelled.size());
+        final ModelNode cancelledNode = result.get(CANCELLED).setEmptyObject();
+        for (ServerIdentity identity : cancelled.keySet()) {
+            cancelledNode.get(identity.getHostName()).add(identity.getServerName());
+        }
+        return result;
+    }
+
     static class ServerOperationListener extends BlockingQueueOperationListener<ServerOperation> {
 
         @Override
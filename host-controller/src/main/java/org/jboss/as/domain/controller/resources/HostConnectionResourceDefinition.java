@@ -38,11 +38,13 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.domain.controller.HostConnectionInfo;
 import org.jboss.as.domain.controller.HostRegistrations;
+import org.jboss.as.host.controller.mgmt.PingStatistics;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -85,6 +87,18 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
             .setRuntimeServiceNotRequired()
             .build();
 
+    private static final ObjectTypeAttributeDefinition PING_STATISTICS = ObjectTypeAttributeDefinition.Builder.of(HostConnectionInfo.PING_STATISTICS,
+                pingStatistic(PingStatistics.COUNT, null),
+                pingStatistic(PingStatistics.MEAN, MeasurementUnit.MICROSECONDS),
+                pingStatistic(PingStatistics.PERCENTILE_50, MeasurementUnit.MICROSECONDS),
+                pingStatistic(PingStatistics.PERCENTILE_90, MeasurementUnit.MICROSECONDS),
+                pingStatistic(PingStatistics.PERCENTILE_99, MeasurementUnit.MICROSECONDS),
+                pingStatistic(PingStatistics.MAX, MeasurementUnit.MICROSECONDS))
+            .setRequired(false)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
     private static final OperationDefinition PRUNE_EXPIRED_DEF = new SimpleOperationDefinitionBuilder("prune-expired", RESOLVER)
             .withFlag(OperationEntry.Flag.MASTER_HOST_CONTROLLER_ONLY)
             .build();
@@ -105,6 +119,7 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerReadOnlyAttribute(CONNECTION_DEF, attributeReadHandler);
         resourceRegistration.registerReadOnlyAttribute(EVENT_LIST, attributeReadHandler);
+        resourceRegistration.registerMetric(PING_STATISTICS, attributeReadHandler);
     }
 
     @Override
@@ -142,11 +157,22 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
                     case HostConnectionInfo.EVENTS:
                         processEvents(info, result.setEmptyList());
                         break;
+                    case HostConnectionInfo.PING_STATISTICS:
+                        result.set(info.getPingStatistics());
+                        break;
                 }
             }
         }
     }
 
+    private static AttributeDefinition pingStatistic(final String name, final MeasurementUnit unit) {
+        return SimpleAttributeDefinitionBuilder.create(name, ModelType.LONG, false)
+                .setMeasurementUnit(unit)
+                .setStorageRuntime()
+                .setRuntimeServiceNotRequired()
+                .build();
+    }
+
     static void processEvents(final HostConnectionInfo info, final ModelNode list) {
         for (final HostConnectionInfo.Event event : info.getEvents()) {
             event.toModelNode(list.add());
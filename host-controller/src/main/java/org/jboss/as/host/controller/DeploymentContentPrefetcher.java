@@ -0,0 +1,452 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.jboss.as.host.controller.logging.HostControllerLogger.ROOT_LOGGER;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.jboss.as.repository.ContentReference;
+import org.jboss.as.repository.HostFileRepository;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Fetches deployment content from the master into the local repository of a slave Host Controller in the background,
+ * before anything needs it, so deploys and server starts read the content from the local disk.
+ * <p>
+ * Content the operation starting the prefetch needs is pinned, and never evicted. Content prefetched speculatively is
+ * held until it is used in a cache bounded by the {@code jboss.domain.content.prefetch.cache-size} system property
+ * (in bytes, 1 GiB by default). When the cache grows beyond that, the least recently prefetched or requested content
+ * is deleted again. Content is removed from the cache, and can no longer be evicted, as soon as it is requested from
+ * the repository. Setting the property to {@code 0} disables speculative prefetching; pinned content is still
+ * prefetched.
+ * <p>
+ * Speculative prefetches are started when the domain model is synchronized with the master, for deployments which
+ * are new or whose content changed but which no server group of this host references yet.
+ * <p>
+ * At most {@code jboss.domain.content.prefetch.max-concurrent} (4 by default) prefetches run at a time; the others
+ * wait for their turn, unless the content is requested before, in which case the requesting thread fetches it.
+ */
+public final class DeploymentContentPrefetcher {
+
+    private static final String CACHE_SIZE_PROPERTY = "jboss.domain.content.prefetch.cache-size";
+    private static final long DEFAULT_CACHE_SIZE = 1024L * 1024L * 1024L;
+    private static final String MAX_CONCURRENT_PROPERTY = "jboss.domain.content.prefetch.max-concurrent";
+    private static final int DEFAULT_MAX_CONCURRENT = 4;
+
+    private final HostFileRepository localFileRepository;
+    private final long maxCacheSize;
+    private final int maxConcurrent;
+    private final ConcurrentMap<String, FutureTask<File>> prefetches = new ConcurrentHashMap<>();
+    /** Prefetches waiting for one of the running ones to complete. Guarded by this */
+    private final Deque<Runnable> pending = new ArrayDeque<>();
+    /** Guarded by this */
+    private int running;
+    /** Prefetched content nothing requested yet, in LRU order. Guarded by this */
+    private final LinkedHashMap<String, CachedContent> cache = new LinkedHashMap<>(16, 0.75f, true);
+    /** Hashes of the content requested from the repository or pinned, which must never be evicted. Guarded by this */
+    private final Set<String> requestedContent = new HashSet<>();
+    /** Hashes of the content prefetched or being prefetched, which was not requested yet. Guarded by this */
+    private final Set<String> prefetchedContent = new HashSet<>();
+    /** Hashes of the content evicted but not deleted yet. Guarded by this */
+    private final Set<String> evicting = new HashSet<>();
+    /** Guarded by this */
+    private long cacheSize;
+    private volatile Executor executor;
+
+    private final AtomicLong prefetchCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    DeploymentContentPrefetcher(final HostFileRepository localFileRepository, final long maxCacheSize, final int maxConcurrent) {
+        this.localFileRepository = localFileRepository;
+        this.maxCacheSize = maxCacheSize;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+    }
+
+    /**
+     * Creates the prefetcher configured for this process.
+     *
+     * @param localFileRepository the local repository the content is fetched into
+     * @return the prefetcher. Will not be {@code null}
+     */
+    static DeploymentContentPrefetcher create(final HostFileRepository localFileRepository) {
+        long size = DEFAULT_CACHE_SIZE;
+        final String sizeValue = WildFlySecurityManager.getPropertyPrivileged(CACHE_SIZE_PROPERTY, null);
+        if (sizeValue != null) {
+            try {
+                size = Long.parseLong(sizeValue.trim());
+            } catch (NumberFormatException e) {
+                ROOT_LOGGER.invalidSystemPropertyValue(sizeValue, CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE);
+            }
+        }
+        int maxConcurrent = DEFAULT_MAX_CONCURRENT;
+        final String maxConcurrentValue = WildFlySecurityManager.getPropertyPrivileged(MAX_CONCURRENT_PROPERTY, null);
+        if (maxConcurrentValue != null) {
+            try {
+                maxConcurrent = Integer.parseInt(maxConcurrentValue.trim());
+                if (maxConcurrent < 1) {
+                    ROOT_LOGGER.invalidSystemPropertyValue(maxConcurrentValue, MAX_CONCURRENT_PROPERTY, DEFAULT_MAX_CONCURRENT);
+                    maxConcurrent = DEFAULT_MAX_CONCURRENT;
+                }
+            } catch (NumberFormatException e) {
+                ROOT_LOGGER.invalidSystemPropertyValue(maxConcurrentValue, MAX_CONCURRENT_PROPERTY, DEFAULT_MAX_CONCURRENT);
+            }
+        }
+        return new DeploymentContentPrefetcher(localFileRepository, size, maxConcurrent);
+    }
+
+    /**
+     * Gets the prefetcher used by a file repository.
+     *
+     * @param fileRepository the repository
+     * @return the prefetcher, or {@code null} if the repository does not prefetch content
+     */
+    public static DeploymentContentPrefetcher of(final HostFileRepository fileRepository) {
+        return fileRepository instanceof RemoteDomainConnectionService.RemoteFileRepository
+                ? ((RemoteDomainConnectionService.RemoteFileRepository) fileRepository).getContentPrefetcher()
+                : null;
+    }
+
+    void setExecutor(final Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Starts fetching content in the background, unless it is already available locally or being fetched.
+     *
+     * @param reference the content reference
+     * @param pin {@code true} if the operation starting the prefetch needs the content, so it must not be evicted
+     *            before it is requested; {@code false} for a speculative prefetch, which the cache may evict
+     * @param fetch fetches the content into the local repository
+     */
+    void prefetch(final ContentReference reference, final boolean pin, final Supplier<File> fetch) {
+        final Executor executor = this.executor;
+        if (executor == null || (!pin && maxCacheSize <= 0) || reference.getHexHash().isEmpty()) {
+            return;
+        }
+        final String hash = reference.getHexHash();
+        synchronized (this) {
+            if (pin) {
+                requestedContent.add(hash);
+                final CachedContent cached = cache.remove(hash);
+                if (cached != null) {
+                    cacheSize -= cached.size;
+                }
+            }
+            // Getting it from the cache counts as recent use
+            if (cache.get(hash) != null || (!pin && requestedContent.contains(hash))) {
+                return;
+            }
+        }
+        if (localFileRepository.getDeploymentRoot(reference).exists() || prefetches.containsKey(hash)) {
+            return;
+        }
+        final FutureTask<File> task = new FutureTask<File>(() -> {
+            final File root = fetch.get();
+            cached(reference, root);
+            return root;
+        }) {
+            @Override
+            protected void done() {
+                prefetches.remove(hash, this);
+            }
+        };
+        if (prefetches.putIfAbsent(hash, task) == null) {
+            prefetchCount.incrementAndGet();
+            synchronized (this) {
+                prefetchedContent.add(hash);
+            }
+            submit(executor, () -> {
+                task.run();
+                try {
+                    task.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    failureCount.incrementAndGet();
+                    synchronized (this) {
+                        prefetchedContent.remove(hash);
+                    }
+                    ROOT_LOGGER.debugf(e.getCause(), "Failed to prefetch content %s", hash);
+                }
+            });
+        }
+    }
+
+    private void submit(final Executor executor, final Runnable prefetch) {
+        synchronized (this) {
+            if (running >= maxConcurrent) {
+                pending.add(prefetch);
+                return;
+            }
+            running++;
+        }
+        executor.execute(() -> runAndContinue(executor, prefetch));
+    }
+
+    private void runAndContinue(final Executor executor, final Runnable prefetch) {
+        try {
+            prefetch.run();
+        } finally {
+            final Runnable next;
+            synchronized (this) {
+                next = pending.poll();
+                if (next == null) {
+                    running--;
+                }
+            }
+            if (next != null) {
+                executor.execute(() -> runAndContinue(executor, next));
+            }
+        }
+    }
+
+    /**
+     * Gets requested content, waiting for its prefetch if one is in progress, or fetching it if it is not available
+     * locally yet. The content can no longer be evicted afterwards.
+     *
+     * @param reference the content reference
+     * @param root the local deployment root of the content
+     * @param fetch fetches the content into the local repository
+     * @return the deployment root holding the content
+     */
+    File get(final ContentReference reference, final File root, final Supplier<File> fetch) {
+        final String hash = reference.getHexHash();
+        final boolean prefetched;
+        synchronized (this) {
+            // Content being evicted is fetched again once it is deleted
+            boolean interrupted = false;
+            while (evicting.contains(hash)) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            requestedContent.add(hash);
+            final CachedContent cached = cache.remove(hash);
+            if (cached != null) {
+                cacheSize -= cached.size;
+            }
+            prefetched = prefetchedContent.remove(hash);
+        }
+        if (!root.exists()) {
+            final FutureTask<File> prefetch = prefetches.get(hash);
+            if (prefetch != null) {
+                // Runs the prefetch here if it is still waiting for its turn, otherwise waits for it
+                prefetch.run();
+                try {
+                    prefetch.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    // Already counted; try again below
+                }
+            }
+            if (!root.exists()) {
+                missCount.incrementAndGet();
+                return fetch.get();
+            }
+        }
+        // Only the first request of prefetched content counts as a hit
+        if (prefetched) {
+            hitCount.incrementAndGet();
+        }
+        return root;
+    }
+
+    /**
+     * Forgets about content deleted from the local repository.
+     *
+     * @param reference the content reference
+     */
+    synchronized void deleted(final ContentReference reference) {
+        requestedContent.remove(reference.getHexHash());
+        prefetchedContent.remove(reference.getHexHash());
+        final CachedContent cached = cache.remove(reference.getHexHash());
+        if (cached != null) {
+            cacheSize -= cached.size;
+        }
+    }
+
+    private void cached(final ContentReference reference, final File root) {
+        synchronized (this) {
+            if (requestedContent.contains(reference.getHexHash())) {
+                // Pinned, or requested while it was being fetched
+                return;
+            }
+        }
+        // Walk the content, and delete the evicted content, without holding the lock
+        final CachedContent cached = new CachedContent(reference, size(root.toPath()));
+        final List<ContentReference> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (requestedContent.contains(reference.getHexHash())) {
+                return;
+            }
+            final CachedContent previous = cache.put(reference.getHexHash(), cached);
+            cacheSize += cached.size - (previous == null ? 0 : previous.size);
+            final Iterator<Map.Entry<String, CachedContent>> iterator = cache.entrySet().iterator();
+            while (cacheSize > maxCacheSize && iterator.hasNext()) {
+                final CachedContent eldest = iterator.next().getValue();
+                if (eldest == cached) {
+                    // Keep the content just fetched, even if it alone exceeds the limit
+                    break;
+                }
+                iterator.remove();
+                prefetchedContent.remove(eldest.reference.getHexHash());
+                cacheSize -= eldest.size;
+                evicted.add(eldest.reference);
+                evicting.add(eldest.reference.getHexHash());
+            }
+        }
+        for (ContentReference eldest : evicted) {
+            evictionCount.incrementAndGet();
+            try {
+                localFileRepository.deleteDeployment(eldest);
+            } finally {
+                synchronized (this) {
+                    evicting.remove(eldest.getHexHash());
+                    notifyAll();
+                }
+            }
+            ROOT_LOGGER.debugf("Evicted prefetched content %s", eldest.getHexHash());
+        }
+    }
+
+    private static long size(final Path root) {
+        final long[] size = new long[1];
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    size[0] += attrs.size();
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            ROOT_LOGGER.debugf(e, "Cannot determine the size of %s", root);
+        }
+        return size[0];
+    }
+
+    /**
+     * Gets the number of prefetches started.
+     *
+     * @return the number of prefetches
+     */
+    public long getPrefetchCount() {
+        return prefetchCount.get();
+    }
+
+    /**
+     * Gets the number of prefetches which failed.
+     *
+     * @return the number of failures
+     */
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    /**
+     * Gets the number of times requested content was prefetched.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Gets the number of times requested content had to be fetched on demand.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Gets the number of prefetched contents evicted from the cache.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Gets the number of prefetched contents which were not requested yet.
+     *
+     * @return the number of cached contents
+     */
+    public synchronized int getCacheEntries() {
+        return cache.size();
+    }
+
+    /**
+     * Gets the size of the prefetched contents which were not requested yet.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getCacheSize() {
+        return cacheSize;
+    }
+
+    private static final class CachedContent {
+        private final ContentReference reference;
+        private final long size;
+
+        private CachedContent(final ContentReference reference, final long size) {
+            this.reference = reference;
+            this.size = size;
+        }
+    }
+}
@@ -265,6 +265,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
     private volatile ManagementResourceRegistration hostModelRegistration;
     private volatile MasterDomainControllerClient masterDomainControllerClient;
     private volatile Supplier<ConsoleAvailability> consoleAvailabilitySupplier;
+    private volatile Supplier<ScheduledExecutorService> scheduledExecutorSupplier;
 
     static void addService(final ServiceTarget serviceTarget,
                                                             final HostControllerEnvironment environment,
@@ -306,6 +307,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
         sb.addDependency(ProcessControllerConnectionService.SERVICE_NAME, ProcessControllerConnectionService.class, service.injectedProcessControllerConnection);
         sb.requires(PATH_MANAGER_CAPABILITY.getCapabilityServiceName()); // ensure this is up
         service.consoleAvailabilitySupplier = sb.requires(CONSOLE_AVAILABILITY_CAPABILITY.getCapabilityServiceName());
+        service.scheduledExecutorSupplier = sb.requires(HC_SCHEDULED_EXECUTOR_SERVICE_NAME);
         sb.install();
 
         ExternalManagementRequestExecutor.install(serviceTarget, threadGroup,
@@ -535,7 +537,8 @@ public class DomainModelControllerService extends AbstractControllerService impl
     @Override
     public void start(StartContext context) throws StartException {
         final ExecutorService executorService = getExecutorService();
-        this.hostControllerConfigurationPersister = new HostControllerConfigurationPersister(environment, hostControllerInfo, executorService, hostExtensionRegistry, extensionRegistry);
+        this.hostControllerConfigurationPersister = new HostControllerConfigurationPersister(environment, hostControllerInfo, executorService,
+                scheduledExecutorSupplier.get(), hostExtensionRegistry, extensionRegistry);
         setConfigurationPersister(hostControllerConfigurationPersister);
         prepareStepHandler.setExecutorService(executorService);
         ThreadFactory pingerThreadFactory = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
@@ -561,6 +564,20 @@ public class DomainModelControllerService extends AbstractControllerService impl
             }
         }, 1, 1, TimeUnit.MINUTES);
 
+        if (SlaveHostPinger.HEALTH_CHECK) {
+            // One round of non-blocking pings over all slaves per tick, rather than a blocking task per slave
+            pingScheduler.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        slaveHostRegistrations.checkHealth();
+                    } catch (Exception e) {
+                        HostControllerLogger.DOMAIN_LOGGER.debugf(e, "failed to execute slave health check task");
+                    }
+                }
+            }, SlaveHostPinger.STD_INTERVAL, SlaveHostPinger.STD_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+
     }
 
     @Override
@@ -826,7 +843,8 @@ public class DomainModelControllerService extends AbstractControllerService impl
                                                 executor,
                                                 environment.getDomainTempDir(),
                                                 DomainModelControllerService.this,
-                                                domainHostExcludeRegistry);
+                                                domainHostExcludeRegistry,
+                                                hostControllerConfigurationPersister::getDomainModelRevision);
                                     }
                                 },
                                 DomainModelControllerService.SERVICE_NAME, ManagementRemotingServices.DOMAIN_CHANNEL,
@@ -1089,6 +1107,10 @@ public class DomainModelControllerService extends AbstractControllerService impl
         extensionRegistry.clear();
         domainConfigAvailable.set(false);
         super.stop(context);
+        if (hostControllerConfigurationPersister != null) {
+            // Write out anything the coalescing persisters are still holding
+            hostControllerConfigurationPersister.close();
+        }
     }
 
     protected void stopAsynchronous(StopContext context)  {
@@ -1356,6 +1378,11 @@ public class DomainModelControllerService extends AbstractControllerService impl
             getServerInventory().awaitServersState(serverNames, started);
         }
 
+        @Override
+        public boolean awaitServerState(String serverName, boolean started, long timeout) {
+            return getServerInventory().awaitServerState(serverName, started, timeout);
+        }
+
         @Override
         public List<ModelNode> suspendServers(Set<String> serverNames, BlockingTimeout blockingTimeout) {
             return getServerInventory().suspendServers(serverNames, blockingTimeout);
@@ -1742,6 +1769,11 @@ public class DomainModelControllerService extends AbstractControllerService impl
             public void awaitServersState(Collection<String> serverNames, boolean started) {
             }
 
+            @Override
+            public boolean awaitServerState(String serverName, boolean started, long timeout) {
+                return false;
+            }
+
             @Override
             public List<ModelNode> suspendServers(Set<String> serverNames, BlockingTimeout blockingTimeout) {
                 return Collections.emptyList();
@@ -32,6 +32,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.domain.controller.HostConnectionInfo;
 import org.jboss.as.host.controller.mgmt.SlaveHostPinger;
+import org.jboss.dmr.ModelNode;
 
 /**
  * @author Emanuel Muckenhuber
@@ -99,6 +100,18 @@ public class DomainSlaveHostRegistrations {
         }
     }
 
+    /**
+     * Runs one round of non-blocking health checks over all connected slaves.
+     */
+    public void checkHealth() {
+        for (final DomainHostConnection registration : registrations.values()) {
+            final SlaveHostPinger pinger = registration.getPinger();
+            if (registration.isConnected() && pinger != null && !pinger.isCancelled()) {
+                pinger.checkHealth();
+            }
+        }
+    }
+
     public void pruneExpired() {
         evictEntries(EXPIRED);
     }
@@ -198,6 +211,11 @@ public class DomainSlaveHostRegistrations {
             return events;
         }
 
+        @Override
+        public ModelNode getPingStatistics() {
+            return pinger != null ? pinger.getStatistics().toModelNode() : new ModelNode();
+        }
+
         protected String getAddress() {
             return address;
         }
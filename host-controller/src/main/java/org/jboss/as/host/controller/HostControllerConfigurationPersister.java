@@ -30,15 +30,19 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.ProcessType;
 import org.jboss.as.controller.extension.ExtensionRegistry;
+import org.jboss.as.controller.persistence.CoalescingConfigurationWriter;
 import org.jboss.as.controller.persistence.ConfigurationFile;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
+import org.jboss.as.controller.persistence.XmlConfigurationPersister;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.host.controller.logging.HostControllerLogger;
 import org.jboss.dmr.ModelNode;
@@ -52,20 +56,55 @@ import org.wildfly.security.manager.WildFlySecurityManager;
  */
 public class HostControllerConfigurationPersister implements ExtensibleConfigurationPersister {
 
+    private static final String COALESCING_WINDOW_PROPERTY = "jboss.domain.persister.coalescing-window";
+
+    /**
+     * Milliseconds within which committed changes to domain.xml or host.xml are coalesced into a single write of the
+     * file; {@code 0}, the default, writes the file as part of every operation.
+     */
+    private static final long COALESCING_WINDOW;
+
+    static {
+        long window = 0;
+        final String value = WildFlySecurityManager.getPropertyPrivileged(COALESCING_WINDOW_PROPERTY, null);
+        if (value != null) {
+            try {
+                window = Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                HostControllerLogger.ROOT_LOGGER.invalidSystemPropertyValue(value, COALESCING_WINDOW_PROPERTY, 0);
+            }
+            if (window < 0) {
+                HostControllerLogger.ROOT_LOGGER.invalidSystemPropertyValue(value, COALESCING_WINDOW_PROPERTY, 0);
+                window = 0;
+            }
+        }
+        COALESCING_WINDOW = window;
+    }
+
     private final HostControllerEnvironment environment;
     private ExtensibleConfigurationPersister domainPersister;
     private final ExtensibleConfigurationPersister hostPersister;
     private final LocalHostControllerInfo hostControllerInfo;
     private final ExecutorService executorService;
+    private final ScheduledExecutorService scheduledExecutorService;
     private final ExtensionRegistry hostExtensionRegistry;
     private final ExtensionRegistry extensionRegistry;
+    /** Incremented whenever a write to the domain model is committed */
+    private final AtomicLong domainModelRevision = new AtomicLong();
     private Boolean slave;
 
     public HostControllerConfigurationPersister(final HostControllerEnvironment environment, final LocalHostControllerInfo localHostControllerInfo,
                                                 final ExecutorService executorService, final ExtensionRegistry hostExtensionRegistry, final ExtensionRegistry extensionRegistry) {
+        this(environment, localHostControllerInfo, executorService, null, hostExtensionRegistry, extensionRegistry);
+    }
+
+    public HostControllerConfigurationPersister(final HostControllerEnvironment environment, final LocalHostControllerInfo localHostControllerInfo,
+                                                final ExecutorService executorService, final ScheduledExecutorService scheduledExecutorService,
+                                                final ExtensionRegistry hostExtensionRegistry, final ExtensionRegistry extensionRegistry) {
         this.environment = environment;
         this.hostControllerInfo = localHostControllerInfo;
         this.executorService = executorService;
+        this.scheduledExecutorService = scheduledExecutorService;
         this.hostExtensionRegistry = hostExtensionRegistry;
         this.extensionRegistry = extensionRegistry;
         final ConfigurationFile configurationFile = environment.getHostConfigurationFile();
@@ -74,6 +113,7 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
             configurationFile.resetBootFile(runningModeControl.isUseCurrentConfig(), runningModeControl.getAndClearNewBootFileName());
         }
         this.hostPersister = ConfigurationPersisterFactory.createHostXmlConfigurationPersister(configurationFile, environment, executorService, hostExtensionRegistry, hostControllerInfo);
+        configureWriter(hostPersister);
     }
 
     public void initializeDomainConfigurationPersister(boolean slave) {
@@ -116,6 +156,7 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
             }
             domainPersister = ConfigurationPersisterFactory.createDomainXmlConfigurationPersister(domainConfigurationFile, executorService, extensionRegistry, environment);
         }
+        configureWriter(domainPersister);
         // Store this back to environment so mgmt api that exposes it can still work
         environment.setDomainConfigurationFile(domainConfigurationFile);
 
@@ -140,6 +181,48 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
         return hostPersister;
     }
 
+    /**
+     * Gets the writer of domain.xml, or of the slave's cached copy of it.
+     *
+     * @return the writer, or {@code null} if the domain configuration is not persisted to a file by this host
+     */
+    public CoalescingConfigurationWriter getDomainWriter() {
+        return getWriter(domainPersister);
+    }
+
+    /**
+     * Gets the writer of host.xml.
+     *
+     * @return the writer, or {@code null} if the host configuration is not persisted to a file
+     */
+    public CoalescingConfigurationWriter getHostWriter() {
+        return getWriter(hostPersister);
+    }
+
+    /**
+     * Writes any coalesced changes still pending and stops the background writers.
+     */
+    public void close() {
+        final CoalescingConfigurationWriter hostWriter = getHostWriter();
+        if (hostWriter != null) {
+            hostWriter.close();
+        }
+        final CoalescingConfigurationWriter domainWriter = getDomainWriter();
+        if (domainWriter != null) {
+            domainWriter.close();
+        }
+    }
+
+    private void configureWriter(final ExtensibleConfigurationPersister persister) {
+        if (persister instanceof XmlConfigurationPersister) {
+            ((XmlConfigurationPersister) persister).setCoalescingWindow(COALESCING_WINDOW, scheduledExecutorService);
+        }
+    }
+
+    private static CoalescingConfigurationWriter getWriter(final ExtensibleConfigurationPersister persister) {
+        return persister instanceof XmlConfigurationPersister ? ((XmlConfigurationPersister) persister).getWriter() : null;
+    }
+
     @Override
     public PersistenceResource store(ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
         final PersistenceResource[] delegates = new PersistenceResource[2];
@@ -165,6 +248,7 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
                 }
                 if (delegates[1] != null) {
                     delegates[1].commit();
+                    domainModelRevision.incrementAndGet();
                 }
             }
 
@@ -180,6 +264,16 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
         };
     }
 
+    /**
+     * Gets the revision of the domain model, which increases with every committed write to it. The new model is
+     * published before its revision is increased.
+     *
+     * @return the revision
+     */
+    public long getDomainModelRevision() {
+        return domainModelRevision.get();
+    }
+
     @Override
     public void marshallAsXml(ModelNode model, OutputStream output) throws ConfigurationPersistenceException {
         throw new UnsupportedOperationException();
@@ -47,6 +47,7 @@ import java.util.regex.Pattern;
 import org.jboss.as.controller.CapabilityRegistry;
 import org.jboss.as.controller.ControlledProcessState;
 import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.VirtualThreadExecutor;
 import org.jboss.as.domain.http.server.ConsoleAvailabilityService;
 import org.jboss.as.host.controller.logging.HostControllerLogger;
 import org.jboss.as.remoting.HttpListenerRegistryService;
@@ -71,6 +72,7 @@ import org.jboss.msc.value.Value;
 import org.jboss.threads.AsyncFuture;
 import org.jboss.threads.EnhancedQueueExecutor;
 import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * The root service for a HostController process.
@@ -245,6 +247,7 @@ public class HostControllerService implements Service<AsyncFuture<ServiceContain
     }
 
     static final class HostControllerExecutorService implements Service<ExecutorService> {
+        private static final String VIRTUAL_THREADS_SYS_PROP = "org.jboss.as.host-controller.virtual-threads";
         final ThreadFactory threadFactory;
         private ExecutorService executorService;
 
@@ -254,7 +257,10 @@ public class HostControllerService implements Service<AsyncFuture<ServiceContain
 
         @Override
         public synchronized void start(final StartContext context) throws StartException {
-            if (EnhancedQueueExecutor.DISABLE_HINT) {
+            if (Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(VIRTUAL_THREADS_SYS_PROP, "false"))
+                    && VirtualThreadExecutor.isVirtualThreadSupported()) {
+                executorService = new VirtualThreadExecutor("HostController", threadFactory, Integer.MAX_VALUE, null);
+            } else if (EnhancedQueueExecutor.DISABLE_HINT) {
                 executorService = new ThreadPoolExecutor(1, Integer.MAX_VALUE,
                     5L, TimeUnit.SECONDS,
                     new SynchronousQueue<Runnable>(),
@@ -388,6 +388,44 @@ class ManagedServer {
         }
     }
 
+    /**
+     * Await a state, for at most the given time.
+     *
+     * @param expected the expected state
+     * @param timeout the maximum time to wait, in milliseconds
+     * @return {@code true} if the state was reached, {@code false} otherwise
+     */
+    boolean awaitState(final InternalState expected, final long timeout) {
+        final long deadline = System.currentTimeMillis() + timeout;
+        synchronized (this) {
+            final InternalState initialRequired = this.requiredState;
+            for(;;) {
+                final InternalState required = this.requiredState;
+                // Stop in case the server failed to reach the state
+                if(required == InternalState.FAILED) {
+                    return false;
+                // Stop in case the required state changed
+                } else if (initialRequired != required) {
+                    return false;
+                }
+                final InternalState current = this.internalState;
+                if(expected == current) {
+                    return true;
+                }
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    wait(remaining);
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+    }
+
     /**
      * Notification that the process was added
      */
@@ -0,0 +1,399 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.jboss.as.host.controller.logging.HostControllerLogger.ROOT_LOGGER;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.jboss.as.repository.ContentReference;
+import org.jboss.as.repository.HashUtil;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Deployment content store shared by the slave Host Controllers of a domain, e.g. on a network file system, so
+ * the master only sends each deployment once instead of once per host.
+ * <p>
+ * The first host that needs some content becomes its seed: it fetches the content from the master and publishes it
+ * to the store. Other hosts needing the same content meanwhile wait for it to be published, then copy it from the
+ * store, verifying it against its SHA-1 hash. Whenever the store cannot provide verified content in time, hosts
+ * fall back to fetching from the master.
+ * <p>
+ * The store is enabled by setting the {@code jboss.domain.content.peer-store} system property of each slave to the
+ * shared directory. Content nobody got from the store for {@code jboss.domain.content.peer-store.max-age}
+ * milliseconds (7 days by default) is evicted by the next host publishing content.
+ */
+final class PeerContentStore {
+
+    private static final String STORE_PROPERTY = "jboss.domain.content.peer-store";
+    private static final String WAIT_PROPERTY = "jboss.domain.content.peer-store.wait";
+    private static final String MAX_AGE_PROPERTY = "jboss.domain.content.peer-store.max-age";
+    private static final long DEFAULT_WAIT = 300000;
+    private static final long DEFAULT_MAX_AGE = TimeUnit.DAYS.toMillis(7);
+    private static final String CONTENT = "content";
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long POLL_INTERVAL = 100;
+    private static final int BUFFER_SIZE = 65536;
+
+    private final Path root;
+    private final long waitMillis;
+    private final long maxAgeMillis;
+
+    PeerContentStore(final Path root, final long waitMillis, final long maxAgeMillis) {
+        this.root = root;
+        this.waitMillis = waitMillis;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Creates the store configured for this process.
+     *
+     * @return the store, or {@code null} if none is configured
+     */
+    static PeerContentStore create() {
+        final String path = WildFlySecurityManager.getPropertyPrivileged(STORE_PROPERTY, null);
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+        return new PeerContentStore(new File(path).toPath(), getMillis(WAIT_PROPERTY, DEFAULT_WAIT), getMillis(MAX_AGE_PROPERTY, DEFAULT_MAX_AGE));
+    }
+
+    private static long getMillis(final String property, final long defaultValue) {
+        try {
+            final long result = Long.parseLong(WildFlySecurityManager.getPropertyPrivileged(property, String.valueOf(defaultValue)));
+            return result > 0 ? result : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Provides the deployment content with the given hash in {@code localRoot}, from the store if possible.
+     *
+     * @param reference the content reference
+     * @param localRoot the local deployment root the content should end up in
+     * @param master fetches the content from the master into {@code localRoot}
+     * @return the deployment root holding the content
+     */
+    File getDeploymentRoot(final ContentReference reference, final File localRoot, final Supplier<File> master) {
+        final String hash = reference.getHexHash();
+        final Path shared = root.resolve(hash.substring(0, 2)).resolve(hash.substring(2));
+        if (!Files.isDirectory(shared)) {
+            final Path lock = shared.resolveSibling(shared.getFileName() + LOCK_SUFFIX);
+            if (tryLock(lock)) {
+                // We are the seed for this content
+                try {
+                    final File fetched = master.get();
+                    publish(reference, fetched.toPath(), shared, new Heartbeat(lock));
+                    evictExpired();
+                    return fetched;
+                } finally {
+                    unlock(lock);
+                }
+            }
+            awaitPublication(shared, lock);
+        }
+        if (Files.isDirectory(shared) && copyVerified(reference, shared, localRoot.toPath())) {
+            ROOT_LOGGER.debugf("Got content %s from the peer content store", hash);
+            touch(shared);
+            return localRoot;
+        }
+        return master.get();
+    }
+
+    private boolean tryLock(final Path lock) {
+        try {
+            Files.createDirectories(lock.getParent());
+            try {
+                Files.createFile(lock);
+            } catch (FileAlreadyExistsException e) {
+                // Take over the lock if its seed apparently died without publishing the content
+                if (!isStale(lock)) {
+                    return false;
+                }
+                Files.deleteIfExists(lock);
+                Files.createFile(lock);
+            }
+            return true;
+        } catch (FileAlreadyExistsException | NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            ROOT_LOGGER.debugf(e, "Cannot lock %s", lock);
+            return false;
+        }
+    }
+
+    /** Whether the seed holding the lock stopped touching it, see {@link Heartbeat} */
+    private boolean isStale(final Path lock) throws IOException {
+        return System.currentTimeMillis() - Files.getLastModifiedTime(lock).toMillis() >= waitMillis;
+    }
+
+    private static void unlock(final Path lock) {
+        try {
+            Files.deleteIfExists(lock);
+        } catch (IOException e) {
+            ROOT_LOGGER.debugf(e, "Cannot unlock %s", lock);
+        }
+    }
+
+    /** Waits while the seed of some content is still working on it, i.e. still touches its lock */
+    private void awaitPublication(final Path shared, final Path lock) {
+        try {
+            while (!Files.isDirectory(shared) && !isStale(lock)) {
+                TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL);
+            }
+        } catch (NoSuchFileException e) {
+            // the seed is done
+        } catch (IOException e) {
+            ROOT_LOGGER.debugf(e, "Cannot read %s", lock);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publish(final ContentReference reference, final Path fetched, final Path shared, final Heartbeat heartbeat) {
+        final String hash = reference.getHexHash();
+        if (!Files.isDirectory(fetched)) {
+            return;
+        }
+        final Path temp = root.resolve(UUID.randomUUID().toString() + TEMP_SUFFIX);
+        try {
+            heartbeat.beat();
+            copy(fetched, temp, heartbeat);
+            // Never publish content other hosts would have to reject
+            if (!Arrays.equals(reference.getHash(), hash(temp.resolve(CONTENT)))) {
+                ROOT_LOGGER.invalidFetchedPeerContent(hash);
+                delete(temp);
+                return;
+            }
+            heartbeat.beat();
+            Files.move(temp, shared, StandardCopyOption.ATOMIC_MOVE);
+            ROOT_LOGGER.debugf("Published content %s to the peer content store", hash);
+        } catch (FileAlreadyExistsException e) {
+            // Another host published it first
+            delete(temp);
+        } catch (IOException e) {
+            delete(temp);
+            ROOT_LOGGER.cannotPublishPeerContent(e, hash, root.toFile());
+        }
+    }
+
+    private boolean copyVerified(final ContentReference reference, final Path shared, final Path localRoot) {
+        final Path temp = localRoot.resolveSibling(localRoot.getFileName() + "-" + UUID.randomUUID() + TEMP_SUFFIX);
+        try {
+            copy(shared, temp, null);
+            if (!Arrays.equals(reference.getHash(), hash(temp.resolve(CONTENT)))) {
+                ROOT_LOGGER.invalidPeerContent(reference.getHexHash());
+                delete(temp);
+                // Take the entry out of the store, so the next host needing the content seeds it again
+                discard(shared);
+                return false;
+            }
+            try {
+                Files.move(temp, localRoot, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Provided meanwhile by a concurrent request
+                delete(temp);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            ROOT_LOGGER.debugf(e, "Cannot copy content %s from the peer content store", reference.getHexHash());
+            delete(temp);
+            return false;
+        }
+    }
+
+    /** Hashes content the same way the content repository does, so it matches the content's hash */
+    private static byte[] hash(final Path content) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        if (Files.isDirectory(content)) {
+            return HashUtil.hashPath(digest, content);
+        }
+        try (InputStream stream = Files.newInputStream(content)) {
+            return HashUtil.hashContent(digest, stream);
+        }
+    }
+
+    /**
+     * Removes an entry from the store. It is moved aside first, so no host ever sees it partially deleted.
+     */
+    private void discard(final Path entry) {
+        final Path temp = root.resolve(UUID.randomUUID().toString() + TEMP_SUFFIX);
+        try {
+            Files.move(entry, temp, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            // already discarded by another host
+            return;
+        } catch (IOException e) {
+            ROOT_LOGGER.debugf(e, "Cannot discard %s", entry);
+            return;
+        }
+        delete(temp);
+    }
+
+    /** Marks an entry as used, which postpones its eviction */
+    private static void touch(final Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            ROOT_LOGGER.debugf(e, "Cannot touch %s", path);
+        }
+    }
+
+    /**
+     * Discards the entries nobody got from the store for longer than the maximum age, as well as leftovers of
+     * seeds and copies that never completed.
+     */
+    private void evictExpired() {
+        final long expiry = System.currentTimeMillis() - maxAgeMillis;
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(root)) {
+            for (Path prefix : prefixes) {
+                if (prefix.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                    if (Files.getLastModifiedTime(prefix).toMillis() < expiry) {
+                        delete(prefix);
+                    }
+                    continue;
+                }
+                if (!Files.isDirectory(prefix)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(prefix)) {
+                    for (Path entry : entries) {
+                        if (Files.getLastModifiedTime(entry).toMillis() >= expiry) {
+                            continue;
+                        }
+                        if (Files.isDirectory(entry)) {
+                            ROOT_LOGGER.debugf("Evicting %s from the peer content store", entry);
+                            discard(entry);
+                        } else if (entry.getFileName().toString().endsWith(LOCK_SUFFIX)) {
+                            // left behind by a seed that died
+                            Files.deleteIfExists(entry);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            ROOT_LOGGER.debugf(e, "Cannot evict expired content from %s", root);
+        }
+    }
+
+    private static void copy(final Path source, final Path target, final Heartbeat heartbeat) throws IOException {
+        Files.createDirectories(target.getParent());
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                final Path copy = target.resolve(source.relativize(file).toString());
+                if (heartbeat == null) {
+                    Files.copy(file, copy);
+                    return FileVisitResult.CONTINUE;
+                }
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                try (InputStream in = Files.newInputStream(file);
+                     OutputStream out = Files.newOutputStream(copy, StandardOpenOption.CREATE_NEW)) {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                        heartbeat.beat();
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void delete(final Path path) {
+        try {
+            Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (NoSuchFileException ignored) {
+            // nothing to delete
+        } catch (IOException e) {
+            ROOT_LOGGER.debugf(e, "Cannot delete %s", path);
+        }
+    }
+
+    /**
+     * Touches the lock of a seed every so often while it works, so other hosts see it is alive however long it
+     * takes, and only take the lock over once it stops.
+     */
+    private final class Heartbeat {
+
+        private final Path lock;
+        private long lastBeat;
+
+        private Heartbeat(final Path lock) {
+            this.lock = lock;
+        }
+
+        void beat() {
+            final long now = System.currentTimeMillis();
+            if (now - lastBeat >= waitMillis / 4) {
+                lastBeat = now;
+                touch(lock);
+            }
+        }
+    }
+}
@@ -106,6 +106,7 @@ import org.jboss.as.remoting.management.ManagementRemotingServices;
 import org.jboss.as.repository.ContentReference;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.repository.HostFileRepository;
+import org.jboss.as.repository.RemoteFileRequestAndHandler;
 import org.jboss.as.repository.RemoteFileRequestAndHandler.CannotCreateLocalDirectoryException;
 import org.jboss.as.repository.RemoteFileRequestAndHandler.DidNotReadEntireFileException;
 import org.jboss.as.version.ProductConfig;
@@ -142,6 +143,9 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private static final int CONNECTION_TIMEOUT_DEFAULT = 30000;
     private static final String CONNECTION_TIMEOUT_PROPERTY = "jboss.host.domain.connection.timeout";
     private static final int CONNECTION_TIMEOUT = getSystemProperty(CONNECTION_TIMEOUT_PROPERTY, CONNECTION_TIMEOUT_DEFAULT);
+    /** Whether to ask the master to compress the content it sends, which only helps content that isn't already compressed */
+    private static final boolean COMPRESS_CONTENT_TRANSFER = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged("jboss.domain.content-transfer.compress", "false"));
 
     //private static final ModelNode APPLY_EXTENSIONS = new ModelNode();
     private static final ModelNode APPLY_DOMAIN_MODEL = new ModelNode();
@@ -217,6 +221,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         this.remoteFileRepository = remoteFileRepository;
         this.contentRepository = contentRepository;
         remoteFileRepository.setRemoteFileRepositoryExecutor(remoteFileRepositoryExecutor);
+        remoteFileRepository.getContentPrefetcher().setExecutor(executor);
         this.ignoredDomainResourceRegistry = ignoredDomainResourceRegistry;
         this.operationExecutor = operationExecutor;
         this.domainController = domainController;
@@ -719,11 +724,12 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         protected void sendRequest(ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
             output.write(DomainControllerProtocol.PARAM_HOST_ID);
             output.writeUTF(localHostInfo.getLocalHostName());
-            DomainRemoteFileRequestAndHandler.INSTANCE.sendRequest(output, rootId, filePath);
+            // Only deployment content is addressed by its hash, so only it can resume a partial earlier transfer
+            final File resumeFrom = rootId == DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT ? getLocalPath() : null;
+            DomainRemoteFileRequestAndHandler.INSTANCE.sendRequest(output, rootId, filePath, resumeFrom, COMPRESS_CONTENT_TRANSFER);
         }
 
-        @Override
-        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+        private File getLocalPath() {
             final File localPath;
             switch (rootId) {
                 case DomainControllerProtocol.PARAM_ROOT_ID_FILE: {
@@ -743,8 +749,16 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                     localPath = null;
                 }
             }
+            return localPath;
+        }
+
+        @Override
+        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            final File localPath = getLocalPath();
+            // Deployment content is verified against the hash it is addressed by before it is stored
+            final byte[] expectedHash = rootId == DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT ? HashUtil.hexStringToByteArray(filePath) : null;
             try {
-                DomainRemoteFileRequestAndHandler.INSTANCE.handleResponse(input, localPath, ROOT_LOGGER, resultHandler, context);
+                DomainRemoteFileRequestAndHandler.INSTANCE.handleResponse(input, localPath, expectedHash, ROOT_LOGGER, resultHandler, context);
             } catch (CannotCreateLocalDirectoryException e) {
                 throw HostControllerLogger.ROOT_LOGGER.cannotCreateLocalDirectory(e.getDir());
             } catch (DidNotReadEntireFileException e) {
@@ -755,10 +769,18 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
 
     static class RemoteFileRepository implements HostFileRepository {
         private final HostFileRepository localFileRepository;
+        private final PeerContentStore peerContentStore;
+        private final DeploymentContentPrefetcher contentPrefetcher;
         private volatile RemoteFileRepositoryExecutor remoteFileRepositoryExecutor;
 
         RemoteFileRepository(final HostFileRepository localFileRepository) {
+            this(localFileRepository, PeerContentStore.create());
+        }
+
+        RemoteFileRepository(final HostFileRepository localFileRepository, final PeerContentStore peerContentStore) {
             this.localFileRepository = localFileRepository;
+            this.peerContentStore = peerContentStore;
+            this.contentPrefetcher = DeploymentContentPrefetcher.create(localFileRepository);
         }
 
         @Override
@@ -780,10 +802,32 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         @Override
         public File getDeploymentRoot(ContentReference reference) {
             File file = localFileRepository.getDeploymentRoot(reference);
-            if(! file.exists()) {
+            return contentPrefetcher.get(reference, file, () -> fetchDeploymentRoot(reference, file));
+        }
+
+        @Override
+        public void prefetchDeployment(ContentReference reference, boolean required) {
+            contentPrefetcher.prefetch(reference, required, () -> fetchDeploymentRoot(reference, localFileRepository.getDeploymentRoot(reference)));
+        }
+
+        private File fetchDeploymentRoot(final ContentReference reference, final File file) {
+            if (peerContentStore != null && !file.exists()) {
+                return peerContentStore.getDeploymentRoot(reference, file, () -> getDeploymentFile(reference));
+            }
+            return getDeploymentFile(reference);
+        }
+
+        private File getDeploymentFile(final ContentReference reference) {
+            try {
+                return getFile(reference.getHexHash(), DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
+            } catch (RuntimeException e) {
+                if (!RemoteFileRequestAndHandler.isCorruptedContent(e)) {
+                    throw e;
+                }
+                // The corrupted content was discarded, so this starts over rather than resuming
+                HostControllerLogger.ROOT_LOGGER.retryingCorruptedContentTransfer(reference.getHexHash());
                 return getFile(reference.getHexHash(), DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
             }
-            return file;
         }
 
         private File getFile(final String relativePath, final byte repoId) {
@@ -794,8 +838,13 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
             this.remoteFileRepositoryExecutor = remoteFileRepositoryExecutor;
         }
 
+        DeploymentContentPrefetcher getContentPrefetcher() {
+            return contentPrefetcher;
+        }
+
         @Override
         public void deleteDeployment(ContentReference reference) {
+            contentPrefetcher.deleted(reference);
             localFileRepository.deleteDeployment(reference);
         }
     }
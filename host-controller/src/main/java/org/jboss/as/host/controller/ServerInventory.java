@@ -23,6 +23,7 @@
 package org.jboss.as.host.controller;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -311,6 +312,21 @@ public interface ServerInventory {
      */
     void awaitServersState(Collection<String> serverNames, boolean started);
 
+    /**
+     * Await for a server to be either started or stopped, for at most the given time.
+     * The default implementation waits without a timeout, using {@link #awaitServersState(Collection, boolean)}.
+     *
+     * @param serverName the server name
+     * @param started whether to wait for the started, or the stopped notification
+     * @param timeout the maximum time to wait, in milliseconds
+     * @return {@code true} if the server reached the state, {@code false} if it failed to, the timeout elapsed
+     *         or the thread was interrupted
+     */
+    default boolean awaitServerState(String serverName, boolean started, long timeout) {
+        awaitServersState(Collections.singleton(serverName), started);
+        return true;
+    }
+
     /**
      * Suspend the servers, allowing current requests to finish and blocking any new requests
      * from starting.
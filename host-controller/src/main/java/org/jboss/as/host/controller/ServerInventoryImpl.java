@@ -396,6 +396,13 @@ public class ServerInventoryImpl implements ServerInventory {
         }
     }
 
+    @Override
+    public boolean awaitServerState(final String serverName, final boolean started, final long timeout) {
+        final ManagedServer server = servers.get(serverName);
+        return server == null
+                || server.awaitState(started ? ManagedServer.InternalState.SERVER_STARTED : ManagedServer.InternalState.STOPPED, timeout);
+    }
+
 
     @Override
     public List<ModelNode> suspendServers(Set<String> serverNames, BlockingTimeout blockingTimeout) {
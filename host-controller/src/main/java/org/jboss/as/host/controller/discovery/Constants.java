@@ -31,12 +31,16 @@ package org.jboss.as.host.controller.discovery;
 public class Constants {
 
     public static final String ACCESS_KEY = "access-key";
+    public static final String ADDRESS = "address";
     public static final String DEFAULT_MODULE = "org.jboss.as.host-controller";
     public static final String LOCATION = "location";
+    public static final String PATH = "path";
+    public static final String PORT = "port";
     public static final String PREFIX = "prefix";
     public static final String PRE_SIGNED_DELETE_URL = "pre-signed-delete-url";
     public static final String PRE_SIGNED_PUT_URL = "pre-signed-put-url";
     public static final String PROPERTY = "property";
     public static final String SECRET_ACCESS_KEY = "secret-access-key";
+    public static final String TIMEOUT = "timeout";
 
 }
@@ -24,6 +24,14 @@ package org.jboss.as.host.controller.discovery;
 
 import java.io.DataInput;
 import java.io.DataOutput;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.remoting.Protocol;
+import org.jboss.dmr.ModelNode;
 
 /**
  * Encapsulates information about a domain controller (i.e., host and port).
@@ -102,6 +110,70 @@ public class DomainControllerData {
         protocol = S3Util.readString(instream);
     }
 
+    /**
+     * Creates the data to publish for the given management interfaces of a domain controller, ordered so that
+     * the preferred protocols come first.
+     *
+     * @param interfaces the interfaces of the domain controller
+     * @return the domain controller data
+     */
+    static List<DomainControllerData> fromManagementInterfaces(List<DomainControllerManagementInterface> interfaces) {
+        List<DomainControllerData> data = new ArrayList<>(interfaces.size());
+        for (DomainControllerManagementInterface managementInterface : interfaces) {
+            data.add(new DomainControllerData(managementInterface.getProtocol().toString(), managementInterface.getHost(), managementInterface.getPort()));
+        }
+        Collections.sort(data, new Comparator<DomainControllerData>() {
+            @Override
+            public int compare(DomainControllerData data, DomainControllerData otherData) {
+                Protocol protocol = Protocol.forName(data.getProtocol());
+                if (Protocol.REMOTE == protocol) {
+                    return 1;
+                }
+                if (Protocol.HTTPS_REMOTING == protocol || Protocol.REMOTE_HTTPS == protocol) {
+                    Protocol otherProtocol  = Protocol.forName(otherData.getProtocol());
+                    if (Protocol.REMOTE == otherProtocol) {
+                        return -1;
+                    }
+                    return 1;
+                }
+                return -1;
+            }});
+        return data;
+    }
+
+    /**
+     * Converts published domain controller data into connection configurations, skipping any entry that
+     * is missing or doesn't hold a valid protocol, host and port.
+     *
+     * @param dataDc the published domain controller data
+     * @return the connection configurations. May be empty
+     */
+    static List<RemoteDomainControllerConnectionConfiguration> toConnectionConfigurations(List<DomainControllerData> dataDc) {
+        List<RemoteDomainControllerConnectionConfiguration> options = new ArrayList<>(dataDc.size());
+        for (DomainControllerData data : dataDc) {
+            if (data == null) {
+                continue;
+            }
+            // Validate and set the host and port
+            RemoteDomainControllerConnectionConfiguration discovery = new RemoteDomainControllerConnectionConfiguration(
+                    data.getProtocol(), data.getHost(), data.getPort());
+            String host = data.getHost();
+            try {
+                // Use the static discovery AD's. They don't allow undefined.
+                StaticDiscoveryResourceDefinition.HOST.getValidator()
+                        .validateParameter(StaticDiscoveryResourceDefinition.HOST.getName(),
+                                host == null ? new ModelNode() : new ModelNode(host));
+                StaticDiscoveryResourceDefinition.PORT.getValidator()
+                        .validateParameter(StaticDiscoveryResourceDefinition.PORT.getName(), new ModelNode(discovery.getPort()));
+                StaticDiscoveryResourceDefinition.PROTOCOL.getValidator()
+                        .validateParameter(StaticDiscoveryResourceDefinition.PROTOCOL.getName(), new ModelNode(discovery.getProtocol()));
+                options.add(discovery);
+            } catch (OperationFailedException e) {
+            }
+        }
+        return options;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb=new StringBuilder();
@@ -0,0 +1,171 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.discovery;
+
+import static org.jboss.as.host.controller.discovery.Constants.PATH;
+import static org.jboss.as.host.controller.discovery.Constants.TIMEOUT;
+import static org.jboss.as.host.controller.logging.HostControllerLogger.ROOT_LOGGER;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Handle domain controller discovery via a directory shared by the domain controller and the slave host
+ * controllers, e.g. on a network file system. The domain controller writes its data to a file in the directory,
+ * and a slave that starts before the file exists watches the directory until it appears.
+ * <p>
+ * Properties:
+ * <ul>
+ *     <li>{@code path} - the shared directory. Required</li>
+ *     <li>{@code timeout} - how long in milliseconds a slave waits for the file to appear. Defaults to 10000</li>
+ * </ul>
+ */
+public class FileSystemDiscovery implements DiscoveryOption {
+
+    // The name of the file that will store the domain controller's host and port
+    private static final String DC_FILE_NAME = "jboss-domain-master-data";
+
+    private static final long DEFAULT_TIMEOUT = 10000;
+
+    // Network file systems such as NFS do not deliver change events for files written by other machines, so the
+    // watch only shortens the wait and the file is checked for again at least this often
+    private static final long POLL_INTERVAL = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final Path directory;
+    private final long timeout;
+
+    /**
+     * Create the FileSystemDiscovery option.
+     *
+     * @param properties map of properties configuring the shared directory
+     */
+    public FileSystemDiscovery(Map<String, ModelNode> properties) {
+        ModelNode pathNode = properties.get(PATH);
+        if (pathNode == null || !pathNode.isDefined()) {
+            throw ROOT_LOGGER.discoveryOptionPropertyRequired(getClass().getSimpleName(), PATH);
+        }
+        directory = Paths.get(pathNode.asString());
+
+        ModelNode timeoutNode = properties.get(TIMEOUT);
+        timeout = (timeoutNode == null || !timeoutNode.isDefined()) ? DEFAULT_TIMEOUT : timeoutNode.asLong();
+    }
+
+    @Override
+    public void allowDiscovery(List<DomainControllerManagementInterface> interfaces) {
+        try {
+            Files.createDirectories(directory);
+            // Write to a temporary file and move it into place, so slaves never read a partially written file
+            Path tmp = Files.createTempFile(directory, DC_FILE_NAME, ".tmp");
+            try {
+                Files.write(tmp, S3Util.domainControllerDataToByteBuffer(DomainControllerData.fromManagementInterfaces(interfaces)));
+                Path file = directory.resolve(DC_FILE_NAME);
+                try {
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (Exception e) {
+            ROOT_LOGGER.cannotPublishDomainControllerData(e, directory.toString());
+        }
+    }
+
+    @Override
+    public List<RemoteDomainControllerConnectionConfiguration> discover() {
+        Path file = directory.resolve(DC_FILE_NAME);
+        if (!Files.exists(file)) {
+            awaitFile(file);
+        }
+        final List<DomainControllerData> data;
+        try {
+            data = S3Util.domainControllerDataFromByteBuffer(Files.readAllBytes(file));
+        } catch (Exception e) {
+            throw ROOT_LOGGER.cannotReadDomainControllerData(file.toString(), e.getLocalizedMessage());
+        }
+        List<RemoteDomainControllerConnectionConfiguration> options = DomainControllerData.toConnectionConfigurations(data);
+        if (options.isEmpty()) {
+            throw ROOT_LOGGER.cannotReadDomainControllerData(file.toString(), String.valueOf(data));
+        }
+        return options;
+    }
+
+    @Override
+    public void cleanUp() {
+        try {
+            Files.deleteIfExists(directory.resolve(DC_FILE_NAME));
+        } catch (IOException e) {
+            ROOT_LOGGER.debugf(e, "Could not remove domain controller data from %s", directory);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" + directory + "}";
+    }
+
+    /**
+     * Wait for the domain controller to publish its data. A change notification ends a wait early, but the file
+     * is also checked for every {@link #POLL_INTERVAL}, since no notification arrives when the file is written from
+     * another machine.
+     *
+     * @param file the file the domain controller writes
+     */
+    private void awaitFile(Path file) {
+        try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            // Check again now the watch is registered, in case the file appeared in between
+            while (!Files.exists(file)) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw ROOT_LOGGER.domainControllerDataNotFound(directory.toString(), timeout);
+                }
+                WatchKey key = watcher.poll(Math.min(remaining, POLL_INTERVAL), TimeUnit.NANOSECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+            }
+        } catch (IOException e) {
+            throw ROOT_LOGGER.cannotReadDomainControllerData(directory.toString(), e.getLocalizedMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ROOT_LOGGER.domainControllerDataNotFound(directory.toString(), timeout);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.discovery;
+
+import static org.jboss.as.host.controller.discovery.Constants.ADDRESS;
+import static org.jboss.as.host.controller.discovery.Constants.PORT;
+import static org.jboss.as.host.controller.discovery.Constants.TIMEOUT;
+import static org.jboss.as.host.controller.logging.HostControllerLogger.ROOT_LOGGER;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Handle domain controller discovery via IP multicast, for hosts on the same network segment. The domain
+ * controller joins a multicast group and answers queries sent to it with its data; a slave sends queries to the
+ * group until one is answered.
+ * <p>
+ * Neither queries nor answers are authenticated: a slave uses the first well formed answer it receives, from
+ * whichever host sent it. Any host able to send packets to the slave can therefore point it at another domain
+ * controller, and any host able to reach the group can read the domain controller's addresses. Only use this option
+ * on a trusted network segment. The connection the slave then opens is secured as configured for the remote domain
+ * controller, so configure SSL and credentials that let the slave detect a host that is not its domain controller.
+ * <p>
+ * Properties:
+ * <ul>
+ *     <li>{@code address} - the multicast group. Defaults to 230.0.0.4</li>
+ *     <li>{@code port} - the multicast port. Defaults to 9876</li>
+ *     <li>{@code timeout} - how long in milliseconds a slave waits for an answer. Defaults to 10000</li>
+ * </ul>
+ */
+public class MulticastDiscovery implements DiscoveryOption {
+
+    private static final String DEFAULT_ADDRESS = "230.0.0.4";
+    private static final int DEFAULT_PORT = 9876;
+    private static final long DEFAULT_TIMEOUT = 10000;
+
+    // How long a slave waits for an answer before sending the query again
+    private static final long QUERY_INTERVAL = 1000;
+
+    private static final byte[] QUERY = "jboss-domain-master?".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ANSWER = "jboss-domain-master!".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int MAX_PACKET_SIZE = 65507;
+
+    private final InetAddress group;
+    private final int port;
+    private final long timeout;
+
+    private volatile MulticastSocket responderSocket;
+    private volatile Thread responder;
+
+    /**
+     * Create the MulticastDiscovery option.
+     *
+     * @param properties map of properties configuring the multicast group
+     */
+    public MulticastDiscovery(Map<String, ModelNode> properties) {
+        ModelNode addressNode = properties.get(ADDRESS);
+        String address = (addressNode == null || !addressNode.isDefined()) ? DEFAULT_ADDRESS : addressNode.asString();
+        try {
+            group = InetAddress.getByName(address);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getLocalizedMessage(), e);
+        }
+
+        ModelNode portNode = properties.get(PORT);
+        port = (portNode == null || !portNode.isDefined()) ? DEFAULT_PORT : portNode.asInt();
+
+        ModelNode timeoutNode = properties.get(TIMEOUT);
+        timeout = (timeoutNode == null || !timeoutNode.isDefined()) ? DEFAULT_TIMEOUT : timeoutNode.asLong();
+    }
+
+    @Override
+    public synchronized void allowDiscovery(List<DomainControllerManagementInterface> interfaces) {
+        stopResponder();
+        try {
+            final byte[] answer = concat(ANSWER, S3Util.domainControllerDataToByteBuffer(DomainControllerData.fromManagementInterfaces(interfaces)));
+            final MulticastSocket socket = new MulticastSocket(port);
+            try {
+                socket.joinGroup(group);
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+            Thread thread = new Thread(() -> respond(socket, answer), "Domain Controller Multicast Discovery");
+            thread.setDaemon(true);
+            responderSocket = socket;
+            responder = thread;
+            thread.start();
+        } catch (Exception e) {
+            ROOT_LOGGER.cannotPublishDomainControllerData(e, toString());
+        }
+    }
+
+    @Override
+    public List<RemoteDomainControllerConnectionConfiguration> discover() {
+        final byte[] buf = new byte[MAX_PACKET_SIZE];
+        try (DatagramSocket socket = new DatagramSocket()) {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            final DatagramPacket query = new DatagramPacket(QUERY, QUERY.length, new InetSocketAddress(group, port));
+            long remaining;
+            while ((remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+                socket.send(query);
+                final long queryDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.min(QUERY_INTERVAL, remaining));
+                long wait;
+                while ((wait = TimeUnit.NANOSECONDS.toMillis(queryDeadline - System.nanoTime())) > 0) {
+                    socket.setSoTimeout((int) wait);
+                    final DatagramPacket packet = new DatagramPacket(buf, buf.length);
+                    try {
+                        socket.receive(packet);
+                    } catch (SocketTimeoutException e) {
+                        break;
+                    }
+                    if (startsWith(packet, ANSWER)) {
+                        final byte[] data = Arrays.copyOfRange(packet.getData(), packet.getOffset() + ANSWER.length, packet.getOffset() + packet.getLength());
+                        final List<RemoteDomainControllerConnectionConfiguration> options;
+                        try {
+                            options = DomainControllerData.toConnectionConfigurations(S3Util.domainControllerDataFromByteBuffer(data));
+                        } catch (Exception e) {
+                            throw ROOT_LOGGER.cannotReadDomainControllerData(toString(), e.getLocalizedMessage());
+                        }
+                        if (!options.isEmpty()) {
+                            return options;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw ROOT_LOGGER.cannotReadDomainControllerData(toString(), e.getLocalizedMessage());
+        }
+        throw ROOT_LOGGER.domainControllerDataNotFound(toString(), timeout);
+    }
+
+    @Override
+    public synchronized void cleanUp() {
+        stopResponder();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" + group.getHostAddress() + ":" + port + "}";
+    }
+
+    private void respond(MulticastSocket socket, byte[] answer) {
+        final byte[] buf = new byte[QUERY.length];
+        while (!socket.isClosed()) {
+            final DatagramPacket packet = new DatagramPacket(buf, buf.length);
+            try {
+                socket.receive(packet);
+                if (packet.getLength() == QUERY.length && startsWith(packet, QUERY)) {
+                    socket.send(new DatagramPacket(answer, answer.length, packet.getSocketAddress()));
+                }
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    ROOT_LOGGER.debugf(e, "Failed answering a domain controller discovery query on %s", this);
+                }
+            }
+        }
+    }
+
+    private void stopResponder() {
+        final MulticastSocket socket = responderSocket;
+        final Thread thread = responder;
+        responderSocket = null;
+        responder = null;
+        if (socket != null) {
+            try {
+                socket.leaveGroup(group);
+            } catch (IOException e) {
+                // closing the socket leaves the group anyway
+            }
+            socket.close();
+        }
+        if (thread != null) {
+            try {
+                thread.join(QUERY_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static boolean startsWith(DatagramPacket packet, byte[] prefix) {
+        if (packet.getLength() < prefix.length) {
+            return false;
+        }
+        final byte[] data = packet.getData();
+        final int offset = packet.getOffset();
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        final byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -32,14 +32,12 @@ import static org.jboss.as.host.controller.discovery.Constants.SECRET_ACCESS_KEY
 import static org.jboss.as.host.controller.logging.HostControllerLogger.ROOT_LOGGER;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
-import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.host.controller.discovery.S3Util.AWSAuthConnection;
 import org.jboss.as.host.controller.discovery.S3Util.Bucket;
 import org.jboss.as.host.controller.discovery.S3Util.GetResponse;
@@ -47,7 +45,6 @@ import org.jboss.as.host.controller.discovery.S3Util.ListAllMyBucketsResponse;
 import org.jboss.as.host.controller.discovery.S3Util.PreSignedUrlParser;
 import org.jboss.as.host.controller.discovery.S3Util.S3Object;
 import org.jboss.as.host.controller.logging.HostControllerLogger;
-import org.jboss.as.remoting.Protocol;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -81,6 +78,12 @@ public class S3Discovery implements DiscoveryOption {
 
     private AWSAuthConnection conn = null;
 
+    // The ETag of the last domain controller data read, used to only download the S3 file again if it changed
+    private String etag = null;
+
+    // The domain controller data read along with etag
+    private List<DomainControllerData> cachedData = null;
+
     /**
      * Create the S3Discovery option.
      *
@@ -110,27 +113,7 @@ public class S3Discovery implements DiscoveryOption {
     public void allowDiscovery(List<DomainControllerManagementInterface> interfaces) {
         try {
             // Write the domain controller data to an S3 file
-            List<DomainControllerData> data = new ArrayList<>(interfaces.size());
-            for (DomainControllerManagementInterface managementInterface : interfaces) {
-                data.add(new DomainControllerData(managementInterface.getProtocol().toString(), managementInterface.getHost(), managementInterface.getPort()));
-            }
-            Collections.sort(data, new Comparator<DomainControllerData>() {
-                @Override
-                public int compare(DomainControllerData data, DomainControllerData otherData) {
-                    Protocol protocol = Protocol.forName(data.getProtocol());
-                    if (Protocol.REMOTE == protocol) {
-                        return 1;
-                    }
-                    if (Protocol.HTTPS_REMOTING == protocol || Protocol.REMOTE_HTTPS == protocol) {
-                        Protocol otherProtocol  = Protocol.forName(otherData.getProtocol());
-                        if (Protocol.REMOTE == otherProtocol) {
-                            return -1;
-                        }
-                        return 1;
-                    }
-                    return -1;
-                }});
-            writeToFile(data, MASTER);
+            writeToFile(DomainControllerData.fromManagementInterfaces(interfaces), MASTER);
         } catch (Exception e) {
             ROOT_LOGGER.cannotWriteDomainControllerData(e);
         }
@@ -140,29 +123,10 @@ public class S3Discovery implements DiscoveryOption {
     public List<RemoteDomainControllerConnectionConfiguration> discover() {
         // Read the domain controller data from an S3 file
         List<DomainControllerData> dataDc = readFromFile(MASTER);
-        List<RemoteDomainControllerConnectionConfiguration> options = new ArrayList<>(dataDc.size());
-        for (DomainControllerData data : dataDc) {
-            if (data != null) {
-                // Validate and set the host and port
-                RemoteDomainControllerConnectionConfiguration discovery = new RemoteDomainControllerConnectionConfiguration(
-                        data.getProtocol(), data.getHost(), data.getPort());
-                String host = data.getHost();
-                try {
-                    // Use the static discovery AD's. They don't allow undefined.
-                    StaticDiscoveryResourceDefinition.HOST.getValidator()
-                            .validateParameter(StaticDiscoveryResourceDefinition.HOST.getName(),
-                                    host == null ? new ModelNode() : new ModelNode(host));
-                    StaticDiscoveryResourceDefinition.PORT.getValidator()
-                            .validateParameter(StaticDiscoveryResourceDefinition.PORT.getName(), new ModelNode(discovery.getPort()));
-                    StaticDiscoveryResourceDefinition.PROTOCOL.getValidator()
-                            .validateParameter(StaticDiscoveryResourceDefinition.PROTOCOL.getName(), new ModelNode(discovery.getProtocol()));
-                    options.add(discovery);
-                } catch (OperationFailedException e) {
-                }
-            } else {
-                throw HostControllerLogger.ROOT_LOGGER.failedMarshallingDomainControllerData();
-            }
+        if (dataDc.contains(null)) {
+            throw HostControllerLogger.ROOT_LOGGER.failedMarshallingDomainControllerData();
         }
+        List<RemoteDomainControllerConnectionConfiguration> options = DomainControllerData.toConnectionConfigurations(dataDc);
         if (options.isEmpty()) {
             throw HostControllerLogger.ROOT_LOGGER.failedMarshallingDomainControllerData();
         }
@@ -266,7 +230,16 @@ public class S3Discovery implements DiscoveryOption {
                 directoryName = parsedPut.getPrefix();
             }
             String key = S3Util.sanitize(directoryName) + "/" + S3Util.sanitize(DC_FILE_NAME);
-            GetResponse val = conn.get(location, key, null);
+            Map headers = null;
+            if (etag != null) {
+                // Reconnect attempts mostly find the data unchanged, so let S3 reply without the content then
+                headers = new TreeMap();
+                headers.put("If-None-Match", Arrays.asList(etag));
+            }
+            GetResponse val = conn.get(location, key, headers);
+            if (etag != null && val.connection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return cachedData;
+            }
             if (val.object != null) {
                 byte[] buf = val.object.data;
                 if (buf != null && buf.length > 0) {
@@ -276,6 +249,8 @@ public class S3Discovery implements DiscoveryOption {
                         throw HostControllerLogger.ROOT_LOGGER.failedMarshallingDomainControllerData();
                     }
                 }
+                etag = val.connection.getHeaderField("ETag");
+                cachedData = etag != null ? data : null;
             }
             return data;
         } catch (IOException e) {
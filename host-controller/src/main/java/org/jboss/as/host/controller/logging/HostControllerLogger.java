@@ -1452,4 +1452,49 @@ public interface HostControllerLogger extends BasicLogger {
     @Message(id = 215, value = "Could not find java executable under %s.")
     IllegalStateException cannotFindJavaExe(String binDir);
 
+    @LogMessage(level = Level.WARN)
+    @Message(id = 216, value = "Content %s in the peer content store does not match its hash; fetching it from the master Host Controller")
+    void invalidPeerContent(String hash);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 217, value = "Could not publish content %s to the peer content store %s")
+    void cannotPublishPeerContent(@Cause Throwable cause, String hash, File store);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 218, value = "The slave host controller \"%s\" took an unusually long [%d] milliseconds to answer a ping")
+    void slowSlaveHostController(String hostName, long rtt);
+
+    @LogMessage(level = Level.ERROR)
+    @Message(id = 219, value = "Could not publish domain controller data to %s")
+    void cannotPublishDomainControllerData(@Cause Throwable cause, String location);
+
+    @Message(id = 220, value = "Cannot read domain controller data from %s: %s")
+    IllegalStateException cannotReadDomainControllerData(String location, String message);
+
+    @Message(id = 221, value = "No domain controller data was published to %s within %d milliseconds")
+    IllegalStateException domainControllerDataNotFound(String location, long timeout);
+
+    @Message(id = 222, value = "Discovery option %s requires property '%s'")
+    IllegalArgumentException discoveryOptionPropertyRequired(String discoveryOption, String property);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 223, value = "Content %s received from the domain controller did not match its hash; fetching it again")
+    void retryingCorruptedContentTransfer(String hash);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 224, value = "Invalid value '%s' for system property '%s' -- using %s instead")
+    void invalidPingProperty(String value, String property, Object defaultValue);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 225, value = "Content %s fetched from the master Host Controller does not match its hash; not publishing it to the peer content store")
+    void invalidFetchedPeerContent(String hash);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 226, value = "Server %s did not start within %d milliseconds; starting the next server")
+    void timedOutAwaitingPacedServerStart(String serverName, long timeout);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 227, value = "Invalid value '%s' for system property '%s' -- using %s instead")
+    void invalidSystemPropertyValue(String value, String property, Object defaultValue);
+
 }
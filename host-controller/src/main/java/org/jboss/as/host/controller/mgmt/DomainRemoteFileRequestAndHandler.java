@@ -55,6 +55,10 @@ public class DomainRemoteFileRequestAndHandler extends RemoteFileRequestAndHandl
         public byte fileEnd() {
             return DomainControllerProtocol.FILE_END;
         }
+
+        public byte paramTransferOptions() {
+            return DomainControllerProtocol.PARAM_TRANSFER_OPTIONS;
+        }
     };
 
     public static final DomainRemoteFileRequestAndHandler INSTANCE = new DomainRemoteFileRequestAndHandler(null);
@@ -0,0 +1,129 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import java.util.Arrays;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Round trip times of the most recent pings sent to a slave Host Controller, used both to report percentiles and
+ * as the history of a phi accrual failure detector.
+ */
+public final class PingStatistics {
+
+    public static final String COUNT = "count";
+    public static final String MEAN = "mean";
+    public static final String PERCENTILE_50 = "percentile-50";
+    public static final String PERCENTILE_90 = "percentile-90";
+    public static final String PERCENTILE_99 = "percentile-99";
+    public static final String MAX = "max";
+
+    private static final int WINDOW = 128;
+    /** Lower bound of the standard deviation, so a very stable history does not make the detector hair-triggered */
+    private static final double MIN_STD_DEVIATION_MICROS = 10000;
+
+    private final long[] samples = new long[WINDOW];
+    private int size;
+    private int next;
+    private long count;
+
+    /**
+     * Records the round trip time of a ping.
+     *
+     * @param micros the round trip time, in microseconds
+     */
+    public synchronized void record(long micros) {
+        samples[next] = micros;
+        next = (next + 1) % WINDOW;
+        if (size < WINDOW) {
+            size++;
+        }
+        count++;
+    }
+
+    /**
+     * Gets the suspicion level that a ping still unanswered after the given time will never be answered, i.e.
+     * {@code -log10} of the probability of a round trip taking at least that long, as estimated from the recorded
+     * round trip times.
+     *
+     * @param elapsedMicros the time since the ping was sent, in microseconds
+     * @return the suspicion level, or {@link Double#POSITIVE_INFINITY} if no round trips were recorded yet
+     */
+    public synchronized double phi(long elapsedMicros) {
+        if (size == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double mean = 0;
+        for (int i = 0; i < size; i++) {
+            mean += samples[i];
+        }
+        mean /= size;
+        double variance = 0;
+        for (int i = 0; i < size; i++) {
+            double diff = samples[i] - mean;
+            variance += diff * diff;
+        }
+        final double deviation = Math.max(Math.sqrt(variance / size), MIN_STD_DEVIATION_MICROS);
+        // Logistic approximation of the normal distribution's cumulative distribution function
+        final double y = (elapsedMicros - mean) / deviation;
+        final double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+        final double p = elapsedMicros > mean ? e / (1.0 + e) : 1.0 - 1.0 / (1.0 + e);
+        return -Math.log10(Math.max(p, Double.MIN_VALUE));
+    }
+
+    /**
+     * Gets the statistics as a model node, with times in microseconds.
+     *
+     * @return the statistics. Undefined if no round trips were recorded yet
+     */
+    public ModelNode toModelNode() {
+        final long[] sorted;
+        final long total;
+        synchronized (this) {
+            sorted = Arrays.copyOf(samples, size);
+            total = count;
+        }
+        final ModelNode result = new ModelNode();
+        if (sorted.length == 0) {
+            return result;
+        }
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (long sample : sorted) {
+            sum += sample;
+        }
+        result.get(COUNT).set(total);
+        result.get(MEAN).set(sum / sorted.length);
+        result.get(PERCENTILE_50).set(percentile(sorted, 50));
+        result.get(PERCENTILE_90).set(percentile(sorted, 90));
+        result.get(PERCENTILE_99).set(percentile(sorted, 99));
+        result.get(MAX).set(sorted[sorted.length - 1]);
+        return result;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        final int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+}
@@ -28,6 +28,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.jboss.as.host.controller.logging.HostControllerLogger;
 import org.jboss.as.protocol.StreamUtils;
@@ -38,7 +39,13 @@ import org.jboss.threads.AsyncFuture;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
- * Coordinates periodic pinging of a slave Host Controller to validate its connection
+ * Coordinates periodic pinging of a slave Host Controller to validate its connection. Round trip times are kept in
+ * {@link PingStatistics}, which also drive a phi accrual failure detector deciding when an unanswered ping means the
+ * slave is gone rather than merely slow.
+ * <p>
+ * If {@code jboss.as.domain.ping.health-check} is {@code true} the master calls {@link #checkHealth()} for every slave
+ * each ping interval, and closes the channel of a slave the failure detector suspects. Otherwise the master only
+ * pings a slave on demand, e.g. when another host registers with the same name.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
@@ -47,33 +54,67 @@ public class SlaveHostPinger {
     public static final long STD_INTERVAL;
     public static final long STD_TIMEOUT;
     public static final long SHORT_TIMEOUT = 10000;
+    public static final double PHI_THRESHOLD;
+    /**
+     * Whether the master checks the health of all slaves on a schedule. Off by default, as it makes the master close
+     * the channels of slaves it suspects to have failed rather than relying on the slaves' own pings.
+     */
+    public static final boolean HEALTH_CHECK;
+
+    private static final String INTERVAL_PROPERTY = "jboss.as.domain.ping.interval";
+    private static final String TIMEOUT_PROPERTY = "jboss.as.domain.ping.timeout";
+    private static final String PHI_THRESHOLD_PROPERTY = "jboss.as.domain.ping.phi-threshold";
+    private static final String HEALTH_CHECK_PROPERTY = "jboss.as.domain.ping.health-check";
 
     static {
-        long interval = -1;
-        try {
-            interval = Long.parseLong(WildFlySecurityManager.getPropertyPrivileged("jboss.as.domain.ping.interval", "15000"));
-        } catch (Exception e) {
-            // TODO log
-        } finally {
-            // add 500 ms to provided interval to help allow the slave pings to prevent the need for master pings
-            STD_INTERVAL = interval > 0 ? interval + 500 : 15500;
-        }
-        long timeout = -1;
-        try {
-            timeout = Long.parseLong(WildFlySecurityManager.getPropertyPrivileged("jboss.as.domain.ping.timeout", "30000"));
-        } catch (Exception e) {
-            // TODO log
-        } finally {
-            STD_TIMEOUT = timeout > 0 ? timeout : 30000;
+        // add 500 ms to provided interval to help allow the slave pings to prevent the need for master pings
+        STD_INTERVAL = getPositiveLong(INTERVAL_PROPERTY, 15000) + 500;
+        STD_TIMEOUT = getPositiveLong(TIMEOUT_PROPERTY, 30000);
+        double threshold = 8;
+        final String value = WildFlySecurityManager.getPropertyPrivileged(PHI_THRESHOLD_PROPERTY, null);
+        if (value != null) {
+            try {
+                threshold = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                threshold = -1;
+            }
+            if (!(threshold > 0)) {
+                HostControllerLogger.DOMAIN_LOGGER.invalidPingProperty(value, PHI_THRESHOLD_PROPERTY, 8);
+                threshold = 8;
+            }
         }
+        PHI_THRESHOLD = threshold;
+        HEALTH_CHECK = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(HEALTH_CHECK_PROPERTY, "false"));
     }
 
+    private static long getPositiveLong(String property, long defaultValue) {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(property, null);
+        if (value != null) {
+            try {
+                final long result = Long.parseLong(value);
+                if (result > 0) {
+                    return result;
+                }
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+            HostControllerLogger.DOMAIN_LOGGER.invalidPingProperty(value, property, defaultValue);
+        }
+        return defaultValue;
+    }
+
+    /** Unanswered pings older than this many timeouts fail whatever the failure detector says */
+    private static final int MAX_TIMEOUTS = 4;
+
     private final String hostName;
     private final ManagementChannelHandler channelHandler;
     private final ScheduledExecutorService scheduler;
 
     private volatile Long remoteConnectionID;
     private volatile boolean cancelled;
+    private final PingStatistics statistics = new PingStatistics();
+    private final AtomicReference<OutstandingPing> outstanding = new AtomicReference<>();
+    private volatile long lastHealthCheck;
 
     public SlaveHostPinger(String hostName, ManagementChannelHandler channelHandler, ScheduledExecutorService scheduler, long remoteConnectionID) {
         this.hostName = hostName;
@@ -99,6 +140,145 @@ public class SlaveHostPinger {
         this.cancelled = true;
     }
 
+    public PingStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Checks the slave as part of a round over all registered slaves, without blocking. Sends a ping if none is
+     * outstanding; otherwise decides whether the outstanding ping has failed. It has only if nothing at all was
+     * received from the slave since the ping was sent, if this round did not run late (e.g. after a pause of this
+     * process, which would make every slave look dead at once) and if the wait is improbably long given the round
+     * trip times seen so far.
+     */
+    public void checkHealth() {
+        if (cancelled) {
+            return;
+        }
+        final long now = System.nanoTime();
+        final long previous = lastHealthCheck;
+        lastHealthCheck = now;
+        final OutstandingPing ping = outstanding.get();
+        if (ping == null) {
+            sendPing(now);
+            return;
+        }
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(now - ping.sentNanos);
+        if (elapsed < STD_TIMEOUT) {
+            return;
+        }
+        final long lastReceived = channelHandler.getLastMessageReceivedTime();
+        if (lastReceived >= ping.sentMillis) {
+            // The slave is talking to us; only the ping got lost or delayed. Start over with a fresh one
+            HostControllerLogger.DOMAIN_LOGGER.tracef("Discarding stale ping of slave host controller %s", hostName);
+            outstanding.compareAndSet(ping, null);
+            ping.future.cancel(true);
+            return;
+        }
+        if (elapsed < MAX_TIMEOUTS * STD_TIMEOUT && previous != 0 && TimeUnit.NANOSECONDS.toMillis(now - previous) > 2 * STD_INTERVAL) {
+            HostControllerLogger.DOMAIN_LOGGER.debugf("Health check of slave host controller %s ran late; not failing its ping yet", hostName);
+            return;
+        }
+        if (isUnreachable(elapsed, ping.sentMillis, lastReceived) && !cancelled) {
+            HostControllerLogger.DOMAIN_LOGGER.slaveHostControllerUnreachable(hostName, elapsed);
+            outstanding.compareAndSet(ping, null);
+            ping.future.cancel(true);
+            closeChannel();
+        }
+    }
+
+    /**
+     * Decides whether a ping still unanswered after the given time means the slave is unreachable. It does not if
+     * anything was received from the slave since the ping was sent. Otherwise it does if the wait is improbably long
+     * given the round trip times seen so far, or longer than a few ping timeouts.
+     *
+     * @param elapsed the time since the ping was sent, in milliseconds
+     * @param sentMillis the time the ping was sent
+     * @param lastReceivedMillis the time anything was last received from the slave
+     * @return {@code true} if the slave should be considered unreachable
+     */
+    boolean isUnreachable(long elapsed, long sentMillis, long lastReceivedMillis) {
+        if (lastReceivedMillis >= sentMillis) {
+            return false;
+        }
+        return elapsed >= MAX_TIMEOUTS * STD_TIMEOUT || statistics.phi(TimeUnit.MILLISECONDS.toMicros(elapsed)) >= PHI_THRESHOLD;
+    }
+
+    private void sendPing(long now) {
+        final AsyncFuture<Long> future;
+        try {
+            future = channelHandler.executeRequest(ManagementPingRequest.INSTANCE, null).getResult();
+        } catch (IOException e) {
+            HostControllerLogger.DOMAIN_LOGGER.debug("Caught exception sending ping request", e);
+            return;
+        }
+        final OutstandingPing ping = new OutstandingPing(future, now, System.currentTimeMillis());
+        outstanding.set(ping);
+        future.addListener(new AsyncFuture.Listener<Long, OutstandingPing>() {
+            @Override
+            public void handleComplete(AsyncFuture<? extends Long> ignored, OutstandingPing attachment) {
+                pingCompleted(attachment);
+            }
+
+            @Override
+            public void handleFailed(AsyncFuture<? extends Long> ignored, Throwable cause, OutstandingPing attachment) {
+                HostControllerLogger.DOMAIN_LOGGER.debug("Caught exception sending ping request", cause);
+                outstanding.compareAndSet(attachment, null);
+            }
+
+            @Override
+            public void handleCancelled(AsyncFuture<? extends Long> ignored, OutstandingPing attachment) {
+                outstanding.compareAndSet(attachment, null);
+            }
+        }, ping);
+    }
+
+    private void pingCompleted(OutstandingPing ping) {
+        final long rtt = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - ping.sentNanos);
+        outstanding.compareAndSet(ping, null);
+        final Long id;
+        try {
+            id = ping.future.getUninterruptibly();
+        } catch (ExecutionException e) {
+            HostControllerLogger.DOMAIN_LOGGER.debug("Caught exception sending ping request", e);
+            return;
+        }
+        final double phi = statistics.phi(rtt);
+        statistics.record(rtt);
+        if (phi >= PHI_THRESHOLD && phi != Double.POSITIVE_INFINITY) {
+            HostControllerLogger.DOMAIN_LOGGER.slowSlaveHostController(hostName, TimeUnit.MICROSECONDS.toMillis(rtt));
+        }
+        if (!cancelled && remoteConnectionID != null && !remoteConnectionID.equals(id)) {
+            HostControllerLogger.DOMAIN_LOGGER.slaveHostControllerChanged(hostName);
+            closeChannel();
+        } else {
+            remoteConnectionID = id;
+        }
+    }
+
+    private void closeChannel() {
+        Channel channel = null;
+        try {
+            channel = channelHandler.getChannel();
+        } catch (IOException e) {
+            // ignore; shouldn't happen as the channel is already established if we are pinging
+        }
+        StreamUtils.safeClose(channel);
+    }
+
+    private static final class OutstandingPing {
+
+        private final AsyncFuture<Long> future;
+        private final long sentNanos;
+        private final long sentMillis;
+
+        private OutstandingPing(AsyncFuture<Long> future, long sentNanos, long sentMillis) {
+            this.future = future;
+            this.sentNanos = sentNanos;
+            this.sentMillis = sentMillis;
+        }
+    }
+
     private class PingTask implements Runnable {
 
         private final long timeout;
@@ -114,10 +294,13 @@ public class SlaveHostPinger {
             if (!cancelled) {
                 boolean fail = false;
                 AsyncFuture<Long> future = null;
+                final long sentNanos = System.nanoTime();
+                final long sentMillis = System.currentTimeMillis();
                 try {
-                    if (interval < 1 || System.currentTimeMillis() - channelHandler.getLastMessageReceivedTime() > interval) {
+                    if (interval < 1 || sentMillis - channelHandler.getLastMessageReceivedTime() > interval) {
                         future = channelHandler.executeRequest(ManagementPingRequest.INSTANCE, null).getResult();
                         Long id = future.get(timeout, TimeUnit.MILLISECONDS);
+                        statistics.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentNanos));
                         if (!cancelled && remoteConnectionID != null && !remoteConnectionID.equals(id)) {
                             HostControllerLogger.DOMAIN_LOGGER.slaveHostControllerChanged(hostName);
                             fail = true;
@@ -133,20 +316,15 @@ public class SlaveHostPinger {
                 } catch (ExecutionException e) {
                     HostControllerLogger.DOMAIN_LOGGER.debug("Caught exception sending ping request", e);
                 } catch (TimeoutException e) {
-                    if (!cancelled) {
+                    // Use the same failure detector as the health checks, so both agree on whether the slave is gone
+                    if (!cancelled && isUnreachable(timeout, sentMillis, channelHandler.getLastMessageReceivedTime())) {
                         fail = true;
                         HostControllerLogger.DOMAIN_LOGGER.slaveHostControllerUnreachable(hostName, timeout);
                     }
                     safeCancel(future);
                 } finally {
                     if (fail) {
-                        Channel channel = null;
-                        try {
-                            channel = channelHandler.getChannel();
-                        } catch (IOException e) {
-                            // ignore; shouldn't happen as the channel is already established if this task is running
-                        }
-                        StreamUtils.safeClose(channel);
+                        closeChannel();
                     } else if (!cancelled && interval > 0) {
                         scheduler.schedule(this, interval, TimeUnit.MILLISECONDS);
                     }
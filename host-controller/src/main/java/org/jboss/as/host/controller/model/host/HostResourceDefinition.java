@@ -25,6 +25,7 @@ package org.jboss.as.host.controller.model.host;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOMAIN_ORGANIZATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
 
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.BootErrorCollector;
 import org.jboss.as.controller.ControlledProcessState;
 import org.jboss.as.controller.ModelOnlyWriteAttributeHandler;
@@ -45,6 +46,7 @@ import org.jboss.as.controller.access.management.ManagementSecurityIdentitySuppl
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
 import org.jboss.as.controller.audit.ManagedAuditLogger;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.controller.extension.ExtensionRegistryType;
@@ -67,6 +69,7 @@ import org.jboss.as.controller.operations.global.ReadAttributeHandler;
 import org.jboss.as.controller.operations.global.ReadConfigAsFeaturesOperationHandler;
 import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.as.controller.persistence.CoalescingConfigurationWriter;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.services.path.PathManagerService;
@@ -77,6 +80,7 @@ import org.jboss.as.domain.controller.operations.DomainServerLifecycleHandlers;
 import org.jboss.as.domain.controller.operations.HostProcessReloadHandler;
 import org.jboss.as.domain.management.CoreManagementResourceDefinition;
 import org.jboss.as.domain.management.audit.EnvironmentNameReader;
+import org.jboss.as.host.controller.DeploymentContentPrefetcher;
 import org.jboss.as.host.controller.DirectoryGrouping;
 import org.jboss.as.host.controller.HostControllerConfigurationPersister;
 import org.jboss.as.host.controller.HostControllerEnvironment;
@@ -235,6 +239,23 @@ public class HostResourceDefinition extends SimpleResourceDefinition {
             .addAccessConstraint(SensitiveTargetAccessConstraintDefinition.DOMAIN_CONTROLLER)
             .build();
 
+    public static final ObjectTypeAttributeDefinition DOMAIN_CONFIG_PERSISTENCE = createPersistenceStatistics("domain-config-persistence");
+
+    public static final ObjectTypeAttributeDefinition HOST_CONFIG_PERSISTENCE = createPersistenceStatistics("host-config-persistence");
+
+    public static final ObjectTypeAttributeDefinition DEPLOYMENT_CONTENT_PREFETCH = ObjectTypeAttributeDefinition.Builder.of("deployment-content-prefetch",
+                createStatistic("prefetches", null),
+                createStatistic("failures", null),
+                createStatistic("hits", null),
+                createStatistic("misses", null),
+                createStatistic("evictions", null),
+                createStatistic("cache-entries", null),
+                createStatistic("cache-size", MeasurementUnit.BYTES))
+            .setRequired(false)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
     private final HostControllerConfigurationPersister configurationPersister;
     private final HostControllerEnvironment environment;
     private final HostRunningModeControl runningModeControl;
@@ -344,6 +365,73 @@ public class HostResourceDefinition extends SimpleResourceDefinition {
         hostRegistration.registerReadOnlyAttribute(HostResourceDefinition.HOST_STATE, new ProcessStateAttributeHandler(processState));
         hostRegistration.registerReadOnlyAttribute(ServerRootResourceDefinition.RUNNING_MODE, new RunningModeReadHandler(runningModeControl));
         hostRegistration.registerReadOnlyAttribute(ServerRootResourceDefinition.SUSPEND_STATE, SuspendStateReadHandler.INSTANCE);
+        hostRegistration.registerMetric(DOMAIN_CONFIG_PERSISTENCE, (context, operation) -> {
+            readPersistenceStatistics(configurationPersister.getDomainWriter(), context.getResult());
+        });
+        hostRegistration.registerMetric(HOST_CONFIG_PERSISTENCE, (context, operation) -> {
+            readPersistenceStatistics(configurationPersister.getHostWriter(), context.getResult());
+        });
+        hostRegistration.registerMetric(DEPLOYMENT_CONTENT_PREFETCH, (context, operation) -> {
+            if (!hostControllerInfo.isMasterDomainController()) {
+                readPrefetchStatistics(DeploymentContentPrefetcher.of(remoteFileRepository), context.getResult());
+            }
+        });
+    }
+
+    private static ObjectTypeAttributeDefinition createPersistenceStatistics(final String name) {
+        return ObjectTypeAttributeDefinition.Builder.of(name,
+                    createStatistic("commits", null),
+                    createStatistic("writes", null),
+                    createStatistic("persist-lag", MeasurementUnit.MILLISECONDS),
+                    createStatistic("write-duration", MeasurementUnit.MILLISECONDS),
+                    createStatistic("failed-writes", null),
+                    SimpleAttributeDefinitionBuilder.create("persistence-required", ModelType.BOOLEAN, false)
+                        .setStorageRuntime()
+                        .setRuntimeServiceNotRequired()
+                        .build(),
+                    SimpleAttributeDefinitionBuilder.create("last-failure", ModelType.STRING, true)
+                        .setStorageRuntime()
+                        .setRuntimeServiceNotRequired()
+                        .build())
+                .setRequired(false)
+                .setStorageRuntime()
+                .setRuntimeServiceNotRequired()
+                .build();
+    }
+
+    private static AttributeDefinition createStatistic(final String name, final MeasurementUnit unit) {
+        return SimpleAttributeDefinitionBuilder.create(name, ModelType.LONG, false)
+                .setMeasurementUnit(unit)
+                .setStorageRuntime()
+                .setRuntimeServiceNotRequired()
+                .build();
+    }
+
+    private static void readPersistenceStatistics(final CoalescingConfigurationWriter writer, final ModelNode result) {
+        if (writer != null) {
+            result.get("commits").set(writer.getCommitCount());
+            result.get("writes").set(writer.getWriteCount());
+            result.get("persist-lag").set(writer.getLastPersistLag());
+            result.get("write-duration").set(writer.getLastWriteDuration());
+            result.get("failed-writes").set(writer.getFailedWriteCount());
+            result.get("persistence-required").set(writer.isPersistenceRequired());
+            final Exception failure = writer.getLastFailure();
+            if (failure != null) {
+                result.get("last-failure").set(failure.toString());
+            }
+        }
+    }
+
+    private static void readPrefetchStatistics(final DeploymentContentPrefetcher prefetcher, final ModelNode result) {
+        if (prefetcher != null) {
+            result.get("prefetches").set(prefetcher.getPrefetchCount());
+            result.get("failures").set(prefetcher.getFailureCount());
+            result.get("hits").set(prefetcher.getHitCount());
+            result.get("misses").set(prefetcher.getMissCount());
+            result.get("evictions").set(prefetcher.getEvictionCount());
+            result.get("cache-entries").set(prefetcher.getCacheEntries());
+            result.get("cache-size").set(prefetcher.getCacheSize());
+        }
     }
 
 
@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PORT_OFFSET;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYSTEM_PROPERTY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.function.Predicate;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ServerModelRevisionTestCase {
+
+    @Test
+    public void testSameModel() {
+        ModelNode root = createRoot();
+        ServerModelRevision start = ServerModelRevision.of(root, root.get(HOST, "slave"));
+        ModelNode end = root.clone();
+        Assert.assertEquals(new HashSet<>(Arrays.asList("server-one", "server-two", "server-three")),
+                ServerModelRevision.of(end, end.get(HOST, "slave")).getUnchangedServers(start));
+    }
+
+    @Test
+    public void testIncludedProfileChange() {
+        ModelNode root = createRoot();
+        ServerModelRevision start = ServerModelRevision.of(root, root.get(HOST, "slave"));
+        ModelNode end = root.clone();
+        end.get(PROFILE, "base", SUBSYSTEM, "test", VALUE).set("changed");
+        Assert.assertEquals(Collections.singleton("server-three"),
+                ServerModelRevision.of(end, end.get(HOST, "slave")).getUnchangedServers(start));
+    }
+
+    @Test
+    public void testServerConfigChange() {
+        ModelNode root = createRoot();
+        ServerModelRevision start = ServerModelRevision.of(root, root.get(HOST, "slave"));
+        ModelNode end = root.clone();
+        end.get(HOST, "slave", SERVER_CONFIG, "server-two", PORT_OFFSET).set(200);
+        Assert.assertEquals(new HashSet<>(Arrays.asList("server-one", "server-three")),
+                ServerModelRevision.of(end, end.get(HOST, "slave")).getUnchangedServers(start));
+    }
+
+    @Test
+    public void testUnreferencedDeploymentChange() {
+        ModelNode root = createRoot();
+        ServerModelRevision start = ServerModelRevision.of(root, root.get(HOST, "slave"));
+        ModelNode end = root.clone();
+        end.get(DEPLOYMENT, "other.jar", VALUE).set("changed");
+        end.get(DEPLOYMENT, "test.jar", VALUE).set("changed");
+        Assert.assertEquals(Collections.singleton("server-three"),
+                ServerModelRevision.of(end, end.get(HOST, "slave")).getUnchangedServers(start));
+    }
+
+    @Test
+    public void testDomainWideChange() {
+        ModelNode root = createRoot();
+        ServerModelRevision start = ServerModelRevision.of(root, root.get(HOST, "slave"));
+        ModelNode end = root.clone();
+        end.get(SYSTEM_PROPERTY, "test", VALUE).set("123");
+        Assert.assertTrue(ServerModelRevision.of(end, end.get(HOST, "slave")).getUnchangedServers(start).isEmpty());
+    }
+
+    @Test
+    public void testOperationsAffectingChangedServers() {
+        ModelNode root = createRoot();
+        ServerModelRevision start = ServerModelRevision.of(root, root.get(HOST, "slave"));
+        ModelNode end = root.clone();
+        end.get(PROFILE, "profile-two", SUBSYSTEM, "test", VALUE).set("changed");
+        ServerModelRevision endRevision = ServerModelRevision.of(end, end.get(HOST, "slave"));
+        Predicate<PathAddress> affecting = ServerModelRevision.affecting(Collections.singleton("server-three"), start, endRevision);
+
+        Assert.assertTrue(affecting.test(PathAddress.pathAddress(PROFILE, "profile-two").append(SUBSYSTEM, "test")));
+        Assert.assertTrue(affecting.test(PathAddress.pathAddress(SOCKET_BINDING_GROUP, "binding-one")));
+        Assert.assertTrue(affecting.test(PathAddress.pathAddress(HOST, "slave").append(SERVER_CONFIG, "server-three")));
+        Assert.assertTrue(affecting.test(PathAddress.pathAddress(SYSTEM_PROPERTY, "test")));
+        // Only the unchanged servers depend on these
+        Assert.assertFalse(affecting.test(PathAddress.pathAddress(PROFILE, "base").append(SUBSYSTEM, "test")));
+        Assert.assertFalse(affecting.test(PathAddress.pathAddress(SERVER_GROUP, "group-one")));
+        Assert.assertFalse(affecting.test(PathAddress.pathAddress(DEPLOYMENT, "test.jar")));
+        Assert.assertFalse(affecting.test(PathAddress.pathAddress(HOST, "slave").append(SERVER_CONFIG, "server-one")));
+
+        Assert.assertFalse(ServerModelRevision.affecting(Collections.emptySet(), start, endRevision)
+                .test(PathAddress.pathAddress(SYSTEM_PROPERTY, "test")));
+    }
+
+    @Test
+    public void testModelNotModified() {
+        ModelNode root = createRoot();
+        root.get(HOST, "slave", SERVER_CONFIG, "server-four", GROUP).set("missing-group");
+        ModelNode copy = root.clone();
+        ServerModelRevision.of(root, root.get(HOST, "slave"));
+        Assert.assertEquals(copy, root);
+    }
+
+    private static ModelNode createRoot() {
+        ModelNode root = new ModelNode();
+        root.get(PROFILE, "base", SUBSYSTEM, "test", VALUE).set("base");
+        root.get(PROFILE, "profile-one", INCLUDES).add("base");
+        root.get(PROFILE, "profile-two", SUBSYSTEM, "test", VALUE).set("two");
+        root.get(SOCKET_BINDING_GROUP, "binding-one", PORT_OFFSET).set(0);
+        root.get(DEPLOYMENT, "test.jar", VALUE).set("test");
+        root.get(DEPLOYMENT, "other.jar", VALUE).set("other");
+        root.get(SERVER_GROUP, "group-one", PROFILE).set("profile-one");
+        root.get(SERVER_GROUP, "group-one", SOCKET_BINDING_GROUP).set("binding-one");
+        root.get(SERVER_GROUP, "group-one", DEPLOYMENT, "test.jar", VALUE).set("test");
+        root.get(SERVER_GROUP, "group-two", PROFILE).set("profile-two");
+        root.get(SERVER_GROUP, "group-two", SOCKET_BINDING_GROUP).set("binding-one");
+        ModelNode host = root.get(HOST, "slave");
+        host.get(SERVER_CONFIG, "server-one", GROUP).set("group-one");
+        host.get(SERVER_CONFIG, "server-two", GROUP).set("group-one");
+        host.get(SERVER_CONFIG, "server-three", GROUP).set("group-two");
+        return root;
+    }
+}
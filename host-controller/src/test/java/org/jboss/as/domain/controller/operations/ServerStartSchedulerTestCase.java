@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link ServerStartScheduler}.
+ */
+public class ServerStartSchedulerTestCase {
+
+    private static final List<String> SERVERS = Arrays.asList("a", "b", "c", "d", "e");
+
+    @Test
+    public void testUnlimited() throws Exception {
+        ServerStartScheduler scheduler = new ServerStartScheduler(0, 0);
+        List<String> started = new ArrayList<>();
+        List<String> awaited = new ArrayList<>();
+        scheduler.start(SERVERS, started::add, awaited::add);
+        assertEquals(SERVERS, started);
+        assertTrue(awaited.isEmpty());
+    }
+
+    @Test
+    public void testMaxConcurrency() throws Exception {
+        ServerStartScheduler scheduler = new ServerStartScheduler(2, 0);
+        List<String> started = new ArrayList<>();
+        List<String> awaited = new ArrayList<>();
+        scheduler.start(SERVERS, server -> {
+            // No more than two servers may be starting at any time
+            assertTrue(started.size() - awaited.size() < 2);
+            started.add(server);
+        }, awaited::add);
+        assertEquals(SERVERS, started);
+        // Servers are waited on in the order they were started
+        assertEquals(Arrays.asList("a", "b", "c"), awaited);
+    }
+
+    @Test
+    public void testMaxStartRate() throws Exception {
+        ServerStartScheduler scheduler = new ServerStartScheduler(0, 50);
+        List<Long> startTimes = new ArrayList<>();
+        scheduler.start(SERVERS, server -> startTimes.add(System.nanoTime()), server -> {});
+        assertEquals(SERVERS.size(), startTimes.size());
+        // 50 starts per second means one every 20ms
+        long elapsed = startTimes.get(startTimes.size() - 1) - startTimes.get(0);
+        assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(20 * (SERVERS.size() - 1) - 1));
+    }
+}
@@ -218,6 +218,31 @@ public class SyncModelServerStateTestCase extends AbstractControllerTestBase  {
         Assert.assertEquals("running", serverProxies.get("server-three").state);
     }
 
+    @Test
+    public void testOnlyChangedServersFlagged() throws Exception {
+        Resource root = rootResource.clone();
+        Resource socketBinding = Resource.Factory.create();
+        socketBinding.getModel().get(PORT).set(1000);
+        // binding-two is only used by group-two, so server-one and server-two are unchanged
+        Resource socketBindingGroup = root.requireChild(PathElement.pathElement(SOCKET_BINDING_GROUP, "binding-two"));
+        socketBindingGroup.registerChild(PathElement.pathElement(SOCKET_BINDING, "testing"), socketBinding);
+        // as are changes to groups without servers on this host
+        Resource serverGroup = root.requireChild(PathElement.pathElement(SERVER_GROUP, "group-three"));
+        serverGroup.getModel().get(SOCKET_BINDING_GROUP).set("binding-one");
+
+        executeTriggerSyncOperation(root);
+        Assert.assertEquals("running", serverProxies.get("server-one").state);
+        Assert.assertEquals("running", serverProxies.get("server-two").state);
+        Assert.assertEquals(RELOAD_REQUIRED, serverProxies.get("server-three").state);
+
+        // Syncing the same model again leaves every server alone
+        reloadServers();
+        executeTriggerSyncOperation(root);
+        for (MockServerProxy proxy : serverProxies.values()) {
+            Assert.assertEquals("running", proxy.state);
+        }
+    }
+
     @Test
     public void testAddDeploymentNoInitialGroups() throws Exception {
         Resource root = rootResource.clone();
@@ -0,0 +1,137 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.transform.Transformers;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link TransformedDomainModelCache}.
+ */
+public class TransformedDomainModelCacheTestCase {
+
+    private static final PathElement PROFILE_A = PathElement.pathElement(PROFILE, "a");
+
+    private final AtomicLong revision = new AtomicLong();
+
+    @Test
+    public void testTransformationIsShared() throws Exception {
+        final TransformedDomainModelCache cache = new TransformedDomainModelCache(revision::get, 4);
+        final Transformers transformers = Transformers.Factory.createLocal();
+        final Resource root = createDomain();
+        final AtomicInteger count = new AtomicInteger();
+
+        final List<ModelNode> first = cache.getDescribedResources(transformers, Transformers.DEFAULT, root, revision.get(), () -> transform(root, count));
+        final List<ModelNode> second = cache.getDescribedResources(transformers, Transformers.DEFAULT, root, revision.get(), () -> transform(root, count));
+        Assert.assertEquals(1, count.get());
+        Assert.assertEquals(first, second);
+
+        // Callers get their own copy
+        second.get(0).get("modified").set(true);
+        Assert.assertEquals(first, cache.getDescribedResources(transformers, Transformers.DEFAULT, root, revision.get(), () -> transform(root, count)));
+        Assert.assertEquals(1, count.get());
+
+        // Ignoring different top level resources needs a separate transformation
+        final Transformers.ResourceIgnoredTransformationRegistry ignoreA = address -> address.size() > 0 && address.getElement(0).equals(PROFILE_A);
+        cache.getDescribedResources(transformers, ignoreA, root, revision.get(), () -> transform(root, count));
+        Assert.assertEquals(2, count.get());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testDomainWriteInvalidates() throws Exception {
+        final TransformedDomainModelCache cache = new TransformedDomainModelCache(revision::get, 4);
+        final Transformers transformers = Transformers.Factory.createLocal();
+        final Resource root = createDomain();
+        final AtomicInteger count = new AtomicInteger();
+
+        cache.getDescribedResources(transformers, Transformers.DEFAULT, root, revision.get(), () -> transform(root, count));
+        root.getChild(PROFILE_A).getChild(PathElement.pathElement(SUBSYSTEM, "thingy")).getModel().get("attr").set("changed");
+        revision.incrementAndGet();
+        final List<ModelNode> described = cache.getDescribedResources(transformers, Transformers.DEFAULT, root, revision.get(), () -> transform(root, count));
+        Assert.assertEquals(2, count.get());
+        Assert.assertEquals(ReadMasterDomainModelUtil.describeResources(root), described);
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testOlderModelIsNotCached() throws Exception {
+        final TransformedDomainModelCache cache = new TransformedDomainModelCache(revision::get, 4);
+        final Transformers transformers = Transformers.Factory.createLocal();
+        final Resource root = createDomain();
+        final AtomicInteger count = new AtomicInteger();
+
+        // A caller which read the model before a write completes after a caller which read it afterwards
+        final long before = revision.get();
+        revision.incrementAndGet();
+        cache.getDescribedResources(transformers, Transformers.DEFAULT, root, revision.get(), () -> transform(root, count));
+        cache.getDescribedResources(transformers, Transformers.DEFAULT, root, before, () -> transform(root, count));
+        Assert.assertEquals(2, count.get());
+        Assert.assertEquals(1, cache.size());
+
+        // The newer entry is still used
+        cache.getDescribedResources(transformers, Transformers.DEFAULT, root, revision.get(), () -> transform(root, count));
+        Assert.assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        final TransformedDomainModelCache cache = new TransformedDomainModelCache(revision::get, 0);
+        final Transformers transformers = Transformers.Factory.createLocal();
+        final Resource root = createDomain();
+        final AtomicInteger count = new AtomicInteger();
+
+        cache.getDescribedResources(transformers, Transformers.DEFAULT, root, revision.get(), () -> transform(root, count));
+        cache.getDescribedResources(transformers, Transformers.DEFAULT, root, revision.get(), () -> transform(root, count));
+        Assert.assertEquals(2, count.get());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private static List<ModelNode> transform(final Resource root, final AtomicInteger count) {
+        count.incrementAndGet();
+        return ReadMasterDomainModelUtil.describeResources(root);
+    }
+
+    private static Resource createDomain() {
+        final Resource root = Resource.Factory.create();
+        for (String name : new String[] {"a", "b"}) {
+            final Resource profile = Resource.Factory.create();
+            final Resource subsystem = Resource.Factory.create();
+            subsystem.getModel().get("attr").set("value");
+            profile.registerChild(PathElement.pathElement(SUBSYSTEM, "thingy"), subsystem);
+            root.registerChild(PathElement.pathElement(PROFILE, name), profile);
+        }
+        return root;
+    }
+}
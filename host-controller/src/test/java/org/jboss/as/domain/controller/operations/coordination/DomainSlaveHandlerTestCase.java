@@ -0,0 +1,339 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations.coordination;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLED_BACK;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.BlockingTimeout;
+import org.jboss.as.controller.CurrentOperationIdHolder;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.ProxyController;
+import org.jboss.as.controller.TransformingProxyController;
+import org.jboss.as.controller.client.OperationAttachments;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.controller.transform.OperationResultTransformer;
+import org.jboss.as.controller.transform.OperationTransformer;
+import org.jboss.as.controller.transform.Transformers;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.jboss.threads.AsyncFutureTask;
+import org.jboss.threads.JBossExecutors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the two phases {@link DomainSlaveHandler} runs against the slave hosts.
+ */
+public class DomainSlaveHandlerTestCase {
+
+    private static final String COMMIT = "commit";
+    private static final String ROLLBACK = "rollback";
+
+    private final MultiphaseOverallContext multiphaseContext = new MultiphaseOverallContext(null);
+    private final ModelNode responseHeaders = new ModelNode();
+    private final Map<String, ProxyController> hostProxies = new LinkedHashMap<>();
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        setCurrentOperationId(1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        setCurrentOperationId(null);
+    }
+
+    @Test
+    public void testCommit() throws Exception {
+        multiphaseContext.setCompleteRollback(false);
+        final Host one = addHost("one", 0);
+        final Host two = addHost("two", 0);
+        execute(30000);
+
+        assertEquals(COMMIT, one.outcome);
+        assertEquals(COMMIT, two.outcome);
+        assertEquals(SUCCESS, multiphaseContext.getHostControllerFinalResults().get("one").get(OUTCOME).asString());
+        assertEquals(SUCCESS, multiphaseContext.getHostControllerFinalResults().get("two").get(OUTCOME).asString());
+        assertTrue(responseHeaders.has(DomainSlaveHandler.HOST_LATENCIES, "one", DomainSlaveHandler.PREPARE));
+        assertTrue(responseHeaders.has(DomainSlaveHandler.HOST_LATENCIES, "two", DomainSlaveHandler.COMPLETE));
+    }
+
+    @Test
+    public void testPrepareFailure() throws Exception {
+        final Host one = addHost("one", 0);
+        final Host failing = addHost("failing", 0);
+        failing.failPrepare = true;
+        execute(30000);
+
+        // The host that failed to prepare is never told an outcome; the other one is rolled back
+        assertNull(failing.outcome);
+        assertEquals(ROLLBACK, one.outcome);
+        assertTrue(multiphaseContext.getHostControllerPreparedResults().get("failing").hasDefined(FAILURE_DESCRIPTION));
+        assertTrue(multiphaseContext.getHostControllerFinalResults().get("one").get(ROLLED_BACK).asBoolean());
+        assertTrue(multiphaseContext.getHostControllerFinalResults().containsKey("failing"));
+    }
+
+    @Test
+    public void testPartialRollback() throws Exception {
+        // "early" prepares before the failure is seen, "late" only after it
+        final Host early = addHost("early", 0);
+        final Host failing = addHost("failing", 100);
+        failing.failPrepare = true;
+        final Host late = addHost("late", 500);
+        execute(30000);
+
+        // Both are rolled back before the handler completes its step, without waiting for the slowest host
+        assertTrue(early.rolledBackBeforeOutcome);
+        assertTrue(late.rolledBackBeforeOutcome);
+        assertEquals(ROLLBACK, early.outcome);
+        assertEquals(ROLLBACK, late.outcome);
+        assertTrue(multiphaseContext.getHostControllerFinalResults().get("early").get(ROLLED_BACK).asBoolean());
+        assertTrue(multiphaseContext.getHostControllerFinalResults().get("late").get(ROLLED_BACK).asBoolean());
+    }
+
+    @Test
+    public void testCommitTimeout() throws Exception {
+        multiphaseContext.setCompleteRollback(false);
+        final Host one = addHost("one", 0);
+        final Host stuck = addHost("stuck", 0);
+        stuck.stuckOnOutcome = true;
+        final long start = System.nanoTime();
+        execute(500);
+
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 10);
+        assertEquals(COMMIT, one.outcome);
+        assertEquals(SUCCESS, multiphaseContext.getHostControllerFinalResults().get("one").get(OUTCOME).asString());
+        final ModelNode stuckResult = multiphaseContext.getHostControllerFinalResults().get("stuck");
+        assertEquals(FAILED, stuckResult.get(OUTCOME).asString());
+        assertTrue(stuckResult.get(FAILURE_DESCRIPTION).asString(), stuckResult.get(FAILURE_DESCRIPTION).asString().contains("WFLYDC0100"));
+        assertTrue(stuck.finalResult.isCancelled());
+    }
+
+    private Host addHost(final String name, final long prepareDelay) {
+        final Host host = new Host(prepareDelay);
+        final TransformingProxyController proxyController = mock(TransformingProxyController.class);
+        when(proxyController.getProtocolClient()).thenReturn(host);
+        when(proxyController.getTransformers()).thenReturn(mock(Transformers.class));
+        try {
+            when(proxyController.transformOperation(any(Transformers.TransformationInputs.class), any(ModelNode.class))).thenAnswer(invocation ->
+                    new OperationTransformer.TransformedOperation(invocation.getArgument(1), OperationResultTransformer.ORIGINAL_RESULT));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        hostProxies.put(name, proxyController);
+        return host;
+    }
+
+    private void execute(final int timeout) throws Exception {
+        final BlockingTimeout blockingTimeout = mock(BlockingTimeout.class);
+        when(blockingTimeout.getDomainBlockingTimeout(anyBoolean())).thenReturn(timeout);
+        final OperationContext context = mock(OperationContext.class);
+        when(context.getCurrentStage()).thenReturn(OperationContext.Stage.DOMAIN);
+        when(context.getResponseHeaders()).thenReturn(responseHeaders);
+        // The blocking timeout is the only attachment the handler finds
+        when(context.getAttachment(any())).thenAnswer(invocation -> {
+            final OperationContext.AttachmentKey<?> key = invocation.getArgument(0);
+            try {
+                return key.cast(blockingTimeout);
+            } catch (ClassCastException e) {
+                return null;
+            }
+        });
+        doAnswer(invocation -> {
+            for (ProxyController proxyController : hostProxies.values()) {
+                ((Host) ((TransformingProxyController) proxyController).getProtocolClient()).outcomeDecided = true;
+            }
+            final OperationContext.ResultHandler resultHandler = invocation.getArgument(0);
+            resultHandler.handleResult(multiphaseContext.isCompleteRollback() ? OperationContext.ResultAction.ROLLBACK : OperationContext.ResultAction.KEEP,
+                    context, null);
+            return null;
+        }).when(context).completeStep(any(OperationContext.ResultHandler.class));
+
+        new DomainSlaveHandler(hostProxies, multiphaseContext, executor).execute(context, new ModelNode());
+    }
+
+    private static void setCurrentOperationId(final Integer id) throws Exception {
+        final Method method = CurrentOperationIdHolder.class.getDeclaredMethod("setCurrentOperationID", Integer.class);
+        method.setAccessible(true);
+        method.invoke(null, id);
+    }
+
+    /** A slave host answering the operation as configured. */
+    private final class Host implements TransactionalProtocolClient {
+
+        private final long prepareDelay;
+        private final Result finalResult = new Result();
+        private volatile boolean failPrepare;
+        private volatile boolean stuckOnOutcome;
+        private volatile boolean outcomeDecided;
+        private volatile boolean rolledBackBeforeOutcome;
+        private volatile String outcome;
+
+        private Host(final long prepareDelay) {
+            this.prepareDelay = prepareDelay;
+        }
+
+        @Override
+        public AsyncFuture<OperationResponse> execute(final TransactionalOperationListener<Operation> listener, final ModelNode operation,
+                                                      final OperationMessageHandler messageHandler, final OperationAttachments attachments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T extends Operation> AsyncFuture<OperationResponse> execute(final TransactionalOperationListener<T> listener, final T operation) {
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(prepareDelay);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (failPrepare) {
+                    final ModelNode failed = new ModelNode();
+                    failed.get(OUTCOME).set(FAILED);
+                    failed.get(FAILURE_DESCRIPTION).set("prepare failed");
+                    listener.operationFailed(operation, failed);
+                } else {
+                    listener.operationPrepared(new Prepared<>(operation));
+                }
+            });
+            return finalResult;
+        }
+
+        private void complete(final String outcome) {
+            if (stuckOnOutcome) {
+                // A slow channel; only an interrupt ends the wait
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            this.outcome = outcome;
+            final ModelNode response = new ModelNode();
+            if (COMMIT.equals(outcome)) {
+                response.get(OUTCOME).set(SUCCESS);
+                response.get(RESULT);
+            } else {
+                rolledBackBeforeOutcome = !outcomeDecided;
+                response.get(OUTCOME).set(FAILED);
+                response.get(ROLLED_BACK).set(true);
+            }
+            finalResult.complete(OperationResponse.Factory.createSimple(response));
+        }
+
+        private final class Prepared<T extends Operation> implements PreparedOperation<T> {
+
+            private final T operation;
+
+            private Prepared(final T operation) {
+                this.operation = operation;
+            }
+
+            @Override
+            public T getOperation() {
+                return operation;
+            }
+
+            @Override
+            public ModelNode getPreparedResult() {
+                final ModelNode result = new ModelNode();
+                result.get(OUTCOME).set(SUCCESS);
+                result.get(RESULT);
+                return result;
+            }
+
+            @Override
+            public boolean isFailed() {
+                return false;
+            }
+
+            @Override
+            public boolean isTimedOut() {
+                return false;
+            }
+
+            @Override
+            public boolean isDone() {
+                return finalResult.getStatus() != AsyncFuture.Status.WAITING;
+            }
+
+            @Override
+            public AsyncFuture<OperationResponse> getFinalResult() {
+                return finalResult;
+            }
+
+            @Override
+            public void commit() {
+                complete(COMMIT);
+            }
+
+            @Override
+            public void rollback() {
+                complete(ROLLBACK);
+            }
+        }
+    }
+
+    private static final class Result extends AsyncFutureTask<OperationResponse> {
+
+        private Result() {
+            super(JBossExecutors.directExecutor());
+        }
+
+        void complete(final OperationResponse response) {
+            setResult(response);
+        }
+
+        @Override
+        public void asyncCancel(final boolean interruptionDesired) {
+            setCancelled();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.controller.transform.OperationResultTransformer;
+import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.Test;
+
+/**
+ * Tests of the wave limits and early stopping of {@link ConcurrentServerGroupUpdateTask}.
+ */
+public class ConcurrentServerGroupUpdateTaskTestCase {
+
+    private static final String GROUP = "group";
+
+    @Test
+    public void testWaveLimits() {
+        final Set<ServerIdentity> servers = createServers(3, 2);
+        final TestExecutor executor = new TestExecutor(Collections.emptySet());
+        createTask(servers, 0, executor, 3, 1).execute();
+
+        assertEquals(servers, new HashSet<>(executor.executed));
+        assertEquals(3, executor.maxInFlight);
+        assertEquals(1, executor.maxInFlightPerHost);
+        final ModelNode statistics = executor.getRolloutStatistics();
+        assertEquals(6, statistics.get(ServerTaskExecutor.SERVERS_PREPARED).asInt());
+        assertEquals(0, statistics.get(ServerTaskExecutor.SERVERS_SKIPPED).asInt());
+        assertEquals(0, statistics.get(ServerTaskExecutor.SERVERS_CANCELLED).asInt());
+    }
+
+    @Test
+    public void testFailureThresholdSkipsRemainingServers() {
+        final Set<ServerIdentity> servers = createServers(4, 1);
+        final ServerIdentity first = servers.iterator().next();
+        final TestExecutor executor = new TestExecutor(Collections.singleton(first));
+        createTask(servers, 0, executor, 1, 1).execute();
+
+        // The first server failed, so no further server was updated
+        assertEquals(Collections.singletonList(first), executor.executed);
+        final ModelNode statistics = executor.getRolloutStatistics();
+        assertEquals(1, statistics.get(ServerTaskExecutor.SERVERS_PREPARED).asInt());
+        assertEquals(3, statistics.get(ServerTaskExecutor.SERVERS_SKIPPED).asInt());
+        assertEquals(0, statistics.get(ServerTaskExecutor.SERVERS_CANCELLED).asInt());
+    }
+
+    @Test
+    public void testInterruptedServersAreCancelled() {
+        final Set<ServerIdentity> servers = createServers(2, 2);
+        final TestExecutor executor = new TestExecutor(Collections.emptySet());
+        Thread.currentThread().interrupt();
+        try {
+            createTask(servers, 0, executor, 2, 1).execute();
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+
+        assertTrue(executor.executed.isEmpty());
+        final ModelNode statistics = executor.getRolloutStatistics();
+        assertEquals(0, statistics.get(ServerTaskExecutor.SERVERS_SKIPPED).asInt());
+        assertEquals(4, statistics.get(ServerTaskExecutor.SERVERS_CANCELLED).asInt());
+        assertEquals(2, statistics.get(ServerTaskExecutor.CANCELLED, "host-0").asList().size());
+    }
+
+    private static Set<ServerIdentity> createServers(final int hosts, final int serversPerHost) {
+        final Set<ServerIdentity> servers = new LinkedHashSet<>();
+        for (int i = 0; i < serversPerHost; i++) {
+            for (int j = 0; j < hosts; j++) {
+                servers.add(new ServerIdentity("host-" + j, GROUP, "server-" + i));
+            }
+        }
+        return servers;
+    }
+
+    private static ConcurrentServerGroupUpdateTask createTask(final Set<ServerIdentity> servers, final int maxFailures,
+                                                              final TestExecutor executor, final int maxConcurrent, final int maxPerHost) {
+        final ServerUpdatePolicy policy = new ServerUpdatePolicy(new ConcurrentGroupServerUpdatePolicy(null, Collections.singleton(GROUP)),
+                GROUP, servers, maxFailures);
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set("test");
+        final List<ServerUpdateTask> tasks = new ArrayList<>();
+        for (ServerIdentity server : servers) {
+            tasks.add(new RunningServerUpdateTask(server, operation, policy));
+        }
+        return new ConcurrentServerGroupUpdateTask(tasks, policy, executor, null, null, null, maxConcurrent, maxPerHost);
+    }
+
+    /**
+     * Responds to each server request straight away, tracking how many requests are awaiting processing.
+     */
+    private static final class TestExecutor extends ServerTaskExecutor {
+
+        private final Set<ServerIdentity> failing;
+        private final List<ServerIdentity> executed = new ArrayList<>();
+        private final Map<String, Integer> inFlightPerHost = new HashMap<>();
+        private int inFlight;
+        private int maxInFlight;
+        private int maxInFlightPerHost;
+
+        private TestExecutor(final Set<ServerIdentity> failing) {
+            super(null, new HashMap<>(), new ArrayList<>());
+            this.failing = failing;
+        }
+
+        @Override
+        protected int execute(final TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener,
+                              final ServerIdentity identity, final ModelNode operation) {
+            executed.add(identity);
+            maxInFlight = Math.max(maxInFlight, ++inFlight);
+            maxInFlightPerHost = Math.max(maxInFlightPerHost, inFlightPerHost.merge(identity.getHostName(), 1, Integer::sum));
+            final ServerOperation serverOperation = new ServerOperation(identity, operation, null, null, OperationResultTransformer.ORIGINAL_RESULT);
+            listener.operationPrepared(new Prepared(serverOperation, failing.contains(identity)));
+            return 1000;
+        }
+
+        @Override
+        void recordPreparedOperation(final TransactionalProtocolClient.PreparedOperation<ServerOperation> preparedOperation) {
+            inFlight--;
+            inFlightPerHost.merge(preparedOperation.getOperation().getIdentity().getHostName(), -1, Integer::sum);
+            super.recordPreparedOperation(preparedOperation);
+        }
+    }
+
+    private static final class Prepared implements TransactionalProtocolClient.PreparedOperation<ServerTaskExecutor.ServerOperation> {
+
+        private final ServerTaskExecutor.ServerOperation operation;
+        private final boolean failed;
+
+        private Prepared(final ServerTaskExecutor.ServerOperation operation, final boolean failed) {
+            this.operation = operation;
+            this.failed = failed;
+        }
+
+        @Override
+        public ServerTaskExecutor.ServerOperation getOperation() {
+            return operation;
+        }
+
+        @Override
+        public ModelNode getPreparedResult() {
+            final ModelNode result = new ModelNode();
+            if (failed) {
+                result.get(OUTCOME).set(FAILED);
+                result.get(FAILURE_DESCRIPTION).set("failed");
+            } else {
+                result.get(OUTCOME).set(SUCCESS);
+                result.get(RESULT);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean isFailed() {
+            return failed;
+        }
+
+        @Override
+        public boolean isTimedOut() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public AsyncFuture<OperationResponse> getFinalResult() {
+            return null;
+        }
+
+        @Override
+        public void commit() {
+        }
+
+        @Override
+        public void rollback() {
+        }
+    }
+}
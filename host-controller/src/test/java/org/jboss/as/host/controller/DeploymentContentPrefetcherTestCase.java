@@ -0,0 +1,239 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.jboss.as.repository.ContentReference;
+import org.jboss.as.repository.HostFileRepository;
+import org.jboss.as.repository.LocalFileRepository;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of {@link DeploymentContentPrefetcher}.
+ */
+public class DeploymentContentPrefetcherTestCase {
+
+    private static final ContentReference A = new ContentReference("a", "aa00000000000000000000000000000000000000");
+    private static final ContentReference B = new ContentReference("b", "bb00000000000000000000000000000000000000");
+    private static final ContentReference C = new ContentReference("c", "cc00000000000000000000000000000000000000");
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private HostFileRepository repository;
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @Before
+    public void setup() throws IOException {
+        repository = new LocalFileRepository(folder.getRoot(), folder.newFolder("content"), folder.getRoot());
+    }
+
+    @Test
+    public void testRequestWaitsForPrefetch() throws Exception {
+        final DeploymentContentPrefetcher prefetcher = new DeploymentContentPrefetcher(repository, 1000, 4);
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            prefetcher.setExecutor(executor);
+            final CountDownLatch latch = new CountDownLatch(1);
+            prefetcher.prefetch(A, false, fetch(A, 10, latch));
+            final AtomicReference<File> result = new AtomicReference<>();
+            final Thread request = new Thread(() -> result.set(request(prefetcher, A)));
+            request.start();
+            // Only let the prefetch finish once the request waits for it
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (request.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            latch.countDown();
+            request.join(10000);
+            assertTrue(result.get().exists());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, fetches.get());
+        assertEquals(1, prefetcher.getPrefetchCount());
+        assertEquals(1, prefetcher.getHitCount());
+        assertEquals(0, prefetcher.getMissCount());
+        assertEquals(0, prefetcher.getCacheEntries());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        final DeploymentContentPrefetcher prefetcher = new DeploymentContentPrefetcher(repository, 25, 4);
+        prefetcher.setExecutor(Runnable::run);
+        prefetcher.prefetch(A, false, fetch(A, 10, null));
+        prefetcher.prefetch(B, false, fetch(B, 10, null));
+        // Touches A, which is cached already
+        prefetcher.prefetch(A, false, fetch(A, 10, null));
+        prefetcher.prefetch(C, false, fetch(C, 10, null));
+
+        assertEquals(3, fetches.get());
+        assertEquals(1, prefetcher.getEvictionCount());
+        assertEquals(2, prefetcher.getCacheEntries());
+        assertEquals(20, prefetcher.getCacheSize());
+        assertTrue(repository.getDeploymentRoot(A).exists());
+        assertFalse(repository.getDeploymentRoot(B).exists());
+        assertTrue(repository.getDeploymentRoot(C).exists());
+    }
+
+    @Test
+    public void testRequestedContentIsNotEvicted() {
+        final DeploymentContentPrefetcher prefetcher = new DeploymentContentPrefetcher(repository, 15, 4);
+        prefetcher.setExecutor(Runnable::run);
+        prefetcher.prefetch(A, false, fetch(A, 10, null));
+        request(prefetcher, A);
+        prefetcher.prefetch(B, false, fetch(B, 10, null));
+        prefetcher.prefetch(C, false, fetch(C, 10, null));
+
+        assertEquals(1, prefetcher.getHitCount());
+        assertEquals(1, prefetcher.getEvictionCount());
+        assertTrue(repository.getDeploymentRoot(A).exists());
+        assertFalse(repository.getDeploymentRoot(B).exists());
+        assertTrue(repository.getDeploymentRoot(C).exists());
+
+        // Evicted content is fetched again on demand
+        request(prefetcher, B);
+        assertEquals(1, prefetcher.getMissCount());
+        assertTrue(repository.getDeploymentRoot(B).exists());
+    }
+
+    @Test
+    public void testPinnedContentIsNotEvicted() {
+        final DeploymentContentPrefetcher prefetcher = new DeploymentContentPrefetcher(repository, 15, 4);
+        prefetcher.setExecutor(Runnable::run);
+        prefetcher.prefetch(A, true, fetch(A, 10, null));
+        prefetcher.prefetch(B, true, fetch(B, 10, null));
+        prefetcher.prefetch(C, false, fetch(C, 10, null));
+
+        assertEquals(0, prefetcher.getEvictionCount());
+        assertEquals(1, prefetcher.getCacheEntries());
+        assertTrue(repository.getDeploymentRoot(A).exists());
+        assertTrue(repository.getDeploymentRoot(B).exists());
+        assertTrue(repository.getDeploymentRoot(C).exists());
+    }
+
+    @Test
+    public void testHitIsCountedOnce() {
+        final DeploymentContentPrefetcher prefetcher = new DeploymentContentPrefetcher(repository, 1000, 4);
+        prefetcher.setExecutor(Runnable::run);
+        prefetcher.prefetch(A, true, fetch(A, 10, null));
+        request(prefetcher, A);
+        request(prefetcher, A);
+        // Not prefetched, so neither a hit nor a miss once it is available
+        request(prefetcher, B);
+        request(prefetcher, B);
+
+        assertEquals(1, prefetcher.getHitCount());
+        assertEquals(1, prefetcher.getMissCount());
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void testConcurrentPrefetchesAreBounded() throws Exception {
+        final DeploymentContentPrefetcher prefetcher = new DeploymentContentPrefetcher(repository, 1000, 1);
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            prefetcher.setExecutor(executor);
+            final CountDownLatch latch = new CountDownLatch(1);
+            prefetcher.prefetch(A, true, fetch(A, 10, latch));
+            prefetcher.prefetch(B, true, fetch(B, 10, null));
+            prefetcher.prefetch(C, true, fetch(C, 10, null));
+            assertEquals(3, prefetcher.getPrefetchCount());
+            Thread.sleep(100);
+            // Only the first prefetch runs, and it waits for the latch
+            assertEquals(1, fetches.get());
+
+            // Requesting content waiting for its turn fetches it in the requesting thread
+            assertTrue(request(prefetcher, C).exists());
+            assertEquals(2, fetches.get());
+            assertEquals(1, prefetcher.getHitCount());
+
+            latch.countDown();
+            assertTrue(request(prefetcher, A).exists());
+            assertTrue(request(prefetcher, B).exists());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(3, fetches.get());
+        assertEquals(3, prefetcher.getHitCount());
+        assertEquals(0, prefetcher.getMissCount());
+    }
+
+    @Test
+    public void testSpeculativePrefetchDisabled() {
+        final DeploymentContentPrefetcher prefetcher = new DeploymentContentPrefetcher(repository, 0, 4);
+        prefetcher.setExecutor(Runnable::run);
+        prefetcher.prefetch(A, false, fetch(A, 10, null));
+        assertEquals(0, fetches.get());
+        assertEquals(0, prefetcher.getPrefetchCount());
+
+        // Pinned content is still prefetched
+        prefetcher.prefetch(B, true, fetch(B, 10, null));
+        assertEquals(1, fetches.get());
+        assertEquals(1, prefetcher.getPrefetchCount());
+        assertTrue(repository.getDeploymentRoot(B).exists());
+        assertEquals(0, prefetcher.getCacheEntries());
+    }
+
+    /** Requests content the way the remote file repository does */
+    private File request(final DeploymentContentPrefetcher prefetcher, final ContentReference reference) {
+        return prefetcher.get(reference, repository.getDeploymentRoot(reference), fetch(reference, 10, null));
+    }
+
+    private Supplier<File> fetch(final ContentReference reference, final int size, final CountDownLatch latch) {
+        return () -> {
+            fetches.incrementAndGet();
+            try {
+                if (latch != null) {
+                    latch.await();
+                }
+                final File root = repository.getDeploymentRoot(reference);
+                Files.createDirectories(root.toPath());
+                Files.write(new File(root, "content").toPath(), new byte[size]);
+                return root;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.jboss.as.repository.ContentReference;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of {@link PeerContentStore}, simulating several slave hosts sharing a store.
+ */
+public class PeerContentStoreTestCase {
+
+    private static final byte[] CONTENT = "some deployment content".getBytes(StandardCharsets.UTF_8);
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(1);
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testMasterIsOnlyAskedOnce() throws Exception {
+        final PeerContentStore store = new PeerContentStore(folder.newFolder("store").toPath(), 10000, MAX_AGE);
+        final ContentReference reference = new ContentReference("test", sha1(CONTENT));
+        final AtomicInteger masterFetches = new AtomicInteger();
+
+        final int hosts = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(hosts);
+        try {
+            final List<Future<File>> results = new ArrayList<>();
+            for (int i = 0; i < hosts; i++) {
+                final File localRoot = getLocalRoot("host" + i, reference);
+                results.add(executor.submit((Callable<File>) () ->
+                        store.getDeploymentRoot(reference, localRoot, master(localRoot, CONTENT, masterFetches))));
+            }
+            for (Future<File> result : results) {
+                assertArrayEquals(CONTENT, Files.readAllBytes(result.get().toPath().resolve("content")));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, masterFetches.get());
+    }
+
+    @Test
+    public void testInvalidContentIsNotUsed() throws Exception {
+        final Path storeRoot = folder.newFolder("store").toPath();
+        final PeerContentStore store = new PeerContentStore(storeRoot, 10000, MAX_AGE);
+        final ContentReference reference = new ContentReference("test", sha1(CONTENT));
+        final AtomicInteger masterFetches = new AtomicInteger();
+
+        // Corrupted content published by some peer
+        final String hash = reference.getHexHash();
+        final Path shared = storeRoot.resolve(hash.substring(0, 2)).resolve(hash.substring(2));
+        Files.createDirectories(shared);
+        Files.write(shared.resolve("content"), "corrupted".getBytes(StandardCharsets.UTF_8));
+
+        final File localRoot = getLocalRoot("host", reference);
+        final File result = store.getDeploymentRoot(reference, localRoot, master(localRoot, CONTENT, masterFetches));
+        assertArrayEquals(CONTENT, Files.readAllBytes(result.toPath().resolve("content")));
+        assertEquals(1, masterFetches.get());
+
+        // The corrupted entry was discarded, so the next host seeds the content again
+        assertFalse(Files.exists(shared));
+        final File otherRoot = getLocalRoot("other", reference);
+        store.getDeploymentRoot(reference, otherRoot, master(otherRoot, CONTENT, masterFetches));
+        assertEquals(2, masterFetches.get());
+        assertArrayEquals(CONTENT, Files.readAllBytes(shared.resolve("content")));
+    }
+
+    @Test
+    public void testInvalidContentIsNotPublished() throws Exception {
+        final Path storeRoot = folder.newFolder("store").toPath();
+        final PeerContentStore store = new PeerContentStore(storeRoot, 10000, MAX_AGE);
+        final ContentReference reference = new ContentReference("test", sha1(CONTENT));
+        final AtomicInteger masterFetches = new AtomicInteger();
+
+        final File localRoot = getLocalRoot("host", reference);
+        store.getDeploymentRoot(reference, localRoot, master(localRoot, "corrupted".getBytes(StandardCharsets.UTF_8), masterFetches));
+        final String hash = reference.getHexHash();
+        assertFalse(Files.exists(storeRoot.resolve(hash.substring(0, 2)).resolve(hash.substring(2))));
+    }
+
+    @Test
+    public void testExpiredContentIsEvicted() throws Exception {
+        final Path storeRoot = folder.newFolder("store").toPath();
+        final PeerContentStore store = new PeerContentStore(storeRoot, 10000, MAX_AGE);
+        final AtomicInteger masterFetches = new AtomicInteger();
+
+        final byte[] oldContent = "old deployment content".getBytes(StandardCharsets.UTF_8);
+        final ContentReference oldReference = new ContentReference("old", sha1(oldContent));
+        final File oldRoot = getLocalRoot("old", oldReference);
+        store.getDeploymentRoot(oldReference, oldRoot, master(oldRoot, oldContent, masterFetches));
+        final String oldHash = oldReference.getHexHash();
+        final Path oldShared = storeRoot.resolve(oldHash.substring(0, 2)).resolve(oldHash.substring(2));
+        assertTrue(Files.isDirectory(oldShared));
+        Files.setLastModifiedTime(oldShared, FileTime.fromMillis(System.currentTimeMillis() - 2 * MAX_AGE));
+
+        final ContentReference reference = new ContentReference("test", sha1(CONTENT));
+        final File localRoot = getLocalRoot("host", reference);
+        store.getDeploymentRoot(reference, localRoot, master(localRoot, CONTENT, masterFetches));
+        final String hash = reference.getHexHash();
+        assertTrue(Files.isDirectory(storeRoot.resolve(hash.substring(0, 2)).resolve(hash.substring(2))));
+        assertFalse(Files.exists(oldShared));
+    }
+
+    private File getLocalRoot(String host, ContentReference reference) throws IOException {
+        final String hash = reference.getHexHash();
+        return new File(new File(folder.newFolder(host), hash.substring(0, 2)), hash.substring(2));
+    }
+
+    private static Supplier<File> master(final File localRoot, final byte[] content, final AtomicInteger fetches) {
+        return () -> {
+            fetches.incrementAndGet();
+            try {
+                Files.createDirectories(localRoot.toPath());
+                Files.write(localRoot.toPath().resolve("content"), content);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return localRoot;
+        };
+    }
+
+    private static byte[] sha1(byte[] bytes) throws Exception {
+        return MessageDigest.getInstance("SHA-1").digest(bytes);
+    }
+}
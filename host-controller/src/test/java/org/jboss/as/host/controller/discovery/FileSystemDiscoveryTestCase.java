@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.remoting.Protocol;
+import org.jboss.dmr.ModelNode;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of {@link FileSystemDiscovery}.
+ */
+public class FileSystemDiscoveryTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final List<DomainControllerManagementInterface> INTERFACES = Arrays.asList(
+            new DomainControllerManagementInterface(9999, "127.0.0.1", Protocol.REMOTE),
+            new DomainControllerManagementInterface(9990, "127.0.0.1", Protocol.HTTP_REMOTING));
+
+    @Test
+    public void testDiscover() throws Exception {
+        File dir = new File(folder.getRoot(), "dc");
+        FileSystemDiscovery master = create(dir, 1000);
+        master.allowDiscovery(INTERFACES);
+
+        List<RemoteDomainControllerConnectionConfiguration> options = create(dir, 1000).discover();
+        assertEquals(2, options.size());
+        assertEquals(Protocol.HTTP_REMOTING.toString(), options.get(0).getProtocol());
+        assertEquals(9990, options.get(0).getPort());
+        assertEquals(Protocol.REMOTE.toString(), options.get(1).getProtocol());
+        assertEquals("127.0.0.1", options.get(1).getHost());
+
+        master.cleanUp();
+        assertFalse(new File(dir, "jboss-domain-master-data").exists());
+    }
+
+    @Test
+    public void testDiscoverWaitsForMaster() throws Exception {
+        File dir = folder.newFolder("dc");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<RemoteDomainControllerConnectionConfiguration>> discovered = executor.submit(() -> create(dir, 10000).discover());
+            Thread.sleep(200);
+            create(dir, 1000).allowDiscovery(INTERFACES);
+            assertEquals(2, discovered.get(10, TimeUnit.SECONDS).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDiscoverTimesOut() throws Exception {
+        File dir = folder.newFolder("dc");
+        try {
+            create(dir, 100).discover();
+            fail("Discovery should have timed out");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    private static FileSystemDiscovery create(File dir, long timeout) {
+        Map<String, ModelNode> properties = new HashMap<>();
+        properties.put(Constants.PATH, new ModelNode(dir.getAbsolutePath()));
+        properties.put(Constants.TIMEOUT, new ModelNode(timeout));
+        return new FileSystemDiscovery(properties);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.remoting.Protocol;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link MulticastDiscovery} with the master and the slave on the local host. Skipped if multicast packets
+ * sent from this host are not looped back to it, e.g. because there is no multicast route.
+ */
+public class MulticastDiscoveryTestCase {
+
+    private static final String GROUP = "230.0.0.4";
+
+    private static final List<DomainControllerManagementInterface> INTERFACES = Arrays.asList(
+            new DomainControllerManagementInterface(9999, "127.0.0.1", Protocol.REMOTE),
+            new DomainControllerManagementInterface(9990, "127.0.0.1", Protocol.HTTP_REMOTING));
+
+    private int port;
+    private MulticastDiscovery master;
+
+    @Before
+    public void assumeMulticastLoopback() throws IOException {
+        try (DatagramSocket socket = new DatagramSocket()) {
+            port = socket.getLocalPort();
+        }
+        final InetAddress group = InetAddress.getByName(GROUP);
+        try (MulticastSocket receiver = new MulticastSocket(port); DatagramSocket sender = new DatagramSocket()) {
+            receiver.joinGroup(group);
+            receiver.setSoTimeout(1000);
+            final byte[] probe = {1};
+            sender.send(new DatagramPacket(probe, probe.length, new InetSocketAddress(group, port)));
+            receiver.receive(new DatagramPacket(new byte[1], 1));
+        } catch (IOException e) {
+            Assume.assumeNoException(e);
+        }
+    }
+
+    @After
+    public void stopMaster() {
+        if (master != null) {
+            master.cleanUp();
+        }
+    }
+
+    @Test
+    public void testDiscover() {
+        master = create(1000);
+        master.allowDiscovery(INTERFACES);
+
+        List<RemoteDomainControllerConnectionConfiguration> options = create(5000).discover();
+        assertEquals(2, options.size());
+        assertEquals(Protocol.HTTP_REMOTING.toString(), options.get(0).getProtocol());
+        assertEquals(9990, options.get(0).getPort());
+        assertEquals(Protocol.REMOTE.toString(), options.get(1).getProtocol());
+        assertEquals("127.0.0.1", options.get(1).getHost());
+    }
+
+    @Test
+    public void testDiscoverAfterCleanUpTimesOut() {
+        master = create(1000);
+        master.allowDiscovery(INTERFACES);
+        assertEquals(2, create(5000).discover().size());
+
+        master.cleanUp();
+        try {
+            create(300).discover();
+            fail("Discovery should have timed out");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void testRepublishReplacesData() {
+        master = create(1000);
+        master.allowDiscovery(INTERFACES);
+        master.allowDiscovery(INTERFACES.subList(0, 1));
+
+        List<RemoteDomainControllerConnectionConfiguration> options = create(5000).discover();
+        assertEquals(1, options.size());
+        assertEquals(9999, options.get(0).getPort());
+    }
+
+    private MulticastDiscovery create(long timeout) {
+        Map<String, ModelNode> properties = new HashMap<>();
+        properties.put(Constants.ADDRESS, new ModelNode(GROUP));
+        properties.put(Constants.PORT, new ModelNode(port));
+        properties.put(Constants.TIMEOUT, new ModelNode(timeout));
+        return new MulticastDiscovery(properties);
+    }
+}
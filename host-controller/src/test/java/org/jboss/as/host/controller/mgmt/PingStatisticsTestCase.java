@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of {@link PingStatistics}.
+ */
+public class PingStatisticsTestCase {
+
+    @Test
+    public void testPercentiles() {
+        PingStatistics statistics = new PingStatistics();
+        assertFalse(statistics.toModelNode().isDefined());
+        for (int i = 1; i <= 100; i++) {
+            statistics.record(i * 1000);
+        }
+        ModelNode node = statistics.toModelNode();
+        assertEquals(100, node.get(PingStatistics.COUNT).asLong());
+        assertEquals(50500, node.get(PingStatistics.MEAN).asLong());
+        assertEquals(50000, node.get(PingStatistics.PERCENTILE_50).asLong());
+        assertEquals(90000, node.get(PingStatistics.PERCENTILE_90).asLong());
+        assertEquals(99000, node.get(PingStatistics.PERCENTILE_99).asLong());
+        assertEquals(100000, node.get(PingStatistics.MAX).asLong());
+    }
+
+    @Test
+    public void testWindow() {
+        PingStatistics statistics = new PingStatistics();
+        for (int i = 0; i < 1000; i++) {
+            statistics.record(i < 500 ? 1000000 : 1000);
+        }
+        ModelNode node = statistics.toModelNode();
+        assertEquals(1000, node.get(PingStatistics.COUNT).asLong());
+        // Old samples have left the window
+        assertEquals(1000, node.get(PingStatistics.MAX).asLong());
+    }
+
+    @Test
+    public void testPhi() {
+        PingStatistics statistics = new PingStatistics();
+        assertEquals(Double.POSITIVE_INFINITY, statistics.phi(1000), 0);
+        for (int i = 0; i < 100; i++) {
+            statistics.record(2000 + (i % 10) * 100);
+        }
+        double typical = statistics.phi(2500);
+        double late = statistics.phi(100000);
+        double dead = statistics.phi(30000000);
+        assertTrue(String.valueOf(typical), typical < 1);
+        assertTrue(late + " " + typical, late > typical);
+        assertTrue(String.valueOf(dead), dead > 8);
+        assertFalse(Double.isNaN(dead));
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests of the failure detection of {@link SlaveHostPinger}.
+ */
+public class SlaveHostPingerTestCase {
+
+    private static final long SENT = 1000000;
+
+    @Test
+    public void testHealthCheckDisabledByDefault() {
+        assertFalse(SlaveHostPinger.HEALTH_CHECK);
+    }
+
+    @Test
+    public void testUnreachableWithoutHistory() {
+        SlaveHostPinger pinger = new SlaveHostPinger("slave", null, null, 1L);
+        assertTrue(pinger.isUnreachable(SlaveHostPinger.SHORT_TIMEOUT, SENT, SENT - 1));
+    }
+
+    @Test
+    public void testReachableIfMessageReceived() {
+        SlaveHostPinger pinger = new SlaveHostPinger("slave", null, null, 1L);
+        // Anything received after the ping was sent proves the slave is alive, however long the wait
+        assertFalse(pinger.isUnreachable(10 * SlaveHostPinger.STD_TIMEOUT, SENT, SENT));
+        assertFalse(pinger.isUnreachable(10 * SlaveHostPinger.STD_TIMEOUT, SENT, SENT + 1));
+    }
+
+    @Test
+    public void testFastSlave() {
+        SlaveHostPinger pinger = new SlaveHostPinger("slave", null, null, 1L);
+        for (int i = 0; i < 100; i++) {
+            pinger.getStatistics().record(2000 + (i % 10) * 100);
+        }
+        assertFalse(pinger.isUnreachable(5, SENT, SENT - 1));
+        assertTrue(pinger.isUnreachable(SlaveHostPinger.STD_TIMEOUT, SENT, SENT - 1));
+    }
+
+    @Test
+    public void testSlowSlave() {
+        SlaveHostPinger pinger = new SlaveHostPinger("slave", null, null, 1L);
+        long timeout = SlaveHostPinger.STD_TIMEOUT;
+        for (int i = 0; i < 100; i++) {
+            // round trips between a third and the whole of the timeout
+            pinger.getStatistics().record((timeout / 3 + (i % 10) * (timeout / 15)) * 1000);
+        }
+        // A wait of one timeout is not unusual for this slave
+        assertFalse(pinger.isUnreachable(timeout, SENT, SENT - 1));
+        // but a wait of several timeouts fails whatever the history
+        assertTrue(pinger.isUnreachable(4 * timeout, SENT, SENT - 1));
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.wildfly.extension.io.logging.IOLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+import org.xnio.Options;
+import org.xnio.XnioExecutor;
+import org.xnio.XnioWorker;
+import org.xnio.management.XnioWorkerMXBean;
+
+/**
+ * Periodically adjusts the maximum number of task threads of a worker to its load. The pool grows by steps while
+ * tasks are queued and all its threads are busy, up to a multiple of the configured {@code task-max-threads}, and
+ * shrinks back to the configured size once the load has dropped.
+ * <p>
+ * Autoscaling is disabled unless the {@value #ENABLED_PROPERTY} system property is set to {@code true}, which enables
+ * it for all the workers, or to a comma separated list of worker names. A {@code task-max-threads} value written at
+ * runtime becomes the new configured size.
+ */
+final class WorkerAutoscaler implements Runnable {
+
+    static final String ENABLED_PROPERTY = "org.wildfly.io.worker.autoscale";
+    static final String INTERVAL_PROPERTY = "org.wildfly.io.worker.autoscale.interval";
+    static final String MAX_FACTOR_PROPERTY = "org.wildfly.io.worker.autoscale.max-factor";
+
+    private static final long DEFAULT_INTERVAL = 1000;
+    private static final int DEFAULT_MAX_FACTOR = 2;
+
+    private final XnioWorker worker;
+    private final long interval;
+    private final int maxFactor;
+    // only accessed from the run() task, which never overlaps itself
+    private int configuredMax;
+    private int lastApplied;
+    private volatile XnioExecutor.Key key;
+    private volatile boolean stopped;
+
+    private WorkerAutoscaler(XnioWorker worker, int configuredMax, long interval, int maxFactor) {
+        this.worker = worker;
+        this.configuredMax = configuredMax;
+        this.lastApplied = configuredMax;
+        this.interval = interval;
+        this.maxFactor = maxFactor;
+    }
+
+    /**
+     * Starts autoscaling the given worker if it is enabled for it.
+     *
+     * @return the started autoscaler or {@code null} if autoscaling is not enabled for the worker
+     */
+    static WorkerAutoscaler start(XnioWorker worker) {
+        String enabled = WildFlySecurityManager.getPropertyPrivileged(ENABLED_PROPERTY, null);
+        if (enabled == null || worker.getMXBean() == null) {
+            return null;
+        }
+        enabled = enabled.trim();
+        if (!Boolean.parseBoolean(enabled) && !Arrays.asList(enabled.split("\\s*,\\s*")).contains(worker.getName())) {
+            return null;
+        }
+        long interval = Math.max(100L, parse(WildFlySecurityManager.getPropertyPrivileged(INTERVAL_PROPERTY, null), DEFAULT_INTERVAL));
+        int maxFactor = (int) Math.max(1L, parse(WildFlySecurityManager.getPropertyPrivileged(MAX_FACTOR_PROPERTY, null), DEFAULT_MAX_FACTOR));
+        WorkerAutoscaler autoscaler = new WorkerAutoscaler(worker, worker.getMXBean().getMaxWorkerPoolSize(), interval, maxFactor);
+        autoscaler.schedule();
+        return autoscaler;
+    }
+
+    void stop() {
+        stopped = true;
+        XnioExecutor.Key key = this.key;
+        if (key != null) {
+            key.remove();
+        }
+    }
+
+    @Override
+    public void run() {
+        if (stopped) {
+            return;
+        }
+        try {
+            adjust();
+        } catch (IOException | RuntimeException e) {
+            IOLogger.ROOT_LOGGER.debugf(e, "Failed to autoscale the task threads of worker %s", worker.getName());
+        } finally {
+            schedule();
+        }
+    }
+
+    private void adjust() throws IOException {
+        XnioWorkerMXBean metrics = worker.getMXBean();
+        int current = metrics.getMaxWorkerPoolSize();
+        if (current != lastApplied) {
+            // task-max-threads was written by management since the last adjustment
+            configuredMax = current;
+            lastApplied = current;
+        }
+        int target = getTarget(current, configuredMax, maxFactor, metrics.getCoreWorkerPoolSize(),
+                metrics.getWorkerQueueSize(), metrics.getBusyWorkerThreadCount());
+        if (target != current) {
+            IOLogger.ROOT_LOGGER.debugf("Resizing the task threads of worker %s from %d to %d", worker.getName(), current, target);
+            worker.setOption(Options.WORKER_TASK_MAX_THREADS, target);
+            lastApplied = target;
+        }
+    }
+
+    /**
+     * Computes the maximum number of task threads a worker should have.
+     *
+     * @param current the current maximum number of task threads
+     * @param configuredMax the configured maximum number of task threads
+     * @param maxFactor the multiple of {@code configuredMax} the pool may grow to
+     * @param core the number of core task threads, which the maximum cannot drop below
+     * @param queued the number of queued tasks
+     * @param busy the number of busy task threads
+     * @return the new maximum number of task threads, or {@code current} if it should not change
+     */
+    static int getTarget(int current, int configuredMax, int maxFactor, int core, int queued, int busy) {
+        int step = Math.max(1, configuredMax / 4);
+        int target = current;
+        if (queued > 0 && busy >= current) {
+            target = Math.min(configuredMax * maxFactor, current + step);
+        } else if (queued == 0 && busy < current / 2) {
+            target = Math.max(configuredMax, current - step);
+        }
+        return target >= core ? target : current;
+    }
+
+    private void schedule() {
+        if (!stopped && !worker.isShutdown()) {
+            key = worker.getIoThread().executeAfter(this, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static long parse(String value, long defaultValue) {
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                // use the default
+            }
+        }
+        return defaultValue;
+    }
+}
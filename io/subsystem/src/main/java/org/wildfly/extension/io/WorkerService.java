@@ -49,6 +49,7 @@ public final class WorkerService implements Service<XnioWorker> {
     private final Supplier<ExecutorService> executorSupplier;
     private final Object stopLock = new Object();
     private XnioWorker worker;
+    private WorkerAutoscaler autoscaler;
     private volatile StopContext stopContext;
 
     public WorkerService(final Consumer<XnioWorker> workerConsumer, final Supplier<ExecutorService> executorSupplier, final XnioWorker.Builder builder) {
@@ -61,12 +62,17 @@ public final class WorkerService implements Service<XnioWorker> {
     public void start(final StartContext startContext) {
         builder.setTerminationTask(this::stopDone);
         worker = builder.build();
+        autoscaler = WorkerAutoscaler.start(worker);
         workerConsumer.accept(worker);
     }
 
     @Override
     public void stop(final StopContext context) {
         this.stopContext = context;
+        if (autoscaler != null) {
+            autoscaler.stop();
+            autoscaler = null;
+        }
         final ExecutorService executorService = executorSupplier.get();
         Runnable asyncStop = () -> {
             XnioWorker localWorker = worker;
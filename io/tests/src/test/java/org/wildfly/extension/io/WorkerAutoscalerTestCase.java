@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the sizing decisions of {@link WorkerAutoscaler}.
+ */
+public class WorkerAutoscalerTestCase {
+
+    private static final int CONFIGURED_MAX = 16;
+    private static final int MAX_FACTOR = 2;
+    private static final int CORE = 4;
+
+    @Test
+    public void testScaleUp() {
+        // All threads busy with tasks queued: grow by a quarter of the configured size
+        Assert.assertEquals(20, WorkerAutoscaler.getTarget(16, CONFIGURED_MAX, MAX_FACTOR, CORE, 10, 16));
+        Assert.assertEquals(24, WorkerAutoscaler.getTarget(20, CONFIGURED_MAX, MAX_FACTOR, CORE, 1, 20));
+        // Queued tasks alone are not enough while some threads are idle
+        Assert.assertEquals(16, WorkerAutoscaler.getTarget(16, CONFIGURED_MAX, MAX_FACTOR, CORE, 10, 12));
+    }
+
+    @Test
+    public void testScaleDown() {
+        // Nothing queued and less than half the threads busy: shrink by a quarter of the configured size
+        Assert.assertEquals(24, WorkerAutoscaler.getTarget(28, CONFIGURED_MAX, MAX_FACTOR, CORE, 0, 3));
+        // Steady load keeps the current size
+        Assert.assertEquals(28, WorkerAutoscaler.getTarget(28, CONFIGURED_MAX, MAX_FACTOR, CORE, 0, 20));
+    }
+
+    @Test
+    public void testBounds() {
+        // Never above the configured size times the factor
+        Assert.assertEquals(32, WorkerAutoscaler.getTarget(30, CONFIGURED_MAX, MAX_FACTOR, CORE, 5, 30));
+        Assert.assertEquals(32, WorkerAutoscaler.getTarget(32, CONFIGURED_MAX, MAX_FACTOR, CORE, 5, 32));
+        // Never below the configured size
+        Assert.assertEquals(16, WorkerAutoscaler.getTarget(18, CONFIGURED_MAX, MAX_FACTOR, CORE, 0, 0));
+        Assert.assertEquals(16, WorkerAutoscaler.getTarget(16, CONFIGURED_MAX, MAX_FACTOR, CORE, 0, 0));
+        // Never below the core size, even if the configured size is
+        Assert.assertEquals(6, WorkerAutoscaler.getTarget(6, 2, MAX_FACTOR, 8, 1, 6));
+        // A configured size too small for a quarter still grows by one thread
+        Assert.assertEquals(3, WorkerAutoscaler.getTarget(2, 2, MAX_FACTOR, 1, 1, 2));
+    }
+}
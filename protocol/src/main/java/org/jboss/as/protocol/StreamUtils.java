@@ -29,6 +29,8 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import javax.xml.stream.XMLStreamWriter;
 
@@ -40,27 +42,46 @@ import org.jboss.as.protocol.logging.ProtocolLogger;
 public final class StreamUtils {
 
     private static final int BUFFER_SIZE = 8192;
+    /** Copy buffers kept for reuse, so streaming management content does not allocate a buffer per copy */
+    private static final BlockingQueue<byte[]> BUFFERS = new ArrayBlockingQueue<>(32);
 
     private StreamUtils() {
         //
     }
 
     public static void copyStream(final InputStream in, final OutputStream out) throws IOException {
-        final byte[] bytes = new byte[BUFFER_SIZE];
-        int cnt;
-        while ((cnt = in.read(bytes)) != -1) {
-            out.write(bytes, 0, cnt);
+        final byte[] bytes = acquireBuffer();
+        try {
+            int cnt;
+            while ((cnt = in.read(bytes)) != -1) {
+                out.write(bytes, 0, cnt);
+            }
+        } finally {
+            releaseBuffer(bytes);
         }
     }
 
     public static void copyStream(final InputStream in, final DataOutput out) throws IOException {
-        final byte[] bytes = new byte[BUFFER_SIZE];
-        int cnt;
-        while ((cnt = in.read(bytes)) != -1) {
-            out.write(bytes, 0, cnt);
+        final byte[] bytes = acquireBuffer();
+        try {
+            int cnt;
+            while ((cnt = in.read(bytes)) != -1) {
+                out.write(bytes, 0, cnt);
+            }
+        } finally {
+            releaseBuffer(bytes);
         }
     }
 
+    private static byte[] acquireBuffer() {
+        final byte[] bytes = BUFFERS.poll();
+        return bytes != null ? bytes : new byte[BUFFER_SIZE];
+    }
+
+    private static void releaseBuffer(final byte[] bytes) {
+        BUFFERS.offer(bytes);
+    }
+
     public static void safeClose(final Closeable closeable) {
         if (closeable != null) try {
             closeable.close();
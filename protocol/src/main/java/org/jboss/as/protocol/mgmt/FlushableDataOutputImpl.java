@@ -19,34 +19,51 @@
 package org.jboss.as.protocol.mgmt;
 
 import java.io.Closeable;
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UTFDataFormatException;
 
 /**
+ * {@link FlushableDataOutput} writing through to an {@link OutputStream}. Values are encoded into a per-thread
+ * scratch buffer and handed to the stream with a single bulk write, rather than one write per byte as
+ * {@link java.io.DataOutputStream} does, and without allocating per message or per string. Nothing is buffered
+ * between calls, so callers may interleave writes to this output and to the underlying stream.
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  */
 class FlushableDataOutputImpl implements FlushableDataOutput, Closeable {
 
-    private final DataOutputStream delegate;
+    /** Scratch buffers larger than this are not retained by the thread once the write completes */
+    private static final int MAX_RETAINED_SCRATCH = 16 * 1024;
 
-    public FlushableDataOutputImpl(DataOutputStream delegate) {
+    private static final ThreadLocal<byte[]> SCRATCH = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[512];
+        }
+    };
+
+    private final OutputStream delegate;
+    private long written;
+
+    FlushableDataOutputImpl(OutputStream delegate) {
         this.delegate = delegate;
     }
 
     static FlushableDataOutput create(OutputStream output) {
-        return new FlushableDataOutputImpl(new DataOutputStream(output));
+        return new FlushableDataOutputImpl(output);
     }
 
     @Override
     public void write(int b) throws IOException {
         delegate.write(b);
+        written++;
     }
 
     @Override
     public void write(byte[] b, int off, int len) throws IOException {
         delegate.write(b, off, len);
+        written += len;
     }
 
     @Override
@@ -56,70 +73,142 @@ class FlushableDataOutputImpl implements FlushableDataOutput, Closeable {
 
     @Override
     public void writeBoolean(boolean v) throws IOException {
-        delegate.writeBoolean(v);
+        write(v ? 1 : 0);
     }
 
     @Override
     public void writeByte(int v) throws IOException {
-        delegate.writeByte(v);
+        write(v);
     }
 
     @Override
     public void writeShort(int v) throws IOException {
-        delegate.writeShort(v);
+        final byte[] buf = scratch(2);
+        buf[0] = (byte) (v >>> 8);
+        buf[1] = (byte) v;
+        write(buf, 0, 2);
     }
 
     @Override
     public void writeChar(int v) throws IOException {
-        delegate.writeChar(v);
+        writeShort(v);
     }
 
     @Override
     public void writeInt(int v) throws IOException {
-        delegate.writeInt(v);
+        final byte[] buf = scratch(4);
+        putInt(buf, 0, v);
+        write(buf, 0, 4);
     }
 
     @Override
     public void writeLong(long v) throws IOException {
-        delegate.writeLong(v);
+        final byte[] buf = scratch(8);
+        putInt(buf, 0, (int) (v >>> 32));
+        putInt(buf, 4, (int) v);
+        write(buf, 0, 8);
     }
 
     @Override
     public void writeFloat(float v) throws IOException {
-        delegate.writeFloat(v);
+        writeInt(Float.floatToIntBits(v));
     }
 
     @Override
     public void writeDouble(double v) throws IOException {
-        delegate.writeDouble(v);
+        writeLong(Double.doubleToLongBits(v));
     }
 
     @Override
     public void writeBytes(String s) throws IOException {
-        delegate.writeBytes(s);
+        final int len = s.length();
+        final byte[] buf = scratch(len);
+        for (int i = 0; i < len; i++) {
+            buf[i] = (byte) s.charAt(i);
+        }
+        write(buf, 0, len);
     }
 
     @Override
     public void writeChars(String s) throws IOException {
-        delegate.writeChars(s);
+        final int len = s.length();
+        final byte[] buf = scratch(len * 2);
+        for (int i = 0, j = 0; i < len; i++) {
+            final char c = s.charAt(i);
+            buf[j++] = (byte) (c >>> 8);
+            buf[j++] = (byte) c;
+        }
+        write(buf, 0, len * 2);
     }
 
     @Override
     public void writeUTF(String str) throws IOException {
-        delegate.writeUTF(str);
+        // Same modified UTF-8 encoding as java.io.DataOutputStream
+        final int strlen = str.length();
+        int utflen = 0;
+        for (int i = 0; i < strlen; i++) {
+            final char c = str.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                utflen++;
+            } else if (c > 0x07FF) {
+                utflen += 3;
+            } else {
+                utflen += 2;
+            }
+        }
+        if (utflen > 65535) {
+            throw new UTFDataFormatException("encoded string too long: " + utflen + " bytes");
+        }
+        final byte[] buf = scratch(utflen + 2);
+        buf[0] = (byte) (utflen >>> 8);
+        buf[1] = (byte) utflen;
+        int count = 2;
+        for (int i = 0; i < strlen; i++) {
+            final char c = str.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                buf[count++] = (byte) c;
+            } else if (c > 0x07FF) {
+                buf[count++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+                buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                buf[count++] = (byte) (0xC0 | ((c >> 6) & 0x1F));
+                buf[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        write(buf, 0, count);
     }
 
     public int size() {
-        return delegate.size();
+        return written > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) written;
     }
 
     @Override
     public void write(byte[] b) throws IOException {
-        delegate.write(b);
+        write(b, 0, b.length);
     }
 
     @Override
     public void close() throws IOException {
         delegate.close();
     }
-}
\ No newline at end of file
+
+    private static void putInt(final byte[] buf, final int off, final int v) {
+        buf[off] = (byte) (v >>> 24);
+        buf[off + 1] = (byte) (v >>> 16);
+        buf[off + 2] = (byte) (v >>> 8);
+        buf[off + 3] = (byte) v;
+    }
+
+    private static byte[] scratch(final int size) {
+        final byte[] buf = SCRATCH.get();
+        if (buf.length >= size) {
+            return buf;
+        }
+        final byte[] larger = new byte[Math.max(size, buf.length * 2)];
+        if (larger.length <= MAX_RETAINED_SCRATCH) {
+            SCRATCH.set(larger);
+        }
+        return larger;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UTFDataFormatException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Tests that {@link FlushableDataOutputImpl} produces the same encoding as {@link DataOutputStream}, and hands each
+ * value to the stream as a single write from a reused buffer.
+ * <p>
+ * Run with {@code -Djboss.test.protocol.allocation=true} to also measure the bytes allocated per written message,
+ * compared with wrapping each message in a new {@link DataOutputStream}. The measurement depends on the JIT and on
+ * the JVM's allocation accounting, so it does not run by default.
+ */
+public class FlushableDataOutputImplTestCase {
+
+    private static final String ALLOCATION_PROPERTY = "jboss.test.protocol.allocation";
+
+    private static final char[] CHARS = {'a', 'Z', '0', '\u0000', '\u007f', '\u0080', '\u07ff', '\u0800', '\uffff', '\ud83d', '\ude00'};
+
+    @Test
+    public void testSameEncodingAsDataOutputStream() throws IOException {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        final DataOutputStream reference = new DataOutputStream(expected);
+        final FlushableDataOutputImpl output = new FlushableDataOutputImpl(actual);
+        writeMessage(reference);
+        writeMessage(output);
+        // Larger than the initial scratch buffer
+        final String large = randomString(70000 / 3);
+        reference.writeUTF(large);
+        output.writeUTF(large);
+        reference.writeChars(large);
+        output.writeChars(large);
+        reference.writeBytes(large);
+        output.writeBytes(large);
+        reference.flush();
+        output.flush();
+        Assert.assertEquals(reference.size(), output.size());
+        Assert.assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+
+    @Test
+    public void testInterleavedWithUnderlyingStream() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final FlushableDataOutputImpl output = new FlushableDataOutputImpl(bytes);
+        output.writeInt(0x01020304);
+        bytes.write(5);
+        output.writeShort(0x0607);
+        Assert.assertArrayEquals(new byte[] {1, 2, 3, 4, 5, 6, 7}, bytes.toByteArray());
+    }
+
+    @Test(expected = UTFDataFormatException.class)
+    public void testStringTooLong() throws IOException {
+        new FlushableDataOutputImpl(new ByteArrayOutputStream()).writeUTF(randomString(65536 / 2 + 1).replace('a', '\u0100'));
+    }
+
+    @Test
+    public void testOneBulkWritePerValueWithReusedBuffer() throws IOException {
+        final Set<byte[]> buffers = Collections.newSetFromMap(new IdentityHashMap<byte[], Boolean>());
+        final AtomicInteger singleByteWrites = new AtomicInteger();
+        final AtomicInteger bulkWrites = new AtomicInteger();
+        final OutputStream sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                singleByteWrites.incrementAndGet();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                bulkWrites.incrementAndGet();
+                buffers.add(b);
+            }
+        };
+        for (int i = 0; i < 100; i++) {
+            final FlushableDataOutput output = FlushableDataOutputImpl.create(sink);
+            output.writeInt(i);
+            output.writeLong(i);
+            output.writeShort(i);
+            output.writeChar('\u20ac');
+            output.writeDouble(i);
+            output.writeUTF("subsystem=logging/console-handler=CONSOLE:write-attribute(level=DEBUG)");
+            output.writeUTF(new String(CHARS));
+            output.writeBytes("abc");
+            output.writeChars("def");
+        }
+        Assert.assertEquals(0, singleByteWrites.get());
+        Assert.assertEquals(900, bulkWrites.get());
+        // Every value of every message was encoded into the thread's scratch buffer
+        Assert.assertEquals(1, buffers.size());
+    }
+
+    @Test
+    public void testAllocatedBytesPerMessage() throws IOException {
+        Assume.assumeTrue(ALLOCATION_PROPERTY + " is not set", Boolean.getBoolean(ALLOCATION_PROPERTY));
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        final OutputStream sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+        final int iterations = 100000;
+        final long tid = Thread.currentThread().getId();
+        long before = Long.MAX_VALUE;
+        long after = Long.MAX_VALUE;
+        // The first rounds warm up both paths; the lowest of all rounds is reported
+        for (int round = 0; round < 10; round++) {
+            long start = threads.getThreadAllocatedBytes(tid);
+            for (int i = 0; i < iterations; i++) {
+                writeMessage(new DataOutputStream(sink));
+            }
+            before = Math.min(before, (threads.getThreadAllocatedBytes(tid) - start) / iterations);
+            start = threads.getThreadAllocatedBytes(tid);
+            for (int i = 0; i < iterations; i++) {
+                writeMessage(FlushableDataOutputImpl.create(sink));
+            }
+            after = Math.min(after, (threads.getThreadAllocatedBytes(tid) - start) / iterations);
+        }
+        System.out.printf("Bytes allocated per message: DataOutputStream %d, FlushableDataOutputImpl %d%n", before, after);
+        Assert.assertTrue(before + " <= " + after, after < before);
+    }
+
+    private static void writeMessage(final DataOutput output) throws IOException {
+        output.writeByte(ManagementProtocol.TYPE_REQUEST);
+        output.writeInt(Integer.MIN_VALUE);
+        output.writeLong(Long.MAX_VALUE);
+        output.writeShort(-2);
+        output.writeChar('\u20ac');
+        output.writeBoolean(true);
+        output.writeFloat(1.5f);
+        output.writeDouble(-0.25d);
+        output.write(new byte[] {1, 2, 3});
+        output.writeUTF("");
+        output.writeUTF("subsystem=logging/console-handler=CONSOLE:write-attribute(level=DEBUG)");
+        output.writeUTF(new String(CHARS));
+        output.writeBytes("abc");
+        output.writeChars("def");
+    }
+
+    private static String randomString(final int length) {
+        final StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(i % 7 == 0 ? 'a' : CHARS[i % CHARS.length]);
+        }
+        return builder.toString();
+    }
+}
@@ -42,6 +42,14 @@ public class RuntimeExpressionResolver extends ExpressionResolverImpl {
         this.vaultReader = vaultReader;
     }
 
+    /**
+     * Whether an expression is vault data only depends on its format, so declined expressions can be remembered.
+     */
+    @Override
+    protected boolean isPluggableResolutionCacheable() {
+        return true;
+    }
+
     @Override
     protected void resolvePluggableExpression(ModelNode node) throws OperationFailedException {
         String expression = node.asString();
@@ -58,6 +58,7 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProcessType;
 import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.RunningModeControl;
+import org.jboss.as.controller.VirtualThreadExecutor;
 import org.jboss.as.controller.access.management.DelegatingConfigurableAuthorizer;
 import org.jboss.as.controller.access.management.ManagementSecurityIdentitySupplier;
 import org.jboss.as.controller.audit.ManagedAuditLogger;
@@ -518,6 +519,7 @@ public final class ServerService extends AbstractControllerService {
         private static final int DEFAULT_CORE_POOL_SIZE = 1;
         private static final int DEFAULT_DOMAIN_CORE_POOL_SIZE = 3; // keep more threads in a domain server as the intra-process comms use more tasks
         private static final String CONFIG_SYS_PROP = "org.jboss.as.server-service.core.threads";
+        private static final String VIRTUAL_THREADS_SYS_PROP = "org.jboss.as.server-service.virtual-threads";
 
         private final ThreadFactory threadFactory;
         private final boolean forDomain;
@@ -530,7 +532,10 @@ public final class ServerService extends AbstractControllerService {
 
         @Override
         public synchronized void start(StartContext context) throws StartException {
-            if (EnhancedQueueExecutor.DISABLE_HINT) {
+            if (Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(VIRTUAL_THREADS_SYS_PROP, "false"))
+                    && VirtualThreadExecutor.isVirtualThreadSupported()) {
+                executorService = new VirtualThreadExecutor("ServerService", threadFactory, Integer.MAX_VALUE, null);
+            } else if (EnhancedQueueExecutor.DISABLE_HINT) {
                 executorService = new ThreadPoolExecutor(getCorePoolSize(forDomain), Integer.MAX_VALUE, 20L, TimeUnit.SECONDS,
                         new SynchronousQueue<Runnable>(), threadFactory);
             } else {
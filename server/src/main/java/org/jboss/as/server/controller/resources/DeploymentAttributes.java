@@ -153,6 +153,39 @@ public class DeploymentAttributes {
             .addFlag(AttributeAccess.Flag.RUNTIME_SERVICE_NOT_REQUIRED)
             .build();
 
+    public static final SimpleAttributeDefinition PROCESSOR_DEPLOYMENT_UNIT = SimpleAttributeDefinitionBuilder.create("deployment-unit", ModelType.STRING)
+            .build();
+    public static final SimpleAttributeDefinition PROCESSOR_PHASE = SimpleAttributeDefinitionBuilder.create("phase", ModelType.STRING)
+            .build();
+    public static final SimpleAttributeDefinition PROCESSOR_PRIORITY = SimpleAttributeDefinitionBuilder.create("priority", ModelType.INT)
+            .build();
+    public static final SimpleAttributeDefinition PROCESSOR_CLASS = SimpleAttributeDefinitionBuilder.create("processor", ModelType.STRING)
+            .build();
+    public static final SimpleAttributeDefinition PROCESSOR_SUBSYSTEM = SimpleAttributeDefinitionBuilder.create(ModelDescriptionConstants.SUBSYSTEM, ModelType.STRING, true)
+            .build();
+    public static final SimpleAttributeDefinition PROCESSOR_INVOCATIONS = SimpleAttributeDefinitionBuilder.create("invocations", ModelType.LONG)
+            .build();
+    public static final SimpleAttributeDefinition PROCESSOR_WALL_TIME = SimpleAttributeDefinitionBuilder.create("wall-time", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+            .build();
+    public static final SimpleAttributeDefinition PROCESSOR_CPU_TIME = SimpleAttributeDefinitionBuilder.create("cpu-time", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+            .build();
+    public static final SimpleAttributeDefinition PROCESSOR_ALLOCATED_BYTES = SimpleAttributeDefinitionBuilder.create("allocated-bytes", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .build();
+
+    public static final ObjectTypeAttributeDefinition PROCESSOR_METRIC = ObjectTypeAttributeDefinition.Builder.of("processor-metric",
+            PROCESSOR_DEPLOYMENT_UNIT, PROCESSOR_PHASE, PROCESSOR_PRIORITY, PROCESSOR_CLASS, PROCESSOR_SUBSYSTEM,
+            PROCESSOR_INVOCATIONS, PROCESSOR_WALL_TIME, PROCESSOR_CPU_TIME, PROCESSOR_ALLOCATED_BYTES)
+            .setStorageRuntime()
+            .build();
+
+    public static final AttributeDefinition PROCESSOR_METRICS = ObjectListAttributeDefinition.Builder.of("processor-metrics", PROCESSOR_METRIC)
+            .setStorageRuntime()
+            .setRequired(false)
+            .build();
+
     //Managed content value attributes
     public static final AttributeDefinition EMPTY =
             createContentValueTypeAttribute(ModelDescriptionConstants.EMPTY, ModelType.BOOLEAN, new ModelTypeValidator(ModelType.BOOLEAN, true), false,
@@ -326,7 +359,7 @@ public class DeploymentAttributes {
 
 
     /** Attributes for server deployment resource */
-    public static final AttributeDefinition[] SERVER_RESOURCE_ATTRIBUTES = new AttributeDefinition[] {NAME, RUNTIME_NAME, CONTENT_RESOURCE_ALL, ENABLED, PERSISTENT, OWNER, STATUS, ENABLED_TIME, ENABLED_TIMESTAMP, DISABLED_TIME, DISABLED_TIMESTAMP, MANAGED};
+    public static final AttributeDefinition[] SERVER_RESOURCE_ATTRIBUTES = new AttributeDefinition[] {NAME, RUNTIME_NAME, CONTENT_RESOURCE_ALL, ENABLED, PERSISTENT, OWNER, STATUS, ENABLED_TIME, ENABLED_TIMESTAMP, DISABLED_TIME, DISABLED_TIMESTAMP, MANAGED, PROCESSOR_METRICS};
 
     /** Attributes for server deployment add */
     public static final AttributeDefinition[] SERVER_ADD_ATTRIBUTES = new AttributeDefinition[] { RUNTIME_NAME_NILLABLE, CONTENT_PARAM_ALL, ENABLED};// 'hide' the persistent and owner attributes from users
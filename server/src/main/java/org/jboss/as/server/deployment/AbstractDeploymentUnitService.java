@@ -133,6 +133,11 @@ public abstract class AbstractDeploymentUnitService implements Service<Deploymen
         } else {
             ServerLogger.DEPLOYMENT_LOGGER.stoppedSubDeployment(deploymentName, (int) (context.getElapsedTime() / 1000000L));
         }
+        // A deployment stopped before finishing its boot phases must not hold on to the boot scheduler's state
+        final BootDeploymentScheduler scheduler = this.deploymentUnit.getAttachment(BootDeploymentScheduler.ATTACHMENT_KEY);
+        if (scheduler != null) {
+            scheduler.finished(this.deploymentUnit.getName());
+        }
         // Retain any attached builder across restarts
         this.phaseBuilder = this.deploymentUnit.getAttachment(Attachments.DEPLOYMENT_UNIT_PHASE_BUILDER);
         //clear up all attachments
@@ -174,6 +179,10 @@ public abstract class AbstractDeploymentUnitService implements Service<Deploymen
         return deployerChainsInjector;
     }
 
+    DeployerChains getDeployerChains() {
+        return deployerChainsInjector.getValue();
+    }
+
     public enum DeploymentStatus {
         NEW,
         OK,
@@ -199,6 +199,18 @@ public final class Attachments {
      */
     public static final AttachmentKey<Boolean> INDEX_RESOURCE_ROOT = AttachmentKey.create(Boolean.class);
 
+    /**
+     * The maximum number of resource roots of a deployment unit that the
+     * {@link org.jboss.as.server.deployment.annotation.AnnotationIndexProcessor} indexes concurrently. The limit
+     * applies to each deployment unit separately: the deployment roots of the modules of an ear are resource roots of
+     * the ear and are indexed together with its other roots, while the remaining roots of each subdeployment are
+     * indexed by the subdeployment's own {@link Phase#PARSE} phase, which may run at the same time as those of its
+     * siblings. This is read from the top level deployment unit and must be attached before the {@link Phase#PARSE}
+     * phase. If it is not present the value of the {@code org.jboss.as.server.deployment.indexing-parallelism} system
+     * property is used, which defaults to {@code 1}, i.e. sequential indexing.
+     */
+    public static final AttachmentKey<Integer> INDEXING_PARALLELISM = AttachmentKey.create(Integer.class);
+
      /**
      * A list of paths within a root to ignore when indexing.
      */
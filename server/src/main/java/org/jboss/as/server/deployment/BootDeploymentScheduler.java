@@ -0,0 +1,270 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.server.logging.ServerLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Schedules the deployment phases of the top level deployments installed during boot.
+ * <p/>
+ * Without scheduling, the phases of all boot deployments compete for the MSC executor in whatever order they become
+ * ready, so a deployment that others declared a dependency on (via {@code jboss-deployment-dependencies}) may be
+ * processed last, leaving a long serial tail of dependent deployments. This scheduler admits at most a configured
+ * number of phases at a time and, whenever a slot frees up, admits the waiting phase whose deployment heads the
+ * longest chain of dependent deployments. Dependencies are learnt from {@link #addDependencies(String, Collection)}
+ * as each deployment's structure is processed, so the ordering improves as boot progresses.
+ * <p/>
+ * The time spent in each phase of each scheduled deployment is recorded and logged at debug level once the
+ * deployment has finished its last phase. Once every registered deployment has finished or failed, the learnt
+ * dependencies and any remaining phase times are discarded, as they are of no use after boot.
+ */
+public final class BootDeploymentScheduler {
+
+    /**
+     * Attached to top level deployment units whose phases should be scheduled.
+     */
+    public static final AttachmentKey<BootDeploymentScheduler> ATTACHMENT_KEY = AttachmentKey.create(BootDeploymentScheduler.class);
+
+    /**
+     * The maximum number of boot deployment phases executed concurrently. A value of zero or less, the default,
+     * disables scheduling.
+     */
+    static final String PARALLELISM_PROPERTY = "org.jboss.as.server.deployment.boot-parallelism";
+
+    private static final int DEFAULT_PARALLELISM = 0;
+
+    private final int parallelism;
+    /** dependency deployment name -> names of the deployments that declared a dependency on it */
+    private final Map<String, Set<String>> dependents = new HashMap<>();
+    private final List<ScheduledPhase> waiting = new ArrayList<>();
+    private final Map<String, Map<Phase, Long>> phaseTimes = new HashMap<>();
+    private final Set<String> active = new HashSet<>();
+    private int running;
+    private long sequence;
+
+    BootDeploymentScheduler(final int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Creates a scheduler using the configured parallelism.
+     *
+     * @return the scheduler, or {@code null} if scheduling is disabled, which it is unless
+     *         {@value #PARALLELISM_PROPERTY} is set to a positive number
+     */
+    static BootDeploymentScheduler create() {
+        final int parallelism = getParallelism(WildFlySecurityManager.getPropertyPrivileged(PARALLELISM_PROPERTY, null));
+        return parallelism > 0 ? new BootDeploymentScheduler(parallelism) : null;
+    }
+
+    static int getParallelism(final String value) {
+        if (value == null) {
+            return DEFAULT_PARALLELISM;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.invalidSystemPropertyInteger(value, PARALLELISM_PROPERTY, DEFAULT_PARALLELISM);
+            return DEFAULT_PARALLELISM;
+        }
+    }
+
+    /**
+     * Registers a boot deployment whose phases will be scheduled.
+     *
+     * @param deployment the runtime name of the deployment
+     */
+    synchronized void register(final String deployment) {
+        active.add(deployment);
+    }
+
+    /**
+     * Notes that a registered deployment will not schedule any further phase, either because it failed or because
+     * it was stopped. Once no registered deployment remains, all boot state is discarded.
+     *
+     * @param deployment the runtime name of the deployment
+     */
+    synchronized void finished(final String deployment) {
+        phaseTimes.remove(deployment);
+        if (active.remove(deployment) && active.isEmpty()) {
+            dependents.clear();
+            phaseTimes.clear();
+        }
+    }
+
+    /**
+     * Whether the scheduler holds no state for any deployment.
+     */
+    synchronized boolean isIdle() {
+        return active.isEmpty() && dependents.isEmpty() && phaseTimes.isEmpty() && waiting.isEmpty() && running == 0;
+    }
+
+    /**
+     * Records the deployments a deployment declared a dependency on.
+     *
+     * @param deployment the runtime name of the dependent deployment
+     * @param dependencies the runtime names of the deployments it depends on
+     */
+    public synchronized void addDependencies(final String deployment, final Collection<String> dependencies) {
+        for (String dependency : dependencies) {
+            dependents.computeIfAbsent(dependency, name -> new HashSet<>()).add(deployment);
+        }
+    }
+
+    /**
+     * Schedules the execution of a deployment phase.
+     *
+     * @param deployment the runtime name of the deployment
+     * @param executor the executor to run the phase on once it is admitted
+     * @param phase the task executing the phase
+     */
+    void schedule(final String deployment, final Executor executor, final Runnable phase) {
+        synchronized (this) {
+            waiting.add(new ScheduledPhase(deployment, sequence++, executor, phase));
+        }
+        admit();
+    }
+
+    /**
+     * Records the time taken by a phase of a deployment.
+     *
+     * @param deployment the runtime name of the deployment
+     * @param phase the phase
+     * @param nanos the elapsed time, in nanoseconds
+     * @param last whether no further phase will be recorded for the deployment
+     */
+    void recordPhase(final String deployment, final Phase phase, final long nanos, final boolean last) {
+        final Map<Phase, Long> times;
+        synchronized (this) {
+            times = phaseTimes.computeIfAbsent(deployment, name -> new EnumMap<>(Phase.class));
+            times.put(phase, nanos);
+            if (!last) {
+                return;
+            }
+            finished(deployment);
+        }
+        if (ServerLogger.DEPLOYMENT_LOGGER.isDebugEnabled()) {
+            final StringBuilder builder = new StringBuilder();
+            for (Map.Entry<Phase, Long> entry : times.entrySet()) {
+                if (builder.length() > 0) {
+                    builder.append(", ");
+                }
+                builder.append(entry.getKey()).append('=').append(TimeUnit.NANOSECONDS.toMillis(entry.getValue())).append("ms");
+            }
+            ServerLogger.DEPLOYMENT_LOGGER.debugf("Boot deployment %s phase times: %s", deployment, builder);
+        }
+    }
+
+    private void admit() {
+        for (;;) {
+            final ScheduledPhase next;
+            synchronized (this) {
+                if (running >= parallelism || waiting.isEmpty()) {
+                    return;
+                }
+                next = nextPhase();
+                running++;
+            }
+            next.executor.execute(() -> {
+                try {
+                    next.task.run();
+                } finally {
+                    synchronized (this) {
+                        running--;
+                    }
+                    admit();
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes and returns the waiting phase with the longest chain of dependent deployments, earliest first on ties.
+     */
+    private ScheduledPhase nextPhase() {
+        assert Thread.holdsLock(this);
+        final Map<String, Integer> lengths = new HashMap<>();
+        ScheduledPhase best = null;
+        int bestLength = -1;
+        for (ScheduledPhase candidate : waiting) {
+            final int length = dependentChainLength(candidate.deployment, lengths, new HashSet<>());
+            if (length > bestLength || (length == bestLength && candidate.sequence < best.sequence)) {
+                best = candidate;
+                bestLength = length;
+            }
+        }
+        final Iterator<ScheduledPhase> iterator = waiting.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() == best) {
+                iterator.remove();
+                break;
+            }
+        }
+        return best;
+    }
+
+    private int dependentChainLength(final String deployment, final Map<String, Integer> lengths, final Set<String> visiting) {
+        final Integer known = lengths.get(deployment);
+        if (known != null) {
+            return known;
+        }
+        int length = 0;
+        final Set<String> directDependents = dependents.get(deployment);
+        if (directDependents != null && visiting.add(deployment)) {
+            // a cycle cannot deploy anyway, so it is simply not followed
+            for (String dependent : directDependents) {
+                length = Math.max(length, 1 + dependentChainLength(dependent, lengths, visiting));
+            }
+            visiting.remove(deployment);
+        }
+        lengths.put(deployment, length);
+        return length;
+    }
+
+    private static final class ScheduledPhase {
+        private final String deployment;
+        private final long sequence;
+        private final Executor executor;
+        private final Runnable task;
+
+        private ScheduledPhase(final String deployment, final long sequence, final Executor executor, final Runnable task) {
+            this.deployment = deployment;
+            this.sequence = sequence;
+            this.executor = executor;
+            this.task = task;
+        }
+    }
+}
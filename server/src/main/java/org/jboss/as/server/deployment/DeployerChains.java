@@ -32,6 +32,7 @@ import java.util.List;
  */
 final class DeployerChains {
     private final EnumMap<Phase, List<RegisteredDeploymentUnitProcessor>> phases;
+    private final BootDeploymentScheduler bootDeploymentScheduler = BootDeploymentScheduler.create();
 
     DeployerChains(final EnumMap<Phase, List<RegisteredDeploymentUnitProcessor>> phases) {
         this.phases = phases;
@@ -40,4 +41,11 @@ final class DeployerChains {
     List<RegisteredDeploymentUnitProcessor> getChain(Phase phase) {
         return phases.get(phase);
     }
+
+    /**
+     * @return the scheduler for deployments installed during boot, or {@code null} if boot scheduling is disabled
+     */
+    BootDeploymentScheduler getBootDeploymentScheduler() {
+        return bootDeploymentScheduler;
+    }
 }
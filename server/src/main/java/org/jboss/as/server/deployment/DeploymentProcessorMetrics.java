@@ -0,0 +1,207 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_ALLOCATED_BYTES;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_CLASS;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_CPU_TIME;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_DEPLOYMENT_UNIT;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_INVOCATIONS;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_PHASE;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_PRIORITY;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_SUBSYSTEM;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_WALL_TIME;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Records the wall time, CPU time and allocated bytes of the {@link DeploymentUnitProcessor} invocations made while
+ * deploying a top level deployment and its subdeployments.
+ * <p/>
+ * The invocations of a processor for the same deployment unit and phase are added up in a single entry, so restarting
+ * a phase, e.g. because a dependency was redeployed, does not grow the recorded data.
+ * <p/>
+ * CPU time and allocated bytes are taken from the {@link ThreadMXBean} of the executing thread, and are reported as
+ * {@code -1} if the JVM does not support or has disabled the respective measurement.
+ */
+final class DeploymentProcessorMetrics {
+
+    static final AttachmentKey<DeploymentProcessorMetrics> ATTACHMENT_KEY = AttachmentKey.create(DeploymentProcessorMetrics.class);
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean ALLOCATION_MX_BEAN = getAllocationMXBean();
+
+    /** Guarded by itself; iterates in the order the processors first completed */
+    private final Map<Key, Totals> invocations = new LinkedHashMap<>();
+
+    /**
+     * Gets the metrics of the top level deployment the given unit belongs to.
+     *
+     * @param deploymentUnit the deployment unit
+     * @return the metrics, or {@code null} if none are attached
+     */
+    static DeploymentProcessorMetrics forDeploymentUnit(final DeploymentUnit deploymentUnit) {
+        return DeploymentUtils.getTopDeploymentUnit(deploymentUnit).getAttachment(ATTACHMENT_KEY);
+    }
+
+    /**
+     * Takes a sample of the current thread's counters, to be passed to
+     * {@link #record(DeploymentUnit, Phase, RegisteredDeploymentUnitProcessor, Sample)} once the processor has run
+     * on the same thread.
+     */
+    static Sample sample() {
+        return new Sample(System.nanoTime(), currentThreadCpuTime(), currentThreadAllocatedBytes());
+    }
+
+    void record(final DeploymentUnit deploymentUnit, final Phase phase, final RegisteredDeploymentUnitProcessor processor, final Sample start) {
+        final long wallTime = System.nanoTime() - start.wallTime;
+        final long cpuTime = start.cpuTime < 0 ? -1 : currentThreadCpuTime() - start.cpuTime;
+        final long allocatedBytes = start.allocatedBytes < 0 ? -1 : currentThreadAllocatedBytes() - start.allocatedBytes;
+
+        final Key key = new Key(deploymentUnit.getName(), phase, processor.getPriority(), processor.getProcessor().getClass().getName(),
+                processor.getSubsystemName());
+        synchronized (invocations) {
+            invocations.computeIfAbsent(key, k -> new Totals()).add(wallTime, cpuTime, allocatedBytes);
+        }
+    }
+
+    /**
+     * @return one entry per processor and deployment unit, in the order the processors first completed
+     */
+    ModelNode toModelNode() {
+        final ModelNode result = new ModelNode().setEmptyList();
+        synchronized (invocations) {
+            for (Map.Entry<Key, Totals> entry : invocations.entrySet()) {
+                final Key key = entry.getKey();
+                final Totals totals = entry.getValue();
+                final ModelNode invocation = new ModelNode();
+                invocation.get(PROCESSOR_DEPLOYMENT_UNIT.getName()).set(key.deploymentUnit);
+                invocation.get(PROCESSOR_PHASE.getName()).set(key.phase.name());
+                invocation.get(PROCESSOR_PRIORITY.getName()).set(key.priority);
+                invocation.get(PROCESSOR_CLASS.getName()).set(key.processorClass);
+                if (key.subsystem != null) {
+                    invocation.get(PROCESSOR_SUBSYSTEM.getName()).set(key.subsystem);
+                }
+                invocation.get(PROCESSOR_INVOCATIONS.getName()).set(totals.invocations);
+                invocation.get(PROCESSOR_WALL_TIME.getName()).set(totals.wallTime);
+                invocation.get(PROCESSOR_CPU_TIME.getName()).set(totals.cpuTime);
+                invocation.get(PROCESSOR_ALLOCATED_BYTES.getName()).set(totals.allocatedBytes);
+                result.add(invocation);
+            }
+        }
+        return result;
+    }
+
+    private static long currentThreadCpuTime() {
+        return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        return ALLOCATION_MX_BEAN != null ? ALLOCATION_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationMXBean() {
+        try {
+            if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+                final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+                if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                    return bean;
+                }
+            }
+        } catch (LinkageError e) {
+            // the extended bean is not available on this JVM
+        }
+        return null;
+    }
+
+    private static final class Key {
+        private final String deploymentUnit;
+        private final Phase phase;
+        private final int priority;
+        private final String processorClass;
+        private final String subsystem;
+
+        private Key(final String deploymentUnit, final Phase phase, final int priority, final String processorClass, final String subsystem) {
+            this.deploymentUnit = deploymentUnit;
+            this.phase = phase;
+            this.priority = priority;
+            this.processorClass = processorClass;
+            this.subsystem = subsystem;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return priority == other.priority && phase == other.phase && deploymentUnit.equals(other.deploymentUnit)
+                    && processorClass.equals(other.processorClass) && Objects.equals(subsystem, other.subsystem);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(deploymentUnit, phase, priority, processorClass, subsystem);
+        }
+    }
+
+    /** Sums of the invocations of one processor; a total stays {@code -1} once a measurement was not available */
+    private static final class Totals {
+        private long invocations;
+        private long wallTime;
+        private long cpuTime;
+        private long allocatedBytes;
+
+        private void add(final long wallTime, final long cpuTime, final long allocatedBytes) {
+            this.invocations++;
+            this.wallTime += wallTime;
+            this.cpuTime = add(this.cpuTime, cpuTime);
+            this.allocatedBytes = add(this.allocatedBytes, allocatedBytes);
+        }
+
+        private long add(final long total, final long value) {
+            return total < 0 || value < 0 ? -1 : total + value;
+        }
+    }
+
+    static final class Sample {
+        private final long wallTime;
+        private final long cpuTime;
+        private final long allocatedBytes;
+
+        private Sample(final long wallTime, final long cpuTime, final long allocatedBytes) {
+            this.wallTime = wallTime;
+            this.cpuTime = cpuTime;
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+}
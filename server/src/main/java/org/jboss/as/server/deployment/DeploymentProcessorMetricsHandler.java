@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.ENABLED;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.RUNTIME_NAME;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the {@link DeploymentUnitProcessor} invocation metrics of a deployed deployment.
+ */
+public class DeploymentProcessorMetricsHandler implements OperationStepHandler {
+
+    public static final OperationStepHandler INSTANCE = new DeploymentProcessorMetricsHandler();
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final ModelNode deployment = context.readResource(PathAddress.EMPTY_ADDRESS).getModel();
+        if (!ENABLED.resolveModelAttribute(context, deployment).asBoolean()) {
+            return;
+        }
+        final String runtimeName = RUNTIME_NAME.resolveModelAttribute(context, deployment).asString();
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(final OperationContext context, final ModelNode operation) {
+                final ServiceController<?> controller = context.getServiceRegistry(false).getService(Services.deploymentUnitName(runtimeName));
+                if (controller != null && controller.getState() == ServiceController.State.UP) {
+                    final DeploymentUnit deploymentUnit;
+                    try {
+                        deploymentUnit = (DeploymentUnit) controller.getValue();
+                    } catch (IllegalStateException e) {
+                        // the deployment went down in the meantime
+                        return;
+                    }
+                    final DeploymentProcessorMetrics metrics = deploymentUnit != null ? deploymentUnit.getAttachment(DeploymentProcessorMetrics.ATTACHMENT_KEY) : null;
+                    if (metrics != null) {
+                        context.getResult().set(metrics.toModelNode());
+                    }
+                }
+            }
+        }, OperationContext.Stage.RUNTIME);
+    }
+}
@@ -39,6 +39,7 @@ import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.repository.ContentRepository;
+import org.jboss.as.server.deployment.annotation.ResourceRootIndexCache;
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.services.security.AbstractVaultReader;
 import org.jboss.dmr.ModelNode;
@@ -105,6 +106,7 @@ public class DeploymentRemoveHandler implements OperationStepHandler {
                                     ServerLogger.ROOT_LOGGER.deploymentUndeployed(managementName, runtimeName);
                                 }
                                 removeContent(context, removedHashes, name);
+                                ResourceRootIndexCache.invalidate(name);
                             }
                         }
                     });
@@ -115,6 +115,35 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             return;
         }
         runOnce.set(true);
+        final BootDeploymentScheduler scheduler = deploymentUnit.getParent() == null ? deploymentUnit.getAttachment(BootDeploymentScheduler.ATTACHMENT_KEY) : null;
+        // The structure phase is never held back, as it is what declares the inter-deployment dependencies used for scheduling
+        if (scheduler != null && phase != Phase.STRUCTURE) {
+            context.asynchronous();
+            scheduler.schedule(deploymentUnit.getName(), context::execute, () -> {
+                synchronized (this) {
+                    try {
+                        executePhase(context, scheduler);
+                        context.complete();
+                    } catch (Throwable t) {
+                        // The start context must always be completed or failed, or the phase service hangs in STARTING
+                        scheduler.finished(deploymentUnit.getName());
+                        context.failed(t instanceof StartException ? (StartException) t : new StartException(t));
+                    }
+                }
+            });
+        } else {
+            try {
+                executePhase(context, scheduler);
+            } catch (Throwable t) {
+                if (scheduler != null) {
+                    scheduler.finished(deploymentUnit.getName());
+                }
+                throw t;
+            }
+        }
+    }
+
+    private void executePhase(final StartContext context, final BootDeploymentScheduler scheduler) throws StartException {
         final DeployerChains chains = deployerChainsInjector.getValue();
         final DeploymentUnit deploymentUnit = this.deploymentUnit;
         final List<RegisteredDeploymentUnitProcessor> list = chains.getChain(phase);
@@ -169,13 +198,22 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
+        final DeploymentProcessorMetrics metrics = DeploymentProcessorMetrics.forDeploymentUnit(deploymentUnit);
+        final long phaseStart = System.nanoTime();
         while (iterator.hasNext()) {
             final RegisteredDeploymentUnitProcessor processor = iterator.next();
             try {
                 if (shouldRun(deploymentUnit, processor)) {
+                    final DeploymentProcessorMetrics.Sample sample = metrics != null ? DeploymentProcessorMetrics.sample() : null;
                     processor.getProcessor().deploy(processorContext);
+                    if (metrics != null) {
+                        metrics.record(deploymentUnit, phase, processor, sample);
+                    }
                 }
             } catch (Throwable e) {
+                if (scheduler != null) {
+                    scheduler.recordPhase(deploymentUnit.getName(), phase, System.nanoTime() - phaseStart, true);
+                }
                 while (iterator.hasPrevious()) {
                     final RegisteredDeploymentUnitProcessor prev = iterator.previous();
                     safeUndeploy(deploymentUnit, phase, prev);
@@ -183,6 +221,9 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
                 throw ServerLogger.ROOT_LOGGER.deploymentPhaseFailed(phase, deploymentUnit, e);
             }
         }
+        if (scheduler != null) {
+            scheduler.recordPhase(deploymentUnit.getName(), phase, System.nanoTime() - phaseStart, phase.next() == null);
+        }
 
         final Phase nextPhase = phase.next();
         if (nextPhase != null) {
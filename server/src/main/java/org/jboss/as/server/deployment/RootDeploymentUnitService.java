@@ -48,6 +48,7 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
     private final DeploymentUnit parent;
     private final DeploymentOverlayIndex deploymentOverlays;
     private final boolean isExplodedContent;
+    private volatile boolean boot;
 
     /**
      * Construct a new instance.
@@ -61,11 +62,13 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
      * @param vaultReader the vault reader
      * @param deploymentOverlays the deployment overlays
      * @param exploded the deployment has been exploded
+     * @param boot the deployment is installed during boot
      */
     public RootDeploymentUnitService(final String name, final String managementName, final DeploymentUnit parent,
                                      final ImmutableManagementResourceRegistration registration, final ManagementResourceRegistration mutableRegistration,
                                      final Resource resource, final CapabilityServiceSupport capabilityServiceSupport,
-                                     final AbstractVaultReader vaultReader, DeploymentOverlayIndex deploymentOverlays, boolean exploded) {
+                                     final AbstractVaultReader vaultReader, DeploymentOverlayIndex deploymentOverlays, boolean exploded,
+                                     boolean boot) {
         super(registration, mutableRegistration, resource, capabilityServiceSupport, vaultReader);
         assert name != null : "name is null";
         this.name = name;
@@ -73,6 +76,7 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
         this.parent = parent;
         this.deploymentOverlays = deploymentOverlays;
         this.isExplodedContent = exploded;
+        this.boot = boot;
     }
 
     protected DeploymentUnit createAndInitializeDeploymentUnit(final ServiceRegistry registry) {
@@ -88,9 +92,19 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
         deploymentUnit.putAttachment(Attachments.VAULT_READER_ATTACHMENT_KEY, vaultReader);
         deploymentUnit.putAttachment(Attachments.DEPLOYMENT_OVERLAY_INDEX, deploymentOverlays);
         deploymentUnit.putAttachment(Attachments.PATH_MANAGER, pathManagerInjector.getValue());
+        deploymentUnit.putAttachment(DeploymentProcessorMetrics.ATTACHMENT_KEY, new DeploymentProcessorMetrics());
         if(this.isExplodedContent) {
             MountExplodedMarker.setMountExploded(deploymentUnit);
         }
+        // Only the initial start during boot is scheduled, not any later restart
+        if (this.boot) {
+            this.boot = false;
+            final BootDeploymentScheduler scheduler = getDeployerChains().getBootDeploymentScheduler();
+            if (scheduler != null) {
+                scheduler.register(deploymentUnit.getName());
+                deploymentUnit.putAttachment(BootDeploymentScheduler.ATTACHMENT_KEY, scheduler);
+            }
+        }
 
         // Attach the deployment repo
         deploymentUnit.putAttachment(Attachments.SERVER_DEPLOYMENT_REPOSITORY, serverDeploymentRepositoryInjector.getValue());
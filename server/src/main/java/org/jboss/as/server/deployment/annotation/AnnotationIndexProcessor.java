@@ -22,12 +22,23 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.as.server.Services;
+import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentUtils;
 import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.as.server.logging.ServerLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
@@ -37,6 +48,9 @@ import org.jboss.as.server.deployment.module.ResourceRoot;
  */
 public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
+    private static final String INDEXING_PARALLELISM = "org.jboss.as.server.deployment.indexing-parallelism";
+    private static final int DEFAULT_PARALLELISM = 1;
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -47,11 +61,86 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
-        for (ResourceRoot resourceRoot : DeploymentUtils.allResourceRoots(deploymentUnit)) {
-            ResourceRootIndexer.indexResourceRoot(resourceRoot);
+        final ResourceRootIndexCache cache = ResourceRootIndexCache.forDeployment(deploymentUnit);
+        final List<ResourceRoot> resourceRoots = DeploymentUtils.allResourceRoots(deploymentUnit);
+        final Integer parallelism = DeploymentUtils.getTopDeploymentUnit(deploymentUnit).getAttachment(Attachments.INDEXING_PARALLELISM);
+        final int workers = Math.min(parallelism != null ? parallelism : SystemParallelism.VALUE, resourceRoots.size());
+        if (workers > 1) {
+            final Executor executor = (Executor) phaseContext.getServiceRegistry().getRequiredService(Services.JBOSS_SERVER_EXECUTOR).getValue();
+            indexConcurrently(resourceRoots, cache, executor, workers);
+        } else {
+            for (ResourceRoot resourceRoot : resourceRoots) {
+                ResourceRootIndexer.indexResourceRoot(resourceRoot, cache);
+            }
+        }
+    }
+
+    /**
+     * Indexes the resource roots using up to the given number of threads, one of which is the calling thread. For an
+     * ear, the deployment roots of its modules are resource roots of the ear itself, so they are indexed here in
+     * parallel; the other roots of a module, e.g. the jars in {@code WEB-INF/lib}, are indexed when the processor runs
+     * for the subdeployment.
+     */
+    private static void indexConcurrently(final List<ResourceRoot> resourceRoots, final ResourceRootIndexCache cache,
+                                          final Executor executor, final int workers) throws DeploymentUnitProcessingException {
+        final Queue<ResourceRoot> pending = new ConcurrentLinkedQueue<>(resourceRoots);
+        // counts roots rather than workers, so the caller never waits on a worker that has not started
+        final CountDownLatch remaining = new CountDownLatch(resourceRoots.size());
+        final AtomicReference<DeploymentUnitProcessingException> failure = new AtomicReference<>();
+        final Runnable worker = () -> {
+            ResourceRoot resourceRoot;
+            while ((resourceRoot = pending.poll()) != null) {
+                try {
+                    if (failure.get() == null) {
+                        ResourceRootIndexer.indexResourceRoot(resourceRoot, cache);
+                    }
+                } catch (DeploymentUnitProcessingException e) {
+                    failure.compareAndSet(null, e);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, new DeploymentUnitProcessingException(e));
+                } finally {
+                    remaining.countDown();
+                }
+            }
+        };
+        for (int i = 1; i < workers; i++) {
+            executor.execute(worker);
+        }
+        worker.run();
+        try {
+            remaining.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeploymentUnitProcessingException(e);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
         }
     }
 
     public void undeploy(final DeploymentUnit context) {
     }
+
+    /**
+     * The value of the {@value #INDEXING_PARALLELISM} system property, parsed the first time a deployment without the
+     * {@link Attachments#INDEXING_PARALLELISM} attachment is indexed.
+     */
+    private static final class SystemParallelism {
+        private static final int VALUE = parse(WildFlySecurityManager.getPropertyPrivileged(INDEXING_PARALLELISM, null));
+
+        private static int parse(final String value) {
+            if (value != null) {
+                try {
+                    final int parallelism = Integer.parseInt(value.trim());
+                    if (parallelism > 0) {
+                        return parallelism;
+                    }
+                } catch (NumberFormatException e) {
+                    // reported below
+                }
+                ServerLogger.DEPLOYMENT_LOGGER.invalidSystemPropertyPositiveInteger(value, INDEXING_PARALLELISM, DEFAULT_PARALLELISM);
+            }
+            return DEFAULT_PARALLELISM;
+        }
+    }
 }
@@ -43,6 +43,13 @@ public class CleanupAnnotationIndexProcessor implements DeploymentUnitProcessor
         for(final ResourceRoot root : DeploymentUtils.allResourceRoots(deploymentUnit)) {
             root.removeAttachment(Attachments.ANNOTATION_INDEX);
         }
+        if (deploymentUnit.getParent() == null) {
+            // all subdeployments are past indexing by now, so anything not used by this deployment is stale
+            final ResourceRootIndexCache cache = ResourceRootIndexCache.forDeployment(deploymentUnit);
+            if (cache != null) {
+                cache.retainUsed();
+            }
+        }
 
     }
 
@@ -35,15 +35,35 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Composite annotation index.  Represents an annotation index for an entire deployment.
+ * <p/>
+ * The results of the lookup methods are merged across all underlying indexes once per name and then memoized, as
+ * the same questions tend to be asked by many deployment unit processors. The underlying indexes must therefore not
+ * be modified once the composite index has been created. Instances are safe for concurrent use.
+ * <p/>
+ * {@link #getAnnotations(DotName)}, {@link #getKnownDirectSubclasses(DotName)},
+ * {@link #getKnownDirectImplementors(DotName)} and {@link #getKnownClasses()} return unmodifiable collections, as they
+ * always have, but the same instance is now returned to every caller asking for the same name. Callers must copy a
+ * result before modifying it, and must not rely on it being a collection of their own, e.g. by synchronizing on it.
+ * {@link #getAllKnownSubclasses(DotName)} and {@link #getAllKnownImplementors(DotName)} still return a new mutable set
+ * on each call.
  *
  * @author John Bailey
  */
 public class CompositeIndex {
     final Collection<Index> indexes;
 
+    private final ConcurrentMap<DotName, List<AnnotationInstance>> annotations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> directSubclasses = new ConcurrentHashMap<>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> allSubclasses = new ConcurrentHashMap<>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> directImplementors = new ConcurrentHashMap<>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> allImplementors = new ConcurrentHashMap<>();
+    private volatile Collection<ClassInfo> knownClasses;
+
     public CompositeIndex(final Collection<Index> indexes) {
         this.indexes = indexes;
     }
@@ -56,9 +76,14 @@ public class CompositeIndex {
     }
 
     /**
+     * @return an unmodifiable collection, shared with the other callers asking for the same name
      * @see {@link Index#getAnnotations(org.jboss.jandex.DotName)}
      */
     public List<AnnotationInstance> getAnnotations(final DotName annotationName) {
+        return annotations.computeIfAbsent(annotationName, this::mergeAnnotations);
+    }
+
+    private List<AnnotationInstance> mergeAnnotations(final DotName annotationName) {
         final List<AnnotationInstance> allInstances = new ArrayList<AnnotationInstance>();
         for (Index index : indexes) {
             final List<AnnotationInstance> list = index.getAnnotations(annotationName);
@@ -70,9 +95,14 @@ public class CompositeIndex {
     }
 
     /**
+     * @return an unmodifiable collection, shared with the other callers asking for the same name
      * @see {@link Index#getKnownDirectSubclasses(org.jboss.jandex.DotName)}
      */
     public Set<ClassInfo> getKnownDirectSubclasses(final DotName className) {
+        return directSubclasses.computeIfAbsent(className, this::mergeKnownDirectSubclasses);
+    }
+
+    private Set<ClassInfo> mergeKnownDirectSubclasses(final DotName className) {
         final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
         for (Index index : indexes) {
             final List<ClassInfo> list = index.getKnownDirectSubclasses(className);
@@ -91,10 +121,13 @@ public class CompositeIndex {
      * @return All known subclasses
      */
     public Set<ClassInfo> getAllKnownSubclasses(final DotName className) {
-        final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
-        final Set<DotName> processedClasses = new HashSet<DotName>();
-        getAllKnownSubClasses(className, allKnown, processedClasses);
-        return allKnown;
+        // callers have always been handed a set of their own
+        return new HashSet<ClassInfo>(allSubclasses.computeIfAbsent(className, name -> {
+            final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
+            final Set<DotName> processedClasses = new HashSet<DotName>();
+            getAllKnownSubClasses(name, allKnown, processedClasses);
+            return Collections.unmodifiableSet(allKnown);
+        }));
     }
 
     private void getAllKnownSubClasses(DotName className, Set<ClassInfo> allKnown, Set<DotName> processedClasses) {
@@ -111,24 +144,24 @@ public class CompositeIndex {
 
     private void getAllKnownSubClasses(DotName name, Set<ClassInfo> allKnown, Set<DotName> subClassesToProcess,
             Set<DotName> processedClasses) {
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectSubclasses(name);
-            if (list != null) {
-                for (final ClassInfo clazz : list) {
-                    final DotName className = clazz.name();
-                    if (!processedClasses.contains(className)) {
-                        allKnown.add(clazz);
-                        subClassesToProcess.add(className);
-                    }
-                }
+        for (final ClassInfo clazz : getKnownDirectSubclasses(name)) {
+            final DotName className = clazz.name();
+            if (!processedClasses.contains(className)) {
+                allKnown.add(clazz);
+                subClassesToProcess.add(className);
             }
         }
     }
 
     /**
+     * @return an unmodifiable collection, shared with the other callers asking for the same name
      * @see {@link Index#getKnownDirectImplementors(DotName)}
      */
     public Set<ClassInfo> getKnownDirectImplementors(final DotName className) {
+        return directImplementors.computeIfAbsent(className, this::mergeKnownDirectImplementors);
+    }
+
+    private Set<ClassInfo> mergeKnownDirectImplementors(final DotName className) {
         final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
         for (Index index : indexes) {
             final List<ClassInfo> list = index.getKnownDirectImplementors(className);
@@ -150,6 +183,11 @@ public class CompositeIndex {
      * @return All known implementors of the interface
      */
     public Set<ClassInfo> getAllKnownImplementors(final DotName interfaceName) {
+        // callers have always been handed a set of their own
+        return new HashSet<ClassInfo>(allImplementors.computeIfAbsent(interfaceName, this::computeAllKnownImplementors));
+    }
+
+    private Set<ClassInfo> computeAllKnownImplementors(final DotName interfaceName) {
         final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
         final Set<DotName> subInterfacesToProcess = new HashSet<DotName>();
         final Set<DotName> processedClasses = new HashSet<DotName>();
@@ -161,26 +199,21 @@ public class CompositeIndex {
             processedClasses.add(name);
             getKnownImplementors(name, allKnown, subInterfacesToProcess, processedClasses);
         }
-        return allKnown;
+        return Collections.unmodifiableSet(allKnown);
     }
 
     private void getKnownImplementors(DotName name, Set<ClassInfo> allKnown, Set<DotName> subInterfacesToProcess,
             Set<DotName> processedClasses) {
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectImplementors(name);
-            if (list != null) {
-                for (final ClassInfo clazz : list) {
-                    final DotName className = clazz.name();
-                    if (!processedClasses.contains(className)) {
-                        if (Modifier.isInterface(clazz.flags())) {
-                            subInterfacesToProcess.add(className);
-                        } else {
-                            if (!allKnown.contains(clazz)) {
-                                allKnown.add(clazz);
-                                processedClasses.add(className);
-                                getAllKnownSubClasses(className, allKnown, processedClasses);
-                            }
-                        }
+        for (final ClassInfo clazz : getKnownDirectImplementors(name)) {
+            final DotName className = clazz.name();
+            if (!processedClasses.contains(className)) {
+                if (Modifier.isInterface(clazz.flags())) {
+                    subInterfacesToProcess.add(className);
+                } else {
+                    if (!allKnown.contains(clazz)) {
+                        allKnown.add(clazz);
+                        processedClasses.add(className);
+                        getAllKnownSubClasses(className, allKnown, processedClasses);
                     }
                 }
             }
@@ -201,17 +234,23 @@ public class CompositeIndex {
     }
 
     /**
+     * @return an unmodifiable collection, shared with the other callers
      * @see {@link org.jboss.jandex.Index#getKnownClasses()}
      */
     public Collection<ClassInfo> getKnownClasses() {
-        final List<ClassInfo> allKnown = new ArrayList<ClassInfo>();
-        for (Index index : indexes) {
-            final Collection<ClassInfo> list = index.getKnownClasses();
-            if (list != null) {
-                allKnown.addAll(list);
+        Collection<ClassInfo> knownClasses = this.knownClasses;
+        if (knownClasses == null) {
+            final List<ClassInfo> allKnown = new ArrayList<ClassInfo>();
+            for (Index index : indexes) {
+                final Collection<ClassInfo> list = index.getKnownClasses();
+                if (list != null) {
+                    allKnown.addAll(list);
+                }
             }
+            knownClasses = Collections.unmodifiableCollection(allKnown);
+            this.knownClasses = knownClasses;
         }
-        return Collections.unmodifiableCollection(allKnown);
+        return knownClasses;
     }
 
     public Collection<Index> getIndexes() {
@@ -27,6 +27,7 @@ import java.io.InputStream;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -34,6 +35,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.AttachmentList;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
@@ -68,7 +70,27 @@ import org.jboss.modules.filter.PathFilters;
  */
 public class CompositeIndexProcessor implements DeploymentUnitProcessor {
 
+    /** The modules whose shared index a deployment unit uses */
+    private static final AttachmentKey<AttachmentList<Module>> MODULE_INDEX_USERS = AttachmentKey.createList(Module.class);
+
+    /**
+     * Indexes of the modules deployments ask to have indexed, shared between the deployments using them at the same
+     * time as the content of a loaded module does not change. An index is dropped once no deployment uses it, so
+     * the indexes of static modules are not kept for the lifetime of the server. Guarded by itself.
+     */
+    private final Map<Module, ModuleIndex> moduleIndexes = new HashMap<>();
+
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        try {
+            attachCompositeIndex(phaseContext);
+        } catch (DeploymentUnitProcessingException | RuntimeException e) {
+            // undeploy is not called for a failed deploy
+            releaseModuleIndexes(phaseContext.getDeploymentUnit());
+            throw e;
+        }
+    }
+
+    private void attachCompositeIndex(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
         final ModuleLoader moduleLoader = deploymentUnit.getAttachment(Attachments.SERVICE_MODULE_LOADER);
 
@@ -126,13 +148,11 @@ public class CompositeIndexProcessor implements DeploymentUnitProcessor {
             } else {
                 try {
                     Module module = moduleLoader.loadModule(moduleIdentifier);
-                    final CompositeIndex additionalIndex = ModuleIndexBuilder.buildCompositeIndex(module);
-                    if (additionalIndex != null) {
-                        indexes.addAll(additionalIndex.indexes);
-                        additionalAnnotationIndexes.put(moduleIdentifier, additionalIndex);
-                    } else {
-                        final Index index = calculateModuleIndex(module);
-                        indexes.add(index);
+                    final ModuleIndex moduleIndex = acquireModuleIndex(module);
+                    deploymentUnit.addToAttachmentList(MODULE_INDEX_USERS, module);
+                    indexes.addAll(moduleIndex.index.indexes);
+                    if (!moduleIndex.calculated) {
+                        additionalAnnotationIndexes.put(moduleIdentifier, moduleIndex.index);
                     }
                 } catch (ModuleLoadException e) {
                     throw new DeploymentUnitProcessingException(e);
@@ -218,6 +238,48 @@ public class CompositeIndexProcessor implements DeploymentUnitProcessor {
         return additionalRoots;
     }
 
+    private ModuleIndex acquireModuleIndex(final Module module) throws ModuleLoadException, IOException {
+        synchronized (moduleIndexes) {
+            final ModuleIndex moduleIndex = moduleIndexes.get(module);
+            if (moduleIndex != null) {
+                moduleIndex.users++;
+                return moduleIndex;
+            }
+        }
+        // Read or scan the module without holding the lock, so other deployments are not held up
+        final ModuleIndex built;
+        final CompositeIndex additionalIndex = ModuleIndexBuilder.buildCompositeIndex(module);
+        if (additionalIndex != null) {
+            built = new ModuleIndex(additionalIndex, false);
+        } else {
+            built = new ModuleIndex(new CompositeIndex(Collections.singletonList(calculateModuleIndex(module))), true);
+        }
+        synchronized (moduleIndexes) {
+            ModuleIndex moduleIndex = moduleIndexes.get(module);
+            if (moduleIndex == null) {
+                moduleIndex = built;
+                moduleIndexes.put(module, moduleIndex);
+            }
+            moduleIndex.users++;
+            return moduleIndex;
+        }
+    }
+
+    private void releaseModuleIndexes(final DeploymentUnit deploymentUnit) {
+        final List<Module> modules = deploymentUnit.removeAttachment(MODULE_INDEX_USERS);
+        if (modules == null) {
+            return;
+        }
+        synchronized (moduleIndexes) {
+            for (Module module : modules) {
+                final ModuleIndex moduleIndex = moduleIndexes.get(module);
+                if (moduleIndex != null && --moduleIndex.users == 0) {
+                    moduleIndexes.remove(module);
+                }
+            }
+        }
+    }
+
     private Index calculateModuleIndex(final Module module) throws ModuleLoadException, IOException {
         final Indexer indexer = new Indexer();
         final PathFilter filter = PathFilters.getDefaultImportFilter();
@@ -237,5 +299,21 @@ public class CompositeIndexProcessor implements DeploymentUnitProcessor {
 
     public void undeploy(DeploymentUnit deploymentUnit) {
         deploymentUnit.removeAttachment(Attachments.COMPOSITE_ANNOTATION_INDEX);
+        releaseModuleIndexes(deploymentUnit);
+    }
+
+    private static final class ModuleIndex {
+        private final CompositeIndex index;
+        /**
+         * Whether the index was calculated by scanning the module, rather than read from its prebuilt indexes
+         */
+        private final boolean calculated;
+        /** The number of deployment units using the index. Guarded by the map of module indexes */
+        private int users;
+
+        private ModuleIndex(final CompositeIndex index, final boolean calculated) {
+            this.index = index;
+            this.calculated = calculated;
+        }
     }
 }
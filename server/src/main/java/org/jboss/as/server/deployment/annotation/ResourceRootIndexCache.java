@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.DeploymentUtils;
+import org.jboss.jandex.Index;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Retains the annotation indexes of a deployment's resource roots across redeployments, so that a redeploy or
+ * full replace of a deployment only needs to re-index the resource roots whose class content actually changed.
+ * <p/>
+ * Each cached index is keyed by the path of its resource root and is only reused if the content hash of the
+ * classes that would be indexed matches the hash recorded when the index was built. Everything downstream of
+ * {@link Attachments#ANNOTATION_INDEX}, including the {@link CompositeIndex}, is then rebuilt from the reused
+ * indexes at negligible cost.
+ * <p/>
+ * Retaining the indexes costs memory for as long as the deployment exists, so this is disabled unless the
+ * {@value #INCREMENTAL_REDEPLOY_PROPERTY} system property is set to {@code true}.
+ */
+public final class ResourceRootIndexCache {
+
+    public static final String INCREMENTAL_REDEPLOY_PROPERTY = "org.jboss.as.server.deployment.incremental-redeploy";
+
+    private static final boolean ENABLED = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(INCREMENTAL_REDEPLOY_PROPERTY, "false"));
+
+    private static final Map<String, ResourceRootIndexCache> CACHES = new ConcurrentHashMap<>();
+
+    private final Map<String, CachedIndex> indexes = new ConcurrentHashMap<>();
+    private final Set<String> used = ConcurrentHashMap.newKeySet();
+
+    ResourceRootIndexCache() {
+    }
+
+    /**
+     * Gets the cache associated with the top level deployment of the given unit.
+     *
+     * @param deploymentUnit the deployment unit. Cannot be {@code null}
+     * @return the cache, or {@code null} if incremental redeployment is disabled
+     */
+    static ResourceRootIndexCache forDeployment(final DeploymentUnit deploymentUnit) {
+        if (!ENABLED) {
+            return null;
+        }
+        final String managementName = DeploymentUtils.getTopDeploymentUnit(deploymentUnit).getAttachment(Attachments.MANAGEMENT_NAME);
+        if (managementName == null) {
+            return null;
+        }
+        return CACHES.computeIfAbsent(managementName, name -> new ResourceRootIndexCache());
+    }
+
+    /**
+     * Discards all indexes retained for a deployment. Must be called once the deployment has been removed.
+     *
+     * @param managementName the management name of the deployment
+     */
+    public static void invalidate(final String managementName) {
+        CACHES.remove(managementName);
+    }
+
+    /**
+     * Gets the index previously built for the given resource root path, if the content it was built from
+     * is unchanged.
+     *
+     * @param rootPath the path of the resource root
+     * @param contentHash the hash of the content that would be indexed
+     * @return the index, or {@code null} if none was cached or the content changed
+     */
+    Index getIndex(final String rootPath, final byte[] contentHash) {
+        used.add(rootPath);
+        final CachedIndex cached = indexes.get(rootPath);
+        return cached != null && Arrays.equals(cached.contentHash, contentHash) ? cached.index : null;
+    }
+
+    void putIndex(final String rootPath, final byte[] contentHash, final Index index) {
+        used.add(rootPath);
+        indexes.put(rootPath, new CachedIndex(contentHash, index));
+    }
+
+    /**
+     * Drops any indexes for resource roots that were not looked up since the last call, i.e. roots that are no
+     * longer part of the deployment.
+     */
+    void retainUsed() {
+        indexes.keySet().retainAll(used);
+        used.clear();
+    }
+
+    private static final class CachedIndex {
+        private final byte[] contentHash;
+        private final Index index;
+
+        private CachedIndex(final byte[] contentHash, final Index index) {
+            this.contentHash = contentHash;
+            this.index = index;
+        }
+    }
+}
@@ -22,7 +22,13 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -50,6 +56,15 @@ public class ResourceRootIndexer {
      * Creates and attaches the annotation index to a resource root, if it has not already been attached
      */
     public static void indexResourceRoot(final ResourceRoot resourceRoot) throws DeploymentUnitProcessingException {
+        indexResourceRoot(resourceRoot, null);
+    }
+
+    /**
+     * Creates and attaches the annotation index to a resource root, if it has not already been attached. If a cache
+     * is provided and it holds an index built from identical class content, that index is attached instead of
+     * re-indexing the resource root.
+     */
+    static void indexResourceRoot(final ResourceRoot resourceRoot, final ResourceRootIndexCache cache) throws DeploymentUnitProcessingException {
         if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
             return;
         }
@@ -92,6 +107,18 @@ public class ResourceRootIndexer {
             });
 
             final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
+            final byte[] contentHash;
+            if (cache != null) {
+                contentHash = hashClasses(virtualFile, classChildren);
+                final Index cached = cache.getIndex(virtualFile.getPathName(), contentHash);
+                if (cached != null) {
+                    resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, cached);
+                    ServerLogger.DEPLOYMENT_LOGGER.tracef("Reusing unchanged index for archive %s", virtualFile);
+                    return;
+                }
+            } else {
+                contentHash = null;
+            }
             for (VirtualFile classFile : classChildren) {
                 InputStream inputStream = null;
                 try {
@@ -105,9 +132,33 @@ public class ResourceRootIndexer {
             }
             final Index index = indexer.complete();
             resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
+            if (cache != null) {
+                cache.putIndex(virtualFile.getPathName(), contentHash, index);
+            }
             ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", virtualFile);
         } catch (Throwable t) {
             throw ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(t);
         }
     }
+
+    /**
+     * Computes a hash over the names and content of the given class files, visited in a stable order. Reading the
+     * class bytes is much cheaper than indexing them, so this is what allows an unchanged root to skip indexing.
+     */
+    private static byte[] hashClasses(final VirtualFile root, final List<VirtualFile> classFiles) throws IOException, NoSuchAlgorithmException {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        final byte[] buffer = new byte[8192];
+        final List<VirtualFile> sorted = new ArrayList<>(classFiles);
+        sorted.sort(Comparator.comparing(VirtualFile::getPathName));
+        for (VirtualFile classFile : sorted) {
+            digest.update(classFile.getPathNameRelativeTo(root).getBytes(StandardCharsets.UTF_8));
+            try (InputStream inputStream = classFile.openStream()) {
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        return digest.digest();
+    }
 }
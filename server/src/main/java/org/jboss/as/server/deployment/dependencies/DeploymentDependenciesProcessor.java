@@ -28,6 +28,7 @@ import org.jboss.as.server.DeployerChainAddHandler;
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.ServerService;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.BootDeploymentScheduler;
 import org.jboss.as.server.deployment.DeploymentCompleteServiceProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -75,6 +76,10 @@ public class DeploymentDependenciesProcessor implements DeploymentUnitProcessor
     private void processDependencies(final DeploymentPhaseContext phaseContext, final DeploymentUnit deploymentUnit) {
         final DeploymentDependencies deps = deploymentUnit.getAttachment(DeploymentDependencies.ATTACHMENT_KEY);
         if (!deps.getDependencies().isEmpty()) {
+            final BootDeploymentScheduler scheduler = deploymentUnit.getAttachment(BootDeploymentScheduler.ATTACHMENT_KEY);
+            if (scheduler != null) {
+                scheduler.addDependencies(deploymentUnit.getName(), deps.getDependencies());
+            }
             for (final String deployment : deps.getDependencies()) {
                 final ServiceName name =  DeploymentCompleteServiceProcessor.serviceName(Services.deploymentUnitName(deployment));
                 phaseContext.addToAttachmentList(Attachments.NEXT_PHASE_DEPS, name);
@@ -1342,6 +1342,18 @@ public interface ServerLogger extends BasicLogger {
     @Message(id = 276, value = "There is an error in opening zip file %s")
     StartException errorOpeningZipFile(String filename, @Cause Throwable throwable);
 
+    @LogMessage(level = WARN)
+    @Message(id = 277, value = "Content %s received from the host controller did not match its hash; fetching it again")
+    void retryingCorruptedContentTransfer(String hash);
+
+    @LogMessage(level = WARN)
+    @Message(id = 278, value = "Invalid value '%s' for system property '%s' -- value must be a positive integer; using %d")
+    void invalidSystemPropertyPositiveInteger(String val, String property, int defaultValue);
+
+    @LogMessage(level = WARN)
+    @Message(id = 279, value = "Invalid value '%s' for system property '%s' -- value must be an integer; using %d")
+    void invalidSystemPropertyInteger(String val, String property, int defaultValue);
+
     ////////////////////////////////////////////////
     //Messages without IDs
 
@@ -47,4 +47,5 @@ public interface DomainServerProtocol {
     byte PARAM_FILE_SIZE = 0x31;
     byte FILE_END = 0x32;
     byte PARAM_ROOT_ID = 0x33;
+    byte PARAM_TRANSFER_OPTIONS = 0x34;
 }
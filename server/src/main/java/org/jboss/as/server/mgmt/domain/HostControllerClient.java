@@ -37,6 +37,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 
 import org.jboss.as.controller.AbstractControllerService;
+import org.jboss.as.controller.HashUtil;
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.access.InVmAccess;
 import org.jboss.as.controller.client.OperationAttachments;
@@ -190,15 +191,21 @@ public class HostControllerClient implements AbstractControllerService.Controlle
         @Override
         protected void sendRequest(ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
             //The root id does not matter here
-            ServerToHostRemoteFileRequestAndHandler.INSTANCE.sendRequest(output, (byte)0, hash);
+            // Content is addressed by its hash, so a partial earlier transfer can be resumed
+            ServerToHostRemoteFileRequestAndHandler.INSTANCE.sendRequest(output, (byte)0, hash, getLocalPath(), false);
+        }
+
+        private File getLocalPath() {
+            File first = new File(localDeploymentFolder, hash.substring(0,2));
+            return new File(first, hash.substring(2));
         }
 
         @Override
         public void handleRequest(DataInput input, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context) throws IOException {
             try {
-                File first = new File(localDeploymentFolder, hash.substring(0,2));
-                File localPath = new File(first, hash.substring(2));
-                ServerToHostRemoteFileRequestAndHandler.INSTANCE.handleResponse(input, localPath, ServerLogger.ROOT_LOGGER, resultHandler, context);
+                File localPath = getLocalPath();
+                ServerToHostRemoteFileRequestAndHandler.INSTANCE.handleResponse(input, localPath, HashUtil.hexStringToByteArray(hash),
+                        ServerLogger.ROOT_LOGGER, resultHandler, context);
                 resultHandler.done(null);
             } catch (RemoteFileRequestAndHandler.CannotCreateLocalDirectoryException e) {
                 resultHandler.failed(ServerLogger.ROOT_LOGGER.cannotCreateLocalDirectory(e.getDir()));
@@ -38,6 +38,7 @@ import org.jboss.as.repository.DeploymentFileRepository;
 import org.jboss.as.repository.ExplodedContent;
 import org.jboss.as.repository.ExplodedContentException;
 import org.jboss.as.repository.LocalDeploymentFileRepository;
+import org.jboss.as.repository.RemoteFileRequestAndHandler;
 import org.jboss.as.repository.TypedInputStream;
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.msc.service.Service;
@@ -135,7 +136,16 @@ public class RemoteFileRepositoryService implements CompositeContentRepository,
     public File getDeploymentRoot(ContentReference reference) {
         final File file = localRepository.getDeploymentRoot(reference);
         if (!file.exists()) {
-            return getFile(reference, DomainServerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
+            try {
+                return getFile(reference, DomainServerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
+            } catch (RuntimeException e) {
+                if (!RemoteFileRequestAndHandler.isCorruptedContent(e)) {
+                    throw e;
+                }
+                // The corrupted content was discarded, so this starts over rather than resuming
+                ServerLogger.ROOT_LOGGER.retryingCorruptedContentTransfer(reference.getHexHash());
+                return getFile(reference, DomainServerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
+            }
         }
         return file;
     }
@@ -53,6 +53,10 @@ public class ServerToHostRemoteFileRequestAndHandler extends RemoteFileRequestAn
         public byte fileEnd() {
             return DomainServerProtocol.FILE_END;
         }
+
+        public byte paramTransferOptions() {
+            return DomainServerProtocol.PARAM_TRANSFER_OPTIONS;
+        }
     };
 
     public static final ServerToHostRemoteFileRequestAndHandler INSTANCE = new ServerToHostRemoteFileRequestAndHandler(MAPPER);
@@ -23,6 +23,7 @@ import java.util.Map;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ExpressionResolutionCache;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.registry.Resource;
@@ -80,6 +81,7 @@ public class VaultAddHandler extends AbstractAddStepHandler {
             }
 
             vaultReader.createVault(vaultClass, module, vaultOptions);
+            ExpressionResolutionCache.invalidate();
 
             // WFLY-1904 if any system properties were not resolved due to needing vault resolution,
             // resolve them now
@@ -94,6 +96,7 @@ public class VaultAddHandler extends AbstractAddStepHandler {
     protected void rollbackRuntime(OperationContext context, ModelNode operation, Resource resource) {
         if (vaultReader != null) {
             vaultReader.destroyVault();
+            ExpressionResolutionCache.invalidate();
         }
     }
 }
@@ -19,6 +19,7 @@
 package org.jboss.as.server.services.security;
 
 import org.jboss.as.controller.AbstractRemoveStepHandler;
+import org.jboss.as.controller.ExpressionResolutionCache;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.dmr.ModelNode;
@@ -49,6 +50,7 @@ public class VaultRemoveHandler extends AbstractRemoveStepHandler {
     protected void performRuntime(OperationContext context, ModelNode operation, ModelNode model) throws OperationFailedException {
         if (vaultReader != null) {
             vaultReader.destroyVault();
+            ExpressionResolutionCache.invalidate();
         }
     }
 
@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link BootDeploymentScheduler}.
+ */
+public class BootDeploymentSchedulerTestCase {
+
+    private final Queue<Runnable> queue = new ArrayDeque<>();
+    private final Executor executor = queue::add;
+    private final List<String> executed = new ArrayList<>();
+
+    @Test
+    public void testPhasesCompleteAsynchronously() {
+        final BootDeploymentScheduler scheduler = new BootDeploymentScheduler(1);
+        scheduler.addDependencies("c.war", Collections.singleton("b.jar"));
+        scheduler.schedule("x.war", executor, phase("x.war"));
+        scheduler.schedule("a.war", executor, phase("a.war"));
+        scheduler.schedule("b.jar", executor, phase("b.jar"));
+
+        // Only one phase is admitted at a time, and nothing runs until the executor does
+        assertEquals(1, queue.size());
+        assertTrue(executed.isEmpty());
+
+        runNext();
+        assertEquals(Collections.singletonList("x.war"), executed);
+        // b.jar heads a chain of dependents, so it overtakes a.war
+        runNext();
+        runNext();
+        assertEquals(3, executed.size());
+        assertEquals("b.jar", executed.get(1));
+        assertEquals("a.war", executed.get(2));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testFailedPhaseReleasesSlot() {
+        final BootDeploymentScheduler scheduler = new BootDeploymentScheduler(1);
+        scheduler.register("a.war");
+        scheduler.register("b.war");
+        scheduler.schedule("a.war", executor, () -> {
+            throw new IllegalStateException("phase failure");
+        });
+        scheduler.schedule("b.war", executor, phase("b.war"));
+        assertEquals(1, queue.size());
+
+        try {
+            runNext();
+            fail("The phase failure should propagate");
+        } catch (IllegalStateException expected) {
+            // the failure is reported to the phase's start context by the phase itself
+        }
+        scheduler.finished("a.war");
+
+        // The failed phase must not leave its slot taken
+        assertEquals(1, queue.size());
+        runNext();
+        assertEquals(Collections.singletonList("b.war"), executed);
+    }
+
+    @Test
+    public void testStateClearedAfterBoot() {
+        final BootDeploymentScheduler scheduler = new BootDeploymentScheduler(2);
+        scheduler.register("a.war");
+        scheduler.register("b.war");
+        scheduler.addDependencies("a.war", Collections.singleton("b.war"));
+        scheduler.recordPhase("a.war", Phase.STRUCTURE, 1000L, false);
+        scheduler.recordPhase("b.war", Phase.STRUCTURE, 1000L, false);
+
+        scheduler.recordPhase("a.war", Phase.INSTALL, 1000L, true);
+        assertFalse(scheduler.isIdle());
+
+        // b.war fails rather than completing its last phase
+        scheduler.finished("b.war");
+        assertTrue(scheduler.isIdle());
+    }
+
+    @Test
+    public void testParallelism() {
+        // Scheduling is opt-in, and an invalid value falls back to the default rather than failing the boot
+        assertEquals(0, BootDeploymentScheduler.getParallelism(null));
+        assertEquals(4, BootDeploymentScheduler.getParallelism(" 4"));
+        assertEquals(0, BootDeploymentScheduler.getParallelism("four"));
+    }
+
+    private Runnable phase(final String deployment) {
+        return () -> executed.add(deployment);
+    }
+
+    private void runNext() {
+        final Runnable task = queue.poll();
+        assertTrue(task != null);
+        task.run();
+    }
+}
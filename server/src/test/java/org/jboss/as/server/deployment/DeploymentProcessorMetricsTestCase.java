@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_ALLOCATED_BYTES;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_CLASS;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_CPU_TIME;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_DEPLOYMENT_UNIT;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_INVOCATIONS;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_PHASE;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_PRIORITY;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_SUBSYSTEM;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PROCESSOR_WALL_TIME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of {@link DeploymentProcessorMetrics}.
+ */
+public class DeploymentProcessorMetricsTestCase {
+
+    private final DeploymentUnit ear = deploymentUnit("app.ear");
+    private final DeploymentUnit war = deploymentUnit("web.war");
+    private final RegisteredDeploymentUnitProcessor parse = new RegisteredDeploymentUnitProcessor(10, new ParseProcessor(), "test");
+    private final RegisteredDeploymentUnitProcessor install = new RegisteredDeploymentUnitProcessor(20, new InstallProcessor(), null);
+
+    @Test
+    public void testEntryPerProcessorAndUnit() {
+        final DeploymentProcessorMetrics metrics = new DeploymentProcessorMetrics();
+        record(metrics, ear, Phase.PARSE, parse);
+        record(metrics, war, Phase.PARSE, parse);
+        record(metrics, ear, Phase.INSTALL, install);
+
+        final List<ModelNode> entries = metrics.toModelNode().asList();
+        assertEquals(3, entries.size());
+        assertEntry(entries.get(0), "app.ear", Phase.PARSE, parse, 1);
+        assertEntry(entries.get(1), "web.war", Phase.PARSE, parse, 1);
+        assertEntry(entries.get(2), "app.ear", Phase.INSTALL, install, 1);
+        assertEquals("test", entries.get(0).get(PROCESSOR_SUBSYSTEM.getName()).asString());
+        assertFalse(entries.get(2).hasDefined(PROCESSOR_SUBSYSTEM.getName()));
+    }
+
+    @Test
+    public void testRepeatedInvocationsAreAddedUp() {
+        final DeploymentProcessorMetrics metrics = new DeploymentProcessorMetrics();
+        record(metrics, ear, Phase.PARSE, parse);
+        final long firstWallTime = metrics.toModelNode().get(0).get(PROCESSOR_WALL_TIME.getName()).asLong();
+
+        // A phase restart runs the same processors again for the same unit
+        for (int i = 0; i < 99; i++) {
+            record(metrics, ear, Phase.PARSE, parse);
+            record(metrics, ear, Phase.INSTALL, install);
+        }
+
+        final List<ModelNode> entries = metrics.toModelNode().asList();
+        assertEquals(2, entries.size());
+        assertEntry(entries.get(0), "app.ear", Phase.PARSE, parse, 100);
+        assertEntry(entries.get(1), "app.ear", Phase.INSTALL, install, 99);
+        assertTrue(entries.get(0).get(PROCESSOR_WALL_TIME.getName()).asLong() >= firstWallTime);
+    }
+
+    private static void record(DeploymentProcessorMetrics metrics, DeploymentUnit deploymentUnit, Phase phase, RegisteredDeploymentUnitProcessor processor) {
+        final DeploymentProcessorMetrics.Sample sample = DeploymentProcessorMetrics.sample();
+        metrics.record(deploymentUnit, phase, processor, sample);
+    }
+
+    private static void assertEntry(ModelNode entry, String deploymentUnit, Phase phase, RegisteredDeploymentUnitProcessor processor, long invocations) {
+        assertEquals(deploymentUnit, entry.get(PROCESSOR_DEPLOYMENT_UNIT.getName()).asString());
+        assertEquals(phase.name(), entry.get(PROCESSOR_PHASE.getName()).asString());
+        assertEquals(processor.getPriority(), entry.get(PROCESSOR_PRIORITY.getName()).asInt());
+        assertEquals(processor.getProcessor().getClass().getName(), entry.get(PROCESSOR_CLASS.getName()).asString());
+        assertEquals(invocations, entry.get(PROCESSOR_INVOCATIONS.getName()).asLong());
+        assertTrue(entry.get(PROCESSOR_WALL_TIME.getName()).asLong() >= 0);
+        assertTrue(entry.get(PROCESSOR_CPU_TIME.getName()).asLong() >= -1);
+        assertTrue(entry.get(PROCESSOR_ALLOCATED_BYTES.getName()).asLong() >= -1);
+    }
+
+    private static DeploymentUnit deploymentUnit(String name) {
+        final DeploymentUnit deploymentUnit = mock(DeploymentUnit.class);
+        when(deploymentUnit.getName()).thenReturn(name);
+        return deploymentUnit;
+    }
+
+    private static class ParseProcessor implements DeploymentUnitProcessor {
+        @Override
+        public void deploy(DeploymentPhaseContext phaseContext) {
+        }
+
+        @Override
+        public void undeploy(DeploymentUnit context) {
+        }
+    }
+
+    private static class InstallProcessor extends ParseProcessor {
+    }
+}
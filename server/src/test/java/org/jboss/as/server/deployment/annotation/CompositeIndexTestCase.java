@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.Test;
+
+/**
+ * Tests the lookups of {@link CompositeIndex} across several underlying indexes.
+ */
+public class CompositeIndexTestCase {
+
+    interface Service {
+    }
+
+    interface ExtendedService extends Service {
+    }
+
+    static class BaseService implements Service {
+    }
+
+    static class SpecialService extends BaseService {
+    }
+
+    static class ExtendedServiceImpl implements ExtendedService {
+    }
+
+    @Test
+    public void testLookupsSpanIndexes() throws IOException {
+        final CompositeIndex index = new CompositeIndex(Arrays.asList(
+                index(Service.class, ExtendedService.class),
+                index(BaseService.class),
+                index(SpecialService.class, ExtendedServiceImpl.class)));
+
+        final Set<ClassInfo> subclasses = index.getAllKnownSubclasses(DotName.createSimple(BaseService.class.getName()));
+        assertEquals(1, subclasses.size());
+        assertEquals(DotName.createSimple(SpecialService.class.getName()), subclasses.iterator().next().name());
+
+        final Set<ClassInfo> implementors = index.getAllKnownImplementors(DotName.createSimple(Service.class.getName()));
+        assertEquals(3, implementors.size());
+    }
+
+    @Test
+    public void testResultsAreMemoized() throws IOException {
+        final CompositeIndex index = new CompositeIndex(Arrays.asList(index(BaseService.class), index(SpecialService.class)));
+        final DotName base = DotName.createSimple(BaseService.class.getName());
+
+        assertSame(index.getKnownDirectSubclasses(base), index.getKnownDirectSubclasses(base));
+
+        // the transitive results are cached, but each caller still gets a set of its own
+        final Set<ClassInfo> first = index.getAllKnownSubclasses(base);
+        first.clear();
+        assertEquals(1, index.getAllKnownSubclasses(base).size());
+        assertEquals(2, index.getAllKnownImplementors(DotName.createSimple(Service.class.getName())).size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSharedResultsAreUnmodifiable() throws IOException {
+        final CompositeIndex index = new CompositeIndex(Arrays.asList(index(BaseService.class), index(SpecialService.class)));
+        index.getKnownDirectSubclasses(DotName.createSimple(BaseService.class.getName())).clear();
+    }
+
+    private static Index index(Class<?>... classes) throws IOException {
+        final Indexer indexer = new Indexer();
+        for (Class<?> clazz : classes) {
+            try (InputStream stream = clazz.getResourceAsStream(clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1) + ".class")) {
+                indexer.index(stream);
+            }
+        }
+        return indexer.complete();
+    }
+}
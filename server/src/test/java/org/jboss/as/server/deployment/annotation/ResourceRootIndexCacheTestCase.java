@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.jboss.vfs.VFS;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the reuse of resource root indexes through {@link ResourceRootIndexCache}.
+ */
+public class ResourceRootIndexCacheTestCase {
+
+    static class First {
+    }
+
+    static class Second {
+    }
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testUnchangedRootIsReused() throws Exception {
+        final Path root = temporaryFolder.newFolder("root").toPath();
+        copyClass(First.class, root, "First.class");
+        final ResourceRootIndexCache cache = new ResourceRootIndexCache();
+
+        final Index index = index(root, cache);
+        assertNotNull(index.getClassByName(DotName.createSimple(First.class.getName())));
+        cache.retainUsed();
+
+        // A redeploy of identical content reuses the index instead of indexing again
+        assertSame(index, index(root, cache));
+    }
+
+    @Test
+    public void testChangedRootIsReindexed() throws Exception {
+        final Path root = temporaryFolder.newFolder("root").toPath();
+        copyClass(First.class, root, "First.class");
+        final ResourceRootIndexCache cache = new ResourceRootIndexCache();
+        final Index index = index(root, cache);
+        cache.retainUsed();
+
+        copyClass(Second.class, root, "Second.class");
+        final Index changed = index(root, cache);
+        assertNotSame(index, changed);
+        assertNotNull(changed.getClassByName(DotName.createSimple(Second.class.getName())));
+        cache.retainUsed();
+
+        // The new index replaced the old one
+        assertSame(changed, index(root, cache));
+    }
+
+    @Test
+    public void testRemovedRootIsDropped() throws Exception {
+        final Path root = temporaryFolder.newFolder("root").toPath();
+        copyClass(First.class, root, "First.class");
+        final ResourceRootIndexCache cache = new ResourceRootIndexCache();
+        final String rootPath = VFS.getChild(root.toUri()).getPathName();
+        index(root, cache);
+        cache.retainUsed();
+
+        // A deployment cycle which no longer looks the root up drops its index
+        cache.retainUsed();
+        assertNull(cache.getIndex(rootPath, new byte[0]));
+    }
+
+    @Test
+    public void testCorruptEntryIsIgnored() throws Exception {
+        final Path root = temporaryFolder.newFolder("root").toPath();
+        copyClass(First.class, root, "First.class");
+        final ResourceRootIndexCache cache = new ResourceRootIndexCache();
+        final String rootPath = VFS.getChild(root.toUri()).getPathName();
+        final Index bogus = new Indexer().complete();
+        cache.putIndex(rootPath, new byte[] {1, 2, 3}, bogus);
+
+        // The recorded hash does not match the content, so the root is indexed again and the entry replaced
+        final Index index = index(root, cache);
+        assertNotSame(bogus, index);
+        assertNotNull(index.getClassByName(DotName.createSimple(First.class.getName())));
+        cache.retainUsed();
+        assertSame(index, index(root, cache));
+    }
+
+    private static Index index(final Path root, final ResourceRootIndexCache cache) throws Exception {
+        final ResourceRoot resourceRoot = new ResourceRoot(VFS.getChild(root.toUri()), null);
+        ResourceRootIndexer.indexResourceRoot(resourceRoot, cache);
+        return resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX);
+    }
+
+    private static void copyClass(final Class<?> clazz, final Path root, final String fileName) throws IOException {
+        final String resource = clazz.getName().replace('.', '/') + ".class";
+        try (InputStream in = clazz.getClassLoader().getResourceAsStream(resource)) {
+            Files.copy(in, root.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -57,6 +57,7 @@ public interface CommonAttributes {
     String THREAD_NAME_PATTERN = "thread-name-pattern";
     String UNBOUNDED_QUEUE_THREAD_POOL = "unbounded-queue-thread-pool";
     String ENHANCED_QUEUE_THREAD_POOL = "enhanced-queue-thread-pool";
+    String VIRTUAL_THREAD_EXECUTOR = "virtual-thread-executor";
     String UNIT = "unit";
     String VALUE = "value";
 }
@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import org.jboss.as.controller.VirtualThreadExecutor;
+import org.jboss.threads.EventListener;
+import org.jboss.threads.SimpleShutdownListenable;
+
+/**
+ * A managed {@link VirtualThreadExecutor}.
+ */
+class ManagedVirtualThreadExecutor extends ManagedExecutorService {
+    private final VirtualThreadExecutor executor;
+    private final SimpleShutdownListenable shutdownListenable = new SimpleShutdownListenable();
+
+    ManagedVirtualThreadExecutor(VirtualThreadExecutor executor) {
+        super(executor);
+        this.executor = executor;
+    }
+
+    @Override
+    void internalShutdown() {
+        executor.shutdown();
+        // Notify the listeners once the running tasks have completed
+        executor.addTerminationTask(shutdownListenable::shutdown);
+    }
+
+    void setMaxThreads(int maxThreads) {
+        executor.setMaxConcurrency(Math.max(1, maxThreads));
+    }
+
+    int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    int getLargestThreadCount() {
+        return executor.getLargestActiveCount();
+    }
+
+    long getCompletedTaskCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    int getRejectedCount() {
+        return (int) executor.getRejectedTaskCount();
+    }
+
+    long getTaskCount() {
+        return executor.getSubmittedTaskCount();
+    }
+
+    int getQueueSize() {
+        return executor.getQueueSize();
+    }
+
+    boolean isVirtual() {
+        return executor.isVirtual();
+    }
+
+    <A> void addShutdownListener(final EventListener<A> shutdownListener, final A attachment) {
+        shutdownListenable.addShutdownListener(shutdownListener, attachment);
+    }
+}
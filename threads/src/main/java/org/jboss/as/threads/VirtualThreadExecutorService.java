@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2020, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+import org.jboss.as.controller.VirtualThreadExecutor;
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Service responsible for creating, starting and stopping a {@link VirtualThreadExecutor}.
+ */
+class VirtualThreadExecutorService implements Service<ManagedVirtualThreadExecutor> {
+    private final InjectedValue<ThreadFactory> threadFactoryValue = new InjectedValue<ThreadFactory>();
+    private final InjectedValue<Executor> handoffExecutorValue = new InjectedValue<Executor>();
+
+    private final String name;
+    private ManagedVirtualThreadExecutor executor;
+
+    private int maxThreads;
+
+    VirtualThreadExecutorService(String name, int maxThreads) {
+        this.name = name;
+        this.maxThreads = maxThreads;
+    }
+
+    public synchronized void start(final StartContext context) {
+        final VirtualThreadExecutor virtualThreadExecutor = new VirtualThreadExecutor(name, threadFactoryValue.getValue(),
+                Math.max(1, maxThreads), handoffExecutorValue.getOptionalValue());
+        if (!virtualThreadExecutor.isVirtual()) {
+            ThreadsLogger.ROOT_LOGGER.virtualThreadsUnavailable(name);
+        }
+        executor = new ManagedVirtualThreadExecutor(virtualThreadExecutor);
+    }
+
+    public void stop(final StopContext context) {
+        final ManagedVirtualThreadExecutor executor;
+        synchronized (this) {
+            executor = this.executor;
+            this.executor = null;
+        }
+        context.asynchronous();
+        executor.internalShutdown();
+        executor.addShutdownListener(StopContextEventListener.getInstance(), context);
+    }
+
+    public synchronized ManagedVirtualThreadExecutor getValue() throws IllegalStateException {
+        final ManagedVirtualThreadExecutor value = this.executor;
+        if (value == null) {
+            throw ThreadsLogger.ROOT_LOGGER.virtualThreadExecutorUninitialized();
+        }
+        return value;
+    }
+
+    Injector<ThreadFactory> getThreadFactoryInjector() {
+        return threadFactoryValue;
+    }
+
+    Injector<Executor> getHandoffExecutorInjector() {
+        return handoffExecutorValue;
+    }
+
+    synchronized void setMaxThreads(final int maxThreads) {
+        final ManagedVirtualThreadExecutor executor = this.executor;
+        if (executor != null) {
+            executor.setMaxThreads(maxThreads);
+        }
+        this.maxThreads = maxThreads;
+    }
+
+    int getActiveCount() {
+        return getValue().getActiveCount();
+    }
+
+    long getCompletedTaskCount() {
+        return getValue().getCompletedTaskCount();
+    }
+
+    int getLargestThreadCount() {
+        return getValue().getLargestThreadCount();
+    }
+
+    int getRejectedCount() {
+        return getValue().getRejectedCount();
+    }
+
+    long getTaskCount() {
+        return getValue().getTaskCount();
+    }
+
+    int getQueueSize() {
+        return getValue().getQueueSize();
+    }
+}